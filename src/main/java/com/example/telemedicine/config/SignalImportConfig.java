@@ -0,0 +1,21 @@
+package com.example.telemedicine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the historical signal import, loaded with the prefix "signal.import".
+ * The import runs at startup only when a directory is set.
+ **/
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "signal.import")
+public class SignalImportConfig {
+    private String dir; //** directory of recordings to import; null disables the import
+    private int chunkSize = 200; //** files processed and committed together
+    private int parallelism = 0; //** fork-join threads for parsing and DSP, 0 = one per CPU core
+    private boolean exitWhenDone = true; //** stop the application once the import has finished
+}
@@ -0,0 +1,37 @@
+package com.example.telemedicine.config;
+
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.signal.pipeline.SignalPipeline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processing pipelines per signal type, read from the {@code signal.pipeline} properties.
+ * The defaults reproduce the chains the server has always used; European deployments change
+ * the notch to {@code notch(50,30)}. A definition that does not parse stops the application
+ * at startup rather than at the first upload. Stage fusion is on by default; turning it off runs
+ * every stage as its own pass, which matches separate passes exactly, including the edge transients.
+ */
+@Component
+public class SignalPipelines {
+    public static final String DEFAULT_ECG = "mv(3.3,10,1100) | bandpass(5,15,4) | notch(60,30) | qrs";
+    public static final String DEFAULT_EMG = "mv(3.0,10,1000) | bandpass(50,300,4) | notch(60,30) | contractions(0.165,0.10)";
+
+    private final SignalPipeline ecg;
+    private final SignalPipeline emg;
+
+    public SignalPipelines(@Value("${signal.pipeline.ecg:" + DEFAULT_ECG + "}") String ecg,
+                           @Value("${signal.pipeline.emg:" + DEFAULT_EMG + "}") String emg,
+                           @Value("${signal.pipeline.fuse:true}") boolean fuse) {
+        this.ecg = SignalPipeline.parse(ecg, fuse);
+        this.emg = SignalPipeline.parse(emg, fuse);
+    }
+
+    /**
+     * @param type ECG or EMG.
+     * @return The pipeline configured for the type.
+     */
+    public SignalPipeline forType(SignalType type) {
+        return type == SignalType.EMG ? emg : ecg;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.telemedicine.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fork-join pool shared by the signal processing of uploads: the channels of a multi-channel
+ * recording and the files of a batch run on it in parallel. The pool is shut down with the
+ * application context.
+ */
+@Configuration
+public class SignalPoolConfig {
+
+    /**
+     * @param parallelism Number of worker threads, 0 for one per CPU core.
+     * @return The pool for signal processing.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool signalPool(@Value("${signal.channel-parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.telemedicine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thresholds of the quality gate that uploaded recordings pass before processing, loaded
+ * with the prefix "signal.quality". The defaults only reject recordings that cannot be
+ * analysed at all.
+ **/
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "signal.quality")
+public class SignalQualityConfig {
+    private boolean enabled = true;
+    private int adcMax = 1023;
+    private double maxSaturationRatio = 0.05;
+    private double flatlineMinSec = 1.0;
+    private double maxFlatlineRatio = 0.5;
+    private int maxInvalidSamples = 0;
+    private double minDurationSec = 0;
+    private double durationTolerance = 0.02;
+}
@@ -1,6 +1,8 @@
 package com.example.telemedicine.controller;
 
 import com.example.telemedicine.config.OperatorConfig;
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.domain.SignalType;
 import com.example.telemedicine.service.AdminService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +12,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -20,6 +23,7 @@ import java.util.Map;
 public class AdminController {
     private final AdminService adminService;
     private final OperatorConfig operatorConfig;
+    private final SignalPipelines pipelines;
 
 
     /**
@@ -27,10 +31,12 @@ public class AdminController {
      *
      * @param adminService   the service responsible for server administration actions
      * @param operatorConfig the configuration object containing operator credentials
+     * @param pipelines      the processing pipelines per signal type
      */
-    public AdminController(AdminService adminService, OperatorConfig operatorConfig) {
+    public AdminController(AdminService adminService, OperatorConfig operatorConfig, SignalPipelines pipelines) {
         this.adminService = adminService;
         this.operatorConfig = operatorConfig;
+        this.pipelines = pipelines;
     }
 
     /**
@@ -106,4 +112,21 @@ public class AdminController {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the processing pipeline of each signal type with the time spent in every step
+     * since startup.
+     *
+     * @return a ResponseEntity containing a map from signal type to definition and step timings
+     */
+    @GetMapping("/pipelines")
+    public ResponseEntity<?> getPipelines() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (SignalType type : SignalType.values()) {
+            result.put(type.name(), Map.of(
+                    "definition", pipelines.forType(type).getDefinition(),
+                    "timings", pipelines.forType(type).getTimings()));
+        }
+        return ResponseEntity.ok(result);
+    }
+}
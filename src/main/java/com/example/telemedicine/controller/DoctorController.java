@@ -4,12 +4,18 @@ import com.example.telemedicine.domain.*;
 
 import com.example.telemedicine.repository.DoctorRepository;
 import com.example.telemedicine.security.JwtService;
+import com.example.telemedicine.service.LiveSessionBroadcaster;
 import com.example.telemedicine.service.PatientService;
+import com.example.telemedicine.service.ReportDownloadService;
+import com.example.telemedicine.service.ReportJobService;
 import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,12 +30,20 @@ public class DoctorController {
     private final PatientService patientService;
     private final JwtService jwtService;
     private final DoctorRepository doctorRepository;
+    private final ReportJobService reportJobService;
+    private final ReportDownloadService reportDownloadService;
+    private final LiveSessionBroadcaster liveSessionBroadcaster;
 
-    public DoctorController(DoctorService doctorService, PatientService patientService, JwtService jwtService, DoctorRepository doctorRepository) {
+    public DoctorController(DoctorService doctorService, PatientService patientService, JwtService jwtService,
+                            DoctorRepository doctorRepository, ReportJobService reportJobService,
+                            ReportDownloadService reportDownloadService, LiveSessionBroadcaster liveSessionBroadcaster) {
         this.doctorService = doctorService;
         this.patientService = patientService;
         this.jwtService = jwtService;
         this.doctorRepository = doctorRepository;
+        this.reportJobService = reportJobService;
+        this.reportDownloadService = reportDownloadService;
+        this.liveSessionBroadcaster = liveSessionBroadcaster;
     }
 
     /**
@@ -144,6 +158,30 @@ public class DoctorController {
         return patientService.getSessionsByPatient(patientId);
     }
 
+    /**
+     * Retrieves the heart rate and HRV features of every ECG signal of a patient, oldest first,
+     * without loading any samples
+     *
+     * @param patientId the patient's ID
+     * @return list of ECG features
+     */
+    @GetMapping("/patients/{patientId}/ecg-features")
+    public List<EcgFeatures> getPatientEcgFeatures(@PathVariable Long patientId) {
+        return patientService.getEcgFeaturesByPatient(patientId);
+    }
+
+    /**
+     * Retrieves the features of every contraction in the EMG signals of a patient, oldest first,
+     * to follow fatigue trends without loading any samples
+     *
+     * @param patientId the patient's ID
+     * @return list of contraction features
+     */
+    @GetMapping("/patients/{patientId}/emg-features")
+    public List<ContractionFeatures> getPatientEmgFeatures(@PathVariable Long patientId) {
+        return patientService.getEmgFeaturesByPatient(patientId);
+    }
+
     private Claims extractDoctorClaims(String authHeader) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header");
@@ -211,36 +249,126 @@ public class DoctorController {
             @PathVariable Long sessionId,
             @RequestParam(required = false) String doctorsComments,
             @RequestHeader("Authorization") String authHeader) {
+        requireTokenDoctor(authHeader, doctorId, "You cannot generate reports for other doctors");
+
+        return doctorService.generateReport(doctorId, sessionId, doctorsComments);
+    }
+
+    /**
+     * Queues the generation of one report per session. Reports are built in
+     * parallel in the background and stored like single reports.
+     *
+     * @param doctorId ID of the doctor
+     * @param request  sessions to report on and an optional shared comment
+     * @return 202 with the created job, or 400 if no sessions were given
+     */
+    @PostMapping("/{doctorId}/reports/jobs")
+    public ResponseEntity<ReportJob> submitReportJob(
+            @PathVariable Long doctorId,
+            @RequestBody ReportJobRequest request,
+            @RequestHeader("Authorization") String authHeader) {
+        requireTokenDoctor(authHeader, doctorId);
+
+        try {
+            ReportJob job = reportJobService.submit(doctorId, request.getSessionIds(), request.getDoctorsComments());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", "/api/doctors/" + doctorId + "/reports/jobs/" + job.getJobId())
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the status and progress of a bulk report job
+     *
+     * @param doctorId ID of the doctor
+     * @param jobId    ID of the job
+     * @return the job, or 404 if it does not exist for this doctor
+     */
+    @GetMapping("/{doctorId}/reports/jobs/{jobId}")
+    public ResponseEntity<ReportJob> getReportJob(
+            @PathVariable Long doctorId,
+            @PathVariable String jobId,
+            @RequestHeader("Authorization") String authHeader) {
+        requireTokenDoctor(authHeader, doctorId);
+
+        ReportJob job = reportJobService.getJob(jobId, doctorId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Streams the live frames of a session that is being recorded from the acquisition device,
+     * as Server-Sent Events named {@code frame}, followed by an {@code end} event when the
+     * recording finishes. Reconnecting clients resume after their Last-Event-ID.
+     *
+     * @param doctorId    ID of the doctor
+     * @param sessionId   ID of the session
+     * @param lastEventId sequence of the last frame received, sent by EventSource on reconnection
+     * @return the event stream, or 404 if the session is not being recorded or its patient is not
+     * assigned to the doctor
+     */
+    @GetMapping(value = "/{doctorId}/sessions/{sessionId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> monitorSession(
+            @PathVariable Long doctorId,
+            @PathVariable Long sessionId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestHeader("Authorization") String authHeader) {
+        requireTokenDoctor(authHeader, doctorId);
+        if (!doctorRepository.isSessionOfDoctorPatient(sessionId, doctorId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = liveSessionBroadcaster.subscribe(sessionId, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void requireTokenDoctor(String authHeader, Long doctorId) {
+        requireTokenDoctor(authHeader, doctorId, "You cannot access the data of other doctors");
+    }
+
+    private void requireTokenDoctor(String authHeader, Long doctorId, String message) {
         Claims claims = jwtService.extractClaims(authHeader.replace("Bearer ", ""));
         Long tokenDoctorId = claims.get("doctorId", Long.class);
 
         if (!doctorId.equals(tokenDoctorId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot generate reports for other doctors");
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, message);
         }
-
-        return doctorService.generateReport(doctorId, sessionId, doctorsComments);
     }
 
+    /**
+     * Downloads a report generated by the currently authenticated doctor.
+     * Supports conditional requests (If-None-Match / If-Modified-Since) and single byte ranges.
+     *
+     * @param authHeader     Authorization header with Bearer token
+     * @param reportId       ID of the report
+     * @param requestHeaders headers of the request, used for conditional and range handling
+     * @return the streamed PDF, 304 if unchanged, or 403 if the report is not owned by the doctor
+     */
     @GetMapping("/reports/{reportId}")
-    public ResponseEntity<byte[]> getReport(
+    public ResponseEntity<StreamingResponseBody> getReport(
             @RequestHeader("Authorization") String authHeader,
-            @PathVariable Long reportId) {
+            @PathVariable Long reportId,
+            @RequestHeader HttpHeaders requestHeaders) {
 
         try {
             String token = authHeader.replace("Bearer ", "").trim();
             Claims claims = jwtService.extractClaims(token);
             Long doctorId = claims.get("doctorId", Long.class);
 
-            Report report = doctorService.getReport(reportId, doctorId);
+            Report report = reportDownloadService.findReportHeader(reportId);
 
-            if (report == null) {
+            if (report == null || !report.getDoctorId().equals(doctorId)) {
                 return ResponseEntity.status(403).build();
             }
 
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"" + report.getFileName() + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(report.getFileData());
+            return reportDownloadService.download(report, report.getFileName(), MediaType.APPLICATION_PDF, requestHeaders);
 
         } catch (Exception e) {
             e.printStackTrace();
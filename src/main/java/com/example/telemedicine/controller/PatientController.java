@@ -1,10 +1,20 @@
 package com.example.telemedicine.controller;
 
 import com.example.telemedicine.domain.*;
+import com.example.telemedicine.exceptions.SignalQualityException;
+import com.example.telemedicine.exceptions.UploadOffsetMismatchException;
 import com.example.telemedicine.repository.PatientRepository;
 import com.example.telemedicine.security.JwtService;
+import com.example.telemedicine.service.DeviceIngestService;
 import com.example.telemedicine.service.DoctorService;
 import com.example.telemedicine.service.PatientService;
+import com.example.telemedicine.service.ReportDownloadService;
+import com.example.telemedicine.service.SignalChartService;
+import com.example.telemedicine.service.SignalUploadService;
+import com.example.telemedicine.service.SignalViewService;
+import com.example.telemedicine.signal.ChartFormat;
+import com.example.telemedicine.signal.DecimationMode;
+import com.example.telemedicine.signal.SignalCodec;
 import io.jsonwebtoken.Claims;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -15,10 +25,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @RestController
@@ -28,13 +41,25 @@ public class PatientController {
     private final DoctorService doctorService;
     private final JwtService jwtService;
     private final PatientRepository patientRepository;
+    private final ReportDownloadService reportDownloadService;
+    private final SignalViewService signalViewService;
+    private final DeviceIngestService deviceIngestService;
+    private final SignalUploadService signalUploadService;
+    private final SignalChartService signalChartService;
 
     public PatientController(PatientService patientService, DoctorService doctorService, JwtService jwtService,
-                             PatientRepository patientRepository) {
+                             PatientRepository patientRepository, ReportDownloadService reportDownloadService,
+                             SignalViewService signalViewService, DeviceIngestService deviceIngestService,
+                             SignalUploadService signalUploadService, SignalChartService signalChartService) {
         this.patientService = patientService;
         this.doctorService = doctorService;
         this.jwtService = jwtService;
         this.patientRepository = patientRepository;
+        this.reportDownloadService = reportDownloadService;
+        this.signalViewService = signalViewService;
+        this.deviceIngestService = deviceIngestService;
+        this.signalUploadService = signalUploadService;
+        this.signalChartService = signalChartService;
     }
 
     /**
@@ -121,6 +146,41 @@ public class PatientController {
         return patientService.startNewSession(patientId);
     }
 
+    /**
+     * Uploads a backlog of sessions recorded offline in one request. The {@code manifest} part is a
+     * JSON array of sessions, each with its symptoms, optional recording time and signals; every
+     * signal names the multipart part holding its file. Each session is stored in its own transaction
+     * and its summary generated once. A client that may retry the request sends an
+     * {@code Idempotency-Key} header; sessions already stored under that key are returned, not stored again.
+     *
+     * @param authHeader     the Authorization header containing the Bearer token
+     * @param idempotencyKey key identifying the batch across retries, optional
+     * @param manifest       sessions to create
+     * @param files          signal files by part name
+     * @return one result per session, with the status of each file and the error of any session that
+     * was rejected, or 400 if the manifest is invalid
+     * @throws IOException if reading an uploaded file fails
+     */
+    @PostMapping(value = "/sessions/batch/me", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadBatch(@RequestHeader("Authorization") String authHeader,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                         @RequestPart("manifest") List<BatchSessionRequest> manifest,
+                                         @RequestParam Map<String, MultipartFile> files) throws IOException {
+        String token = authHeader.substring(7);
+        Claims claims = jwtService.extractClaims(token);
+        Long patientId = claims.get("patientId", Long.class);
+
+        Map<String, byte[]> contents = new HashMap<>();
+        for (Map.Entry<String, MultipartFile> file : files.entrySet()) {
+            contents.put(file.getKey(), file.getValue().getBytes());
+        }
+        try {
+            return ResponseEntity.ok(patientService.uploadBatch(patientId, idempotencyKey, manifest, contents));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     /**
      * Uploads symptoms for a given session
      *
@@ -159,14 +219,156 @@ public class PatientController {
     }
 
     /**
-     * Retrieves all signals of a session
+     * Retrieves all signals of a session. With {@code fields=header} only the metadata of each
+     * signal is returned, which keeps session browsing cheap; the samples can then be plotted
+     * through the view endpoint.
      *
      * @param sessionId session ID
-     * @return list of signals
+     * @param fields    {@code all} (default) for full signals or {@code header} for metadata only
+     * @return list of signals or signal headers, or 400 if fields is unknown
      */
     @GetMapping("/sessions/{sessionId}/signals")
-    public List<Signal> getSessionSignals(@PathVariable Long sessionId) {
-        return patientService.getSignalsBySession(sessionId);
+    public ResponseEntity<?> getSessionSignals(@PathVariable Long sessionId,
+                                               @RequestParam(defaultValue = "all") String fields) {
+        if (fields.equalsIgnoreCase("header")) {
+            return ResponseEntity.ok(patientService.getSignalHeadersBySession(sessionId));
+        }
+        if (fields.equalsIgnoreCase("all")) {
+            return ResponseEntity.ok(patientService.getSignalsBySession(sessionId));
+        }
+        return ResponseEntity.badRequest().body("Error: fields must be 'all' or 'header'");
+    }
+
+    /**
+     * Retrieves all signals of a session in the little-endian float32 format described in
+     * {@link SignalCodec}. Selected with {@code Accept: application/octet-stream}.
+     *
+     * @param sessionId session ID
+     * @return streamed binary signals
+     */
+    @GetMapping(value = "/sessions/{sessionId}/signals", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> getSessionSignalsBinary(@PathVariable Long sessionId) {
+        List<Signal> signals = patientService.getLazySignalsBySession(sessionId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(out -> SignalCodec.write(signals, out));
+    }
+
+    /**
+     * Retrieves all signals of a session as CBOR, with the samples as float32 numbers instead of text.
+     * Selected with {@code Accept: application/cbor}.
+     *
+     * @param sessionId session ID
+     * @return list of signals with numeric samples
+     */
+    @GetMapping(value = "/sessions/{sessionId}/signals", produces = "application/cbor")
+    public List<SignalSamples> getSessionSignalsCbor(@PathVariable Long sessionId) {
+        return patientService.getSignalSamplesBySession(sessionId);
+    }
+
+    /**
+     * Retrieves a decimated window of a signal for plotting
+     *
+     * @param signalId signal ID
+     * @param start    start of the window in seconds (defaults to the beginning)
+     * @param end      end of the window in seconds (defaults to the end of the recording)
+     * @param points   maximum number of points to return
+     * @param mode     decimation algorithm, MINMAX or LTTB
+     * @return the decimated window, 404 if the signal does not exist or 400 if the window is invalid
+     */
+    @GetMapping("/signals/{signalId}/view")
+    public ResponseEntity<?> getSignalView(@PathVariable Long signalId,
+                                           @RequestParam(required = false) Double start,
+                                           @RequestParam(required = false) Double end,
+                                           @RequestParam(defaultValue = "1000") int points,
+                                           @RequestParam(defaultValue = "MINMAX") DecimationMode mode) {
+        try {
+            SignalView view = signalViewService.getView(signalId, start, end, points, mode);
+            if (view == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(view);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Renders a window of a signal as an image, with its Q-peaks or contraction onsets and offsets
+     *
+     * @param signalId signal ID
+     * @param start    start of the window in seconds (defaults to the beginning)
+     * @param end      end of the window in seconds (defaults to the end of the recording)
+     * @param width    image width in pixels
+     * @param height   image height in pixels
+     * @param format   PNG or SVG
+     * @return the image, 404 if the signal does not exist or 400 if the window or size is invalid
+     */
+    @GetMapping("/signals/{signalId}/chart")
+    public ResponseEntity<?> getSignalChart(@PathVariable Long signalId,
+                                            @RequestParam(required = false) Double start,
+                                            @RequestParam(required = false) Double end,
+                                            @RequestParam(defaultValue = "1200") int width,
+                                            @RequestParam(defaultValue = "600") int height,
+                                            @RequestParam(defaultValue = "PNG") ChartFormat format) {
+        try {
+            byte[] image = signalChartService.render(signalId, start, end, width, height, format);
+            if (image == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(format.getContentType()))
+                    .body(image);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves a min/max thumbnail of a whole signal, read from its stored pyramid
+     *
+     * @param signalId signal ID
+     * @param points   maximum number of points to return
+     * @return the overview, 404 if the signal does not exist or 400 if points is invalid
+     */
+    @GetMapping("/signals/{signalId}/overview")
+    public ResponseEntity<?> getSignalOverview(@PathVariable Long signalId,
+                                               @RequestParam(defaultValue = "300") int points) {
+        try {
+            SignalView view = signalViewService.getOverview(signalId, points);
+            if (view == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(view);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the heart rate and HRV features computed when an ECG signal was stored
+     *
+     * @param signalId signal ID
+     * @return the features, or 404 if the signal does not exist or is not an ECG
+     */
+    @GetMapping("/signals/{signalId}/features")
+    public ResponseEntity<EcgFeatures> getSignalFeatures(@PathVariable Long signalId) {
+        EcgFeatures features = patientService.getEcgFeatures(signalId);
+        if (features == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(features);
+    }
+
+    /**
+     * Retrieves the RMS, mean frequency and median frequency of each contraction of an EMG signal
+     *
+     * @param signalId signal ID
+     * @return list of contraction features, empty if the signal has none
+     */
+    @GetMapping("/signals/{signalId}/contractions")
+    public List<ContractionFeatures> getSignalContractions(@PathVariable Long signalId) {
+        return patientService.getEmgFeatures(signalId);
     }
 
     /**
@@ -212,11 +414,13 @@ public class PatientController {
      *
      * @param sessionId session ID
      * @param fileBytes file content
-     * @return stored ECG signal
+     * @param duration  declared length of the recording in seconds, to detect truncated files
+     * @return stored ECG signal, or 422 with the quality report if the recording is rejected
      */
     @PostMapping(value = "/sessions/{sessionId}/ecg", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Signal receiveECG(@PathVariable("sessionId") Long sessionId, @RequestBody byte[] fileBytes) {
-        return patientService.addECG(fileBytes, sessionId);
+    public Signal receiveECG(@PathVariable("sessionId") Long sessionId, @RequestBody byte[] fileBytes,
+                             @RequestParam(required = false) Double duration) {
+        return patientService.addECG(fileBytes, sessionId, duration);
     }
 
     /**
@@ -224,12 +428,166 @@ public class PatientController {
      *
      * @param sessionId session ID
      * @param fileBytes raw EMG file
-     * @return stored EMG signal
-     * @throws IOException if reading fails
+     * @param duration  declared length of the recording in seconds, to detect truncated files
+     * @return stored EMG signal, or 422 with the quality report if the recording is rejected
      */
     @PostMapping(value = "/sessions/{sessionId}/emg", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Signal receiveEMG(@PathVariable("sessionId") Long sessionId, @RequestBody byte[] fileBytes) throws IOException {
-        return patientService.addEMG(fileBytes, sessionId);
+    public Signal receiveEMG(@PathVariable("sessionId") Long sessionId, @RequestBody byte[] fileBytes,
+                             @RequestParam(required = false) Double duration) {
+        return patientService.addEMG(fileBytes, sessionId, duration);
+    }
+
+    /**
+     * Starts a resumable upload of a signal file, sent afterwards in chunks
+     *
+     * @param sessionId session ID
+     * @param type      type of the signal
+     * @return 201 with the upload and its location
+     * @throws IOException if the staging file cannot be created
+     */
+    @PostMapping("/sessions/{sessionId}/uploads")
+    public ResponseEntity<SignalUpload> initiateUpload(@PathVariable Long sessionId,
+                                                       @RequestParam SignalType type) throws IOException {
+        SignalUpload upload = signalUploadService.initiate(sessionId, type);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Location", "/api/patients/uploads/" + upload.getUploadId())
+                .body(upload);
+    }
+
+    /**
+     * Appends a chunk to an upload. Chunks must start at the committed offset; resending data that
+     * was already committed is accepted and ignored, so a chunk can be retried safely.
+     *
+     * @param uploadId upload ID
+     * @param offset   position of the chunk in the file
+     * @param chunk    bytes of the chunk
+     * @return the upload with its new committed offset, 409 with the committed offset if the chunk
+     * leaves a gap, 400 if the file is malformed or 404 if the upload does not exist
+     * @throws IOException if the chunk cannot be stored
+     */
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId,
+                                         @RequestParam long offset,
+                                         @RequestBody byte[] chunk) throws IOException {
+        try {
+            SignalUpload upload = signalUploadService.appendChunk(uploadId, offset, chunk);
+            if (upload == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(upload);
+        } catch (UploadOffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(signalUploadService.getUpload(uploadId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves an upload, mainly to find the committed offset to resume from
+     *
+     * @param uploadId upload ID
+     * @return the upload, or 404 if it does not exist
+     */
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<SignalUpload> getUpload(@PathVariable String uploadId) {
+        SignalUpload upload = signalUploadService.getUpload(uploadId);
+        if (upload == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(upload);
+    }
+
+    /**
+     * Completes an upload and stores the signal, like a single-request ECG/EMG upload
+     *
+     * @param uploadId upload ID
+     * @return the stored signal, 400 if the file is incomplete, 409 if the session cannot take
+     * the signal yet, 422 with the quality report if the recording is rejected or 404 if the
+     * upload does not exist
+     * @throws IOException if the staging file cannot be removed
+     */
+    @PostMapping("/uploads/{uploadId}/finalize")
+    public ResponseEntity<?> finalizeUpload(@PathVariable String uploadId) throws IOException {
+        try {
+            Signal signal = signalUploadService.finalizeUpload(uploadId);
+            if (signal == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(signal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abandons an upload
+     *
+     * @param uploadId upload ID
+     * @return 204, or 404 if the upload does not exist
+     * @throws IOException if the staging file cannot be removed
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> cancelUpload(@PathVariable String uploadId) throws IOException {
+        if (!signalUploadService.cancel(uploadId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Starts recording a signal live from the acquisition device into the session
+     *
+     * @param sessionId session ID
+     * @param type      type of the signal sent by the device
+     * @param fs        sampling frequency of the device
+     * @return 202 with the recording status, 409 if the session is already recording or has no
+     * symptoms, 400 for invalid parameters or 503 if the device cannot be opened
+     */
+    @PostMapping("/sessions/{sessionId}/device/start")
+    public ResponseEntity<?> startDeviceRecording(@PathVariable Long sessionId,
+                                                  @RequestParam SignalType type,
+                                                  @RequestParam int fs) {
+        try {
+            return ResponseEntity.accepted().body(deviceIngestService.start(sessionId, type, fs));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the live recording of the session; samples already received are still stored
+     *
+     * @param sessionId session ID
+     * @return the recording status, or 404 if the session never recorded from the device
+     */
+    @PostMapping("/sessions/{sessionId}/device/stop")
+    public ResponseEntity<DeviceRecording> stopDeviceRecording(@PathVariable Long sessionId) {
+        DeviceRecording recording = deviceIngestService.stop(sessionId);
+        if (recording == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(recording);
+    }
+
+    /**
+     * Retrieves the status of the last live recording of the session
+     *
+     * @param sessionId session ID
+     * @return the recording status, or 404 if the session never recorded from the device
+     */
+    @GetMapping("/sessions/{sessionId}/device")
+    public ResponseEntity<DeviceRecording> getDeviceRecording(@PathVariable Long sessionId) {
+        DeviceRecording recording = deviceIngestService.getRecording(sessionId);
+        if (recording == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(recording);
     }
 
     /**
@@ -276,14 +634,17 @@ public class PatientController {
      *
      * @param sessionId the ID of the session to which the EMG data belongs
      * @param file      the uploaded EMG file as a multipart/form-data
-     * @return the Signal object representing the uploaded EMG data
+     * @param duration  declared length of the recording in seconds, to detect truncated files
+     * @return the Signal object representing the uploaded EMG data, or 422 with the quality
+     * report if the recording is rejected
      * @throws IOException if reading the uploaded file fails
      */
     @PostMapping(value = "/sessions/{sessionId}/emg", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public Signal uploadEMG(@PathVariable Long sessionId,
-                            @RequestParam("file") MultipartFile file) throws IOException {
+                            @RequestParam("file") MultipartFile file,
+                            @RequestParam(required = false) Double duration) throws IOException {
 
-        return patientService.addEMG(file.getBytes(), sessionId);
+        return patientService.addEMG(file.getBytes(), sessionId, duration);
     }
 
     /**
@@ -291,14 +652,42 @@ public class PatientController {
      *
      * @param sessionId the ID of the session to which the ECG data belongs
      * @param file      the uploaded ECG file as a multipart/form-data
-     * @return the Signal object representing the uploaded ECG data
+     * @param duration  declared length of the recording in seconds, to detect truncated files
+     * @return the Signal object representing the uploaded ECG data, or 422 with the quality
+     * report if the recording is rejected
      * @throws IOException if reading the uploaded file fails
      */
     @PostMapping(value = "/sessions/{sessionId}/ecg", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public Signal uploadECG(@PathVariable Long sessionId,
-                            @RequestParam("file") MultipartFile file) throws IOException {
+                            @RequestParam("file") MultipartFile file,
+                            @RequestParam(required = false) Double duration) throws IOException {
 
-        return patientService.addECG(file.getBytes(), sessionId);
+        return patientService.addECG(file.getBytes(), sessionId, duration);
+    }
+
+    /**
+     * Uploads a recording with several channels, e.g. one EMG electrode per muscle. Line 1 of the
+     * file holds the sampling frequency and channel count ({@code 1000,8}); the data is either one
+     * interleaved line of frames or one line per channel.
+     *
+     * @param sessionId the ID of the session to which the recording belongs
+     * @param type      signal type of every channel
+     * @param file      the uploaded file as a multipart/form-data
+     * @param duration  declared length of the recording in seconds, to detect truncated files
+     * @return the stored channels, 400 if the file is malformed, or 422 with the quality report
+     * of the first rejected channel
+     * @throws IOException if reading the uploaded file fails
+     */
+    @PostMapping(value = "/sessions/{sessionId}/channels", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadMultiChannel(@PathVariable Long sessionId,
+                                                @RequestParam SignalType type,
+                                                @RequestParam("file") MultipartFile file,
+                                                @RequestParam(required = false) Double duration) throws IOException {
+        try {
+            return ResponseEntity.ok(patientService.addMultiChannel(file.getBytes(), type, sessionId, duration));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     /**
@@ -377,27 +766,30 @@ public class PatientController {
 
     /**
      * Downloads a specific report for the currently authenticated patient.
+     * Supports conditional requests (If-None-Match / If-Modified-Since) and single byte ranges.
      *
-     * @param reportId   the ID of the report to download
-     * @param authHeader the Authorization header containing the Bearer token
-     * @return a ResponseEntity containing the report file as a byte array with proper headers,
+     * @param reportId       the ID of the report to download
+     * @param authHeader     the Authorization header containing the Bearer token
+     * @param requestHeaders headers of the request, used for conditional and range handling
+     * @return a ResponseEntity streaming the report file with proper headers,
+     * 304 if the client copy is current,
      * or a 404 status if the report does not exist or does not belong to the patient
      */
     @GetMapping("/me/reports/{reportId}")
-    public ResponseEntity<byte[]> downloadReport(@PathVariable Long reportId,
-                                                 @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<StreamingResponseBody> downloadReport(@PathVariable Long reportId,
+                                                                @RequestHeader("Authorization") String authHeader,
+                                                                @RequestHeader HttpHeaders requestHeaders) {
         try {
             String token = authHeader.replace("Bearer ", "").trim();
             Claims claims = jwtService.extractClaims(token);
             Long patientId = claims.get("patientId", Long.class);
 
-            Report report = patientService.findReportByReportId(reportId);
+            Report report = reportDownloadService.findReportHeader(reportId);
             if (report == null || !report.getPatientId().equals(patientId)) {
                 return ResponseEntity.notFound().build();
             }
 
-            byte[] reportBytes = report.getFileData();
-            if (reportBytes == null || reportBytes.length == 0) {
+            if (report.getFileSize() == null || report.getFileSize() == 0) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -406,14 +798,22 @@ public class PatientController {
                     ? MediaType.TEXT_PLAIN
                     : MediaType.APPLICATION_PDF;
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(mediaType)
-                    .body(reportBytes);
+            return reportDownloadService.download(report, fileName, mediaType, requestHeaders);
 
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Answers uploads rejected by the quality gate, from any of the file upload endpoints
+     *
+     * @param e the rejection with the quality report
+     * @return 422 with the quality report
+     */
+    @ExceptionHandler(SignalQualityException.class)
+    public ResponseEntity<SignalQuality> handleRejectedRecording(SignalQualityException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getQuality());
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.telemedicine.device;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Sample source that reads a file or a pseudo-terminal instead of a serial port, so the
+ * ingest pipeline can be exercised without hardware. A regular file ends the recording at
+ * its end; a pseudo-terminal keeps it open until the writer closes its side.
+ */
+public class FileSampleSource implements SampleSource {
+    private final String path;
+    private final InputStream in;
+
+    /**
+     * @param path Path of the file or pseudo-terminal.
+     * @throws IOException if it cannot be opened.
+     */
+    public FileSampleSource(String path) throws IOException {
+        this.path = path;
+        this.in = new FileInputStream(path);
+    }
+
+    @Override
+    public int read(byte[] buffer) throws IOException {
+        return in.read(buffer);
+    }
+
+    @Override
+    public String getName() {
+        return "file:" + path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
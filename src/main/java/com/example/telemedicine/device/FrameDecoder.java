@@ -0,0 +1,86 @@
+package com.example.telemedicine.device;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Incremental decoder turning raw bytes from the device into samples.
+ * Reads can split a frame anywhere, so partial numbers and bytes are kept between calls.
+ */
+public class FrameDecoder {
+    private final FrameFormat format;
+    private final StringBuilder pendingText = new StringBuilder();
+    private int pendingByte = -1;
+
+    public FrameDecoder(FrameFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Decodes a block of bytes.
+     * @param bytes Buffer with the received bytes.
+     * @param length Number of valid bytes in the buffer.
+     * @param sink Receives every complete sample, in order.
+     */
+    public void decode(byte[] bytes, int length, DoubleConsumer sink) {
+        decode(bytes, 0, length, sink);
+    }
+
+    /**
+     * Decodes a range of a buffer.
+     * @param bytes Buffer with the received bytes.
+     * @param offset First byte to decode.
+     * @param length Number of bytes to decode.
+     * @param sink Receives every complete sample, in order.
+     */
+    public void decode(byte[] bytes, int offset, int length, DoubleConsumer sink) {
+        if (format == FrameFormat.INT16_LE) {
+            decodeInt16(bytes, offset, offset + length, sink);
+        } else {
+            decodeAscii(bytes, offset, offset + length, sink);
+        }
+    }
+
+    /**
+     * Emits the last sample of an ASCII stream that ended without a separator.
+     * @param sink Receives the sample, if any.
+     */
+    public void flush(DoubleConsumer sink) {
+        emitPendingText(sink);
+    }
+
+    private void decodeAscii(byte[] bytes, int from, int to, DoubleConsumer sink) {
+        for (int i = from; i < to; i++) {
+            char c = (char) (bytes[i] & 0xFF);
+            if ((c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E') {
+                pendingText.append(c);
+            } else {
+                emitPendingText(sink);
+            }
+        }
+    }
+
+    private void emitPendingText(DoubleConsumer sink) {
+        if (pendingText.isEmpty()) return;
+        try {
+            sink.accept(Double.parseDouble(pendingText.toString()));
+        } catch (NumberFormatException e) {
+            // corrupted frame from line noise, skip it
+        }
+        pendingText.setLength(0);
+    }
+
+    private void decodeInt16(byte[] bytes, int from, int to, DoubleConsumer sink) {
+        int i = from;
+        if (pendingByte >= 0 && i < to) {
+            sink.accept(pendingByte | (bytes[i] & 0xFF) << 8);
+            pendingByte = -1;
+            i++;
+        }
+        for (; i + 1 < to; i += 2) {
+            sink.accept((bytes[i] & 0xFF) | (bytes[i + 1] & 0xFF) << 8);
+        }
+        if (i < to) {
+            pendingByte = bytes[i] & 0xFF;
+        }
+    }
+}
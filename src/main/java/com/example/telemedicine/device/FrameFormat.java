@@ -0,0 +1,7 @@
+package com.example.telemedicine.device;
+
+//** how the acquisition board encodes samples on the wire
+public enum FrameFormat {
+    ASCII, //** decimal ADC values separated by commas, spaces or line breaks
+    INT16_LE //** unsigned 16 bit little-endian ADC values
+}
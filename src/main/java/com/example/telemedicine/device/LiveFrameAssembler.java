@@ -0,0 +1,85 @@
+package com.example.telemedicine.device;
+
+import com.example.telemedicine.domain.LiveFrame;
+import com.example.telemedicine.domain.LiveMarker;
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.signal.DecimatedSeries;
+import com.example.telemedicine.signal.DecimationMode;
+import com.example.telemedicine.signal.Decimator;
+import com.example.telemedicine.signal.StreamingDetector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the samples of a live recording into decimated frames for the doctors monitoring it.
+ * Runs on the recording's processing thread, once per session whatever the number of viewers.
+ */
+public class LiveFrameAssembler {
+    private final Long signalId;
+    private final SignalType signalType;
+    private final int fs;
+    private final int points;
+    private final StreamingDetector detector;
+    private final double[] raw;
+    private final double[] filtered;
+    private List<LiveMarker> markers = new ArrayList<>();
+    private long index;
+    private int filled;
+
+    /**
+     * @param signalId ID of the signal being recorded.
+     * @param signalType Signal type.
+     * @param fs Sampling frequency.
+     * @param framesPerSecond Number of frames produced per second of signal.
+     * @param points Maximum number of points per frame.
+     * @param detector Live detector of the signal type's pipeline, fed every filtered sample.
+     */
+    public LiveFrameAssembler(Long signalId, SignalType signalType, int fs, int framesPerSecond, int points,
+                              StreamingDetector detector) {
+        this.signalId = signalId;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.points = points;
+        this.detector = detector;
+        int frameSamples = Math.max(1, fs / Math.max(1, framesPerSecond));
+        this.raw = new double[frameSamples];
+        this.filtered = new double[frameSamples];
+    }
+
+    /**
+     * Adds the next sample.
+     * @param rawSample ADC value.
+     * @param filteredSample Filtered value.
+     * @return A complete frame, or null if the current frame is not full yet.
+     */
+    public LiveFrame add(double rawSample, double filteredSample) {
+        detector.process(filteredSample, index++, markers);
+        raw[filled] = rawSample;
+        filtered[filled++] = filteredSample;
+        return filled == raw.length ? flush() : null;
+    }
+
+    /**
+     * Closes the current frame even if it is not full.
+     * @return The frame, or null if it has no samples.
+     */
+    public LiveFrame flush() {
+        if (filled == 0) return null;
+
+        long first = index - filled;
+        DecimatedSeries series = Decimator.decimate(filtered, 0, filled, points, DecimationMode.MINMAX);
+        double[] time = new double[series.indices.length];
+        double[] rawValues = new double[series.indices.length];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = (double) (first + series.indices[i]) / fs;
+            rawValues[i] = raw[series.indices[i]];
+        }
+
+        LiveFrame frame = new LiveFrame(signalId, signalType, fs, time, rawValues, series.values,
+                detector.getHeartRate(), markers);
+        markers = new ArrayList<>();
+        filled = 0;
+        return frame;
+    }
+}
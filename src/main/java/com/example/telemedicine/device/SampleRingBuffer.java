@@ -0,0 +1,69 @@
+package com.example.telemedicine.device;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer single-consumer ring buffer of samples.
+ * The serial reader thread offers samples and the processing thread drains them; each side
+ * only writes its own counter, so neither ever blocks the other. When the consumer falls
+ * behind the buffer is full and new samples are rejected instead of overwriting unread ones.
+ */
+public class SampleRingBuffer {
+    private final double[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // next index to read, only written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next index to write, only written by the producer
+
+    /**
+     * @param capacity Minimum number of samples the buffer holds, rounded up to a power of two.
+     */
+    public SampleRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.buffer = new double[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds a sample. Must only be called from the producer thread.
+     * @param sample Sample to add.
+     * @return false if the buffer is full and the sample was dropped.
+     */
+    public boolean offer(double sample) {
+        long t = tail.get();
+        if (t - head.get() == buffer.length) {
+            return false;
+        }
+        buffer[(int) (t & mask)] = sample;
+        tail.lazySet(t + 1); // publishes the sample to the consumer
+        return true;
+    }
+
+    /**
+     * Moves available samples into an array. Must only be called from the consumer thread.
+     * @param target Destination array.
+     * @param offset First index to write in the destination.
+     * @param max Maximum number of samples to move.
+     * @return Number of samples moved, 0 if the buffer is empty.
+     */
+    public int drainTo(double[] target, int offset, int max) {
+        long h = head.get();
+        int n = (int) Math.min(tail.get() - h, max);
+        for (int i = 0; i < n; i++) {
+            target[offset + i] = buffer[(int) ((h + i) & mask)];
+        }
+        head.lazySet(h + n); // frees the slots for the producer
+        return n;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+}
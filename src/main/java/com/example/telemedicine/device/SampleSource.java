@@ -0,0 +1,23 @@
+package com.example.telemedicine.device;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Byte stream coming from an acquisition device.
+ */
+public interface SampleSource extends Closeable {
+
+    /**
+     * Reads the bytes currently available, waiting at most the configured read timeout.
+     * @param buffer Buffer to fill.
+     * @return Number of bytes read, 0 if the timeout expired, or -1 once the source has ended.
+     * @throws IOException if the device cannot be read.
+     */
+    int read(byte[] buffer) throws IOException;
+
+    /**
+     * @return Human readable name of the port, for status reporting.
+     */
+    String getName();
+}
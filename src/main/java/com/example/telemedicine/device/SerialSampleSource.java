@@ -0,0 +1,71 @@
+package com.example.telemedicine.device;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+
+/**
+ * Sample source backed by a serial port through jSerialComm.
+ */
+public class SerialSampleSource implements SampleSource {
+    private final SerialPort port;
+
+    /**
+     * Opens a serial port.
+     * @param portName System name of the port, e.g. /dev/ttyUSB0 or COM3.
+     * @param baudRate Baud rate.
+     * @param dataBits Data bits per frame.
+     * @param stopBits Stop bits per frame (1 or 2).
+     * @param parity Parity: NONE, ODD, EVEN, MARK or SPACE.
+     * @param readTimeoutMs Maximum time a read waits for data.
+     * @throws IOException if the port does not exist or cannot be opened.
+     */
+    public SerialSampleSource(String portName, int baudRate, int dataBits, int stopBits, String parity,
+                              int readTimeoutMs) throws IOException {
+        try {
+            this.port = SerialPort.getCommPort(portName);
+        } catch (Exception e) {
+            throw new IOException("Serial port " + portName + " not found", e);
+        }
+        port.setComPortParameters(baudRate, dataBits,
+                stopBits == 2 ? SerialPort.TWO_STOP_BITS : SerialPort.ONE_STOP_BIT,
+                parityOf(parity));
+        port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, readTimeoutMs, 0);
+        if (!port.openPort()) {
+            throw new IOException("Could not open serial port " + portName);
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer) throws IOException {
+        if (!port.isOpen()) {
+            return -1;
+        }
+        int n = port.readBytes(buffer, buffer.length);
+        if (n < 0) {
+            throw new IOException("Error reading serial port " + port.getSystemPortName());
+        }
+        return n;
+    }
+
+    @Override
+    public String getName() {
+        return port.getSystemPortName();
+    }
+
+    @Override
+    public void close() {
+        port.closePort();
+    }
+
+    private static int parityOf(String parity) {
+        return switch (parity.toUpperCase()) {
+            case "NONE" -> SerialPort.NO_PARITY;
+            case "ODD" -> SerialPort.ODD_PARITY;
+            case "EVEN" -> SerialPort.EVEN_PARITY;
+            case "MARK" -> SerialPort.MARK_PARITY;
+            case "SPACE" -> SerialPort.SPACE_PARITY;
+            default -> throw new IllegalArgumentException("Unknown parity " + parity);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.Objects;
+
+//** outcome of one signal file of a batch upload
+@Data
+public class BatchFileResult {
+    private String file; //** name of the multipart part holding the file
+    private String error; //** why the file was rejected; null when it was processed
+
+    public BatchFileResult(String file, String error) {
+        this.file = file;
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchFileResult that = (BatchFileResult) o;
+        return Objects.equals(file, that.file) && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(file, error);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFileResult{" +
+                "file='" + file + '\'' +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+//** one session of a batch upload: when it was recorded, the symptoms logged and the signal files that belong to it
+@Data
+public class BatchSessionRequest {
+    private LocalDateTime recordedAt; //** time the session was recorded offline; null uses the upload time
+    private Set<SymptomType> symptoms;
+    private List<BatchSignalRequest> signals;
+
+    public BatchSessionRequest() {
+    }
+
+    public BatchSessionRequest(LocalDateTime recordedAt, Set<SymptomType> symptoms, List<BatchSignalRequest> signals) {
+        this.recordedAt = recordedAt;
+        this.symptoms = symptoms;
+        this.signals = signals;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Objects;
+
+//** outcome of one session of a batch upload; a rejected session is not stored at all
+@Data
+public class BatchSessionResult {
+    private int index; //** position of the session in the manifest
+    private MeasurementSession session; //** null when the session was rejected
+    private List<SignalHeader> signals;
+    private List<BatchFileResult> files; //** status of each signal file of the session
+    private boolean replayed; //** stored by an earlier request with the same idempotency key
+    private String error; //** why the session was rejected, or what failed after it was stored; null when it was stored
+
+    public BatchSessionResult(int index, MeasurementSession session, List<SignalHeader> signals,
+                              List<BatchFileResult> files, boolean replayed, String error) {
+        this.index = index;
+        this.session = session;
+        this.signals = signals;
+        this.files = files;
+        this.replayed = replayed;
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchSessionResult that = (BatchSessionResult) o;
+        return index == that.index && replayed == that.replayed && Objects.equals(session, that.session)
+                && Objects.equals(signals, that.signals) && Objects.equals(files, that.files)
+                && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, session, signals, files, replayed, error);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSessionResult{" +
+                "index=" + index +
+                ", session=" + session +
+                ", signals=" + signals +
+                ", files=" + files +
+                ", replayed=" + replayed +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+//** one signal file of a batch upload, referring to a multipart part by name
+@Data
+public class BatchSignalRequest {
+    private String file; //** name of the multipart part holding the file, in the single- or multi-channel format
+    private SignalType type;
+    private Double duration; //** declared length in seconds, to detect truncated files; may be null
+
+    public BatchSignalRequest() {
+    }
+
+    public BatchSignalRequest(String file, SignalType type, Double duration) {
+        this.file = file;
+        this.type = type;
+        this.duration = duration;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.Objects;
+
+//** amplitude and spectral features of one EMG contraction, used to follow muscle fatigue over time
+@Data
+public class ContractionFeatures {
+    private Long signalId; //** FK signal
+    private int contractionIndex; //** order of the contraction within the signal
+    private int onset; //** sample index
+    private int offset; //** sample index, exclusive
+    private double rms;
+    private double meanFrequency; //** Hz, from the Welch PSD
+    private double medianFrequency; //** Hz, falls as the muscle fatigues
+
+    public ContractionFeatures(Long signalId, int contractionIndex, int onset, int offset, double rms,
+                               double meanFrequency, double medianFrequency) {
+        this.signalId = signalId;
+        this.contractionIndex = contractionIndex;
+        this.onset = onset;
+        this.offset = offset;
+        this.rms = rms;
+        this.meanFrequency = meanFrequency;
+        this.medianFrequency = medianFrequency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContractionFeatures that = (ContractionFeatures) o;
+        return contractionIndex == that.contractionIndex && onset == that.onset && offset == that.offset && Double.compare(rms, that.rms) == 0 && Double.compare(meanFrequency, that.meanFrequency) == 0 && Double.compare(medianFrequency, that.medianFrequency) == 0 && Objects.equals(signalId, that.signalId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(signalId, contractionIndex, onset, offset, rms, meanFrequency, medianFrequency);
+    }
+
+    @Override
+    public String toString() {
+        return "ContractionFeatures{" +
+                "signalId=" + signalId +
+                ", contractionIndex=" + contractionIndex +
+                ", onset=" + onset +
+                ", offset=" + offset +
+                ", rms=" + rms +
+                ", meanFrequency=" + meanFrequency +
+                ", medianFrequency=" + medianFrequency +
+                '}';
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.telemedicine.domain;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a live recording from the acquisition device into a session.
+ * The reader and processing threads update the counters while requests read them,
+ * so counters are atomic and status changes are guarded by the recording's monitor.
+ */
+public class DeviceRecording {
+    @Getter
+    private final Long sessionId;
+    @Getter
+    private final Long signalId;
+    @Getter
+    private final SignalType signalType;
+    @Getter
+    private final int fs;
+    @Getter
+    private final String port;
+    @Getter
+    private final LocalDateTime startedAt;
+
+    private final AtomicLong samplesReceived = new AtomicLong();
+    private final AtomicLong samplesDropped = new AtomicLong();
+    private final AtomicLong samplesStored = new AtomicLong();
+    private volatile boolean stopRequested;
+    private DeviceRecordingStatus status = DeviceRecordingStatus.RECORDING;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public DeviceRecording(Long sessionId, Long signalId, SignalType signalType, int fs, String port) {
+        this.sessionId = sessionId;
+        this.signalId = signalId;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.port = port;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public void recordReceived(int count) {
+        samplesReceived.addAndGet(count);
+    }
+
+    public void recordDropped(int count) {
+        samplesDropped.addAndGet(count);
+    }
+
+    public void recordStored(int count) {
+        samplesStored.addAndGet(count);
+    }
+
+    public long getSamplesReceived() {
+        return samplesReceived.get();
+    }
+
+    public long getSamplesDropped() {
+        return samplesDropped.get();
+    }
+
+    public long getSamplesStored() {
+        return samplesStored.get();
+    }
+
+    /**
+     * Asks the reader thread to stop; the samples already received are still stored.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    public boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    public synchronized void complete() {
+        if (status == DeviceRecordingStatus.RECORDING) {
+            status = DeviceRecordingStatus.COMPLETED;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public synchronized void fail(String message) {
+        if (status == DeviceRecordingStatus.RECORDING) {
+            status = DeviceRecordingStatus.FAILED;
+            error = message;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public synchronized DeviceRecordingStatus getStatus() {
+        return status;
+    }
+
+    public synchronized LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    public synchronized boolean isFinished() {
+        return status != DeviceRecordingStatus.RECORDING;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.telemedicine.domain;
+
+public enum DeviceRecordingStatus {
+    RECORDING,
+    COMPLETED,
+    FAILED
+}
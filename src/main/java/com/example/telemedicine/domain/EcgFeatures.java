@@ -0,0 +1,64 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Objects;
+
+//** heart rate and HRV metrics of an ECG signal, computed once at ingest from its R-peaks
+@Data
+public class EcgFeatures {
+    private Long signalId; //** FK signal
+    private int beatCount;
+    private Double meanHr; //** beats per minute; null when fewer than two beats were found
+    private Double minHr;
+    private Double maxHr;
+    private Double sdnn; //** ms
+    private Double rmssd; //** ms
+    private Double pnn50; //** percentage of successive NN differences above 50 ms
+    private List<Double> rrIntervals; //** ms, in order of occurrence
+
+    public EcgFeatures() {
+    }
+
+    public EcgFeatures(Long signalId, int beatCount, Double meanHr, Double minHr, Double maxHr,
+                       Double sdnn, Double rmssd, Double pnn50, List<Double> rrIntervals) {
+        this.signalId = signalId;
+        this.beatCount = beatCount;
+        this.meanHr = meanHr;
+        this.minHr = minHr;
+        this.maxHr = maxHr;
+        this.sdnn = sdnn;
+        this.rmssd = rmssd;
+        this.pnn50 = pnn50;
+        this.rrIntervals = rrIntervals;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EcgFeatures that = (EcgFeatures) o;
+        return beatCount == that.beatCount && Objects.equals(signalId, that.signalId) && Objects.equals(meanHr, that.meanHr) && Objects.equals(minHr, that.minHr) && Objects.equals(maxHr, that.maxHr) && Objects.equals(sdnn, that.sdnn) && Objects.equals(rmssd, that.rmssd) && Objects.equals(pnn50, that.pnn50) && Objects.equals(rrIntervals, that.rrIntervals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(signalId, beatCount, meanHr, minHr, maxHr, sdnn, rmssd, pnn50, rrIntervals);
+    }
+
+    @Override
+    public String toString() {
+        return "EcgFeatures{" +
+                "signalId=" + signalId +
+                ", beatCount=" + beatCount +
+                ", meanHr=" + meanHr +
+                ", minHr=" + minHr +
+                ", maxHr=" + maxHr +
+                ", sdnn=" + sdnn +
+                ", rmssd=" + rmssd +
+                ", pnn50=" + pnn50 +
+                ", rrIntervals=" + rrIntervals +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.List;
+
+//** decimated slice of a live recording pushed to the doctors monitoring the session
+@Data
+public class LiveFrame {
+    private long sequence; //** position of the frame in the session's broadcast, also the SSE event id
+    private Long signalId;
+    private SignalType signalType;
+    private int fs;
+    private double[] time; //** seconds from the start of the recording
+    private double[] raw; //** ADC values
+    private double[] filtered; //** mV after the live filter chain
+    private Double heartRate; //** beats per minute, null for EMG or before two beats were seen
+    private List<LiveMarker> markers;
+
+    public LiveFrame(Long signalId, SignalType signalType, int fs, double[] time, double[] raw, double[] filtered,
+                     Double heartRate, List<LiveMarker> markers) {
+        this.signalId = signalId;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.time = time;
+        this.raw = raw;
+        this.filtered = filtered;
+        this.heartRate = heartRate;
+        this.markers = markers;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+//** event found by a streaming detector, positioned in seconds from the start of the recording
+@Data
+public class LiveMarker {
+    private LiveMarkerType type;
+    private double time;
+
+    public LiveMarker(LiveMarkerType type, double time) {
+        this.type = type;
+        this.time = time;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.telemedicine.domain;
+
+public enum LiveMarkerType {
+    R_PEAK,
+    CONTRACTION_ONSET,
+    CONTRACTION_OFFSET
+}
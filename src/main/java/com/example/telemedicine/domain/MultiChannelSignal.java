@@ -0,0 +1,53 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+//** recording with several electrodes, stored as one signal per channel sharing the timestamp
+@Data
+public class MultiChannelSignal {
+    private Long measurementSessionId; //** FK measurementSession
+    private LocalDateTime timestamp;
+    private SignalType signalType;
+    private int fs; //sampling frequency
+    private List<Signal> channels; //** in channel order; channel i has Signal.channel == i
+
+    public MultiChannelSignal(Long measurementSessionId, LocalDateTime timestamp, SignalType signalType, int fs, List<Signal> channels) {
+        this.measurementSessionId = measurementSessionId;
+        this.timestamp = timestamp;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.channels = channels;
+    }
+
+    public int getChannelCount() {
+        return channels == null ? 0 : channels.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MultiChannelSignal that = (MultiChannelSignal) o;
+        return fs == that.fs && Objects.equals(measurementSessionId, that.measurementSessionId) && Objects.equals(timestamp, that.timestamp) && signalType == that.signalType && Objects.equals(channels, that.channels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(measurementSessionId, timestamp, signalType, fs, channels);
+    }
+
+    @Override
+    public String toString() {
+        return "MultiChannelSignal{" +
+                "measurementSessionId=" + measurementSessionId +
+                ", timestamp=" + timestamp +
+                ", signalType=" + signalType +
+                ", fs=" + fs +
+                ", channels=" + channels +
+                '}';
+    }
+}
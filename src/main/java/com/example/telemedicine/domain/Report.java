@@ -1,11 +1,11 @@
 package com.example.telemedicine.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.sql.Date;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Objects;
 
 @Data
 public class Report {
@@ -18,6 +18,9 @@ public class Report {
     private String fileName;
     private String fileType;
     private LocalDateTime createdAt;
+    private Long fileSize; //** size in bytes of file_data, set when the data itself is not loaded
+    @JsonIgnore
+    private String fileRef; //** blob store key of the file, null for rows not migrated yet
 
     public Report(Long reportId, Long patientId, Long doctorId, Long sessionId, byte[] fileData, String fileName, String fileType, LocalDateTime createdAt) {
         this.reportId = reportId;
@@ -42,19 +45,21 @@ public class Report {
         this.fileType = fileType;
     }
 
+    /**
+     * Reports are equal when they have the same id, whether or not their file or its size was loaded;
+     * a report that has not been saved yet is only equal to itself.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Report report = (Report) o;
-        return Objects.equals(reportId, report.reportId) && Objects.equals(patientId, report.patientId) && Objects.equals(doctorId, report.doctorId) && Objects.equals(sessionId, report.sessionId) && Arrays.equals(fileData, report.fileData) && Objects.equals(fileName, report.fileName) && Objects.equals(fileType, report.fileType) && Objects.equals(createdAt, report.createdAt);
+        return reportId != null && reportId.equals(report.reportId);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(reportId, patientId, doctorId, sessionId, fileName, fileType, createdAt);
-        result = 31 * result + Arrays.hashCode(fileData);
-        return result;
+        return reportId != null ? reportId.hashCode() : System.identityHashCode(this);
     }
 
     @Override
@@ -68,6 +73,7 @@ public class Report {
                 ", fileName='" + fileName + '\'' +
                 ", fileType='" + fileType + '\'' +
                 ", createdAt=" + createdAt +
+                ", fileSize=" + fileSize +
                 '}';
     }
 }
\ No newline at end of file
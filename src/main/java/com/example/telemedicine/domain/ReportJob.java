@@ -0,0 +1,106 @@
+package com.example.telemedicine.domain;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the progress of a bulk report generation job.
+ * Worker threads update the job concurrently, so every mutable field is
+ * guarded by the job's monitor and getters return snapshots.
+ */
+public class ReportJob {
+    @Getter
+    private final String jobId;
+    @Getter
+    private final Long doctorId;
+    @Getter
+    private final int totalSessions;
+    @Getter
+    private final LocalDateTime createdAt;
+
+    private int completed;
+    private int failed;
+    private final List<Long> reportIds = new ArrayList<>();
+    private final Map<Long, String> errors = new LinkedHashMap<>();
+    private LocalDateTime finishedAt;
+
+    public ReportJob(String jobId, Long doctorId, int totalSessions) {
+        this.jobId = jobId;
+        this.doctorId = doctorId;
+        this.totalSessions = totalSessions;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Records a report that was generated and stored successfully.
+     *
+     * @param reportId ID of the saved report
+     */
+    public synchronized void recordSuccess(Long reportId) {
+        completed++;
+        reportIds.add(reportId);
+        finishIfDone();
+    }
+
+    /**
+     * Records a session whose report could not be generated.
+     *
+     * @param sessionId ID of the failed session
+     * @param message   reason of the failure
+     */
+    public synchronized void recordFailure(Long sessionId, String message) {
+        failed++;
+        errors.put(sessionId, message);
+        finishIfDone();
+    }
+
+    private void finishIfDone() {
+        if (completed + failed == totalSessions) {
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public synchronized ReportJobStatus getStatus() {
+        int processed = completed + failed;
+        if (processed == 0) return ReportJobStatus.QUEUED;
+        if (processed < totalSessions) return ReportJobStatus.RUNNING;
+        if (failed == 0) return ReportJobStatus.COMPLETED;
+        return completed == 0 ? ReportJobStatus.FAILED : ReportJobStatus.COMPLETED_WITH_ERRORS;
+    }
+
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return percentage of sessions already processed (0-100)
+     */
+    public synchronized int getProgress() {
+        return totalSessions == 0 ? 100 : (completed + failed) * 100 / totalSessions;
+    }
+
+    public synchronized List<Long> getReportIds() {
+        return new ArrayList<>(reportIds);
+    }
+
+    public synchronized Map<Long, String> getErrors() {
+        return new LinkedHashMap<>(errors);
+    }
+
+    public synchronized LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized boolean isFinished() {
+        return finishedAt != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.List;
+
+//** body of a bulk report submission: the sessions to report on and an optional shared comment
+@Data
+public class ReportJobRequest {
+    private List<Long> sessionIds;
+    private String doctorsComments;
+
+    public ReportJobRequest() {
+    }
+
+    public ReportJobRequest(List<Long> sessionIds, String doctorsComments) {
+        this.sessionIds = sessionIds;
+        this.doctorsComments = doctorsComments;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.telemedicine.domain;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    COMPLETED_WITH_ERRORS,
+    FAILED
+}
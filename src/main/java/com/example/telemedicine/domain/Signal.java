@@ -1,10 +1,12 @@
 package com.example.telemedicine.domain;
 
+import com.example.telemedicine.signal.SignalPyramid;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.function.Supplier;
 
 @Data
 public class Signal {
@@ -14,6 +16,11 @@ public class Signal {
     private SignalType signalType;
     private String patientSignalData;
     private int fs; //sampling frequency
+    private Integer channel; //** index within a multi-channel recording; null for single-channel signals
+    @JsonIgnore
+    private SignalPyramid pyramid; //** min/max overview, only loaded when needed for rendering
+    @JsonIgnore
+    private Supplier<String> dataLoader; //** fetches patientSignalData on first access when the signal was loaded without it
 
     public Signal(Long id, Long measurementSessionId, LocalDateTime timestamp, SignalType signalType, String patientSignalData, int fs) {
         this.id = id;
@@ -24,13 +31,26 @@ public class Signal {
         this.fs = fs;
     }
 
+    /**
+     * Returns the signal data, fetching it on first access if the signal was loaded lazily
+     * @return the comma separated samples
+     */
+    public String getPatientSignalData() {
+        if (patientSignalData == null && dataLoader != null) {
+            patientSignalData = dataLoader.get();
+            dataLoader = null;
+        }
+        return patientSignalData;
+    }
+
     /**
      * This method obtains the signal data as a double array
      * @return the data of the signal as an array
      */
     public double[] getSignalDataAsDoubleArray() {
-        if (patientSignalData == null || patientSignalData.isBlank()) return new double[0];
-        return Arrays.stream(patientSignalData.split(","))
+        String data = getPatientSignalData();
+        if (data == null || data.isBlank()) return new double[0];
+        return Arrays.stream(data.split(","))
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .mapToDouble(Double::parseDouble)
@@ -55,17 +75,21 @@ public class Signal {
     }
 
 
+    /**
+     * Signals are equal when they have the same id, so comparing them never fetches lazily loaded data;
+     * a signal that has not been stored yet is only equal to itself.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Signal signal = (Signal) o;
-        return fs == signal.fs && Objects.equals(id, signal.id) && Objects.equals(measurementSessionId, signal.measurementSessionId) && Objects.equals(timestamp, signal.timestamp) && signalType == signal.signalType && Objects.equals(patientSignalData, signal.patientSignalData);
+        return id != null && id.equals(signal.id);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, measurementSessionId, timestamp, signalType, patientSignalData, fs);
+        return id != null ? id.hashCode() : System.identityHashCode(this);
     }
 
     @Override
@@ -77,6 +101,7 @@ public class Signal {
                 ", signalType=" + signalType +
                 ", patientSignalData='" + patientSignalData + '\'' +
                 ", fs=" + fs +
+                ", channel=" + channel +
                 '}';
     }
 }
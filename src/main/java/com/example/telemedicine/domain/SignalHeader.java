@@ -0,0 +1,60 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+//** metadata of a stored signal without its samples, for listings that do not plot anything
+@Data
+public class SignalHeader {
+    private Long id;
+    private Long measurementSessionId; //** FK measurementSession
+    private LocalDateTime timestamp;
+    private SignalType signalType;
+    private int fs; //sampling frequency
+    private Integer sourceFs; //** rate the device recorded at, before resampling to fs; null for older signals
+    private Double qualityScore; //** 0-1 from the upload quality gate; null for live and older signals
+    private Integer sampleCount; //** null for signals stored before the count was recorded
+    private Integer channel; //** index within a multi-channel recording; null for single-channel signals
+
+    public SignalHeader(Long id, Long measurementSessionId, LocalDateTime timestamp, SignalType signalType, int fs, Integer sourceFs, Double qualityScore, Integer sampleCount, Integer channel) {
+        this.id = id;
+        this.measurementSessionId = measurementSessionId;
+        this.timestamp = timestamp;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.sourceFs = sourceFs;
+        this.qualityScore = qualityScore;
+        this.sampleCount = sampleCount;
+        this.channel = channel;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SignalHeader that = (SignalHeader) o;
+        return fs == that.fs && Objects.equals(id, that.id) && Objects.equals(measurementSessionId, that.measurementSessionId) && Objects.equals(timestamp, that.timestamp) && signalType == that.signalType && Objects.equals(sourceFs, that.sourceFs) && Objects.equals(qualityScore, that.qualityScore) && Objects.equals(sampleCount, that.sampleCount) && Objects.equals(channel, that.channel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, measurementSessionId, timestamp, signalType, fs, sourceFs, qualityScore, sampleCount, channel);
+    }
+
+    @Override
+    public String toString() {
+        return "SignalHeader{" +
+                "id=" + id +
+                ", measurementSessionId=" + measurementSessionId +
+                ", timestamp=" + timestamp +
+                ", signalType=" + signalType +
+                ", fs=" + fs +
+                ", sourceFs=" + sourceFs +
+                ", qualityScore=" + qualityScore +
+                ", sampleCount=" + sampleCount +
+                ", channel=" + channel +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+//** outcome of a historical signal import run; failed files are not checkpointed, so the next run retries them
+@Data
+public class SignalImportSummary {
+    public static final int MAX_ERRORS = 100;
+
+    private int files; //** recordings found in the directory
+    private int alreadyImported; //** skipped because an earlier run checkpointed them
+    private int imported;
+    private int failed;
+    private long signals; //** signal rows written, one per channel
+    private long elapsedMs;
+    private Map<String, String> errors = new LinkedHashMap<>(); //** first failures by path, at most MAX_ERRORS
+
+    public void addError(String path, String error) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.put(path, error);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SignalImportSummary that = (SignalImportSummary) o;
+        return files == that.files && alreadyImported == that.alreadyImported && imported == that.imported && failed == that.failed && signals == that.signals && elapsedMs == that.elapsedMs && Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(files, alreadyImported, imported, failed, signals, elapsedMs, errors);
+    }
+
+    @Override
+    public String toString() {
+        return "SignalImportSummary{" +
+                "files=" + files +
+                ", alreadyImported=" + alreadyImported +
+                ", imported=" + imported +
+                ", failed=" + failed +
+                ", signals=" + signals +
+                ", elapsedMs=" + elapsedMs +
+                ", errors=" + errors +
+                '}';
+    }
+}
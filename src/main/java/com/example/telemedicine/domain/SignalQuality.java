@@ -0,0 +1,69 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Objects;
+
+//** quality report of an uploaded recording, computed on the raw samples before any filtering
+@Data
+public class SignalQuality {
+    private int sampleCount;
+    private Integer expectedSamples; //** from the declared duration; null when none was declared
+    private int invalidSamples; //** tokens that are not finite numbers
+    private double saturationRatio; //** fraction of samples at 0 or the ADC maximum
+    private double flatlineRatio; //** fraction of samples in constant runs longer than the flatline threshold
+    private double longestFlatlineSec;
+    private double baselineWander; //** ADC units; range of the one-second means
+    private double score; //** 0-1, 1 for a clean recording
+    private List<String> problems; //** reasons the recording is rejected; empty when it is accepted
+
+    public SignalQuality() {
+    }
+
+    public SignalQuality(int sampleCount, Integer expectedSamples, int invalidSamples, double saturationRatio,
+                         double flatlineRatio, double longestFlatlineSec, double baselineWander, double score,
+                         List<String> problems) {
+        this.sampleCount = sampleCount;
+        this.expectedSamples = expectedSamples;
+        this.invalidSamples = invalidSamples;
+        this.saturationRatio = saturationRatio;
+        this.flatlineRatio = flatlineRatio;
+        this.longestFlatlineSec = longestFlatlineSec;
+        this.baselineWander = baselineWander;
+        this.score = score;
+        this.problems = problems;
+    }
+
+    public boolean isAcceptable() {
+        return problems == null || problems.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SignalQuality that = (SignalQuality) o;
+        return sampleCount == that.sampleCount && invalidSamples == that.invalidSamples && Double.compare(saturationRatio, that.saturationRatio) == 0 && Double.compare(flatlineRatio, that.flatlineRatio) == 0 && Double.compare(longestFlatlineSec, that.longestFlatlineSec) == 0 && Double.compare(baselineWander, that.baselineWander) == 0 && Double.compare(score, that.score) == 0 && Objects.equals(expectedSamples, that.expectedSamples) && Objects.equals(problems, that.problems);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sampleCount, expectedSamples, invalidSamples, saturationRatio, flatlineRatio, longestFlatlineSec, baselineWander, score, problems);
+    }
+
+    @Override
+    public String toString() {
+        return "SignalQuality{" +
+                "sampleCount=" + sampleCount +
+                ", expectedSamples=" + expectedSamples +
+                ", invalidSamples=" + invalidSamples +
+                ", saturationRatio=" + saturationRatio +
+                ", flatlineRatio=" + flatlineRatio +
+                ", longestFlatlineSec=" + longestFlatlineSec +
+                ", baselineWander=" + baselineWander +
+                ", score=" + score +
+                ", problems=" + problems +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+//** signal with its samples as numbers instead of text, for the compact wire formats
+@Data
+public class SignalSamples {
+    private Long id;
+    private Long measurementSessionId; //** FK measurementSession
+    private LocalDateTime timestamp;
+    private SignalType signalType;
+    private int fs; //sampling frequency
+    private float[] samples;
+
+    public SignalSamples(Long id, Long measurementSessionId, LocalDateTime timestamp, SignalType signalType, int fs, float[] samples) {
+        this.id = id;
+        this.measurementSessionId = measurementSessionId;
+        this.timestamp = timestamp;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.samples = samples;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SignalSamples that = (SignalSamples) o;
+        return fs == that.fs && Objects.equals(id, that.id) && Objects.equals(measurementSessionId, that.measurementSessionId) && Objects.equals(timestamp, that.timestamp) && signalType == that.signalType && Arrays.equals(samples, that.samples);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, measurementSessionId, timestamp, signalType, fs, Arrays.hashCode(samples));
+    }
+
+    @Override
+    public String toString() {
+        return "SignalSamples{" +
+                "id=" + id +
+                ", measurementSessionId=" + measurementSessionId +
+                ", timestamp=" + timestamp +
+                ", signalType=" + signalType +
+                ", fs=" + fs +
+                ", samples=" + samples.length + " values" +
+                '}';
+    }
+}
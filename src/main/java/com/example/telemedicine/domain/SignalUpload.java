@@ -0,0 +1,28 @@
+package com.example.telemedicine.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+//** state of a resumable signal upload as reported to the client
+@Data
+public class SignalUpload {
+    private String uploadId;
+    private Long sessionId;
+    private SignalType signalType;
+    private long committedOffset; //** bytes stored so far, the next chunk must start here
+    private int samplesParsed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public SignalUpload(String uploadId, Long sessionId, SignalType signalType, long committedOffset,
+                        int samplesParsed, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.uploadId = uploadId;
+        this.sessionId = sessionId;
+        this.signalType = signalType;
+        this.committedOffset = committedOffset;
+        this.samplesParsed = samplesParsed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.telemedicine.domain;
+
+import com.example.telemedicine.signal.DecimationMode;
+import lombok.Data;
+
+//** decimated window of a signal, ready to be plotted
+@Data
+public class SignalView {
+    private Long signalId;
+    private SignalType signalType;
+    private int fs;
+    private int totalSamples;
+    private double startTime; //** seconds from the start of the recording
+    private double endTime;
+    private DecimationMode mode;
+    private double[] time; //** seconds of every point
+    private double[] values;
+
+    public SignalView(Long signalId, SignalType signalType, int fs, int totalSamples, double startTime, double endTime,
+                      DecimationMode mode, double[] time, double[] values) {
+        this.signalId = signalId;
+        this.signalType = signalType;
+        this.fs = fs;
+        this.totalSamples = totalSamples;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.mode = mode;
+        this.time = time;
+        this.values = values;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.telemedicine.exceptions;
+
+import com.example.telemedicine.domain.SignalQuality;
+import lombok.Getter;
+
+/**
+ * Exception thrown when an uploaded recording fails the quality gate before processing.
+ * Carries the quality report so the client can see why it was rejected.
+ * Mainly used in {@link com.example.telemedicine.repository.PatientRepository}.
+ */
+@Getter
+public class SignalQualityException extends RuntimeException {
+    private final SignalQuality quality;
+
+    public SignalQualityException(SignalQuality quality) {
+        super("Recording rejected: " + String.join("; ", quality.getProblems()));
+        this.quality = quality;
+    }
+}
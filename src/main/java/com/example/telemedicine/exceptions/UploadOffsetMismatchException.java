@@ -0,0 +1,18 @@
+package com.example.telemedicine.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when an upload chunk does not continue where the committed data ends.
+ * Carries the committed offset so the client can resume from it.
+ * Mainly used in {@link com.example.telemedicine.service.SignalUploadService}.
+ */
+@Getter
+public class UploadOffsetMismatchException extends RuntimeException {
+    private final long committedOffset;
+
+    public UploadOffsetMismatchException(long committedOffset) {
+        super("Chunk must start at offset " + committedOffset);
+        this.committedOffset = committedOffset;
+    }
+}
@@ -2,12 +2,19 @@ package com.example.telemedicine.repository;
 
 import com.example.telemedicine.domain.*;
 import com.example.telemedicine.repository.mapper.PatientRowMapper;
+import com.example.telemedicine.repository.mapper.ReportHeaderRowMapper;
+import com.example.telemedicine.repository.mapper.ReportRowMapper;
+import com.example.telemedicine.storage.BlobStore;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.List;
@@ -15,9 +22,15 @@ import java.util.List;
 @Repository
 public class DoctorRepository {
     private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final ReportRowMapper reportRowMapper;
+    private final ReportHeaderRowMapper reportHeaderRowMapper;
 
-    public DoctorRepository(JdbcTemplate jdbcTemplate) {
+    public DoctorRepository(JdbcTemplate jdbcTemplate, BlobStore blobStore) {
         this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.reportRowMapper = new ReportRowMapper(blobStore);
+        this.reportHeaderRowMapper = new ReportHeaderRowMapper(blobStore);
     }
 
     /**
@@ -191,6 +204,25 @@ public class DoctorRepository {
         return jdbcTemplate.query(sql, new PatientRowMapper(), doctorId);
     }
 
+    /**
+     * Checks whether a session belongs to one of the patients assigned to a doctor
+     *
+     * @param sessionId the id of the session
+     * @param doctorId  the id of the doctor
+     * @return true if the session exists and its patient is assigned to the doctor
+     */
+    public boolean isSessionOfDoctorPatient(Long sessionId, Long doctorId) {
+        String sql = """
+                SELECT COUNT(*)
+                FROM measurement_sessions s
+                JOIN patients p ON p.patient_id = s.patient_id
+                WHERE s.session_id = ? AND p.doctor_id = ?
+                """;
+
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, sessionId, doctorId);
+        return count != null && count > 0;
+    }
+
 
     /**
      * Get a single patient by ID
@@ -244,14 +276,22 @@ public class DoctorRepository {
 
 
     /**
-     * This method saves a report as a pdf in the database
+     * This method saves a report as a pdf. The file goes to the blob store and the
+     * database row only keeps its reference.
      *
      * @param report the report to be saved
      * @return the report saved
      */
     public Report saveReport(Report report) {
+        String fileRef;
+        try {
+            fileRef = blobStore.put(report.getFileData());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store report file", e);
+        }
+
         String sql = """
-                    INSERT INTO report (patient_id, doctor_id, session_id, file_name, file_type, file_data)
+                    INSERT INTO report (patient_id, doctor_id, session_id, file_name, file_type, file_ref)
                     VALUES (?, ?, ?, ?, ?, ?)
                 """;
 
@@ -264,12 +304,13 @@ public class DoctorRepository {
             ps.setLong(3, report.getSessionId());
             ps.setString(4, report.getFileName());
             ps.setString(5, report.getFileType());
-            ps.setBytes(6, report.getFileData());
+            ps.setString(6, fileRef);
             return ps;
         }, keyHolder);
 
         Long id = ((Number) keyHolder.getKeys().get("report_id")).longValue();
         report.setReportId(id);
+        report.setFileRef(fileRef);
         return report;
     }
 
@@ -284,23 +325,87 @@ public class DoctorRepository {
         String sql = "SELECT * FROM report WHERE report_id = ? AND doctor_id = ?";
 
         try {
-            return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-                return new Report(
-                        rs.getLong("report_id"),
-                        rs.getLong("patient_id"),
-                        rs.getLong("doctor_id"),
-                        rs.getLong("session_id"),
-                        rs.getBytes("file_data"),
-                        rs.getString("file_name"),
-                        rs.getString("file_type"),
-                        rs.getTimestamp("created_at").toLocalDateTime()
-                );
-            }, reportId, doctorId);
+            return jdbcTemplate.queryForObject(sql, reportRowMapper, reportId, doctorId);
         } catch (org.springframework.dao.EmptyResultDataAccessException e) {
             return null;
         }
     }
 
+    /**
+     * Retrieves the metadata of a report without loading its file data or changing anything,
+     * so it can be used to check who owns the report.
+     * The size of the stored file is returned in {@link Report#getFileSize()}; reports still
+     * stored inline in file_data have no file reference until {@link #moveReportFileToBlobStore(Report)}.
+     *
+     * @param reportId the id of the report
+     * @return the report metadata, or null if it does not exist
+     */
+    public Report findReportHeader(Long reportId) {
+        String sql = "SELECT " + ReportHeaderRowMapper.COLUMNS + " FROM report WHERE report_id = ?";
+
+        try {
+            return jdbcTemplate.queryForObject(sql, reportHeaderRowMapper, reportId);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Moves the inline file_data of a report into the blob store, for a report whose download
+     * has been authorized, and sets the file reference and size of the metadata.
+     *
+     * @param report report metadata as returned by {@link #findReportHeader(Long)}
+     */
+    public void moveReportFileToBlobStore(Report report) {
+        String fileRef = migrateReportFile(report.getReportId());
+        report.setFileRef(fileRef);
+        try {
+            report.setFileSize(fileRef != null ? blobStore.size(fileRef) : 0L);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Report file " + fileRef + " missing from blob store", e);
+        }
+    }
+
+    /**
+     * Moves the inline file_data of a report into the blob store and keeps only the reference.
+     *
+     * @param reportId the id of the report
+     * @return the blob store key of the file, or null if the report has no file
+     */
+    private String migrateReportFile(Long reportId) {
+        byte[] data = jdbcTemplate.queryForObject(
+                "SELECT file_data FROM report WHERE report_id = ?", (rs, rowNum) -> rs.getBytes("file_data"), reportId);
+        if (data == null) {
+            return null;
+        }
+
+        String fileRef;
+        try {
+            fileRef = blobStore.put(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not migrate report file", e);
+        }
+        jdbcTemplate.update("UPDATE report SET file_ref = ?, file_data = NULL WHERE report_id = ? AND file_ref IS NULL",
+                fileRef, reportId);
+        return fileRef;
+    }
+
+    /**
+     * Copies a byte range of a stored report file to the given stream.
+     * The bytes are transferred from the blob store file with
+     * {@link java.nio.channels.FileChannel#transferTo}, without copying the file into the heap.
+     *
+     * @param report report metadata as returned by {@link #findReportHeader(Long)}
+     * @param offset first byte to copy (0-based)
+     * @param length number of bytes to copy
+     * @param out    destination stream
+     * @throws IOException if the file cannot be read or the stream written
+     */
+    public void streamReportData(Report report, long offset, long length, OutputStream out) throws IOException {
+        blobStore.transferTo(report.getFileRef(), offset, length, Channels.newChannel(out));
+        out.flush();
+    }
+
     public List<Locality> getAllLocalities() {
         String sql = "SELECT locality_id, name, latitude, longitude FROM localities ORDER BY name";
         return jdbcTemplate.query(sql, (rs, rowNum) ->
@@ -324,17 +429,14 @@ public class DoctorRepository {
                 ), id);
     }
 
+    /**
+     * Lists the reports of a doctor without their files, which are fetched one at a time.
+     *
+     * @param doctorId the id of the doctor
+     * @return the reports, newest first, with their file size instead of their file
+     */
     public List<Report> getAllReports(Long doctorId) {
-        String sql = "SELECT * FROM report WHERE doctor_id = ? ORDER BY created_at DESC";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new Report(
-                rs.getLong("report_id"),
-                rs.getLong("patient_id"),
-                rs.getLong("doctor_id"),
-                rs.getLong("session_id"),
-                rs.getBytes("file_data"),
-                rs.getString("file_name"),
-                rs.getString("file_type"),
-                rs.getTimestamp("created_at").toLocalDateTime()
-        ), doctorId);
+        String sql = "SELECT " + ReportHeaderRowMapper.COLUMNS + " FROM report WHERE doctor_id = ? ORDER BY created_at DESC";
+        return jdbcTemplate.query(sql, reportHeaderRowMapper, doctorId);
     }
 }
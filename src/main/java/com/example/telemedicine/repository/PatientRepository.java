@@ -1,7 +1,13 @@
 package com.example.telemedicine.repository;
 
 import com.example.telemedicine.domain.*;
+import com.example.telemedicine.repository.mapper.ContractionFeaturesRowMapper;
+import com.example.telemedicine.repository.mapper.EcgFeaturesRowMapper;
+import com.example.telemedicine.repository.mapper.ReportHeaderRowMapper;
+import com.example.telemedicine.repository.mapper.ReportRowMapper;
 import com.example.telemedicine.signal.*;
+import com.example.telemedicine.storage.BlobStore;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -10,8 +16,10 @@ import org.springframework.stereotype.Repository;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -19,9 +27,30 @@ import java.util.*;
 @Repository
 public class PatientRepository {
     private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final ReportRowMapper reportRowMapper;
+    private final ReportHeaderRowMapper reportHeaderRowMapper;
 
-    public PatientRepository(JdbcTemplate jdbcTemplate) {
+    private static final String INSERT_SIGNAL_SQL = """
+                INSERT INTO signals (session_id, time_stamp, signal_type, patient_data, fs, source_fs, quality_score, pyramid, sample_count, channel)
+                VALUES (?, ?, ?::signal_type_enum, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    // samples of a signal; a live recording keeps them in signal_chunks until joinSignalChunks moves them
+    private static final String SIGNAL_DATA = "COALESCE(NULLIF(patient_data, ''), (SELECT string_agg(c.data, ',' ORDER BY c.seq) "
+            + "FROM signal_chunks c WHERE c.signal_id = signals.signal_id), patient_data)";
+    private static final String UPSERT_ECG_FEATURES_SQL = "INSERT INTO ecg_features (signal_id, beat_count, mean_hr, min_hr, max_hr, sdnn, rmssd, pnn50, rr_intervals) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (signal_id) DO UPDATE SET beat_count = EXCLUDED.beat_count, mean_hr = EXCLUDED.mean_hr, "
+            + "min_hr = EXCLUDED.min_hr, max_hr = EXCLUDED.max_hr, sdnn = EXCLUDED.sdnn, rmssd = EXCLUDED.rmssd, "
+            + "pnn50 = EXCLUDED.pnn50, rr_intervals = EXCLUDED.rr_intervals";
+    private static final String INSERT_EMG_FEATURES_SQL = "INSERT INTO emg_features (signal_id, contraction_index, onset_sample, offset_sample, rms, mean_frequency, median_frequency) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public PatientRepository(JdbcTemplate jdbcTemplate, BlobStore blobStore) {
         this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.reportRowMapper = new ReportRowMapper(blobStore);
+        this.reportHeaderRowMapper = new ReportHeaderRowMapper(blobStore);
     }
 
     /**
@@ -176,13 +205,24 @@ public class PatientRepository {
      * @throws IllegalStateException if the session ID cannot be retrieved (DB misconfiguration).
      */
     public MeasurementSession startNewSession(Long patientId) {
+        return startNewSession(patientId, LocalDateTime.now());
+    }
+
+    /**
+     * Creates a measurement session recorded at a given time, e.g. one uploaded later from an offline backlog.
+     *
+     * @param patientId ID of the patient the session belongs to.
+     * @param now       Time the session was recorded.
+     * @return A MeasurementSession representing the new session.
+     * @throws IllegalStateException if the session ID cannot be retrieved (DB misconfiguration).
+     */
+    public MeasurementSession startNewSession(Long patientId, LocalDateTime now) {
         String sql = """
                 INSERT INTO measurement_sessions (patient_id, time_stamp)
                 VALUES (?, ?)
                 """;
 
         KeyHolder keyHolder = new GeneratedKeyHolder();
-        LocalDateTime now = LocalDateTime.now();
 
         jdbcTemplate.update(connection -> {
             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
@@ -256,8 +296,8 @@ public class PatientRepository {
         }
 
         String sql = """
-                INSERT INTO signals (session_id, time_stamp, signal_type, patient_data)
-                VALUES (?, ?, ?::signal_type_enum, ?)
+                INSERT INTO signals (session_id, time_stamp, signal_type, patient_data, pyramid, sample_count)
+                VALUES (?, ?, ?::signal_type_enum, ?, ?, ?)
                 """;
 
         LocalDateTime timestamp;
@@ -267,8 +307,11 @@ public class PatientRepository {
             timestamp = LocalDateTime.now();
         }
 
+        double[] samples = signal.getSignalDataAsDoubleArray();
+
         jdbcTemplate.update(sql, sessionId, Timestamp.valueOf(timestamp),
-                signal.getSignalType().name(), signal.getPatientSignalData()
+                signal.getSignalType().name(), signal.getPatientSignalData(),
+                SignalPyramid.build(samples).toBytes(), samples.length
         );
 
         signal.setTimestamp(timestamp);
@@ -283,7 +326,8 @@ public class PatientRepository {
      * @return List of Signal ordered chronologically.
      */
     public List<Signal> findSignalsBySessionId(Long sessionId) {
-        String sql = "SELECT signal_id, session_id, time_stamp, patient_data, fs, signal_type FROM signals WHERE session_id = ? ORDER BY time_stamp";
+        String sql = "SELECT signal_id, session_id, time_stamp, " + SIGNAL_DATA + " AS patient_data, fs, signal_type "
+                + "FROM signals WHERE session_id = ? ORDER BY time_stamp";
         return jdbcTemplate.query(sql, new Object[]{sessionId}, (rs, rowNum) ->
                 new Signal(
                         rs.getLong("signal_id"),
@@ -296,6 +340,30 @@ public class PatientRepository {
     }
 
 
+    /**
+     * Retrieves a single signal with its data
+     *
+     * @param signalId ID of the signal.
+     * @return the Signal, or null if it does not exist.
+     */
+    public Signal findSignalById(Long signalId) {
+        String sql = "SELECT signal_id, session_id, time_stamp, " + SIGNAL_DATA + " AS patient_data, fs, signal_type "
+                + "FROM signals WHERE signal_id = ?";
+        try {
+            return jdbcTemplate.queryForObject(sql, (rs, rowNum) ->
+                    new Signal(
+                            rs.getLong("signal_id"),
+                            rs.getLong("session_id"),
+                            rs.getTimestamp("time_stamp").toLocalDateTime(),
+                            SignalType.valueOf(rs.getString("signal_type")),
+                            rs.getString("patient_data"),
+                            rs.getInt("fs")
+                    ), signalId);
+        } catch (org.springframework.dao.EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
     /**
      * Retrieves all symptoms recorded in a specific measurement session
      *
@@ -379,6 +447,35 @@ public class PatientRepository {
         }, sessionId);
     }
 
+    /**
+     * Finds the sessions an earlier batch upload with the same idempotency key stored.
+     *
+     * @param patientId      ID of the patient.
+     * @param idempotencyKey Key the client sent with the batch.
+     * @return Session ID by position of the session in the manifest.
+     */
+    public Map<Integer, Long> findBatchSessionIds(Long patientId, String idempotencyKey) {
+        Map<Integer, Long> sessionIds = new HashMap<>();
+        jdbcTemplate.query("SELECT session_index, session_id FROM batch_upload_sessions WHERE patient_id = ? AND idempotency_key = ?",
+                rs -> {
+                    sessionIds.put(rs.getInt("session_index"), rs.getLong("session_id"));
+                }, patientId, idempotencyKey);
+        return sessionIds;
+    }
+
+    /**
+     * Records that a session of a batch upload was stored, in the transaction storing it.
+     *
+     * @param patientId      ID of the patient.
+     * @param idempotencyKey Key the client sent with the batch.
+     * @param index          Position of the session in the manifest.
+     * @param sessionId      ID of the stored session.
+     */
+    public void saveBatchSession(Long patientId, String idempotencyKey, int index, Long sessionId) {
+        jdbcTemplate.update("INSERT INTO batch_upload_sessions (patient_id, idempotency_key, session_index, session_id) VALUES (?, ?, ?, ?)",
+                patientId, idempotencyKey, index, sessionId);
+    }
+
     /**
      * Retrieves all measurement sessions that occurred on a specific date.
      *
@@ -404,15 +501,80 @@ public class PatientRepository {
 
 
     /**
-     * Reads an uploaded EMG file (expected format: first line = sampling rate,
-     * second line = raw data), validates it, and stores it in the database.
+     * Inserts the processed files of one session and their features, one JDBC batch per table.
+     *
+     * @param sessionId Session the signals belong to.
+     * @param timestamp Time of the recording.
+     * @param files     Processed channels of each file of the session; the channels of a file with
+     *                  more than one are stored with their channel index.
+     * @return Headers of the inserted signals, in insertion order.
+     */
+    public List<SignalHeader> saveSignalBatch(Long sessionId, LocalDateTime timestamp, List<List<ProcessedSignal>> files) {
+        List<ProcessedSignal> rows = new ArrayList<>();
+        List<Integer> channels = new ArrayList<>();
+        for (List<ProcessedSignal> file : files) {
+            for (int c = 0; c < file.size(); c++) {
+                rows.add(file.get(c));
+                channels.add(file.size() > 1 ? c : null);
+            }
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SIGNAL_SQL, new String[]{"signal_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProcessedSignal row = rows.get(i);
+                        bindSignal(ps, sessionId, row.type, timestamp, row.data, row.fs, row.sourceFs,
+                                row.qualityScore, row.pyramid, row.length, channels.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keyHolder);
+
+        List<SignalHeader> headers = new ArrayList<>(rows.size());
+        List<Object[]> ecgRows = new ArrayList<>();
+        List<Object[]> emgRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ProcessedSignal row = rows.get(i);
+            Long signalId = ((Number) keyHolder.getKeyList().get(i).get("signal_id")).longValue();
+            headers.add(new SignalHeader(signalId, sessionId, timestamp, row.type, row.fs, row.sourceFs,
+                    row.qualityScore, row.length, channels.get(i)));
+            if (row.ecgFeatures != null) {
+                EcgFeatures f = row.ecgFeatures;
+                double[] rr = f.getRrIntervals().stream().mapToDouble(Double::doubleValue).toArray();
+                ecgRows.add(new Object[]{signalId, f.getBeatCount(), f.getMeanHr(), f.getMinHr(), f.getMaxHr(),
+                        f.getSdnn(), f.getRmssd(), f.getPnn50(), SignalProcessing.doubleArrayToString(rr)});
+            }
+            if (row.contractions != null) {
+                for (ContractionFeatures f : row.contractions) {
+                    emgRows.add(new Object[]{signalId, f.getContractionIndex(), f.getOnset(), f.getOffset(),
+                            f.getRms(), f.getMeanFrequency(), f.getMedianFrequency()});
+                }
+            }
+        }
+        if (!ecgRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ECG_FEATURES_SQL, ecgRows);
+        }
+        if (!emgRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EMG_FEATURES_SQL, emgRows);
+        }
+        return headers;
+    }
+
+    /**
+     * Checks that a session exists, has a patient and has symptoms logged, before any signal is processed for it.
      *
-     * @param fileBytes Raw file content.
-     * @param sessionId Session ID to attach the signal to.
-     * @return Saved {@link Signal} metadata.
-     * @throws IllegalStateException if the file is malformed or session is invalid.
+     * @param sessionId ID of the session.
+     * @throws IllegalStateException if the session is invalid or has no symptoms.
      */
-    public Signal addEMG(byte[] fileBytes, Long sessionId) {
+    public void checkSession(Long sessionId) {
         ensureSymptomsLogged(sessionId);
         String selectPatientIdSql = "SELECT patient_id FROM measurement_sessions WHERE session_id = ?";
         Long patientId = jdbcTemplate.queryForObject(selectPatientIdSql, Long.class, sessionId);
@@ -420,122 +582,386 @@ public class PatientRepository {
         if (patientId == null) {
             throw new IllegalStateException("No patient found for sessionId: " + sessionId);
         }
+    }
 
-        Signal parsed = SignalProcessing.parseSignalFile(fileBytes, SignalType.EMG, sessionId);
-
-        double[] raw = SignalProcessing.stringToDoubleArray(parsed.getPatientSignalData());
-        double[] mv = SignalProcessing.convertToMV(raw, 3.0, 10, 1000);
-
-        double[] bandpassed = SignalProcessing.bandpassFilter(mv, parsed.getFs(), 50, 300, 4);
-        double[] finalFiltered = SignalProcessing.notchFilter(bandpassed, parsed.getFs(), 60, 30);
-
-        ContractionResult cr = EMGProcessor.detectContractions(finalFiltered, parsed.getFs(), 0.165, 0.10);
-
-        String finalData = SignalProcessing.doubleArrayToString(finalFiltered);
-
-        String sql = """
-                    INSERT INTO signals (session_id, time_stamp, signal_type, patient_data, fs)
-                    VALUES (?, ?, ?::signal_type_enum, ?, ?)
-                """;
+    /**
+     * Stores a processed signal and its features.
+     *
+     * @param sessionId Session the signal belongs to.
+     * @param timestamp Time of the recording.
+     * @param processed Samples and features computed by the pipeline.
+     * @param channel   Channel index within a multi-channel recording, or null.
+     * @return The stored signal.
+     */
+    public Signal saveProcessedSignal(Long sessionId, LocalDateTime timestamp, ProcessedSignal processed, Integer channel) {
+        Long signalId = insertSignal(sessionId, processed.type, timestamp, processed.data, processed.fs,
+                processed.sourceFs, processed.qualityScore, processed.pyramid, processed.length, channel);
+        if (processed.ecgFeatures != null) {
+            saveEcgFeatures(signalId, processed.ecgFeatures);
+        }
+        if (processed.contractions != null) {
+            saveEmgFeatures(signalId, processed.contractions);
+        }
+        Signal signal = new Signal(signalId, sessionId, timestamp, processed.type, processed.data, processed.fs);
+        signal.setChannel(channel);
+        return signal;
+    }
 
-        LocalDateTime timestamp = LocalDateTime.now();
-        KeyHolder key = new GeneratedKeyHolder();
+    /**
+     * Inserts a processed signal together with its min/max pyramid.
+     *
+     * @param sessionId   Session the signal belongs to.
+     * @param type        Signal type.
+     * @param timestamp   Time of the recording.
+     * @param data        Comma-separated samples to store.
+     * @param fs          Sampling frequency of the stored samples.
+     * @param sourceFs    Sampling frequency the samples were recorded at.
+     * @param quality     Quality score of the raw samples, or null if not assessed.
+     * @param pyramid     Min/max pyramid of the samples.
+     * @param sampleCount Number of samples in data.
+     * @param channel     Channel index within a multi-channel recording, or null.
+     * @return ID of the inserted signal.
+     */
+    private Long insertSignal(Long sessionId, SignalType type, LocalDateTime timestamp, String data, int fs,
+                              int sourceFs, Double quality, SignalPyramid pyramid, int sampleCount, Integer channel) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
 
         jdbcTemplate.update(con -> {
-            PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setLong(1, sessionId);
-            ps.setTimestamp(2, Timestamp.valueOf(timestamp));
-            ps.setString(3, SignalType.EMG.name());
-            ps.setString(4, finalData);
-            ps.setInt(5, parsed.getFs());
+            PreparedStatement ps = con.prepareStatement(INSERT_SIGNAL_SQL, Statement.RETURN_GENERATED_KEYS);
+            bindSignal(ps, sessionId, type, timestamp, data, fs, sourceFs, quality, pyramid, sampleCount, channel);
             return ps;
-        }, key);
+        }, keyHolder);
 
-        Long signalId = ((Number) key.getKeys().get("signal_id")).longValue();
+        return ((Number) keyHolder.getKeys().get("signal_id")).longValue();
+    }
 
-        if (hasBothSignals(sessionId)) {
-            generateAndSaveCsvSummary(sessionId);
-        }
+    private static void bindSignal(PreparedStatement ps, Long sessionId, SignalType type, LocalDateTime timestamp,
+                                   String data, int fs, int sourceFs, Double quality, SignalPyramid pyramid,
+                                   int sampleCount, Integer channel) throws SQLException {
+        ps.setLong(1, sessionId);
+        ps.setTimestamp(2, Timestamp.valueOf(timestamp));
+        ps.setString(3, type.name());
+        ps.setString(4, data);
+        ps.setInt(5, fs);
+        ps.setInt(6, sourceFs);
+        ps.setObject(7, quality, Types.DOUBLE);
+        ps.setBytes(8, pyramid != null ? pyramid.toBytes() : null);
+        ps.setInt(9, sampleCount);
+        ps.setObject(10, channel, Types.INTEGER);
+    }
 
-        return new Signal(signalId, sessionId, timestamp, SignalType.EMG, finalData, parsed.getFs());
+    /**
+     * Creates an empty signal that a live recording appends to.
+     *
+     * @param sessionId Session the signal belongs to.
+     * @param type      Signal type.
+     * @param fs        Sampling frequency of the device.
+     * @return ID of the created signal.
+     * @throws IllegalStateException if no symptoms were logged for the session.
+     */
+    public Long createLiveSignal(Long sessionId, SignalType type, int fs) {
+        ensureSymptomsLogged(sessionId);
+        return insertSignal(sessionId, type, LocalDateTime.now(), "", fs, fs, null, null, 0, null);
     }
 
+    /**
+     * Appends a chunk of processed samples to a live signal. The chunk is stored as its own row, so
+     * each append costs the same however long the recording already is; readers of the signal see
+     * the chunks joined until {@link #joinSignalChunks} stores them in the signal.
+     *
+     * @param signalId ID of the signal.
+     * @param chunk    Comma-separated samples to append.
+     * @param count    Number of samples in the chunk.
+     */
+    public void appendSignalChunk(Long signalId, String chunk, int count) {
+        jdbcTemplate.update("""
+                INSERT INTO signal_chunks (signal_id, seq, data)
+                SELECT ?, COALESCE(MAX(seq) + 1, 0), ? FROM signal_chunks WHERE signal_id = ?
+                """, signalId, chunk, signalId);
+        jdbcTemplate.update("UPDATE signals SET sample_count = COALESCE(sample_count, 0) + ? WHERE signal_id = ?",
+                count, signalId);
+    }
 
     /**
-     * Reads an uploaded ECG file (expected format: first line = sampling rate,
-     * second line = raw signal values), validates it, and stores it.
+     * Stores the chunks of a live signal in the signal itself, once the recording has ended, and
+     * deletes them. Must run inside a transaction, so readers see either the chunks or the signal.
      *
-     * @param fileBytes Raw file content.
-     * @param sessionId Session ID to attach the signal to.
-     * @return A {@link Signal} instance containing sampling rate & metadata.
-     * @throws IllegalStateException if file is empty or session invalid.
+     * @param signalId ID of the signal.
      */
-    public Signal addECG(byte[] fileBytes, Long sessionId) {
-        ensureSymptomsLogged(sessionId);
-        String selectPatientIdSql = "SELECT patient_id FROM measurement_sessions WHERE session_id = ?";
-        Long patientId = jdbcTemplate.queryForObject(selectPatientIdSql, Long.class, sessionId);
+    public void joinSignalChunks(Long signalId) {
+        jdbcTemplate.update("""
+                UPDATE signals SET patient_data = (
+                    SELECT string_agg(data, ',' ORDER BY seq) FROM signal_chunks WHERE signal_id = ?)
+                WHERE signal_id = ? AND EXISTS (SELECT 1 FROM signal_chunks WHERE signal_id = ?)
+                """, signalId, signalId, signalId);
+        jdbcTemplate.update("DELETE FROM signal_chunks WHERE signal_id = ?", signalId);
+    }
 
-        if (patientId == null) {
-            throw new IllegalStateException("No patient found for sessionId: " + sessionId);
-        }
+    /**
+     * Stores the min/max pyramid of a signal whose samples were appended after it was created.
+     *
+     * @param signalId    ID of the signal.
+     * @param pyramid     Min/max pyramid of the samples.
+     * @param sampleCount Number of stored samples.
+     */
+    public void saveSignalPyramid(Long signalId, SignalPyramid pyramid, int sampleCount) {
+        jdbcTemplate.update("UPDATE signals SET pyramid = ?, sample_count = ? WHERE signal_id = ?",
+                pyramid.toBytes(), sampleCount, signalId);
+    }
 
-        Signal parsed = SignalProcessing.parseSignalFile(fileBytes, SignalType.ECG, sessionId);
+    /**
+     * Retrieves every signal of a session without its samples. The samples of each signal are
+     * fetched on the first call to {@link Signal#getPatientSignalData()}, so callers that only
+     * need some of them never transfer the rest.
+     *
+     * @param sessionId   ID of the session.
+     * @param withPyramid whether to load the min/max pyramid of each signal as well.
+     * @return List of Signal ordered chronologically.
+     */
+    public List<Signal> findLazySignalsBySessionId(Long sessionId, boolean withPyramid) {
+        String sql = "SELECT signal_id, session_id, time_stamp, signal_type, fs"
+                + (withPyramid ? ", pyramid" : "")
+                + " FROM signals WHERE session_id = ? ORDER BY time_stamp";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Signal signal = new Signal(
+                    rs.getLong("signal_id"),
+                    rs.getLong("session_id"),
+                    rs.getTimestamp("time_stamp").toLocalDateTime(),
+                    SignalType.valueOf(rs.getString("signal_type")),
+                    null,
+                    rs.getInt("fs")
+            );
+            Long signalId = signal.getId();
+            signal.setDataLoader(() -> findSignalDataById(signalId));
+            if (withPyramid) {
+                byte[] pyramid = rs.getBytes("pyramid");
+                signal.setPyramid(pyramid != null ? SignalPyramid.fromBytes(pyramid) : null);
+            }
+            return signal;
+        }, sessionId);
+    }
 
-        double[] raw = SignalProcessing.stringToDoubleArray(parsed.getPatientSignalData());
-        double[] mvSignal = SignalProcessing.convertToMV(raw, 3.3, 10, 1100);
-        double[] filtered = ECGProcessor.applyFilters(mvSignal, parsed.getFs());
+    /**
+     * Retrieves the metadata of every signal of a session, without samples or pyramids.
+     *
+     * @param sessionId ID of the session.
+     * @return List of SignalHeader ordered chronologically.
+     */
+    public List<SignalHeader> findSignalHeadersBySessionId(Long sessionId) {
+        String sql = "SELECT signal_id, session_id, time_stamp, signal_type, fs, source_fs, quality_score, sample_count, channel FROM signals WHERE session_id = ? ORDER BY time_stamp, channel";
+        return jdbcTemplate.query(sql, (rs, rowNum) ->
+                new SignalHeader(
+                        rs.getLong("signal_id"),
+                        rs.getLong("session_id"),
+                        rs.getTimestamp("time_stamp").toLocalDateTime(),
+                        SignalType.valueOf(rs.getString("signal_type")),
+                        rs.getInt("fs"),
+                        rs.getObject("source_fs", Integer.class),
+                        rs.getObject("quality_score", Double.class),
+                        rs.getObject("sample_count", Integer.class),
+                        rs.getObject("channel", Integer.class)
+                ), sessionId);
+    }
 
-        QRSResult qrs = ECGProcessor.detectQRSComplexes(filtered, parsed.getFs());
+    /**
+     * Stores the heart rate and HRV features of an ECG signal, replacing any previous ones.
+     *
+     * @param signalId ID of the signal.
+     * @param features Features computed from its R-peaks.
+     */
+    public void saveEcgFeatures(Long signalId, EcgFeatures features) {
+        double[] rr = features.getRrIntervals().stream().mapToDouble(Double::doubleValue).toArray();
+        jdbcTemplate.update(UPSERT_ECG_FEATURES_SQL, signalId, features.getBeatCount(), features.getMeanHr(), features.getMinHr(),
+                features.getMaxHr(), features.getSdnn(), features.getRmssd(), features.getPnn50(),
+                SignalProcessing.doubleArrayToString(rr));
+        features.setSignalId(signalId);
+    }
 
-        String finalData = SignalProcessing.doubleArrayToString(filtered);
-        String sql = """
-                    INSERT INTO signals (session_id, time_stamp, signal_type, patient_data, fs)
-                    VALUES (?, ?, ?::signal_type_enum, ?, ?)
-                """;
+    /**
+     * Retrieves the stored features of an ECG signal.
+     *
+     * @param signalId ID of the signal.
+     * @return the features, or null if none were computed for this signal.
+     */
+    public EcgFeatures findEcgFeaturesBySignalId(Long signalId) {
+        List<EcgFeatures> features = jdbcTemplate.query(
+                "SELECT * FROM ecg_features WHERE signal_id = ?", new EcgFeaturesRowMapper(), signalId);
+        return features.isEmpty() ? null : features.get(0);
+    }
 
-        LocalDateTime timestamp = LocalDateTime.now();
-        KeyHolder keyHolder = new GeneratedKeyHolder();
+    /**
+     * Retrieves the stored features of every ECG signal of a patient, oldest first, without
+     * touching the samples.
+     *
+     * @param patientId ID of the patient.
+     * @return list of features in recording order.
+     */
+    public List<EcgFeatures> findEcgFeaturesByPatientId(Long patientId) {
+        String sql = "SELECT f.* FROM ecg_features f "
+                + "JOIN signals s ON s.signal_id = f.signal_id "
+                + "JOIN measurement_sessions m ON m.session_id = s.session_id "
+                + "WHERE m.patient_id = ? ORDER BY s.time_stamp";
+        return jdbcTemplate.query(sql, new EcgFeaturesRowMapper(), patientId);
+    }
 
-        jdbcTemplate.update(con -> {
-            PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setLong(1, sessionId);
-            ps.setTimestamp(2, Timestamp.valueOf(timestamp));
-            ps.setString(3, SignalType.ECG.name());
-            ps.setString(4, finalData);
-            ps.setInt(5, parsed.getFs());
-            return ps;
-        }, keyHolder);
+    /**
+     * Stores the per-contraction features of an EMG signal, replacing any previous ones.
+     *
+     * @param signalId ID of the signal.
+     * @param features Features of each contraction.
+     */
+    public void saveEmgFeatures(Long signalId, List<ContractionFeatures> features) {
+        jdbcTemplate.update("DELETE FROM emg_features WHERE signal_id = ?", signalId);
+        jdbcTemplate.batchUpdate(INSERT_EMG_FEATURES_SQL, features, features.size(), (ps, f) -> {
+            ps.setLong(1, signalId);
+            ps.setInt(2, f.getContractionIndex());
+            ps.setInt(3, f.getOnset());
+            ps.setInt(4, f.getOffset());
+            ps.setDouble(5, f.getRms());
+            ps.setDouble(6, f.getMeanFrequency());
+            ps.setDouble(7, f.getMedianFrequency());
+        });
+        features.forEach(f -> f.setSignalId(signalId));
+    }
 
-        Long signalId = ((Number) keyHolder.getKeys().get("signal_id")).longValue();
+    /**
+     * Retrieves the stored contraction features of an EMG signal.
+     *
+     * @param signalId ID of the signal.
+     * @return list of features in contraction order, empty if there are none.
+     */
+    public List<ContractionFeatures> findEmgFeaturesBySignalId(Long signalId) {
+        return jdbcTemplate.query("SELECT * FROM emg_features WHERE signal_id = ? ORDER BY contraction_index",
+                new ContractionFeaturesRowMapper(), signalId);
+    }
 
-        if (hasBothSignals(sessionId)) {
-            generateAndSaveCsvSummary(sessionId);
-        }
+    /**
+     * Retrieves the stored contraction features of every EMG signal of a patient, oldest first,
+     * without touching the samples.
+     *
+     * @param patientId ID of the patient.
+     * @return list of features in recording order.
+     */
+    public List<ContractionFeatures> findEmgFeaturesByPatientId(Long patientId) {
+        String sql = "SELECT f.* FROM emg_features f "
+                + "JOIN signals s ON s.signal_id = f.signal_id "
+                + "JOIN measurement_sessions m ON m.session_id = s.session_id "
+                + "WHERE m.patient_id = ? ORDER BY s.time_stamp, f.contraction_index";
+        return jdbcTemplate.query(sql, new ContractionFeaturesRowMapper(), patientId);
+    }
+
+    /**
+     * Retrieves only the samples of a signal.
+     *
+     * @param signalId ID of the signal.
+     * @return the comma separated samples, or null if the signal does not exist.
+     */
+    public String findSignalDataById(Long signalId) {
+        List<String> data = jdbcTemplate.queryForList("SELECT " + SIGNAL_DATA + " FROM signals WHERE signal_id = ?", String.class, signalId);
+        return data.isEmpty() ? null : data.get(0);
+    }
 
-        return new Signal(signalId, sessionId, timestamp, SignalType.ECG, finalData, parsed.getFs());
+    /**
+     * Retrieves a signal without its samples, together with its min/max pyramid.
+     *
+     * @param signalId ID of the signal.
+     * @return Signal whose data is not loaded and whose pyramid is set when available,
+     * or null if the signal does not exist.
+     */
+    public Signal findSignalOverviewById(Long signalId) {
+        String sql = "SELECT signal_id, session_id, time_stamp, signal_type, fs, pyramid FROM signals WHERE signal_id = ?";
+        try {
+            return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+                Signal signal = new Signal(
+                        rs.getLong("signal_id"),
+                        rs.getLong("session_id"),
+                        rs.getTimestamp("time_stamp").toLocalDateTime(),
+                        SignalType.valueOf(rs.getString("signal_type")),
+                        null,
+                        rs.getInt("fs")
+                );
+                byte[] pyramid = rs.getBytes("pyramid");
+                signal.setPyramid(pyramid != null ? SignalPyramid.fromBytes(pyramid) : null);
+                return signal;
+            }, signalId);
+        } catch (org.springframework.dao.EmptyResultDataAccessException e) {
+            return null;
+        }
     }
 
+    /**
+     * Stores the CSV summary of a session. The file goes to the blob store and the
+     * session row only keeps its reference.
+     *
+     * @param sessionId ID of the session
+     * @param csvBytes  content of the CSV file
+     * @param filename  name of the file
+     * @param mimeType  content type of the file
+     */
     public void saveCsvSummaryFile(Long sessionId, byte[] csvBytes, String filename, String mimeType) {
+        String fileRef;
+        try {
+            fileRef = blobStore.put(csvBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store session file", e);
+        }
+
         String sql = """
                 UPDATE measurement_sessions
-                SET session_file = ?, session_filename = ?, session_mime_type = ? 
+                SET session_file_ref = ?, session_file = NULL, session_filename = ?, session_mime_type = ?
                 WHERE session_id = ?
                 """;
-        jdbcTemplate.update(sql, csvBytes, filename, mimeType, sessionId);
+        jdbcTemplate.update(sql, fileRef, filename, mimeType, sessionId);
     }
 
+    /**
+     * Retrieves the CSV summary of a session. Files still stored inline in
+     * session_file are moved to the blob store on first access.
+     *
+     * @param sessionId ID of the session
+     * @return content of the CSV file, or null if none was generated
+     */
     public byte[] getCsvSummaryFile(Long sessionId) {
-        String sql = "SELECT session_file FROM measurement_sessions WHERE session_id = ?";
-        return jdbcTemplate.queryForObject(sql, (rs, rowNum) ->
-                        rs.getBytes("session_file"),
-                sessionId);
+        String sql = "SELECT session_file_ref FROM measurement_sessions WHERE session_id = ?";
+        String fileRef = jdbcTemplate.queryForObject(sql, (rs, rowNum) -> rs.getString("session_file_ref"), sessionId);
+
+        try {
+            if (fileRef != null) {
+                return blobStore.read(fileRef);
+            }
+
+            byte[] inline = jdbcTemplate.queryForObject(
+                    "SELECT session_file FROM measurement_sessions WHERE session_id = ?",
+                    (rs, rowNum) -> rs.getBytes("session_file"), sessionId);
+            if (inline != null) {
+                String migratedRef = blobStore.put(inline);
+                jdbcTemplate.update("""
+                        UPDATE measurement_sessions
+                        SET session_file_ref = ?, session_file = NULL
+                        WHERE session_id = ? AND session_file_ref IS NULL
+                        """, migratedRef, sessionId);
+            }
+            return inline;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read session file", e);
+        }
     }
 
     public void generateAndSaveCsvSummary(Long sessionId) {
         MeasurementSession session = findSessionsById(sessionId);
         Patient patient = findById(session.getPatientId());
         Set<SymptomType> symptoms = findSymptomsBySessionId(sessionId);
-        List<Signal> signals = findSignalsBySessionId(sessionId);
+        // only the first characters of each signal are written, so the database truncates them
+        List<Signal> signals = jdbcTemplate.query("SELECT signal_id, session_id, time_stamp, signal_type, fs, LEFT("
+                + SIGNAL_DATA + ", 51) AS patient_data FROM signals WHERE session_id = ? ORDER BY time_stamp", (rs, rowNum) ->
+                new Signal(
+                        rs.getLong("signal_id"),
+                        rs.getLong("session_id"),
+                        rs.getTimestamp("time_stamp").toLocalDateTime(),
+                        SignalType.valueOf(rs.getString("signal_type")),
+                        rs.getString("patient_data"),
+                        rs.getInt("fs")
+                ), sessionId);
 
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         PrintWriter writer = new PrintWriter(baos, true, StandardCharsets.UTF_8);
@@ -721,31 +1147,19 @@ public class PatientRepository {
         return count != null && count == 2;
     }
 
+    /**
+     * Lists the reports of a patient without their files, which are fetched one at a time.
+     *
+     * @param patientId ID of the patient.
+     * @return The reports, newest first, with their file size instead of their file.
+     */
     public List<Report> getAllReports(Long patientId) {
-        String sql = "SELECT * FROM report WHERE patient_id = ? ORDER BY created_at DESC";
-        return jdbcTemplate.query(sql, new Object[]{patientId}, (rs, rowNum) -> new Report(
-                rs.getLong("report_id"),
-                rs.getLong("patient_id"),
-                rs.getLong("doctor_id"),
-                rs.getLong("session_id"),
-                rs.getBytes("file_data"),
-                rs.getString("file_name"),
-                rs.getString("file_type"),
-                rs.getTimestamp("created_at").toLocalDateTime()
-        ));
+        String sql = "SELECT " + ReportHeaderRowMapper.COLUMNS + " FROM report WHERE patient_id = ? ORDER BY created_at DESC";
+        return jdbcTemplate.query(sql, reportHeaderRowMapper, patientId);
     }
 
     public Report getSingleReport(Long reportId) {
         String sql = "SELECT * FROM report WHERE report_id = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{reportId}, (rs, rowNum) -> new Report(
-                rs.getLong("report_id"),
-                rs.getLong("patient_id"),
-                rs.getLong("doctor_id"),
-                rs.getLong("session_id"),
-                rs.getBytes("file_data"),
-                rs.getString("file_name"),
-                rs.getString("file_type"),
-                rs.getTimestamp("created_at").toLocalDateTime()
-        ));
+        return jdbcTemplate.queryForObject(sql, reportRowMapper, reportId);
     }
 }
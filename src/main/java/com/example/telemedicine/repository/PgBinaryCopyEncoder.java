@@ -0,0 +1,153 @@
+package com.example.telemedicine.repository;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Writes rows in the PostgreSQL binary COPY format, for {@code COPY ... FROM STDIN (FORMAT BINARY)}.
+ * Binary COPY skips the server-side parsing of decimal text and is the fastest way to load rows, but
+ * every value must match the width of its column exactly, so numeric and timestamp writers take the
+ * column's {@code udt_name} from {@code information_schema.columns}.
+ * <p>
+ * Usage: {@link #row(int)} with the number of fields, one writer call per field, and
+ * {@link #close()} after the last row to write the trailer and close the stream.
+ */
+public class PgBinaryCopyEncoder implements Closeable {
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final DataOutputStream out;
+
+    /**
+     * Writes the file header.
+     * @param out Stream receiving the COPY data, e.g. a {@code PGCopyOutputStream}.
+     * @throws IOException If writing fails.
+     */
+    public PgBinaryCopyEncoder(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(SIGNATURE);
+        this.out.writeInt(0); // flags: no OIDs
+        this.out.writeInt(0); // header extension length
+    }
+
+    /**
+     * Starts a row.
+     * @param fields Number of fields that follow.
+     */
+    public void row(int fields) throws IOException {
+        out.writeShort(fields);
+    }
+
+    public void nullField() throws IOException {
+        out.writeInt(-1);
+    }
+
+    /**
+     * Writes an integer field.
+     * @param value Value, or null.
+     * @param udt Column type: int2, int4 or int8.
+     */
+    public void integer(Number value, String udt) throws IOException {
+        if (value == null) {
+            nullField();
+            return;
+        }
+        switch (udt) {
+            case "int2" -> {
+                out.writeInt(2);
+                out.writeShort(value.shortValue());
+            }
+            case "int4" -> {
+                out.writeInt(4);
+                out.writeInt(value.intValue());
+            }
+            case "int8" -> {
+                out.writeInt(8);
+                out.writeLong(value.longValue());
+            }
+            default -> throw new IllegalArgumentException("Column type " + udt + " is not an integer type");
+        }
+    }
+
+    /**
+     * Writes a floating point field.
+     * @param value Value, or null.
+     * @param udt Column type: float4 or float8.
+     */
+    public void floating(Double value, String udt) throws IOException {
+        if (value == null) {
+            nullField();
+            return;
+        }
+        switch (udt) {
+            case "float4" -> {
+                out.writeInt(4);
+                out.writeFloat(value.floatValue());
+            }
+            case "float8" -> {
+                out.writeInt(8);
+                out.writeDouble(value);
+            }
+            default -> throw new IllegalArgumentException("Column type " + udt + " is not a floating point type");
+        }
+    }
+
+    /**
+     * Writes a text, varchar or enum field; enums accept their label in binary COPY.
+     * @param value Value, or null.
+     */
+    public void text(String value) throws IOException {
+        if (value == null) {
+            nullField();
+            return;
+        }
+        bytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a bytea field.
+     * @param value Value, or null.
+     */
+    public void bytes(byte[] value) throws IOException {
+        if (value == null) {
+            nullField();
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    /**
+     * Writes a timestamp field as microseconds since 2000-01-01.
+     * @param value Local date-time, or null.
+     * @param udt Column type: timestamp, or timestamptz, for which the value is taken in the JVM time zone.
+     */
+    public void timestamp(LocalDateTime value, String udt) throws IOException {
+        if (value == null) {
+            nullField();
+            return;
+        }
+        LocalDateTime utc = switch (udt) {
+            case "timestamp" -> value;
+            case "timestamptz" -> value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC")).toLocalDateTime();
+            default -> throw new IllegalArgumentException("Column type " + udt + " is not a timestamp type");
+        };
+        out.writeInt(8);
+        out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, utc));
+    }
+
+    /**
+     * Writes the trailer and closes the underlying stream, which ends the COPY.
+     */
+    @Override
+    public void close() throws IOException {
+        out.writeShort(-1);
+        out.close();
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.telemedicine.repository;
+
+import com.example.telemedicine.domain.ContractionFeatures;
+import com.example.telemedicine.domain.EcgFeatures;
+import com.example.telemedicine.signal.ProcessedSignal;
+import com.example.telemedicine.signal.SignalProcessing;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Writes historical recordings with binary COPY instead of one INSERT per signal, for
+ * {@link com.example.telemedicine.service.SignalImportService}. Signal IDs are reserved from the
+ * sequence up front so the feature rows can be copied in the same transaction, and the path of
+ * every imported file is copied into {@code signal_imports} with them: a chunk is either fully
+ * imported and checkpointed or not at all, so an interrupted import resumes without duplicates.
+ */
+@Repository
+public class SignalImportRepository {
+    private static final int COPY_BUFFER = 1 << 16;
+    private static final List<String> TABLES = List.of("signals", "ecg_features", "emg_features", "signal_imports");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Map<String, String> columnTypes;
+
+    public SignalImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One file ready to be copied: the session it belongs to and its processed channels.
+     */
+    public static class Recording {
+        public final String path;
+        public final Long sessionId;
+        public final LocalDateTime timestamp;
+        public final List<ProcessedSignal> channels;
+
+        /**
+         * @param path Path of the file relative to the import directory, the checkpoint key.
+         * @param sessionId Session the signals belong to.
+         * @param timestamp Time stored with the signals.
+         * @param channels Processed channels; more than one are stored with their channel index.
+         */
+        public Recording(String path, Long sessionId, LocalDateTime timestamp, List<ProcessedSignal> channels) {
+            this.path = path;
+            this.sessionId = sessionId;
+            this.timestamp = timestamp;
+            this.channels = channels;
+        }
+    }
+
+    /**
+     * @return Paths of every file imported so far.
+     */
+    public Set<String> findImportedPaths() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT path FROM signal_imports", String.class));
+    }
+
+    /**
+     * Looks up the timestamps of sessions, to check that the recordings of a chunk belong to existing sessions.
+     *
+     * @param sessionIds IDs of the sessions.
+     * @return Timestamp by session ID, for the sessions that exist.
+     */
+    public Map<Long, LocalDateTime> findSessionTimestamps(Collection<Long> sessionIds) {
+        Map<Long, LocalDateTime> timestamps = new HashMap<>();
+        if (sessionIds.isEmpty()) {
+            return timestamps;
+        }
+        jdbcTemplate.query("SELECT session_id, time_stamp FROM measurement_sessions WHERE session_id = ANY (?)",
+                rs -> {
+                    timestamps.put(rs.getLong("session_id"), rs.getTimestamp("time_stamp").toLocalDateTime());
+                },
+                (Object) sessionIds.toArray(new Long[0]));
+        return timestamps;
+    }
+
+    /**
+     * Copies a chunk of recordings, their features and their checkpoint rows. Must run inside a
+     * transaction, so the chunk is committed or rolled back as a whole.
+     *
+     * @param recordings Recordings of the chunk.
+     * @return Number of signals written.
+     */
+    public int copyRecordings(List<Recording> recordings) {
+        int signalCount = recordings.stream().mapToInt(r -> r.channels.size()).sum();
+        if (recordings.isEmpty()) {
+            return 0;
+        }
+        Map<String, String> types = columnTypes();
+        List<Long> ids = signalCount == 0 ? List.of() : jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('signals', 'signal_id')) FROM generate_series(1, ?)",
+                Long.class, signalCount);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try {
+                copySignals(con, recordings, ids, types);
+                copyEcgFeatures(con, recordings, ids, types);
+                copyEmgFeatures(con, recordings, ids, types);
+                copyCheckpoints(con, recordings, types);
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY of the import chunk failed", e);
+            }
+            return null;
+        });
+        return signalCount;
+    }
+
+    private void copySignals(Connection con, List<Recording> recordings, List<Long> ids, Map<String, String> t)
+            throws SQLException, IOException {
+        copy(con, "COPY signals (signal_id, session_id, time_stamp, signal_type, "
+                + "patient_data, fs, source_fs, quality_score, pyramid, sample_count, channel) FROM STDIN (FORMAT BINARY)", copy -> {
+            int next = 0;
+            for (Recording recording : recordings) {
+                for (int c = 0; c < recording.channels.size(); c++) {
+                    ProcessedSignal signal = recording.channels.get(c);
+                    copy.row(11);
+                    copy.integer(ids.get(next++), t.get("signals.signal_id"));
+                    copy.integer(recording.sessionId, t.get("signals.session_id"));
+                    copy.timestamp(recording.timestamp, t.get("signals.time_stamp"));
+                    copy.text(signal.type.name());
+                    copy.text(signal.data);
+                    copy.integer(signal.fs, t.get("signals.fs"));
+                    copy.integer(signal.sourceFs, t.get("signals.source_fs"));
+                    copy.floating(signal.qualityScore, t.get("signals.quality_score"));
+                    copy.bytes(signal.pyramid != null ? signal.pyramid.toBytes() : null);
+                    copy.integer(signal.length, t.get("signals.sample_count"));
+                    copy.integer(recording.channels.size() > 1 ? c : null, t.get("signals.channel"));
+                }
+            }
+        });
+    }
+
+    private void copyEcgFeatures(Connection con, List<Recording> recordings, List<Long> ids, Map<String, String> t)
+            throws SQLException, IOException {
+        copy(con, "COPY ecg_features (signal_id, beat_count, mean_hr, min_hr, max_hr, "
+                + "sdnn, rmssd, pnn50, rr_intervals) FROM STDIN (FORMAT BINARY)", copy -> {
+            int next = 0;
+            for (Recording recording : recordings) {
+                for (ProcessedSignal signal : recording.channels) {
+                    Long signalId = ids.get(next++);
+                    EcgFeatures f = signal.ecgFeatures;
+                    if (f == null) continue;
+                    double[] rr = f.getRrIntervals().stream().mapToDouble(Double::doubleValue).toArray();
+                    copy.row(9);
+                    copy.integer(signalId, t.get("ecg_features.signal_id"));
+                    copy.integer(f.getBeatCount(), t.get("ecg_features.beat_count"));
+                    copy.floating(f.getMeanHr(), t.get("ecg_features.mean_hr"));
+                    copy.floating(f.getMinHr(), t.get("ecg_features.min_hr"));
+                    copy.floating(f.getMaxHr(), t.get("ecg_features.max_hr"));
+                    copy.floating(f.getSdnn(), t.get("ecg_features.sdnn"));
+                    copy.floating(f.getRmssd(), t.get("ecg_features.rmssd"));
+                    copy.floating(f.getPnn50(), t.get("ecg_features.pnn50"));
+                    copy.text(SignalProcessing.doubleArrayToString(rr));
+                }
+            }
+        });
+    }
+
+    private void copyEmgFeatures(Connection con, List<Recording> recordings, List<Long> ids, Map<String, String> t)
+            throws SQLException, IOException {
+        copy(con, "COPY emg_features (signal_id, contraction_index, onset_sample, "
+                + "offset_sample, rms, mean_frequency, median_frequency) FROM STDIN (FORMAT BINARY)", copy -> {
+            int next = 0;
+            for (Recording recording : recordings) {
+                for (ProcessedSignal signal : recording.channels) {
+                    Long signalId = ids.get(next++);
+                    if (signal.contractions == null) continue;
+                    for (ContractionFeatures f : signal.contractions) {
+                        copy.row(7);
+                        copy.integer(signalId, t.get("emg_features.signal_id"));
+                        copy.integer(f.getContractionIndex(), t.get("emg_features.contraction_index"));
+                        copy.integer(f.getOnset(), t.get("emg_features.onset_sample"));
+                        copy.integer(f.getOffset(), t.get("emg_features.offset_sample"));
+                        copy.floating(f.getRms(), t.get("emg_features.rms"));
+                        copy.floating(f.getMeanFrequency(), t.get("emg_features.mean_frequency"));
+                        copy.floating(f.getMedianFrequency(), t.get("emg_features.median_frequency"));
+                    }
+                }
+            }
+        });
+    }
+
+    private void copyCheckpoints(Connection con, List<Recording> recordings, Map<String, String> t)
+            throws SQLException, IOException {
+        LocalDateTime now = LocalDateTime.now();
+        copy(con, "COPY signal_imports (path, signal_count, imported_at) FROM STDIN (FORMAT BINARY)", copy -> {
+            for (Recording recording : recordings) {
+                copy.row(3);
+                copy.text(recording.path);
+                copy.integer(recording.channels.size(), t.get("signal_imports.signal_count"));
+                copy.timestamp(now, t.get("signal_imports.imported_at"));
+            }
+        });
+    }
+
+    /**
+     * Writes the rows of one COPY. The COPY is ended when the body completes and cancelled when it
+     * throws, so a half-written row is never sent to the server as the end of the data.
+     */
+    private static void copy(Connection con, String sql, CopyBody body) throws SQLException, IOException {
+        PGCopyOutputStream stream = new PGCopyOutputStream(con.unwrap(PGConnection.class), sql, COPY_BUFFER);
+        try {
+            PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(stream);
+            body.write(encoder);
+            encoder.close();
+        } catch (SQLException | IOException | RuntimeException e) {
+            if (stream.isActive()) {
+                try {
+                    stream.cancelCopy();
+                } catch (SQLException cancel) {
+                    e.addSuppressed(cancel);
+                }
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyBody {
+        void write(PgBinaryCopyEncoder copy) throws SQLException, IOException;
+    }
+
+    /**
+     * Reads the types of the copied columns once, since binary COPY needs their exact widths.
+     *
+     * @return udt_name by "table.column".
+     */
+    private Map<String, String> columnTypes() {
+        if (columnTypes == null) {
+            Map<String, String> types = new HashMap<>();
+            jdbcTemplate.query("""
+                            SELECT table_name, column_name, udt_name FROM information_schema.columns
+                            WHERE table_schema = current_schema() AND table_name = ANY (?)
+                            """,
+                    rs -> {
+                        types.put(rs.getString("table_name") + "." + rs.getString("column_name"), rs.getString("udt_name"));
+                    },
+                    (Object) TABLES.toArray(new String[0]));
+            columnTypes = types;
+        }
+        return columnTypes;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.telemedicine.repository.mapper;
+
+import com.example.telemedicine.domain.ContractionFeatures;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ContractionFeaturesRowMapper implements RowMapper<ContractionFeatures> {
+    @Override
+    public ContractionFeatures mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ContractionFeatures(
+                rs.getLong("signal_id"),
+                rs.getInt("contraction_index"),
+                rs.getInt("onset_sample"),
+                rs.getInt("offset_sample"),
+                rs.getDouble("rms"),
+                rs.getDouble("mean_frequency"),
+                rs.getDouble("median_frequency")
+        );
+    }
+}
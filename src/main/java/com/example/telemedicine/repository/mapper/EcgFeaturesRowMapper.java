@@ -0,0 +1,32 @@
+package com.example.telemedicine.repository.mapper;
+
+import com.example.telemedicine.domain.EcgFeatures;
+import com.example.telemedicine.signal.SignalProcessing;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EcgFeaturesRowMapper implements RowMapper<EcgFeatures> {
+    @Override
+    public EcgFeatures mapRow(ResultSet rs, int rowNum) throws SQLException {
+        List<Double> rr = new ArrayList<>();
+        for (double interval : SignalProcessing.stringToDoubleArray(rs.getString("rr_intervals"))) {
+            rr.add(interval);
+        }
+        return new EcgFeatures(
+                rs.getLong("signal_id"),
+                rs.getInt("beat_count"),
+                rs.getObject("mean_hr", Double.class),
+                rs.getObject("min_hr", Double.class),
+                rs.getObject("max_hr", Double.class),
+                rs.getObject("sdnn", Double.class),
+                rs.getObject("rmssd", Double.class),
+                rs.getObject("pnn50", Double.class),
+                rr
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.telemedicine.repository.mapper;
+
+import com.example.telemedicine.domain.Report;
+import com.example.telemedicine.storage.BlobStore;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a report row without its file, for listings; the file is only read when a single
+ * report is fetched (see {@link ReportRowMapper}). The query selects {@link #COLUMNS}, whose
+ * file_size holds the length of the legacy file_data column; for files in the blob store the
+ * size is taken from the store without reading the file.
+ */
+public class ReportHeaderRowMapper implements RowMapper<Report> {
+    public static final String COLUMNS = "report_id, patient_id, doctor_id, session_id, file_name, file_type, created_at, "
+            + "file_ref, CASE WHEN file_ref IS NULL THEN octet_length(file_data) END AS file_size";
+
+    private final BlobStore blobStore;
+
+    public ReportHeaderRowMapper(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public Report mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String fileRef = rs.getString("file_ref");
+        long fileSize;
+        if (fileRef != null) {
+            try {
+                fileSize = blobStore.size(fileRef);
+            } catch (IOException e) {
+                throw new SQLException("Report file " + fileRef + " missing from blob store", e);
+            }
+        } else {
+            fileSize = rs.getLong("file_size");
+        }
+
+        Report report = new Report(
+                rs.getLong("report_id"),
+                rs.getLong("patient_id"),
+                rs.getLong("doctor_id"),
+                rs.getLong("session_id"),
+                null,
+                rs.getString("file_name"),
+                rs.getString("file_type"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+        report.setFileRef(fileRef);
+        report.setFileSize(fileSize);
+        return report;
+    }
+}
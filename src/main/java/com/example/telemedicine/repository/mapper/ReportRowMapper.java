@@ -0,0 +1,50 @@
+package com.example.telemedicine.repository.mapper;
+
+import com.example.telemedicine.domain.Report;
+import com.example.telemedicine.storage.BlobStore;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a full report row, for single-report fetches. The file content is read from the blob
+ * store when the row only holds a reference, and from the legacy file_data column otherwise;
+ * listings use {@link ReportHeaderRowMapper}, which does not read the file.
+ */
+public class ReportRowMapper implements RowMapper<Report> {
+    private final BlobStore blobStore;
+
+    public ReportRowMapper(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public Report mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String fileRef = rs.getString("file_ref");
+        byte[] fileData;
+        if (fileRef != null) {
+            try {
+                fileData = blobStore.read(fileRef);
+            } catch (IOException e) {
+                throw new SQLException("Report file " + fileRef + " missing from blob store", e);
+            }
+        } else {
+            fileData = rs.getBytes("file_data");
+        }
+
+        Report report = new Report(
+                rs.getLong("report_id"),
+                rs.getLong("patient_id"),
+                rs.getLong("doctor_id"),
+                rs.getLong("session_id"),
+                fileData,
+                rs.getString("file_name"),
+                rs.getString("file_type"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+        report.setFileRef(fileRef);
+        return report;
+    }
+}
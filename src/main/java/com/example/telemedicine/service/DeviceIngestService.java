@@ -0,0 +1,273 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.device.FileSampleSource;
+import com.example.telemedicine.device.FrameDecoder;
+import com.example.telemedicine.device.FrameFormat;
+import com.example.telemedicine.device.LiveFrameAssembler;
+import com.example.telemedicine.device.SampleRingBuffer;
+import com.example.telemedicine.device.SampleSource;
+import com.example.telemedicine.device.SerialSampleSource;
+import com.example.telemedicine.domain.DeviceRecording;
+import com.example.telemedicine.domain.LiveFrame;
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.repository.PatientRepository;
+import com.example.telemedicine.signal.StreamingFilter;
+import com.example.telemedicine.signal.pipeline.SignalPipeline;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service that records signals live from the acquisition device into an open session.
+ * Each recording runs two threads: a reader that decodes frames from the port into a
+ * lock-free ring buffer, and a processor that filters the samples causally and appends
+ * them to the session's signal in chunks. The same thread assembles decimated live frames
+ * with detector markers and hands them to the {@link LiveSessionBroadcaster}, so sessions
+ * are stored, analysed and monitored while they are recorded instead of after a file upload.
+ * The port is taken from configuration; a {@code file:} prefix reads a file or
+ * pseudo-terminal instead of a serial port, which is how the pipeline is tested.
+ */
+@Service
+public class DeviceIngestService {
+
+    private final PatientRepository patientRepository;
+    private final SignalIngestService signalIngestService;
+    private final LiveSessionBroadcaster broadcaster;
+    private final SignalViewService signalViewService;
+    private final SignalChartService signalChartService;
+    private final SignalPipelines pipelines;
+    private final String port;
+    private final int baudRate;
+    private final int dataBits;
+    private final int stopBits;
+    private final String parity;
+    private final FrameFormat framing;
+    private final int bufferSamples;
+    private final int chunkSamples;
+    private final int readTimeoutMs;
+    private final int framesPerSecond;
+    private final int framePoints;
+    private final ExecutorService threads;
+    private final Map<Long, DeviceRecording> recordings = new ConcurrentHashMap<>();
+
+    public DeviceIngestService(PatientRepository patientRepository, SignalIngestService signalIngestService,
+                               LiveSessionBroadcaster broadcaster,
+                               SignalViewService signalViewService, SignalChartService signalChartService,
+                               SignalPipelines pipelines,
+                               @Value("${device.port:}") String port,
+                               @Value("${device.baud-rate:115200}") int baudRate,
+                               @Value("${device.data-bits:8}") int dataBits,
+                               @Value("${device.stop-bits:1}") int stopBits,
+                               @Value("${device.parity:NONE}") String parity,
+                               @Value("${device.framing:ASCII}") FrameFormat framing,
+                               @Value("${device.buffer-samples:65536}") int bufferSamples,
+                               @Value("${device.chunk-samples:1000}") int chunkSamples,
+                               @Value("${device.read-timeout-ms:200}") int readTimeoutMs,
+                               @Value("${live.frames-per-second:10}") int framesPerSecond,
+                               @Value("${live.frame-points:200}") int framePoints) {
+        this.patientRepository = patientRepository;
+        this.signalIngestService = signalIngestService;
+        this.broadcaster = broadcaster;
+        this.signalViewService = signalViewService;
+        this.signalChartService = signalChartService;
+        this.pipelines = pipelines;
+        this.port = port;
+        this.baudRate = baudRate;
+        this.dataBits = dataBits;
+        this.stopBits = stopBits;
+        this.parity = parity;
+        this.framing = framing;
+        this.bufferSamples = bufferSamples;
+        this.chunkSamples = chunkSamples;
+        this.readTimeoutMs = readTimeoutMs;
+        this.framesPerSecond = framesPerSecond;
+        this.framePoints = framePoints;
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread t = new Thread(r, "device-ingest-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.threads = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Starts recording a signal from the device into a session.
+     *
+     * @param sessionId ID of the session
+     * @param type      type of the signal the device sends
+     * @param fs        sampling frequency of the device
+     * @return the started recording
+     * @throws IllegalArgumentException if fs is not positive
+     * @throws IllegalStateException    if no device is configured, the session is already recording
+     *                                  or symptoms were not logged
+     * @throws IOException              if the port cannot be opened
+     */
+    public DeviceRecording start(Long sessionId, SignalType type, int fs) throws IOException {
+        if (fs <= 0) {
+            throw new IllegalArgumentException("Sampling frequency must be positive.");
+        }
+        if (port == null || port.isBlank()) {
+            throw new IllegalStateException("No acquisition device is configured.");
+        }
+        DeviceRecording current = recordings.get(sessionId);
+        if (current != null && !current.isFinished()) {
+            throw new IllegalStateException("Session " + sessionId + " is already recording.");
+        }
+
+        SampleSource source = openSource();
+        DeviceRecording recording;
+        try {
+            Long signalId = patientRepository.createLiveSignal(sessionId, type, fs);
+            recording = new DeviceRecording(sessionId, signalId, type, fs, source.getName());
+        } catch (RuntimeException e) {
+            source.close();
+            throw e;
+        }
+        recordings.put(sessionId, recording);
+        broadcaster.open(sessionId);
+
+        SampleRingBuffer ring = new SampleRingBuffer(bufferSamples);
+        ReaderState reader = new ReaderState();
+        threads.submit(() -> read(source, ring, recording, reader));
+        threads.submit(() -> process(ring, recording, reader));
+        return recording;
+    }
+
+    /**
+     * Stops the recording of a session. Samples already received are still stored.
+     *
+     * @param sessionId ID of the session
+     * @return the recording, or null if the session never recorded from the device
+     */
+    public DeviceRecording stop(Long sessionId) {
+        DeviceRecording recording = recordings.get(sessionId);
+        if (recording != null) {
+            recording.requestStop();
+        }
+        return recording;
+    }
+
+    /**
+     * @param sessionId ID of the session
+     * @return the last recording of the session, or null if there is none
+     */
+    public DeviceRecording getRecording(Long sessionId) {
+        return recordings.get(sessionId);
+    }
+
+    private SampleSource openSource() throws IOException {
+        if (port.startsWith("file:")) {
+            return new FileSampleSource(port.substring("file:".length()));
+        }
+        return new SerialSampleSource(port, baudRate, dataBits, stopBits, parity, readTimeoutMs);
+    }
+
+    // producer side: only this thread offers into the ring buffer
+    private void read(SampleSource source, SampleRingBuffer ring, DeviceRecording recording, ReaderState reader) {
+        FrameDecoder decoder = new FrameDecoder(framing);
+        byte[] buffer = new byte[4096];
+        int[] counts = new int[2];
+        try (source) {
+            while (!recording.isStopRequested()) {
+                int n = source.read(buffer);
+                if (n < 0) break;
+                counts[0] = 0;
+                counts[1] = 0;
+                decoder.decode(buffer, n, sample -> {
+                    counts[0]++;
+                    if (!ring.offer(sample)) counts[1]++;
+                });
+                recording.recordReceived(counts[0]);
+                recording.recordDropped(counts[1]);
+            }
+            decoder.flush(sample -> {
+                recording.recordReceived(1);
+                if (!ring.offer(sample)) recording.recordDropped(1);
+            });
+        } catch (Exception e) {
+            reader.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            reader.done = true;
+        }
+    }
+
+    // consumer side: only this thread drains the ring buffer and writes to the database
+    private void process(SampleRingBuffer ring, DeviceRecording recording, ReaderState reader) {
+        SignalPipeline pipeline = pipelines.forType(recording.getSignalType());
+        StreamingFilter filter = pipeline.newStreamingFilter(recording.getFs());
+        LiveFrameAssembler frames = new LiveFrameAssembler(recording.getSignalId(), recording.getSignalType(),
+                recording.getFs(), framesPerSecond, framePoints, pipeline.newStreamingDetector(recording.getFs()));
+        double[] block = new double[Math.max(1, chunkSamples)];
+        StringBuilder chunk = new StringBuilder();
+        int pending = 0;
+        try {
+            while (true) {
+                boolean readerDone = reader.done;
+                int n = ring.drainTo(block, 0, block.length);
+                for (int i = 0; i < n; i++) {
+                    double filtered = filter.process(block[i]);
+                    if (pending > 0) chunk.append(',');
+                    chunk.append(filtered);
+                    pending++;
+
+                    LiveFrame frame = frames.add(block[i], filtered);
+                    if (frame != null) broadcaster.publish(recording.getSessionId(), frame);
+                }
+                if (pending >= chunkSamples || (pending > 0 && n == 0 && readerDone)) {
+                    patientRepository.appendSignalChunk(recording.getSignalId(), chunk.toString(), pending);
+                    evict(recording.getSignalId());
+                    recording.recordStored(pending);
+                    chunk.setLength(0);
+                    pending = 0;
+                }
+                if (n == 0) {
+                    if (readerDone) break;
+                    LockSupport.parkNanos(1_000_000);
+                }
+            }
+            LiveFrame last = frames.flush();
+            if (last != null) broadcaster.publish(recording.getSessionId(), last);
+            signalIngestService.finishLiveSignal(recording.getSignalId());
+            evict(recording.getSignalId());
+            if (reader.error != null) {
+                recording.fail(reader.error);
+            } else {
+                recording.complete();
+            }
+        } catch (Exception e) {
+            recording.requestStop();
+            recording.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            broadcaster.close(recording.getSessionId());
+        }
+    }
+
+    // views and charts of the signal were drawn from fewer samples
+    private void evict(Long signalId) {
+        signalViewService.evict(signalId);
+        signalChartService.evict(signalId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recordings.values().forEach(DeviceRecording::requestStop);
+        threads.shutdown();
+    }
+
+    private static class ReaderState {
+        volatile boolean done;
+        volatile String error;
+    }
+}
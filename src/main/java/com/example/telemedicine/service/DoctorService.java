@@ -72,7 +72,8 @@ public class DoctorService {
         MeasurementSession session = patientRepository.findSessionsById(sessionId);
         Patient patient = patientRepository.findById(session.getPatientId());
         Set<SymptomType> symptoms = patientRepository.findSymptomsBySessionId(sessionId);
-        List<Signal> signals = patientRepository.findSignalsBySessionId(sessionId);
+        // samples are only fetched for signals too short to be drawn from their pyramid
+        List<Signal> signals = patientRepository.findLazySignalsBySessionId(sessionId, true);
 
         byte[] pdfBytes = new byte[0];
         try {
@@ -0,0 +1,206 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.domain.LiveFrame;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans out the live frames of recording sessions to the doctors monitoring them over SSE.
+ * Each session has one broadcast ring holding its last frames. The recording publishes into the
+ * ring once, and every subscriber only keeps a cursor into it, so N viewers share one processing
+ * pipeline. A subscriber that falls behind by more than the ring skips the frames it missed
+ * instead of buffering them, which bounds the memory a slow client can hold.
+ */
+@Service
+public class LiveSessionBroadcaster {
+
+    private final int bufferFrames;
+    private final long emitterTimeoutMs;
+    private final ExecutorService senders;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    public LiveSessionBroadcaster(@Value("${live.buffer-frames:64}") int bufferFrames,
+                                  @Value("${live.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.bufferFrames = bufferFrames;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread t = new Thread(r, "live-sender-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.senders = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Opens the broadcast of a session; called when a recording starts.
+     *
+     * @param sessionId ID of the session
+     */
+    public void open(Long sessionId) {
+        channels.computeIfAbsent(sessionId, id -> new Channel(bufferFrames));
+    }
+
+    /**
+     * Publishes a frame to every subscriber of the session.
+     *
+     * @param sessionId ID of the session
+     * @param frame     frame to publish; its sequence number is assigned here
+     */
+    public void publish(Long sessionId, LiveFrame frame) {
+        Channel channel = channels.get(sessionId);
+        if (channel == null) return;
+        channel.append(frame);
+        for (Subscriber subscriber : channel.subscribers) {
+            schedule(channel, subscriber);
+        }
+    }
+
+    /**
+     * Closes the broadcast of a session once its recording has ended. Subscribers receive the
+     * frames still in the ring followed by an {@code end} event.
+     *
+     * @param sessionId ID of the session
+     */
+    public void close(Long sessionId) {
+        Channel channel = channels.remove(sessionId);
+        if (channel == null) return;
+        channel.closed = true;
+        for (Subscriber subscriber : channel.subscribers) {
+            schedule(channel, subscriber);
+        }
+    }
+
+    /**
+     * Subscribes to the live frames of a session. The subscriber first receives the frames still
+     * in the ring, or those after {@code lastEventId} when reconnecting.
+     *
+     * @param sessionId   ID of the session
+     * @param lastEventId sequence of the last frame received before a reconnection, or null
+     * @return the emitter to return from the controller, or null if the session is not recording
+     */
+    public SseEmitter subscribe(Long sessionId, Long lastEventId) {
+        Channel channel = channels.get(sessionId);
+        if (channel == null) return null;
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter,
+                lastEventId != null ? lastEventId + 1 : channel.oldestSequence());
+        emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> channel.subscribers.remove(subscriber));
+        emitter.onError(e -> channel.subscribers.remove(subscriber));
+        channel.subscribers.add(subscriber);
+        schedule(channel, subscriber);
+        return emitter;
+    }
+
+    /**
+     * @param sessionId ID of the session
+     * @return number of doctors currently monitoring the session
+     */
+    public int getSubscriberCount(Long sessionId) {
+        Channel channel = channels.get(sessionId);
+        return channel != null ? channel.subscribers.size() : 0;
+    }
+
+    // at most one send task per subscriber is queued or running, so a slow client never piles up work
+    private void schedule(Channel channel, Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.submit(() -> drain(channel, subscriber));
+        }
+    }
+
+    private void drain(Channel channel, Subscriber subscriber) {
+        try {
+            while (true) {
+                List<LiveFrame> frames = channel.framesFrom(subscriber.cursor);
+                for (LiveFrame frame : frames) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(frame.getSequence()))
+                            .name("frame")
+                            .data(frame));
+                    subscriber.cursor = frame.getSequence() + 1;
+                }
+                if (channel.closed && subscriber.cursor >= channel.nextSequence()) {
+                    subscriber.emitter.send(SseEmitter.event().name("end").data("recording finished"));
+                    subscriber.emitter.complete();
+                    channel.subscribers.remove(subscriber);
+                    return;
+                }
+                subscriber.sending.set(false);
+                // a frame published after the last read but before the flag was cleared would otherwise wait
+                if (subscriber.cursor >= channel.nextSequence() && !channel.closed) return;
+                if (!subscriber.sending.compareAndSet(false, true)) return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            channel.subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.keySet().forEach(this::close);
+        senders.shutdown();
+    }
+
+    private static class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    private static class Channel {
+        final LiveFrame[] ring;
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+        private long next;
+
+        Channel(int capacity) {
+            this.ring = new LiveFrame[Math.max(1, capacity)];
+        }
+
+        synchronized void append(LiveFrame frame) {
+            frame.setSequence(next);
+            ring[(int) (next % ring.length)] = frame;
+            next++;
+        }
+
+        synchronized long nextSequence() {
+            return next;
+        }
+
+        synchronized long oldestSequence() {
+            return Math.max(0, next - ring.length);
+        }
+
+        // frames a subscriber has not seen yet; frames already overwritten are skipped
+        synchronized List<LiveFrame> framesFrom(long cursor) {
+            long from = Math.max(cursor, oldestSequence());
+            LiveFrame[] frames = new LiveFrame[(int) Math.max(0, next - from)];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = ring[(int) ((from + i) % ring.length)];
+            }
+            return List.of(frames);
+        }
+    }
+}
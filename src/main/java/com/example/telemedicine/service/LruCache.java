@@ -0,0 +1,63 @@
+package com.example.telemedicine.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small thread-safe least-recently-used cache with a fixed number of entries.
+ * Values are computed outside the lock, so a slow computation does not block
+ * readers of other keys; two threads missing the same key may both compute it.
+ * A value whose computation overlaps a {@link #removeIf} is returned but not cached,
+ * since it may have been computed from the data the removal invalidates.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> {
+    private final Map<K, V> entries;
+    private long removals;
+
+    public LruCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for a key, computing and caching it on a miss.
+     *
+     * @param key     cache key
+     * @param compute function producing the value on a miss
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<K, V> compute) {
+        long seen;
+        synchronized (entries) {
+            V cached = entries.get(key);
+            if (cached != null) return cached;
+            seen = removals;
+        }
+        V value = compute.apply(key);
+        synchronized (entries) {
+            if (removals == seen) entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes every entry matching a predicate on the key.
+     *
+     * @param predicate condition on the key
+     */
+    public void removeIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            removals++;
+            entries.keySet().removeIf(predicate);
+        }
+    }
+}
@@ -4,20 +4,25 @@ import com.example.telemedicine.domain.*;
 import com.example.telemedicine.repository.DoctorRepository;
 import org.springframework.stereotype.Service;
 import com.example.telemedicine.repository.PatientRepository;
+import com.example.telemedicine.signal.SignalCodec;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 public class PatientService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final SignalIngestService signalIngestService;
 
-    public PatientService(PatientRepository patientRepository, DoctorRepository doctorRepository) {
+    public PatientService(PatientRepository patientRepository, DoctorRepository doctorRepository,
+                          SignalIngestService signalIngestService) {
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.signalIngestService = signalIngestService;
     }
 
     /**
@@ -103,6 +108,79 @@ public class PatientService {
         return patientRepository.findSignalsBySessionId(sessionId);
     }
 
+    /**
+     * Retrieves all signals from a given session; the samples of each signal are only read
+     * from the database when they are first accessed
+     *
+     * @param sessionId ID of the session
+     * @return list of lazily loaded signals
+     */
+    public List<Signal> getLazySignalsBySession(Long sessionId) {
+        return patientRepository.findLazySignalsBySessionId(sessionId, false);
+    }
+
+    /**
+     * Retrieves all signals from a given session with their samples as numbers
+     *
+     * @param sessionId ID of the session
+     * @return list of signals with numeric samples
+     */
+    public List<SignalSamples> getSignalSamplesBySession(Long sessionId) {
+        return patientRepository.findLazySignalsBySessionId(sessionId, false).stream()
+                .map(SignalCodec::toSamples)
+                .toList();
+    }
+
+    /**
+     * Retrieves the metadata of all signals from a given session, without their samples
+     *
+     * @param sessionId ID of the session
+     * @return list of signal headers
+     */
+    public List<SignalHeader> getSignalHeadersBySession(Long sessionId) {
+        return patientRepository.findSignalHeadersBySessionId(sessionId);
+    }
+
+    /**
+     * Retrieves the heart rate and HRV features of an ECG signal
+     *
+     * @param signalId ID of the signal
+     * @return the features, or null if the signal has none
+     */
+    public EcgFeatures getEcgFeatures(Long signalId) {
+        return patientRepository.findEcgFeaturesBySignalId(signalId);
+    }
+
+    /**
+     * Retrieves the features of every ECG signal of a patient, oldest first
+     *
+     * @param patientId ID of the patient
+     * @return list of features
+     */
+    public List<EcgFeatures> getEcgFeaturesByPatient(Long patientId) {
+        return patientRepository.findEcgFeaturesByPatientId(patientId);
+    }
+
+    /**
+     * Retrieves the features of each contraction of an EMG signal
+     *
+     * @param signalId ID of the signal
+     * @return list of features, empty if the signal has none
+     */
+    public List<ContractionFeatures> getEmgFeatures(Long signalId) {
+        return patientRepository.findEmgFeaturesBySignalId(signalId);
+    }
+
+    /**
+     * Retrieves the contraction features of every EMG signal of a patient, oldest first
+     *
+     * @param patientId ID of the patient
+     * @return list of features
+     */
+    public List<ContractionFeatures> getEmgFeaturesByPatient(Long patientId) {
+        return patientRepository.findEmgFeaturesByPatientId(patientId);
+    }
+
     /**
      * Retrieves all symptoms from a given session
      *
@@ -132,11 +210,46 @@ public class PatientService {
      * @throws IOException if processing fails
      */
     public Signal addEMG(byte[] signal, Long sessionId) throws IOException {
-        return patientRepository.addEMG(signal, sessionId);
+        return signalIngestService.addEMG(signal, sessionId);
+    }
+
+    public Signal addEMG(byte[] signal, Long sessionId, Double expectedDurationSec) {
+        return signalIngestService.addEMG(signal, sessionId, expectedDurationSec);
     }
 
     public Signal addECG(byte[] signal, Long sessionId) {
-        return patientRepository.addECG(signal, sessionId);
+        return signalIngestService.addECG(signal, sessionId);
+    }
+
+    public Signal addECG(byte[] signal, Long sessionId, Double expectedDurationSec) {
+        return signalIngestService.addECG(signal, sessionId, expectedDurationSec);
+    }
+
+    /**
+     * Stores a backlog of sessions recorded offline, with their symptoms and signal files
+     *
+     * @param patientId      ID of the patient
+     * @param idempotencyKey key identifying the batch across retries, or null
+     * @param sessions       sessions in manifest order
+     * @param files          file contents by multipart part name
+     * @return one result per session, in manifest order
+     */
+    public List<BatchSessionResult> uploadBatch(Long patientId, String idempotencyKey, List<BatchSessionRequest> sessions,
+                                                Map<String, byte[]> files) {
+        return signalIngestService.storeBatch(patientId, idempotencyKey, sessions, files);
+    }
+
+    /**
+     * Uploads a multi-channel signal file for the session, processing the channels in parallel
+     *
+     * @param signal              raw file content with the channel count in its header
+     * @param type                signal type of every channel
+     * @param sessionId           ID of the session
+     * @param expectedDurationSec declared duration in seconds, or null
+     * @return the stored channels
+     */
+    public MultiChannelSignal addMultiChannel(byte[] signal, SignalType type, Long sessionId, Double expectedDurationSec) {
+        return signalIngestService.addMultiChannel(signal, type, sessionId, expectedDurationSec);
     }
 
 
@@ -147,7 +260,7 @@ public class PatientService {
         Patient patient = patientRepository.findById(session.getPatientId());
         if (patient == null) throw new IllegalArgumentException("Patient not found");
 
-        List<Signal> signals = patientRepository.findSignalsBySessionId(sessionId);
+        List<Signal> signals = patientRepository.findLazySignalsBySessionId(sessionId, false);
 
         StringBuilder csv = new StringBuilder();
 
@@ -5,6 +5,9 @@ import com.example.telemedicine.domain.Patient;
 import com.example.telemedicine.domain.Signal;
 import com.example.telemedicine.domain.SymptomType;
 import com.example.telemedicine.exceptions.PdfGeneratorException;
+import com.example.telemedicine.signal.DecimatedSeries;
+import com.example.telemedicine.signal.SignalKernels;
+import com.example.telemedicine.signal.SignalPyramid;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import com.itextpdf.text.PageSize;
@@ -15,7 +18,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -245,14 +247,30 @@ public class PdfGenerator {
 
     /**
      * Draws a signal (ECG/EMG) as a line chart in the PDF.
+     * When the signal carries a min/max pyramid the chart is drawn from it, one
+     * vertical min/max stroke per horizontal unit, so the cost does not depend
+     * on the length of the recording.
      *
      * @param doc    PDF document
      * @param signal the Signal object containing data
      * @throws DocumentException
      */
     private void addSignalChart(Document doc, PdfWriter writer, Signal signal) throws DocumentException {
-        double[] data = signal.getSignalDataAsDoubleArray();
-        if (data == null || data.length == 0) {
+        float chartWidth = 400f;
+        float chartHeight = 150f;
+        float margin = 30f;
+
+        DecimatedSeries envelope = null;
+        SignalPyramid pyramid = signal.getPyramid();
+        if (pyramid != null && pyramid.getSampleCount() > 0) {
+            envelope = pyramid.envelope(0, pyramid.getSampleCount(), (int) chartWidth);
+        }
+
+        double[] data = null;
+        if (envelope == null) {
+            data = signal.getSignalDataAsDoubleArray();
+        }
+        if ((envelope == null || envelope.values.length == 0) && (data == null || data.length == 0)) {
             doc.add(new Paragraph("No data for signal: " + signal.getSignalType(), SMALL_GRAY));
             return;
         }
@@ -262,20 +280,16 @@ public class PdfGenerator {
         title.setSpacingBefore(10f);
         doc.add(title);
 
-        float chartWidth = 400f;
-        float chartHeight = 150f;
-        float margin = 30f;
-
         PdfContentByte canvas = writer.getDirectContent();
         PdfTemplate template = canvas.createTemplate(chartWidth + margin * 2, chartHeight + margin * 2);
 
-        double min = Arrays.stream(data).min().orElse(0);
-        double max = Arrays.stream(data).max().orElse(1);
+        double[] values = envelope != null ? envelope.values : data;
+        SignalKernels kernels = SignalKernels.get();
+        double min = values.length > 0 ? kernels.min(values) : 0;
+        double max = values.length > 0 ? kernels.max(values) : 1;
         double range = max - min;
         if (range == 0) range = 1;
 
-        float xStep = chartWidth / (data.length - 1);
-
         int horizontalLines = 5;
         int verticalLines = 10;
         template.setLineWidth(0.25f);
@@ -306,15 +320,34 @@ public class PdfGenerator {
         template.setLineWidth(1.2f);
         template.setRGBColorStroke(240, 84, 84);
 
-        for (int i = 0; i < data.length - 1; i++) {
-            float x1 = margin + i * xStep;
-            float y1 = margin + (float) ((data[i] - min) / range * chartHeight);
-            float x2 = margin + (i + 1) * xStep;
-            float y2 = margin + (float) ((data[i + 1] - min) / range * chartHeight);
-
-            template.moveTo(x1, y1);
-            template.lineTo(x2, y2);
-            template.stroke();
+        if (envelope != null) {
+            // Points come in (min, max) pairs sharing the same sample index
+            float xScale = chartWidth / Math.max(1, pyramid.getSampleCount() - 1);
+            for (int i = 0; i + 1 < envelope.values.length; i += 2) {
+                float x = margin + envelope.indices[i] * xScale;
+                float yMin = margin + (float) ((envelope.values[i] - min) / range * chartHeight);
+                float yMax = margin + (float) ((envelope.values[i + 1] - min) / range * chartHeight);
+                template.moveTo(x, yMin);
+                template.lineTo(x, Math.max(yMax, yMin + 0.1f));
+                if (i + 3 < envelope.values.length) {
+                    float nextX = margin + envelope.indices[i + 2] * xScale;
+                    float nextYMin = margin + (float) ((envelope.values[i + 2] - min) / range * chartHeight);
+                    template.lineTo(nextX, nextYMin);
+                }
+                template.stroke();
+            }
+        } else {
+            float xStep = chartWidth / (data.length - 1);
+            for (int i = 0; i < data.length - 1; i++) {
+                float x1 = margin + i * xStep;
+                float y1 = margin + (float) ((data[i] - min) / range * chartHeight);
+                float x2 = margin + (i + 1) * xStep;
+                float y2 = margin + (float) ((data[i + 1] - min) / range * chartHeight);
+
+                template.moveTo(x1, y1);
+                template.lineTo(x2, y2);
+                template.stroke();
+            }
         }
 
         Font labelFont = FontFactory.getFont(FontFactory.TIMES, 8, BaseColor.DARK_GRAY);
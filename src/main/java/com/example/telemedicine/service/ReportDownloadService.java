@@ -0,0 +1,153 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.domain.Report;
+import com.example.telemedicine.repository.DoctorRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Service that serves stored report files over HTTP.
+ * Reports never change once saved, so every download carries a strong ETag and a
+ * Last-Modified date derived from the report id and creation time. Conditional
+ * requests are answered with 304 from the metadata alone, and single byte ranges
+ * are streamed from the blob store without loading the whole file.
+ */
+@Service
+public class ReportDownloadService {
+
+    private final DoctorRepository doctorRepository;
+
+    public ReportDownloadService(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    /**
+     * Retrieves the metadata of a report without its file data, for the ownership check.
+     *
+     * @param reportId ID of the report
+     * @return report metadata, or null if it does not exist
+     */
+    public Report findReportHeader(Long reportId) {
+        return doctorRepository.findReportHeader(reportId);
+    }
+
+    /**
+     * Builds the download response for a report, honouring conditional and range headers.
+     * Only called once the requester is known to own the report: a report still stored inline
+     * is moved to the blob store here, before its first byte is served.
+     *
+     * @param report         report metadata (file data is not needed)
+     * @param fileName       name offered to the client
+     * @param mediaType      content type of the file
+     * @param requestHeaders headers of the incoming request
+     * @return 200 with the full file, 206 with a byte range, 304 if the client copy is current,
+     * 404 if the report has no file or 416 if the range cannot be satisfied
+     */
+    public ResponseEntity<StreamingResponseBody> download(Report report, String fileName, MediaType mediaType,
+                                                          HttpHeaders requestHeaders) {
+        String ifNoneMatch = requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH);
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = requestHeaders.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            ifModifiedSince = -1;
+        }
+
+        if (report.getFileRef() == null && (report.getFileSize() == null || report.getFileSize() == 0)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String eTag = eTag(report);
+        long lastModified = report.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl("private, max-age=0, must-revalidate");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(eTag, lastModified, ifNoneMatch, ifModifiedSince)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        if (report.getFileRef() == null) {
+            doctorRepository.moveReportFileToBlobStore(report);
+            if (report.getFileRef() == null) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        headers.setContentType(mediaType);
+
+        long size = report.getFileSize();
+
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(eTag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                long start;
+                long end;
+                try {
+                    start = range.getRangeStart(size);
+                    end = range.getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    start = size;
+                    end = -1;
+                }
+
+                if (size == 0 || start >= size || end < start) {
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+                }
+
+                long length = end - start + 1;
+                long offset = start;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                headers.setContentLength(length);
+                return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                        .body(out -> doctorRepository.streamReportData(report, offset, length, out));
+            }
+            // Multiple ranges: answering with the whole representation is allowed (RFC 9110)
+        }
+
+        headers.setContentLength(size);
+        return ResponseEntity.ok().headers(headers)
+                .body(out -> doctorRepository.streamReportData(report, 0, size, out));
+    }
+
+    private boolean notModified(String eTag, long lastModified, String ifNoneMatch, long ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String value = candidate.trim();
+                if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // HTTP dates have second precision
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private String eTag(Report report) {
+        long created = report.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return "\"report-" + report.getReportId() + "-" + Long.toHexString(created) + "\"";
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.domain.Report;
+import com.example.telemedicine.domain.ReportJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service that generates session reports in the background.
+ * A bulk job is split into one task per session and executed on a fixed worker
+ * pool sized to the available cores, so request threads return immediately and
+ * PDF generation scales with the machine. Finished jobs are kept in memory for
+ * a limited time so doctors can poll their status.
+ */
+@Service
+public class ReportJobService {
+
+    private final DoctorService doctorService;
+    private final ExecutorService workers;
+    private final Duration retention;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param doctorService   service that generates and stores a single report
+     * @param poolSize        number of worker threads, 0 uses one per available core
+     * @param retentionMinutes minutes a finished job stays available for polling
+     */
+    public ReportJobService(DoctorService doctorService,
+                            @Value("${reports.jobs.pool-size:0}") int poolSize,
+                            @Value("${reports.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.doctorService = doctorService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread t = new Thread(r, "report-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.workers = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Queues the generation of one report per session.
+     *
+     * @param doctorId      ID of the doctor requesting the reports
+     * @param sessionIds    sessions to report on
+     * @param doctorComment optional comment added to every report
+     * @return the created job, already queued
+     * @throws IllegalArgumentException if no session IDs are given
+     */
+    public ReportJob submit(Long doctorId, List<Long> sessionIds, String doctorComment) {
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one session ID is required.");
+        }
+        evictExpiredJobs();
+
+        List<Long> distinctSessions = sessionIds.stream().distinct().toList();
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), doctorId, distinctSessions.size());
+        jobs.put(job.getJobId(), job);
+
+        for (Long sessionId : distinctSessions) {
+            workers.submit(() -> {
+                try {
+                    Report report = doctorService.generateReport(doctorId, sessionId, doctorComment);
+                    job.recordSuccess(report.getReportId());
+                } catch (Exception e) {
+                    job.recordFailure(sessionId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                }
+            });
+        }
+        return job;
+    }
+
+    /**
+     * Retrieves a job if it belongs to the given doctor.
+     *
+     * @param jobId    ID of the job
+     * @param doctorId ID of the doctor asking for it
+     * @return the job, or null if it does not exist or belongs to another doctor
+     */
+    public ReportJob getJob(String jobId, Long doctorId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.getDoctorId().equals(doctorId)) {
+            return null;
+        }
+        return job;
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
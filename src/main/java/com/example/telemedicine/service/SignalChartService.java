@@ -0,0 +1,163 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.domain.SignalView;
+import com.example.telemedicine.signal.ChartFormat;
+import com.example.telemedicine.signal.ContractionResult;
+import com.example.telemedicine.signal.DecimationMode;
+import com.example.telemedicine.signal.QRSResult;
+import com.example.telemedicine.signal.SignalChart;
+import com.example.telemedicine.signal.pipeline.PipelineRun;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Service that renders stored signals as PNG or SVG charts on the server, with their
+ * annotations: Q-peaks for ECG and contraction onsets and offsets for EMG, found by the
+ * analysis stages of the configured pipeline.
+ * Charts are drawn from the min/max views of {@link SignalViewService}, two points per
+ * horizontal pixel, so rendering cost depends on the image size rather than the recording.
+ * Rendered images are kept in an LRU cache keyed by signal, window, size and format, and
+ * report pages and thumbnails are served from it; {@link #evict} drops a signal whose
+ * samples changed, i.e. a live recording.
+ */
+@Service
+public class SignalChartService {
+
+    static final int MIN_WIDTH = 100;
+    static final int MAX_WIDTH = 4000;
+    static final int MIN_HEIGHT = 80;
+    static final int MAX_HEIGHT = 2000;
+
+    private final SignalViewService signalViewService;
+    private final SignalPipelines pipelines;
+    private final LruCache<ChartKey, byte[]> chartCache;
+    private final LruCache<Long, Markers> markerCache;
+
+    public SignalChartService(SignalViewService signalViewService, SignalPipelines pipelines,
+                              @Value("${signals.chart.cache-size:128}") int cacheSize) {
+        this.signalViewService = signalViewService;
+        this.pipelines = pipelines;
+        this.chartCache = new LruCache<>(cacheSize);
+        this.markerCache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Renders a window of a signal.
+     *
+     * @param signalId  ID of the signal
+     * @param startTime start of the window in seconds, null for the beginning
+     * @param endTime   end of the window in seconds, null for the end of the recording
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     * @param format    PNG or SVG
+     * @return the encoded image, or null if the signal does not exist
+     * @throws IllegalArgumentException if the window or image size is invalid
+     */
+    public byte[] render(Long signalId, Double startTime, Double endTime, int width, int height, ChartFormat format) {
+        if (width < MIN_WIDTH || width > MAX_WIDTH || height < MIN_HEIGHT || height > MAX_HEIGHT) {
+            throw new IllegalArgumentException("width must be between " + MIN_WIDTH + " and " + MAX_WIDTH
+                    + " and height between " + MIN_HEIGHT + " and " + MAX_HEIGHT);
+        }
+        int points = Math.min(SignalViewService.MAX_POINTS, width * 2);
+        SignalView view = signalViewService.getView(signalId, startTime, endTime, points, DecimationMode.MINMAX);
+        if (view == null) {
+            return null;
+        }
+
+        ChartKey key = new ChartKey(signalId, view.getStartTime(), view.getEndTime(), width, height, format);
+        return chartCache.get(key, k -> {
+            SignalChart chart = new SignalChart(view.getSignalType() + " - signal " + signalId, width, height)
+                    .signal(view.getTime(), view.getValues());
+            if (view.getSignalType() == SignalType.ECG) {
+                addQPeaks(chart, view);
+            } else {
+                addContractions(chart, view);
+            }
+            try {
+                return chart.encode(format);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not render signal " + signalId, e);
+            }
+        });
+    }
+
+    /**
+     * Drops the charts and markers cached for a signal, after its samples changed.
+     *
+     * @param signalId ID of the signal
+     */
+    public void evict(Long signalId) {
+        chartCache.removeIf(key -> key.signalId().equals(signalId));
+        markerCache.removeIf(signalId::equals);
+    }
+
+    private void addQPeaks(SignalChart chart, SignalView view) {
+        Markers markers = markers(view);
+        int fs = Math.max(1, view.getFs());
+        int from = (int) Math.floor(view.getStartTime() * fs);
+        int to = (int) Math.ceil(view.getEndTime() * fs);
+        int count = 0;
+        for (int peak : markers.peaks()) {
+            if (peak >= from && peak < to) count++;
+        }
+        double[] time = new double[count];
+        double[] values = new double[count];
+        int i = 0;
+        for (int p = 0; p < markers.peaks().length; p++) {
+            int peak = markers.peaks()[p];
+            if (peak >= from && peak < to) {
+                time[i] = (double) peak / fs;
+                values[i++] = markers.peakValues()[p];
+            }
+        }
+        chart.markers("Q peaks", time, values);
+    }
+
+    private void addContractions(SignalChart chart, SignalView view) {
+        Markers markers = markers(view);
+        int fs = Math.max(1, view.getFs());
+        double from = view.getStartTime();
+        double to = view.getEndTime();
+        chart.events("Onset", Arrays.stream(markers.onsets()).mapToDouble(onset -> (double) onset / fs)
+                .filter(t -> t >= from && t <= to).toArray(), Color.GREEN);
+        chart.events("Offset", Arrays.stream(markers.offsets()).mapToDouble(offset -> (double) offset / fs)
+                .filter(t -> t >= from && t <= to).toArray(), Color.BLUE);
+    }
+
+    /**
+     * Runs the analysis stages of the signal's pipeline over its stored samples once, so the
+     * markers are those of the detector itself, including contractions too short for the
+     * stored features. The samples are only loaded when the markers are not cached.
+     */
+    private Markers markers(SignalView view) {
+        return markerCache.get(view.getSignalId(), id -> {
+            double[] samples = signalViewService.getSamples(id);
+            PipelineRun run = pipelines.forType(view.getSignalType()).analyze(samples, Math.max(1, view.getFs()));
+            QRSResult qrs = run.getResult(QRSResult.class);
+            int[] peaks = qrs == null ? new int[0] : qrs.qPeaks.stream()
+                    .mapToInt(Integer::intValue).filter(q -> q >= 0 && q < samples.length).toArray();
+            double[] peakValues = new double[peaks.length];
+            for (int i = 0; i < peaks.length; i++) {
+                peakValues[i] = samples[peaks[i]];
+            }
+            ContractionResult contractions = run.getResult(ContractionResult.class);
+            return new Markers(peaks, peakValues,
+                    contractions == null ? new int[0] : contractions.onsets.stream().mapToInt(Integer::intValue).toArray(),
+                    contractions == null ? new int[0] : contractions.offsets.stream().mapToInt(Integer::intValue).toArray());
+        });
+    }
+
+    // annotations of a whole signal: Q-peaks and their values for ECG, contraction onsets and offsets for EMG
+    private record Markers(int[] peaks, double[] peakValues, int[] onsets, int[] offsets) {
+    }
+
+    private record ChartKey(Long signalId, double startTime, double endTime, int width, int height, ChartFormat format) {
+    }
+}
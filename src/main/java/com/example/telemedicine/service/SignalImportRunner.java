@@ -0,0 +1,50 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.config.SignalImportConfig;
+import com.example.telemedicine.domain.SignalImportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the historical signal import at startup when {@code signal.import.dir} is set, e.g.
+ * <pre>
+ * java -jar telemedicineApp.jar --signal.import.dir=/data/old-recordings --spring.main.web-application-type=none
+ * </pre>
+ * and, unless {@code signal.import.exit-when-done} is false, stops the application afterwards with exit
+ * code 0 when every file was imported and 1 when some failed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "signal.import", name = "dir")
+public class SignalImportRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(SignalImportRunner.class);
+
+    private final SignalImportService importService;
+    private final SignalImportConfig config;
+    private final ApplicationContext context;
+
+    public SignalImportRunner(SignalImportService importService, SignalImportConfig config, ApplicationContext context) {
+        this.importService = importService;
+        this.config = config;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Signal import: reading {}", config.getDir());
+        SignalImportSummary summary = importService.importDirectory(Path.of(config.getDir()));
+        log.info("Signal import finished: {}", summary);
+
+        if (config.isExitWhenDone()) {
+            int code = summary.getFailed() == 0 ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
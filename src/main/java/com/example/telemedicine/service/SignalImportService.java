@@ -0,0 +1,172 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.config.SignalImportConfig;
+import com.example.telemedicine.domain.SignalImportSummary;
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.exceptions.SignalQualityException;
+import com.example.telemedicine.repository.SignalImportRepository;
+import com.example.telemedicine.repository.SignalImportRepository.Recording;
+import com.example.telemedicine.signal.MultiChannelFile;
+import com.example.telemedicine.signal.ProcessedSignal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Service that bulk-loads historical recordings from a directory, for migrations from the previous system.
+ * <p>
+ * Every file under the directory named {@code <sessionId>_<ECG|EMG>[_anything].<ext>} is a recording of an
+ * existing session, in the single- or multi-channel upload format. Files are handled in chunks: the
+ * recordings of a chunk are parsed and run through the same quality gate and pipelines as uploads, in
+ * parallel on a fork-join pool, while the previous chunk is written. Each chunk is then written in one
+ * transaction with binary COPY by {@link SignalImportRepository}, together with its checkpoint rows, so a
+ * run that stops can be started again and skips what was committed. Files that fail are reported and
+ * retried by the next run. Session summaries are not regenerated.
+ */
+@Service
+public class SignalImportService {
+    private static final Logger log = LoggerFactory.getLogger(SignalImportService.class);
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d{1,18})_(ECG|EMG)(_[^/]*)?\\.\\w+", Pattern.CASE_INSENSITIVE);
+
+    private final SignalIngestService signalIngestService;
+    private final SignalImportRepository importRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SignalImportConfig config;
+
+    public SignalImportService(SignalIngestService signalIngestService, SignalImportRepository importRepository,
+                               TransactionTemplate transactionTemplate, SignalImportConfig config) {
+        this.signalIngestService = signalIngestService;
+        this.importRepository = importRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+    }
+
+    /**
+     * Imports every recording under a directory that an earlier run has not imported yet.
+     *
+     * @param dir directory of recordings, searched recursively
+     * @return counts of imported, skipped and failed files
+     * @throws IllegalArgumentException if the directory does not exist
+     * @throws UncheckedIOException     if the directory cannot be listed
+     */
+    public SignalImportSummary importDirectory(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("Import directory not found: " + dir);
+        }
+        long start = System.nanoTime();
+        SignalImportSummary summary = new SignalImportSummary();
+
+        List<String> paths;
+        try (Stream<Path> files = Files.walk(dir)) {
+            paths = files.filter(Files::isRegularFile)
+                    .map(p -> dir.relativize(p).toString().replace('\\', '/'))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + dir, e);
+        }
+        Set<String> done = importRepository.findImportedPaths();
+        List<String> pending = new ArrayList<>();
+        for (String path : paths) {
+            if (!FILE_NAME.matcher(fileName(path)).matches()) continue;
+            summary.setFiles(summary.getFiles() + 1);
+            if (done.contains(path)) {
+                summary.setAlreadyImported(summary.getAlreadyImported() + 1);
+            } else {
+                pending.add(path);
+            }
+        }
+
+        int chunkSize = Math.max(1, config.getChunkSize());
+        int chunks = (pending.size() + chunkSize - 1) / chunkSize;
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism() > 0
+                ? config.getParallelism() : Runtime.getRuntime().availableProcessors());
+        try {
+            ForkJoinTask<List<Outcome>> next = chunks > 0 ? pool.submit(() -> processChunk(dir, pending, 0, chunkSize)) : null;
+            for (int c = 0; c < chunks; c++) {
+                List<Outcome> outcomes = next.join();
+                int following = c + 1;
+                // the next chunk is processed while this one is copied
+                next = following < chunks ? pool.submit(() -> processChunk(dir, pending, following, chunkSize)) : null;
+
+                List<Recording> recordings = new ArrayList<>();
+                for (Outcome outcome : outcomes) {
+                    if (outcome.error != null) {
+                        summary.addError(outcome.path, outcome.error);
+                    } else {
+                        recordings.add(outcome.recording);
+                    }
+                }
+                Integer signals = transactionTemplate.execute(status -> importRepository.copyRecordings(recordings));
+                summary.setImported(summary.getImported() + recordings.size());
+                summary.setSignals(summary.getSignals() + (signals != null ? signals : 0));
+                log.info("Signal import: {}/{} files, {} signals, {} failed",
+                        summary.getImported() + summary.getFailed(), pending.size(), summary.getSignals(), summary.getFailed());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        summary.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return summary;
+    }
+
+    private List<Outcome> processChunk(Path dir, List<String> pending, int chunk, int chunkSize) {
+        List<String> paths = pending.subList(chunk * chunkSize, Math.min(pending.size(), (chunk + 1) * chunkSize));
+        List<Long> sessionIds = paths.stream().map(p -> sessionId(fileName(p))).distinct().toList();
+        Map<Long, LocalDateTime> sessions = importRepository.findSessionTimestamps(sessionIds);
+        return paths.parallelStream().map(path -> process(dir, path, sessions)).toList();
+    }
+
+    private Outcome process(Path dir, String path, Map<Long, LocalDateTime> sessions) {
+        Matcher name = FILE_NAME.matcher(fileName(path));
+        name.matches();
+        Long sessionId = Long.parseLong(name.group(1));
+        SignalType type = SignalType.valueOf(name.group(2).toUpperCase());
+        LocalDateTime timestamp = sessions.get(sessionId);
+        if (timestamp == null) {
+            return new Outcome(path, null, "Session " + sessionId + " does not exist");
+        }
+        try {
+            MultiChannelFile file = MultiChannelFile.parse(Files.readAllBytes(dir.resolve(path)));
+            List<ProcessedSignal> channels = IntStream.range(0, file.getChannelCount())
+                    .mapToObj(c -> signalIngestService.process(type, file.channels[c], file.fs, null))
+                    .toList();
+            return new Outcome(path, new Recording(path, sessionId, timestamp, channels), null);
+        } catch (SignalQualityException e) {
+            return new Outcome(path, null, String.join("; ", e.getQuality().getProblems()));
+        } catch (IllegalArgumentException | IOException e) {
+            return new Outcome(path, null, e.getMessage());
+        }
+    }
+
+    private static String fileName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static Long sessionId(String fileName) {
+        Matcher name = FILE_NAME.matcher(fileName);
+        name.matches();
+        return Long.parseLong(name.group(1));
+    }
+
+    private record Outcome(String path, Recording recording, String error) {
+    }
+}
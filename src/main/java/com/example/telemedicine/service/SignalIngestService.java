@@ -0,0 +1,513 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.config.SignalQualityConfig;
+import com.example.telemedicine.domain.*;
+import com.example.telemedicine.exceptions.SignalQualityException;
+import com.example.telemedicine.repository.PatientRepository;
+import com.example.telemedicine.signal.*;
+import com.example.telemedicine.signal.pipeline.PipelineRun;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Service that turns recordings into stored signals. The quality gate, resampling to the
+ * analysis rate and the configured pipeline run here, on the shared signal pool when a recording
+ * has several channels or a batch several files; {@link PatientRepository} only writes the
+ * results, and the DSP of a batch is finished before any of its transactions is opened.
+ */
+@Service
+public class SignalIngestService {
+    static final int MAX_IDEMPOTENCY_KEY = 255;
+
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SignalPipelines pipelines;
+    private final SignalQualityAnalyzer qualityAnalyzer;
+    private final ForkJoinPool signalPool;
+    private final SignalPrecision ecgPrecision;
+    private final SignalPrecision emgPrecision;
+    private final int ecgAnalysisRate;
+    private final int emgAnalysisRate;
+    private final int minFs;
+    private final int maxFs;
+
+    public SignalIngestService(PatientRepository patientRepository, TransactionTemplate transactionTemplate,
+                               SignalPipelines pipelines, SignalQualityConfig quality, ForkJoinPool signalPool,
+                               @Value("${signal.precision.ecg:DOUBLE}") SignalPrecision ecgPrecision,
+                               @Value("${signal.precision.emg:DOUBLE}") SignalPrecision emgPrecision,
+                               @Value("${signal.analysis-rate.ecg:500}") int ecgAnalysisRate,
+                               @Value("${signal.analysis-rate.emg:1000}") int emgAnalysisRate,
+                               @Value("${signal.analysis-rate.min-fs:50}") int minFs,
+                               @Value("${signal.analysis-rate.max-fs:20000}") int maxFs) {
+        this.patientRepository = patientRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.pipelines = pipelines;
+        this.qualityAnalyzer = quality.isEnabled()
+                ? new SignalQualityAnalyzer(quality.getAdcMax(), quality.getMaxSaturationRatio(),
+                quality.getFlatlineMinSec(), quality.getMaxFlatlineRatio(), quality.getMaxInvalidSamples(),
+                quality.getMinDurationSec(), quality.getDurationTolerance())
+                : null;
+        this.signalPool = signalPool;
+        this.ecgPrecision = ecgPrecision;
+        this.emgPrecision = emgPrecision;
+        this.ecgAnalysisRate = ecgAnalysisRate;
+        this.emgAnalysisRate = emgAnalysisRate;
+        this.minFs = minFs;
+        this.maxFs = maxFs;
+    }
+
+    /**
+     * Reads an uploaded EMG file (expected format: first line = sampling rate,
+     * second line = raw data), validates it, and stores it in the database.
+     *
+     * @param fileBytes Raw file content.
+     * @param sessionId Session ID to attach the signal to.
+     * @return Saved {@link Signal} metadata.
+     * @throws IllegalStateException if the file is malformed or session is invalid.
+     */
+    public Signal addEMG(byte[] fileBytes, Long sessionId) {
+        return addEMG(fileBytes, sessionId, null);
+    }
+
+    /**
+     * Reads an uploaded EMG file and stores it, checking its length against the declared duration.
+     *
+     * @param fileBytes           Raw file content.
+     * @param sessionId           Session ID to attach the signal to.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return Saved {@link Signal} metadata.
+     * @throws SignalQualityException if the recording fails the quality gate.
+     */
+    public Signal addEMG(byte[] fileBytes, Long sessionId, Double expectedDurationSec) {
+        Signal parsed = SignalProcessing.parseSignalFile(fileBytes, SignalType.EMG, sessionId);
+        return storeEMG(SignalProcessing.parseRawSamples(parsed.getPatientSignalData()), parsed.getFs(), sessionId,
+                expectedDurationSec);
+    }
+
+    /**
+     * Filters raw EMG samples, detects contractions and stores the result.
+     *
+     * @param raw       Raw ADC samples.
+     * @param fs        Sampling frequency.
+     * @param sessionId Session ID to attach the signal to.
+     * @return Saved {@link Signal}.
+     * @throws IllegalStateException if the session is invalid or has no symptoms.
+     */
+    public Signal storeEMG(double[] raw, int fs, Long sessionId) {
+        return storeEMG(raw, fs, sessionId, null);
+    }
+
+    /**
+     * Checks the quality of raw EMG samples, then filters them, detects contractions and stores the result.
+     *
+     * @param raw                 Raw ADC samples; NaN for unparseable values.
+     * @param fs                  Sampling frequency.
+     * @param sessionId           Session ID to attach the signal to.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return Saved {@link Signal}.
+     * @throws IllegalStateException  if the session is invalid or has no symptoms.
+     * @throws SignalQualityException if the recording fails the quality gate; nothing is stored.
+     */
+    public Signal storeEMG(double[] raw, int fs, Long sessionId, Double expectedDurationSec) {
+        patientRepository.checkSession(sessionId);
+        ProcessedSignal processed = process(SignalType.EMG, raw, fs, expectedDurationSec);
+        // the signal row and its feature rows are stored together or not at all
+        Signal signal = transactionTemplate.execute(status ->
+                patientRepository.saveProcessedSignal(sessionId, LocalDateTime.now(), processed, null));
+
+        if (patientRepository.hasBothSignals(sessionId)) {
+            patientRepository.generateAndSaveCsvSummary(sessionId);
+        }
+        return signal;
+    }
+
+
+    /**
+     * Reads an uploaded ECG file (expected format: first line = sampling rate,
+     * second line = raw signal values), validates it, and stores it.
+     *
+     * @param fileBytes Raw file content.
+     * @param sessionId Session ID to attach the signal to.
+     * @return A {@link Signal} instance containing sampling rate & metadata.
+     * @throws IllegalStateException if file is empty or session invalid.
+     */
+    public Signal addECG(byte[] fileBytes, Long sessionId) {
+        return addECG(fileBytes, sessionId, null);
+    }
+
+    /**
+     * Reads an uploaded ECG file and stores it, checking its length against the declared duration.
+     *
+     * @param fileBytes           Raw file content.
+     * @param sessionId           Session ID to attach the signal to.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return A {@link Signal} instance containing sampling rate & metadata.
+     * @throws SignalQualityException if the recording fails the quality gate.
+     */
+    public Signal addECG(byte[] fileBytes, Long sessionId, Double expectedDurationSec) {
+        Signal parsed = SignalProcessing.parseSignalFile(fileBytes, SignalType.ECG, sessionId);
+        return storeECG(SignalProcessing.parseRawSamples(parsed.getPatientSignalData()), parsed.getFs(), sessionId,
+                expectedDurationSec);
+    }
+
+    /**
+     * Filters raw ECG samples, detects QRS complexes and stores the result.
+     *
+     * @param raw       Raw ADC samples.
+     * @param fs        Sampling frequency.
+     * @param sessionId Session ID to attach the signal to.
+     * @return Saved {@link Signal}.
+     * @throws IllegalStateException if the session is invalid or has no symptoms.
+     */
+    public Signal storeECG(double[] raw, int fs, Long sessionId) {
+        return storeECG(raw, fs, sessionId, null);
+    }
+
+    /**
+     * Checks the quality of raw ECG samples, then filters them, detects QRS complexes and stores the result.
+     *
+     * @param raw                 Raw ADC samples; NaN for unparseable values.
+     * @param fs                  Sampling frequency.
+     * @param sessionId           Session ID to attach the signal to.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return Saved {@link Signal}.
+     * @throws IllegalStateException  if the session is invalid or has no symptoms.
+     * @throws SignalQualityException if the recording fails the quality gate; nothing is stored.
+     */
+    public Signal storeECG(double[] raw, int fs, Long sessionId, Double expectedDurationSec) {
+        patientRepository.checkSession(sessionId);
+        ProcessedSignal processed = process(SignalType.ECG, raw, fs, expectedDurationSec);
+        // the signal row and its feature rows are stored together or not at all
+        Signal signal = transactionTemplate.execute(status ->
+                patientRepository.saveProcessedSignal(sessionId, LocalDateTime.now(), processed, null));
+
+        if (patientRepository.hasBothSignals(sessionId)) {
+            patientRepository.generateAndSaveCsvSummary(sessionId);
+        }
+        return signal;
+    }
+
+    /**
+     * Reads an uploaded multi-channel file (see {@link MultiChannelFile} for the layouts) and stores
+     * every channel as its own signal.
+     *
+     * @param fileBytes           Raw file content.
+     * @param type                Signal type of every channel.
+     * @param sessionId           Session ID to attach the signals to.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return The stored channels.
+     * @throws SignalQualityException if any channel fails the quality gate; nothing is stored.
+     */
+    public MultiChannelSignal addMultiChannel(byte[] fileBytes, SignalType type, Long sessionId, Double expectedDurationSec) {
+        MultiChannelFile file = MultiChannelFile.parse(fileBytes);
+        return storeMultiChannel(file.channels, file.fs, type, sessionId, expectedDurationSec);
+    }
+
+    /**
+     * Processes the channels of one recording in parallel on the signal pool, each through the full
+     * pipeline of its type, then stores them as signals sharing one timestamp. The quality gate runs
+     * on every channel before anything is stored, and the session summary is generated once.
+     *
+     * @param channels            Raw ADC samples per channel.
+     * @param fs                  Sampling frequency shared by the channels.
+     * @param type                Signal type of every channel.
+     * @param sessionId           Session ID to attach the signals to.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return The stored channels.
+     * @throws IllegalStateException  if the session is invalid or has no symptoms.
+     * @throws SignalQualityException if any channel fails the quality gate; nothing is stored.
+     */
+    public MultiChannelSignal storeMultiChannel(double[][] channels, int fs, SignalType type, Long sessionId,
+                                                Double expectedDurationSec) {
+        patientRepository.checkSession(sessionId);
+        // a parallel stream started inside the pool forks its tasks there rather than on the common pool
+        List<ProcessedSignal> processed = signalPool.submit(() -> IntStream.range(0, channels.length)
+                .parallel()
+                .mapToObj(c -> processChannel(type, channels[c], fs, expectedDurationSec, c))
+                .toList()).join();
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        // a channel that cannot be stored rolls back the others, so no partial recording is left
+        List<Signal> stored = transactionTemplate.execute(status -> {
+            List<Signal> saved = new ArrayList<>(processed.size());
+            for (int c = 0; c < processed.size(); c++) {
+                saved.add(patientRepository.saveProcessedSignal(sessionId, timestamp, processed.get(c), c));
+            }
+            return saved;
+        });
+
+        if (patientRepository.hasBothSignals(sessionId)) {
+            patientRepository.generateAndSaveCsvSummary(sessionId);
+        }
+        return new MultiChannelSignal(sessionId, timestamp, type, stored.isEmpty() ? fs : stored.get(0).getFs(), stored);
+    }
+
+    private ProcessedSignal processChannel(SignalType type, double[] raw, int fs, Double expectedDurationSec, int channel) {
+        try {
+            return process(type, raw, fs, expectedDurationSec);
+        } catch (SignalQualityException e) {
+            SignalQuality quality = e.getQuality();
+            quality.setProblems(quality.getProblems().stream().map(p -> "Channel " + channel + ": " + p).toList());
+            throw new SignalQualityException(quality);
+        }
+    }
+
+    /**
+     * Stores an offline backlog of sessions in one call. All signal files are parsed and processed in
+     * parallel on the signal pool first; then every session is written in its own transaction, with
+     * its symptoms and signals inserted through JDBC batches, and the session summaries are generated
+     * once each at the end. A file that cannot be processed rejects its session, and a session whose
+     * transaction fails is rolled back; either is reported with its error without affecting the others.
+     * <p>
+     * With an idempotency key, each stored session is recorded under the key in its transaction, and
+     * a retry of the batch with the same key and manifest returns those sessions as replayed instead of
+     * storing them again, so a client can safely resend a batch whose response it did not receive.
+     *
+     * @param patientId      ID of the patient the sessions belong to.
+     * @param idempotencyKey Key identifying the batch across retries, or null.
+     * @param sessions       Sessions in manifest order.
+     * @param files          File contents by multipart part name.
+     * @return One result per session, in manifest order.
+     * @throws IllegalArgumentException if the manifest is empty, a session has no symptoms, a signal
+     *                                  has no type or refers to a missing file, or the key is too long.
+     */
+    public List<BatchSessionResult> storeBatch(Long patientId, String idempotencyKey, List<BatchSessionRequest> sessions,
+                                               Map<String, byte[]> files) {
+        if (sessions == null || sessions.isEmpty()) {
+            throw new IllegalArgumentException("The batch has no sessions.");
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY)) {
+            throw new IllegalArgumentException("The idempotency key must have 1 to " + MAX_IDEMPOTENCY_KEY + " characters.");
+        }
+        Map<Integer, Long> replayed = idempotencyKey != null
+                ? patientRepository.findBatchSessionIds(patientId, idempotencyKey) : Map.of();
+        List<BatchFile> batchFiles = new ArrayList<>();
+        for (int i = 0; i < sessions.size(); i++) {
+            BatchSessionRequest session = sessions.get(i);
+            if (session.getSymptoms() == null || session.getSymptoms().isEmpty()) {
+                throw new IllegalArgumentException("Session " + i + " has no symptoms; symptoms must be logged before signals.");
+            }
+            for (BatchSignalRequest signal : session.getSignals() == null ? List.<BatchSignalRequest>of() : session.getSignals()) {
+                if (signal.getType() == null) {
+                    throw new IllegalArgumentException("A signal of session " + i + " has no type.");
+                }
+                byte[] bytes = files.get(signal.getFile());
+                if (bytes == null) {
+                    throw new IllegalArgumentException("Session " + i + " refers to the missing file '" + signal.getFile() + "'.");
+                }
+                batchFiles.add(new BatchFile(i, signal, bytes));
+            }
+        }
+
+        // DSP for the whole batch runs before any transaction is opened; sessions stored before are not processed again
+        List<BatchFile> pending = batchFiles.stream().filter(f -> !replayed.containsKey(f.session)).toList();
+        signalPool.submit(() -> pending.parallelStream().forEach(this::processBatchFile)).join();
+
+        List<BatchSessionResult> results = new ArrayList<>(sessions.size());
+        for (int i = 0; i < sessions.size(); i++) {
+            int index = i;
+            List<BatchFile> sessionFiles = batchFiles.stream().filter(f -> f.session == index).toList();
+            List<BatchFileResult> fileResults = sessionFiles.stream()
+                    .map(f -> new BatchFileResult(f.request.getFile(), f.error)).toList();
+            Long replayedId = replayed.get(index);
+            if (replayedId != null) {
+                MeasurementSession session = patientRepository.findSessionsById(replayedId);
+                results.add(new BatchSessionResult(index, session,
+                        patientRepository.findSignalHeadersBySessionId(replayedId), fileResults, true, null));
+                continue;
+            }
+            String error = sessionFiles.stream().filter(f -> f.error != null)
+                    .map(f -> "File '" + f.request.getFile() + "': " + f.error).findFirst().orElse(null);
+            if (error != null) {
+                results.add(new BatchSessionResult(index, null, List.of(), fileResults, false, error));
+                continue;
+            }
+            BatchSessionRequest request = sessions.get(index);
+            LocalDateTime timestamp = request.getRecordedAt() != null ? request.getRecordedAt() : LocalDateTime.now();
+            try {
+                results.add(transactionTemplate.execute(status -> {
+                    MeasurementSession session = patientRepository.startNewSession(patientId, timestamp);
+                    patientRepository.saveSymptoms(session.getSessionId(), request.getSymptoms());
+                    session.setSymptomsSet(request.getSymptoms());
+                    List<SignalHeader> headers = patientRepository.saveSignalBatch(session.getSessionId(), timestamp,
+                            sessionFiles.stream().map(f -> f.channels).toList());
+                    if (idempotencyKey != null) {
+                        patientRepository.saveBatchSession(patientId, idempotencyKey, index, session.getSessionId());
+                    }
+                    return new BatchSessionResult(index, session, headers, fileResults, false, null);
+                }));
+            } catch (RuntimeException e) {
+                // the transaction of this session was rolled back; the sessions stored before it stay
+                results.add(new BatchSessionResult(index, null, List.of(), fileResults, false,
+                        "Session " + index + " could not be stored: " + message(e)));
+            }
+        }
+
+        for (BatchSessionResult result : results) {
+            if (result.getSession() == null || result.isReplayed()) continue;
+            Long sessionId = result.getSession().getSessionId();
+            try {
+                if (patientRepository.hasBothSignals(sessionId)) {
+                    patientRepository.generateAndSaveCsvSummary(sessionId);
+                }
+            } catch (RuntimeException e) {
+                result.setError("The session was stored, but its summary could not be generated: " + message(e));
+            }
+        }
+        return results;
+    }
+
+    private void processBatchFile(BatchFile file) {
+        try {
+            MultiChannelFile parsed = MultiChannelFile.parse(file.bytes);
+            file.channels = IntStream.range(0, parsed.getChannelCount())
+                    .parallel()
+                    .mapToObj(c -> parsed.getChannelCount() == 1
+                            ? process(file.request.getType(), parsed.channels[c], parsed.fs, file.request.getDuration())
+                            : processChannel(file.request.getType(), parsed.channels[c], parsed.fs, file.request.getDuration(), c))
+                    .toList();
+        } catch (SignalQualityException e) {
+            file.error = String.join("; ", e.getQuality().getProblems());
+        } catch (RuntimeException e) {
+            // any failure is reported for this file alone; nothing of the batch has been stored yet
+            file.error = message(e);
+        }
+    }
+
+    private static String message(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    // one signal file of a batch: filled in by processBatchFile with either its channels or an error
+    private static final class BatchFile {
+        final int session;
+        final BatchSignalRequest request;
+        final byte[] bytes;
+        List<ProcessedSignal> channels;
+        String error;
+
+        BatchFile(int session, BatchSignalRequest request, byte[] bytes) {
+            this.session = session;
+            this.request = request;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Runs the quality gate, resampling and the pipeline of a signal type on raw samples, without
+     * touching the database, so channels and bulk imports can be processed concurrently.
+     *
+     * @param type                Signal type, which selects the pipeline, rate and precision.
+     * @param raw                 Raw ADC samples; NaN for unparseable values.
+     * @param fs                  Sampling frequency.
+     * @param expectedDurationSec Duration of the recording in seconds, or null if unknown.
+     * @return The samples and features to store.
+     * @throws IllegalArgumentException if the sampling frequency is outside the accepted range.
+     * @throws SignalQualityException   if the recording fails the quality gate.
+     */
+    public ProcessedSignal process(SignalType type, double[] raw, int fs, Double expectedDurationSec) {
+        if (fs < minFs || fs > maxFs) {
+            throw new IllegalArgumentException("Sampling frequency " + fs + " Hz is outside the accepted range "
+                    + minFs + "-" + maxFs + " Hz.");
+        }
+        Double qualityScore = checkQuality(raw, fs, expectedDurationSec);
+        int sourceFs = fs;
+        int analysisRate = type == SignalType.ECG ? ecgAnalysisRate : emgAnalysisRate;
+        if (analysisRate > 0 && fs > analysisRate) {
+            raw = PolyphaseResampler.of(fs, analysisRate).resample(raw);
+            fs = analysisRate;
+        }
+
+        // every stage writes into the one array that is finally stored
+        PipelineRun run = pipelines.forType(type).run(raw, fs, type == SignalType.ECG ? ecgPrecision : emgPrecision);
+        int length = run.getLength();
+        String data;
+        SignalPyramid pyramid;
+        List<ContractionFeatures> contractions = null;
+        ContractionResult cr = run.getResult(ContractionResult.class);
+        if (run.getPrecision() == SignalPrecision.FLOAT) {
+            float[] finalFiltered = run.getFloatSamples();
+            data = SignalProcessing.floatArrayToString(finalFiltered, length);
+            pyramid = SignalPyramid.build(finalFiltered, length);
+            if (cr != null) {
+                contractions = EMGProcessor.computeContractionFeatures(finalFiltered, length, cr.onsets, cr.offsets, fs);
+            }
+        } else {
+            double[] finalFiltered = run.getSamples();
+            data = SignalProcessing.doubleArrayToString(finalFiltered);
+            pyramid = SignalPyramid.build(finalFiltered);
+            if (cr != null) {
+                contractions = EMGProcessor.computeContractionFeatures(finalFiltered, cr.onsets, cr.offsets, fs);
+            }
+        }
+        QRSResult qrs = run.getResult(QRSResult.class);
+        EcgFeatures ecgFeatures = qrs != null ? ECGProcessor.computeFeatures(qrs.rPeaks, fs) : null;
+        return new ProcessedSignal(type, fs, sourceFs, qualityScore, length, data, pyramid, ecgFeatures, contractions);
+    }
+
+    /**
+     * Runs the quality gate on raw samples before any processing.
+     *
+     * @param raw                 Raw ADC samples.
+     * @param fs                  Sampling frequency.
+     * @param expectedDurationSec Declared duration in seconds, or null.
+     * @return Quality score to store with the signal, or null when the gate is disabled.
+     * @throws SignalQualityException if the recording is rejected.
+     */
+    private Double checkQuality(double[] raw, int fs, Double expectedDurationSec) {
+        if (qualityAnalyzer == null) {
+            return null;
+        }
+        SignalQuality quality = qualityAnalyzer.analyze(raw, fs, expectedDurationSec);
+        if (!quality.isAcceptable()) {
+            throw new SignalQualityException(quality);
+        }
+        return quality.getScore();
+    }
+
+    /**
+     * Completes a live signal once the recording has ended: joins its chunks into the signal,
+     * builds its min/max pyramid, runs the analysis stages of the configured pipeline and
+     * regenerates the session summary like a finished upload does.
+     *
+     * @param signalId ID of the signal.
+     */
+    public void finishLiveSignal(Long signalId) {
+        transactionTemplate.executeWithoutResult(status -> patientRepository.joinSignalChunks(signalId));
+        Signal signal = patientRepository.findSignalById(signalId);
+        if (signal == null) return;
+
+        double[] samples = signal.getSignalDataAsDoubleArray();
+        SignalPyramid pyramid = SignalPyramid.build(samples);
+        // the samples were filtered as they arrived, so only the analysis stages are left to run
+        PipelineRun run = pipelines.forType(signal.getSignalType()).analyze(samples, signal.getFs());
+        QRSResult qrs = run.getResult(QRSResult.class);
+        EcgFeatures ecgFeatures = qrs != null ? ECGProcessor.computeFeatures(qrs.rPeaks, signal.getFs()) : null;
+        ContractionResult cr = run.getResult(ContractionResult.class);
+        List<ContractionFeatures> contractions = cr != null
+                ? EMGProcessor.computeContractionFeatures(samples, cr.onsets, cr.offsets, signal.getFs()) : null;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            patientRepository.saveSignalPyramid(signalId, pyramid, samples.length);
+            if (ecgFeatures != null) {
+                patientRepository.saveEcgFeatures(signalId, ecgFeatures);
+            }
+            if (contractions != null) {
+                patientRepository.saveEmgFeatures(signalId, contractions);
+            }
+        });
+
+        if (patientRepository.hasBothSignals(signal.getMeasurementSessionId())) {
+            patientRepository.generateAndSaveCsvSummary(signal.getMeasurementSessionId());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.domain.Signal;
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.domain.SignalUpload;
+import com.example.telemedicine.exceptions.SignalQualityException;
+import com.example.telemedicine.exceptions.UploadOffsetMismatchException;
+import com.example.telemedicine.signal.IncrementalSignalParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service for resumable, chunked signal uploads.
+ * Chunks are appended to a staging file and parsed as they arrive, so a dropped connection only
+ * costs the chunk in flight and finalizing only runs the filters and the insert. Every chunk is
+ * flushed to disk before it is acknowledged, and the session and type of each upload are kept next
+ * to its staging file, so after a server restart the uploads are rebuilt by parsing the staged
+ * bytes again and clients resume from the committed offset. An upload idle for longer than the
+ * retention has to be started again.
+ */
+@Service
+public class SignalUploadService {
+
+    private final SignalIngestService signalIngestService;
+    private final Path stagingDir;
+    private final long maxBytes;
+    private final Duration retention;
+    private static final String PART_SUFFIX = ".part";
+    private static final String META_SUFFIX = ".properties";
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    public SignalUploadService(SignalIngestService signalIngestService,
+                               @Value("${uploads.staging-dir:data/uploads}") String stagingDir,
+                               @Value("${uploads.max-bytes:268435456}") long maxBytes,
+                               @Value("${uploads.retention-minutes:1440}") long retentionMinutes) throws IOException {
+        this.signalIngestService = signalIngestService;
+        this.stagingDir = Paths.get(stagingDir).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        Files.createDirectories(this.stagingDir);
+        restoreUploads();
+    }
+
+    /**
+     * Starts an upload.
+     *
+     * @param sessionId ID of the session the signal belongs to
+     * @param type      type of the signal
+     * @return the new upload, with nothing committed
+     * @throws IOException if the staging file cannot be created
+     */
+    public SignalUpload initiate(Long sessionId, SignalType type) throws IOException {
+        evictExpiredUploads();
+        String uploadId = UUID.randomUUID().toString();
+        Path file = stagingDir.resolve(uploadId + PART_SUFFIX);
+        Files.createFile(file);
+        Upload upload = new Upload(uploadId, sessionId, type, file, LocalDateTime.now());
+        writeMetadata(upload);
+        uploads.put(uploadId, upload);
+        return upload.snapshot();
+    }
+
+    /**
+     * Appends a chunk. A chunk that starts before the committed offset is a retry of data already
+     * stored, so only its unseen tail is appended.
+     *
+     * @param uploadId ID of the upload
+     * @param offset   position of the chunk in the file
+     * @param chunk    bytes of the chunk
+     * @return the upload after the chunk, or null if it does not exist
+     * @throws UploadOffsetMismatchException if the chunk starts after the committed offset
+     * @throws IllegalArgumentException      if the file is malformed or too large; the upload is discarded
+     * @throws IOException                   if the staging file cannot be written
+     */
+    public SignalUpload appendChunk(String uploadId, long offset, byte[] chunk) throws IOException {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) return null;
+
+        synchronized (upload) {
+            if (!uploads.containsKey(uploadId)) return null;
+            if (offset > upload.committed || offset < 0) {
+                throw new UploadOffsetMismatchException(upload.committed);
+            }
+            int skip = (int) Math.min(chunk.length, upload.committed - offset);
+            int length = chunk.length - skip;
+            if (upload.committed + length > maxBytes) {
+                discard(upload);
+                throw new IllegalArgumentException("Upload exceeds " + maxBytes + " bytes.");
+            }
+            if (length > 0) {
+                try (FileChannel channel = FileChannel.open(upload.file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk, skip, length);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                try {
+                    upload.parser.feed(chunk, skip, length);
+                } catch (IllegalArgumentException e) {
+                    discard(upload);
+                    throw e;
+                }
+                upload.committed += length;
+                upload.updatedAt = LocalDateTime.now();
+            }
+            return upload.snapshot();
+        }
+    }
+
+    /**
+     * @param uploadId ID of the upload
+     * @return the upload, or null if it does not exist
+     */
+    public SignalUpload getUpload(String uploadId) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) return null;
+        synchronized (upload) {
+            return upload.snapshot();
+        }
+    }
+
+    /**
+     * Completes an upload: filters the parsed samples and stores the signal like a single-request upload.
+     *
+     * @param uploadId ID of the upload
+     * @return the stored signal, or null if the upload does not exist
+     * @throws IllegalArgumentException if the file is incomplete; the upload is discarded
+     * @throws IllegalStateException    if the session cannot take the signal yet (e.g. no symptoms);
+     *                                  the upload is kept so it can be finalized again
+     * @throws SignalQualityException   if the recording fails the quality gate; the upload is discarded
+     */
+    public Signal finalizeUpload(String uploadId) throws IOException {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) return null;
+
+        synchronized (upload) {
+            if (!uploads.containsKey(uploadId)) return null;
+            try {
+                upload.parser.finish();
+            } catch (IllegalArgumentException e) {
+                discard(upload);
+                throw e;
+            }
+            double[] raw = upload.parser.getSamples();
+            int fs = upload.parser.getFs();
+            Signal signal;
+            try {
+                signal = upload.type == SignalType.EMG
+                        ? signalIngestService.storeEMG(raw, fs, upload.sessionId)
+                        : signalIngestService.storeECG(raw, fs, upload.sessionId);
+            } catch (SignalQualityException e) {
+                // finalizing again cannot fix the recording
+                discard(upload);
+                throw e;
+            }
+            discard(upload);
+            return signal;
+        }
+    }
+
+    /**
+     * Abandons an upload and deletes its staging file.
+     *
+     * @param uploadId ID of the upload
+     * @return false if the upload does not exist
+     */
+    public boolean cancel(String uploadId) throws IOException {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) return false;
+        synchronized (upload) {
+            discard(upload);
+        }
+        return true;
+    }
+
+    private void discard(Upload upload) throws IOException {
+        uploads.remove(upload.uploadId);
+        Files.deleteIfExists(upload.file);
+        Files.deleteIfExists(metadataFile(upload.uploadId));
+    }
+
+    private Path metadataFile(String uploadId) {
+        return stagingDir.resolve(uploadId + META_SUFFIX);
+    }
+
+    private void writeMetadata(Upload upload) throws IOException {
+        Properties metadata = new Properties();
+        metadata.setProperty("sessionId", upload.sessionId.toString());
+        metadata.setProperty("type", upload.type.name());
+        metadata.setProperty("createdAt", upload.createdAt.toString());
+        try (FileChannel channel = FileChannel.open(metadataFile(upload.uploadId),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            metadata.store(Channels.newOutputStream(channel), null);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Rebuilds the uploads staged before a restart: each staging file with its metadata is parsed
+     * again and committed up to its size. Files that cannot be restored are deleted.
+     */
+    private void restoreUploads() throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            metadataFiles = files.filter(f -> f.getFileName().toString().endsWith(META_SUFFIX)).toList();
+        }
+        for (Path metadataFile : metadataFiles) {
+            String name = metadataFile.getFileName().toString();
+            String uploadId = name.substring(0, name.length() - META_SUFFIX.length());
+            Path file = stagingDir.resolve(uploadId + PART_SUFFIX);
+            try (InputStream in = Files.newInputStream(metadataFile)) {
+                Properties metadata = new Properties();
+                metadata.load(in);
+                Upload upload = new Upload(uploadId, Long.valueOf(metadata.getProperty("sessionId")),
+                        SignalType.valueOf(metadata.getProperty("type")), file,
+                        LocalDateTime.parse(metadata.getProperty("createdAt")));
+                byte[] buffer = new byte[1 << 16];
+                try (InputStream staged = Files.newInputStream(file)) {
+                    int n;
+                    while ((n = staged.read(buffer)) > 0) {
+                        upload.parser.feed(buffer, 0, n);
+                        upload.committed += n;
+                    }
+                }
+                upload.updatedAt = LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault());
+                uploads.put(uploadId, upload);
+            } catch (IOException | RuntimeException e) {
+                // missing staging file, unreadable metadata or a file the parser rejects
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(metadataFile);
+            }
+        }
+    }
+
+    private void evictExpiredUploads() throws IOException {
+        LocalDateTime limit = LocalDateTime.now().minus(retention);
+        for (Upload upload : uploads.values()) {
+            synchronized (upload) {
+                if (upload.updatedAt.isBefore(limit)) {
+                    discard(upload);
+                }
+            }
+        }
+    }
+
+    private static class Upload {
+        final String uploadId;
+        final Long sessionId;
+        final SignalType type;
+        final Path file;
+        final IncrementalSignalParser parser = new IncrementalSignalParser();
+        final LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        long committed;
+
+        Upload(String uploadId, Long sessionId, SignalType type, Path file, LocalDateTime createdAt) {
+            this.uploadId = uploadId;
+            this.sessionId = sessionId;
+            this.type = type;
+            this.file = file;
+            this.createdAt = createdAt;
+            this.updatedAt = createdAt;
+        }
+
+        SignalUpload snapshot() {
+            return new SignalUpload(uploadId, sessionId, type, committed, parser.getSampleCount(), createdAt, updatedAt);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.domain.Signal;
+import com.example.telemedicine.domain.SignalView;
+import com.example.telemedicine.repository.PatientRepository;
+import com.example.telemedicine.signal.DecimatedSeries;
+import com.example.telemedicine.signal.DecimationMode;
+import com.example.telemedicine.signal.Decimator;
+import com.example.telemedicine.signal.SignalPyramid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service that serves decimated windows of stored signals so the front-end can
+ * plot, pan and zoom without downloading every sample.
+ * Min/max views are answered from the pyramid stored at ingest whenever it is
+ * fine enough, which costs time proportional to the output only; other views
+ * decimate the raw samples. Signal overviews, parsed samples and the resulting
+ * views are kept in LRU caches; a signal only changes while a live recording
+ * appends to it, and {@link #evict} drops it then.
+ */
+@Service
+public class SignalViewService {
+
+    static final int MAX_POINTS = 10_000;
+
+    private final PatientRepository patientRepository;
+    private final LruCache<Long, Signal> overviewCache;
+    private final LruCache<Long, double[]> sampleCache;
+    private final LruCache<ViewKey, SignalView> viewCache;
+
+    public SignalViewService(PatientRepository patientRepository,
+                             @Value("${signals.view.sample-cache-size:16}") int sampleCacheSize,
+                             @Value("${signals.view.cache-size:256}") int viewCacheSize) {
+        this.patientRepository = patientRepository;
+        this.overviewCache = new LruCache<>(viewCacheSize);
+        this.sampleCache = new LruCache<>(sampleCacheSize);
+        this.viewCache = new LruCache<>(viewCacheSize);
+    }
+
+    /**
+     * Returns a decimated window of a signal.
+     *
+     * @param signalId  ID of the signal
+     * @param startTime start of the window in seconds, null for the beginning
+     * @param endTime   end of the window in seconds, null for the end of the recording
+     * @param points    maximum number of points to return
+     * @param mode      decimation algorithm
+     * @return the decimated window, or null if the signal does not exist
+     * @throws IllegalArgumentException if the window or number of points is invalid
+     */
+    public SignalView getView(Long signalId, Double startTime, Double endTime, int points, DecimationMode mode) {
+        if (points < 3 || points > MAX_POINTS) {
+            throw new IllegalArgumentException("points must be between 3 and " + MAX_POINTS);
+        }
+        if (startTime != null && endTime != null && endTime <= startTime) {
+            throw new IllegalArgumentException("end must be after start");
+        }
+
+        Signal signal = overviewCache.get(signalId, patientRepository::findSignalOverviewById);
+        if (signal == null) {
+            return null;
+        }
+
+        SignalPyramid pyramid = signal.getPyramid();
+        int total = pyramid != null ? pyramid.getSampleCount() : samples(signalId).length;
+        int fs = signal.getFs() > 0 ? signal.getFs() : 1;
+
+        int from = startTime == null ? 0 : (int) Math.floor(startTime * fs);
+        int to = endTime == null ? total : (int) Math.ceil(endTime * fs);
+        from = Math.max(0, Math.min(from, total));
+        to = Math.max(from, Math.min(to, total));
+
+        ViewKey key = new ViewKey(signalId, from, to, points, mode);
+        int first = from;
+        int last = to;
+        return viewCache.get(key, k -> {
+            DecimatedSeries series = null;
+            if (mode == DecimationMode.MINMAX && pyramid != null && last - first > points) {
+                series = pyramid.envelope(first, last, points / 2);
+            }
+            if (series == null) {
+                series = Decimator.decimate(samples(signalId), first, last, points, mode);
+            }
+
+            double[] time = new double[series.indices.length];
+            for (int i = 0; i < time.length; i++) {
+                time[i] = (double) series.indices[i] / fs;
+            }
+            return new SignalView(signalId, signal.getSignalType(), signal.getFs(), total,
+                    (double) first / fs, (double) last / fs, mode, time, series.values);
+        });
+    }
+
+    /**
+     * Returns a min/max thumbnail of a whole recording.
+     *
+     * @param signalId ID of the signal
+     * @param points   maximum number of points to return
+     * @return the overview, or null if the signal does not exist
+     */
+    public SignalView getOverview(Long signalId, int points) {
+        return getView(signalId, null, null, points, DecimationMode.MINMAX);
+    }
+
+    /**
+     * Returns the stored samples of a signal, parsed once and kept in the sample cache.
+     *
+     * @param signalId ID of the signal
+     * @return the samples, empty if the signal does not exist
+     */
+    public double[] getSamples(Long signalId) {
+        return samples(signalId);
+    }
+
+    /**
+     * Drops everything cached for a signal, after its samples changed.
+     *
+     * @param signalId ID of the signal
+     */
+    public void evict(Long signalId) {
+        overviewCache.removeIf(signalId::equals);
+        sampleCache.removeIf(signalId::equals);
+        viewCache.removeIf(key -> key.signalId().equals(signalId));
+    }
+
+    private double[] samples(Long signalId) {
+        return sampleCache.get(signalId, id -> {
+            Signal signal = patientRepository.findSignalById(id);
+            return signal != null ? signal.getSignalDataAsDoubleArray() : new double[0];
+        });
+    }
+
+    private record ViewKey(Long signalId, int from, int to, int points, DecimationMode mode) {
+    }
+}
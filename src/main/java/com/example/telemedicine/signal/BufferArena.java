@@ -0,0 +1,158 @@
+package com.example.telemedicine.signal;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-thread pool of scratch {@code double[]} buffers for the signal stages. Buffers come in
+ * power-of-two size classes, so a borrowed buffer is usually longer than asked for and callers
+ * pass the length they use alongside it. Returned buffers are kept for the next request on the
+ * same thread, up to {@link #MAX_FREE_PER_CLASS} per class and {@link #MAX_RETAINED_DOUBLES} per
+ * thread; anything larger is allocated and dropped as before.
+ * <p>
+ * Arenas live on request threads and on the common fork-join pool workers that analyse
+ * contractions, so the buffers kept by all of them together are also capped by a process-wide
+ * budget of {@link #MAX_GLOBAL_RETAINED_DOUBLES}: a release that would exceed it drops the
+ * buffer. When a thread dies, the share its arena held is given back to the budget.
+ * <p>
+ * The arena remembers which buffers are out: releasing a buffer twice or one it did not lend
+ * fails, and {@link #getOutstanding()} lets tests check that a stage returned everything.
+ */
+public final class BufferArena {
+    static final int MIN_CLASS_BITS = 8;
+    static final int MAX_FREE_PER_CLASS = 2;
+    static final long MAX_RETAINED_DOUBLES = 4L << 20; // 32 MB per thread
+    static final long MAX_GLOBAL_RETAINED_DOUBLES = 8L << 20; // 64 MB for all threads
+
+    private static final Budget GLOBAL = new Budget(MAX_GLOBAL_RETAINED_DOUBLES);
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final ThreadLocal<BufferArena> CURRENT = ThreadLocal.withInitial(() -> new BufferArena(GLOBAL));
+
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<double[]>[] free = new ArrayDeque[31];
+    private final Set<double[]> borrowed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Budget budget;
+    // shared with the cleaner, which must not reach the arena or the thread
+    private final AtomicLong retained = new AtomicLong();
+    private long allocations;
+
+    BufferArena(Budget budget) {
+        this.budget = budget;
+        AtomicLong held = retained;
+        CLEANER.register(Thread.currentThread(), () -> budget.free(held.getAndSet(0)));
+    }
+
+    /**
+     * @return The arena of the calling thread.
+     */
+    public static BufferArena current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Lends a buffer of at least {@code length} doubles. Its contents are undefined.
+     * @param length Minimum length.
+     * @return A buffer to give back with {@link #release(double[])}.
+     */
+    public double[] borrow(int length) {
+        int bits = Math.max(MIN_CLASS_BITS, 32 - Integer.numberOfLeadingZeros(Math.max(1, length) - 1));
+        double[] buffer = null;
+        if (bits < free.length && free[bits] != null) {
+            buffer = free[bits].pollFirst();
+        }
+        if (buffer != null) {
+            retained.addAndGet(-buffer.length);
+            budget.free(buffer.length);
+        } else {
+            buffer = new double[bits < free.length ? 1 << bits : length];
+            allocations++;
+        }
+        borrowed.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Gives a buffer back to the arena. It must not be used afterwards.
+     * @param buffer Buffer obtained from {@link #borrow(int)} on this thread.
+     * @throws IllegalStateException if the buffer is not currently lent by this arena.
+     */
+    public void release(double[] buffer) {
+        if (buffer == null) return;
+        if (!borrowed.remove(buffer)) {
+            throw new IllegalStateException("Buffer of length " + buffer.length + " was not borrowed from this arena");
+        }
+        int bits = Integer.numberOfTrailingZeros(buffer.length);
+        if (Integer.bitCount(buffer.length) != 1 || bits < MIN_CLASS_BITS || bits >= free.length
+                || retained.get() + buffer.length > MAX_RETAINED_DOUBLES) {
+            return;
+        }
+        if (free[bits] == null) {
+            free[bits] = new ArrayDeque<>(MAX_FREE_PER_CLASS);
+        }
+        if (free[bits].size() < MAX_FREE_PER_CLASS && budget.reserve(buffer.length)) {
+            free[bits].addFirst(buffer);
+            retained.addAndGet(buffer.length);
+        }
+    }
+
+    /**
+     * @return Number of buffers lent and not yet released; zero between requests.
+     */
+    public int getOutstanding() {
+        return borrowed.size();
+    }
+
+    /**
+     * @return Number of buffers this arena had to allocate since the thread started.
+     */
+    public long getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * @return Number of doubles kept for reuse by this arena.
+     */
+    public long getRetained() {
+        return retained.get();
+    }
+
+    /**
+     * @return Number of doubles kept for reuse by the arenas of all threads.
+     */
+    public static long getGlobalRetained() {
+        return GLOBAL.getUsed();
+    }
+
+    /**
+     * Number of doubles that arenas sharing it may keep between them.
+     */
+    static final class Budget {
+        private final long limit;
+        private final AtomicLong used = new AtomicLong();
+
+        Budget(long limit) {
+            this.limit = limit;
+        }
+
+        boolean reserve(long doubles) {
+            long current;
+            do {
+                current = used.get();
+                if (current + doubles > limit) return false;
+            } while (!used.compareAndSet(current, current + doubles));
+            return true;
+        }
+
+        void free(long doubles) {
+            used.addAndGet(-doubles);
+        }
+
+        long getUsed() {
+            return used.get();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.telemedicine.signal;
+
+/**
+ * Image formats a {@link SignalChart} can be encoded to.
+ */
+public enum ChartFormat {
+    /** Bitmap, for thumbnails and report pages. */
+    PNG("image/png"),
+    /** Vector image that scales without resampling, for zoomable views and printing. */
+    SVG("image/svg+xml");
+
+    private final String contentType;
+
+    ChartFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.telemedicine.signal;
+
+import lombok.Data;
+
+/**
+ * Represents a decimated signal: the selected sample indexes and their values.
+ */
+@Data
+public class DecimatedSeries {
+    public final int[] indices;
+    public final double[] values;
+
+    /**
+     * @param indices Sample indexes (into the original signal) of the kept points, ascending.
+     * @param values Amplitude of each kept point.
+     */
+    public DecimatedSeries(int[] indices, double[] values) {
+        this.indices = indices;
+        this.values = values;
+    }
+}
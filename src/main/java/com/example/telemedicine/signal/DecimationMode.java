@@ -0,0 +1,11 @@
+package com.example.telemedicine.signal;
+
+/**
+ * Algorithms available to reduce a signal to a number of display points.
+ */
+public enum DecimationMode {
+    /** Keeps the minimum and maximum sample of every bucket, preserving spikes. */
+    MINMAX,
+    /** Largest-Triangle-Three-Buckets, keeps the visually most significant sample of every bucket. */
+    LTTB
+}
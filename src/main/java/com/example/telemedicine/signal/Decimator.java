@@ -0,0 +1,127 @@
+package com.example.telemedicine.signal;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a range of a signal to a bounded number of points for display.
+ * Both algorithms run in a single pass over the selected range.
+ */
+public class Decimator {
+
+    /**
+     * Decimates the range [from, to) of a signal.
+     * If the range already has no more samples than requested, it is returned as is.
+     * @param data Signal samples.
+     * @param from First sample index (inclusive).
+     * @param to Last sample index (exclusive).
+     * @param points Maximum number of points to return.
+     * @param mode Decimation algorithm.
+     * @return DecimatedSeries with the kept indexes and values.
+     */
+    public static DecimatedSeries decimate(double[] data, int from, int to, int points, DecimationMode mode) {
+        int length = to - from;
+        if (length <= points || points < 3) {
+            int[] indices = new int[Math.max(length, 0)];
+            for (int i = 0; i < indices.length; i++) indices[i] = from + i;
+            return new DecimatedSeries(indices, Arrays.copyOfRange(data, from, Math.max(from, to)));
+        }
+        return mode == DecimationMode.LTTB ? lttb(data, from, to, points) : minMax(data, from, to, points);
+    }
+
+    /**
+     * Min/max decimation: splits the range in points/2 buckets and keeps the minimum
+     * and maximum of each bucket in time order.
+     * @param data Signal samples.
+     * @param from First sample index (inclusive).
+     * @param to Last sample index (exclusive).
+     * @param points Maximum number of points to return.
+     * @return DecimatedSeries with at most points entries.
+     */
+    public static DecimatedSeries minMax(double[] data, int from, int to, int points) {
+        int buckets = Math.max(1, points / 2);
+        int length = to - from;
+        int[] indices = new int[buckets * 2];
+        double[] values = new double[buckets * 2];
+        int n = 0;
+
+        for (int b = 0; b < buckets; b++) {
+            int start = from + (int) ((long) b * length / buckets);
+            int end = from + (int) ((long) (b + 1) * length / buckets);
+            if (start >= end) continue;
+
+            int minIdx = start;
+            int maxIdx = start;
+            for (int i = start + 1; i < end; i++) {
+                if (data[i] < data[minIdx]) minIdx = i;
+                if (data[i] > data[maxIdx]) maxIdx = i;
+            }
+
+            int first = Math.min(minIdx, maxIdx);
+            int second = Math.max(minIdx, maxIdx);
+            indices[n] = first;
+            values[n++] = data[first];
+            if (second != first) {
+                indices[n] = second;
+                values[n++] = data[second];
+            }
+        }
+        return new DecimatedSeries(Arrays.copyOf(indices, n), Arrays.copyOf(values, n));
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets decimation. Always keeps the first and last
+     * sample and, for every bucket in between, the sample forming the largest
+     * triangle with the previously kept point and the average of the next bucket.
+     * @param data Signal samples.
+     * @param from First sample index (inclusive).
+     * @param to Last sample index (exclusive).
+     * @param points Number of points to return (at least 3).
+     * @return DecimatedSeries with exactly points entries.
+     */
+    public static DecimatedSeries lttb(double[] data, int from, int to, int points) {
+        int length = to - from;
+        int[] indices = new int[points];
+        double[] values = new double[points];
+
+        double bucketSize = (double) (length - 2) / (points - 2);
+        int a = from;
+        indices[0] = a;
+        values[0] = data[a];
+
+        for (int b = 0; b < points - 2; b++) {
+            int nextStart = from + (int) Math.floor((b + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) Math.floor((b + 2) * bucketSize) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += i;
+                avgY += data[i];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int rangeStart = from + (int) Math.floor(b * bucketSize) + 1;
+            int rangeEnd = from + (int) Math.floor((b + 1) * bucketSize) + 1;
+            double ax = a;
+            double ay = data[a];
+            double maxArea = -1;
+            int selected = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((ax - avgX) * (data[i] - ay) - (ax - i) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+
+            indices[b + 1] = selected;
+            values[b + 1] = data[selected];
+            a = selected;
+        }
+
+        indices[points - 1] = to - 1;
+        values[points - 1] = data[to - 1];
+        return new DecimatedSeries(indices, values);
+    }
+}
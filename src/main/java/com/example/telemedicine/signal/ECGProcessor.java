@@ -1,20 +1,13 @@
 package com.example.telemedicine.signal;
 
-import org.knowm.xchart.SwingWrapper;
-import org.knowm.xchart.XYChart;
-import org.knowm.xchart.XYChartBuilder;
-import org.knowm.xchart.XYSeries;
-import org.knowm.xchart.style.Styler;
-import org.knowm.xchart.style.markers.SeriesMarkers;
-
-import java.awt.Color;
+import com.example.telemedicine.domain.EcgFeatures;
+
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * Provides processing ECG signal methods, including filtering.
- * QRS complex detection and plotting results.
+ * QRS complex detection and heart rate features. Charts are rendered by {@link SignalChart}.
  */
 public class ECGProcessor {
 
@@ -28,9 +21,83 @@ public class ECGProcessor {
      * @return Filtered ECG signal.
      */
     public static double[] applyFilters(double[] signal, double fs) {
+        double[] filtered = new double[signal.length];
+        applyFilters(signal, filtered, signal.length, fs);
+        return filtered;
+    }
+
+    /**
+     * Applies the bandpass and notch filters into a caller-provided buffer, without intermediate arrays.
+     * @param signal Input recovered ECG signal.
+     * @param out Output buffer; may be {@code signal} itself.
+     * @param length Number of samples to filter.
+     * @param fs Sampling frequency
+     */
+    public static void applyFilters(double[] signal, double[] out, int length, double fs) {
         // Llama a la caja de herramientas (SignalUtils)
-        double[] passFiltered = SignalProcessing.bandpassFilter(signal, fs, 5.0, 15.0, 4);
-        return SignalProcessing.notchFilter(passFiltered, fs, 60.0, 30);
+        SignalProcessing.bandpassFilter(signal, out, length, fs, 5.0, 15.0, 4);
+        SignalProcessing.notchFilter(out, out, length, fs, 60.0, 30);
+    }
+
+    /**
+     * Float variant of {@link #applyFilters(double[], double[], int, double)}.
+     * @param signal Input recovered ECG signal.
+     * @param out Output buffer; may be {@code signal} itself.
+     * @param length Number of samples to filter.
+     * @param fs Sampling frequency
+     */
+    public static void applyFilters(float[] signal, float[] out, int length, double fs) {
+        SignalProcessing.bandpassFilter(signal, out, length, fs, 5.0, 15.0, 4);
+        SignalProcessing.notchFilter(out, out, length, fs, 60.0, 30);
+    }
+
+    /**
+     * Computes heart rate and time-domain HRV metrics from the R-peaks of a signal in one pass.
+     * RR intervals outside 300-2000 ms (40-200 bpm) are kept in the RR series but treated as
+     * artifacts: they are left out of the NN statistics and break the chain of successive differences.
+     * @param rPeaks R-peak indices in increasing order.
+     * @param fs Sampling frequency.
+     * @return Features with a null signal ID; the metrics are null when there are not enough beats.
+     */
+    public static EcgFeatures computeFeatures(List<Integer> rPeaks, double fs) {
+        List<Double> rr = new ArrayList<>(Math.max(0, rPeaks.size() - 1));
+        int nn = 0;
+        double mean = 0, m2 = 0;
+        double minRr = Double.MAX_VALUE, maxRr = 0;
+        int diffs = 0, over50 = 0;
+        double sumSquaredDiffs = 0;
+        double previousNn = Double.NaN;
+
+        for (int i = 1; i < rPeaks.size(); i++) {
+            double interval = (rPeaks.get(i) - rPeaks.get(i - 1)) * 1000.0 / fs;
+            rr.add(interval);
+            if (interval < 300 || interval > 2000) {
+                previousNn = Double.NaN;
+                continue;
+            }
+            nn++;
+            double delta = interval - mean;
+            mean += delta / nn;
+            m2 += delta * (interval - mean);
+            minRr = Math.min(minRr, interval);
+            maxRr = Math.max(maxRr, interval);
+            if (!Double.isNaN(previousNn)) {
+                double diff = interval - previousNn;
+                sumSquaredDiffs += diff * diff;
+                if (Math.abs(diff) > 50) over50++;
+                diffs++;
+            }
+            previousNn = interval;
+        }
+
+        if (nn == 0) {
+            return new EcgFeatures(null, rPeaks.size(), null, null, null, null, null, null, rr);
+        }
+        Double sdnn = nn > 1 ? Math.sqrt(m2 / (nn - 1)) : null;
+        Double rmssd = diffs > 0 ? Math.sqrt(sumSquaredDiffs / diffs) : null;
+        Double pnn50 = diffs > 0 ? 100.0 * over50 / diffs : null;
+        return new EcgFeatures(null, rPeaks.size(), 60000.0 / mean, 60000.0 / maxRr, 60000.0 / minRr,
+                sdnn, rmssd, pnn50, rr);
     }
 
     /**
@@ -46,7 +113,7 @@ public class ECGProcessor {
      */
     public static QRSResult detectQRSComplexes(double[] filteredSignal, double fs) {
         // 1. Detectar Picos R (los altos)
-        double maxAmplitude = Arrays.stream(filteredSignal).max().orElse(0);
+        double maxAmplitude = filteredSignal.length > 0 ? SignalKernels.get().max(filteredSignal) : 0;
         double rPeakThreshold = 0.5 * maxAmplitude; // Umbral al 50%
 
         List<Integer> rPeaks = findPeaks(filteredSignal, rPeakThreshold);
@@ -87,51 +154,4 @@ public class ECGProcessor {
         }
         return peaks;
     }
-
-    // --- GRÁFICO (Estilo corregido) ---
-
-    /**
-     * Plots ECG signal and detected Q-peaks.
-     * @param time
-     * @param signal ECG signal to plot.
-     * @param qPeaks Indices of detected Q-peaks.
-     * @param title Chart title.
-     * @param maxTimeSec Maximum time (seconds) to display in the plot.
-     */
-    public static void plotECGResults(double[] time, double[] signal, List<Integer> qPeaks, String title, double maxTimeSec) {
-        double fs = 1.0 / (time[1] - time[0]);
-        int maxSamples = (int) (maxTimeSec * fs);
-        int limit = Math.min(signal.length, maxSamples);
-
-        double actualMaxTime = time[limit - 1];
-        double[] timeLimited = Arrays.copyOfRange(time, 0, limit);
-        double[] signalLimited = Arrays.copyOfRange(signal, 0, limit);
-
-        List<Double> qPeakTimes = new ArrayList<>();
-        List<Double> qPeakAmplitudes = new ArrayList<>();
-        for (int peakIndex : qPeaks) {
-            if (peakIndex < limit) {
-                qPeakTimes.add(time[peakIndex]);
-                qPeakAmplitudes.add(signal[peakIndex]);
-            }
-        }
-
-        XYChart chart = new XYChartBuilder().width(1200).height(600).title(title).xAxisTitle("Time (s)").yAxisTitle("Amplitude (mV)").build();
-        chart.getStyler().setLegendPosition(Styler.LegendPosition.InsideNW);
-
-        // Señal Roja Limpia
-        XYSeries signalSeries = chart.addSeries("Señal Procesada", timeLimited, signalLimited);
-        signalSeries.setLineColor(Color.RED);
-        signalSeries.setMarker(SeriesMarkers.NONE);
-
-        // Picos Q Negros (Sin línea que los una)
-        XYSeries peakSeries = chart.addSeries("Picos Q Detectados", qPeakTimes, qPeakAmplitudes);
-        peakSeries.setMarker(SeriesMarkers.CIRCLE);
-        peakSeries.setMarkerColor(Color.BLACK);
-
-        chart.getStyler().setXAxisMin(0.0);
-        chart.getStyler().setXAxisMax(actualMaxTime);
-
-        new SwingWrapper<>(chart).displayChart();
-    }
 }
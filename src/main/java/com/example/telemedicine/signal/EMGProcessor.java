@@ -1,27 +1,28 @@
 package com.example.telemedicine.signal;
 
+import com.example.telemedicine.domain.ContractionFeatures;
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.stat.descriptive.rank.Median;
 import org.apache.commons.math3.transform.FastFourierTransformer;
 import org.apache.commons.math3.transform.TransformType;
-import org.knowm.xchart.SwingWrapper;
-import org.knowm.xchart.XYChart;
-import org.knowm.xchart.XYSeries;
-import org.knowm.xchart.style.Styler;
-import org.knowm.xchart.style.markers.SeriesMarkers;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * Provides static methods for processing EMG signals, including EMG signal
- * processing, contraction detection, RMS computation and plotting results.
+ * processing, contraction detection, RMS computation and spectral features.
+ * Charts are rendered by {@link SignalChart}.
  */
 public class EMGProcessor {
+    private static final int MIN_SPECTRUM_SEGMENT = 32;
+    private static final int MAX_SPECTRUM_SEGMENT = 256;
+
     /**
      * Filtro de Mediana para suavizar la envolvente.
      * (Movido desde SignalUtils porque es específico de EMG)
@@ -30,18 +31,25 @@ public class EMGProcessor {
         double[] result = new double[signal.length];
         int halfKernel = kernelSize / 2;
 
-        for (int i = 0; i < signal.length; i++) {
-            int start = Math.max(0, i - halfKernel);
-            int end = Math.min(signal.length, i + halfKernel + 1);
-
-            double[] window = Arrays.copyOfRange(signal, start, end);
-            Arrays.sort(window);
-
-            if (window.length % 2 == 1) {
-                result[i] = window[window.length / 2];
-            } else {
-                result[i] = (window[window.length / 2 - 1] + window[window.length / 2]) / 2.0;
+        BufferArena arena = BufferArena.current();
+        double[] window = arena.borrow(kernelSize);
+        try {
+            for (int i = 0; i < signal.length; i++) {
+                int start = Math.max(0, i - halfKernel);
+                int end = Math.min(signal.length, i + halfKernel + 1);
+                int n = end - start;
+
+                System.arraycopy(signal, start, window, 0, n);
+                Arrays.sort(window, 0, n);
+
+                if (n % 2 == 1) {
+                    result[i] = window[n / 2];
+                } else {
+                    result[i] = (window[n / 2 - 1] + window[n / 2]) / 2.0;
+                }
             }
+        } finally {
+            arena.release(window);
         }
         return result;
     }
@@ -87,13 +95,12 @@ public class EMGProcessor {
         // Llamada al método privado local
         double[] envelopeSmooth = medianFilter(envelope, 201);
 
-        double maxEnvelope = Arrays.stream(envelopeSmooth).max().orElse(0);
+        SignalKernels kernels = SignalKernels.get();
+        double maxEnvelope = envelopeSmooth.length > 0 ? kernels.max(envelopeSmooth) : 0;
         double threshold = thresholdRatio * maxEnvelope;
 
         boolean[] aboveThreshold = new boolean[envelopeSmooth.length];
-        for (int i = 0; i < envelopeSmooth.length; i++) {
-            aboveThreshold[i] = envelopeSmooth[i] > threshold;
-        }
+        kernels.greaterThan(envelopeSmooth, threshold, aboveThreshold);
 
         List<Integer> onsets = new ArrayList<>();
         List<Integer> offsets = new ArrayList<>();
@@ -134,64 +141,95 @@ public class EMGProcessor {
      * @return RmsResult containing RMS values for each contraction and the median RMS.
      */
     public static RmsResult computeRms(double[] signal, List<Integer> onsets, List<Integer> offsets) {
-        List<Double> rmsValues = new ArrayList<>();
-        for (int i = 0; i < onsets.size(); i++) {
+        return computeRms(new WindowedStats(signal), onsets, offsets);
+    }
+
+    /**
+     * Computes RMS values for detected EMG contractions from the prefix sums of the signal,
+     * so each contraction costs constant time.
+     * @param stats Windowed statistics of the signal.
+     * @param onsets Start contractions indices.
+     * @param offsets End contractions indices.
+     * @return RmsResult containing RMS values for each non-empty contraction and the median RMS.
+     */
+    public static RmsResult computeRms(WindowedStats stats, List<Integer> onsets, List<Integer> offsets) {
+        int contractions = Math.min(onsets.size(), offsets.size());
+        double[] rmsValues = new double[contractions];
+        int count = 0;
+        for (int i = 0; i < contractions; i++) {
             int start = onsets.get(i);
-            int end = offsets.get(i);
+            int end = Math.min(offsets.get(i), stats.length());
             if (end > start) {
-                double[] segment = Arrays.copyOfRange(signal, start, end);
-                double meanSquare = Arrays.stream(segment).map(x -> x * x).average().orElse(0);
-                rmsValues.add(Math.sqrt(meanSquare));
+                rmsValues[count++] = stats.rms(start, end);
             }
         }
-        double medianRms = 0;
-        if (!rmsValues.isEmpty()) {
-            org.apache.commons.math3.stat.descriptive.rank.Median median = new org.apache.commons.math3.stat.descriptive.rank.Median();
-            medianRms = median.evaluate(rmsValues.stream().mapToDouble(d -> d).toArray());
-        }
+        rmsValues = Arrays.copyOf(rmsValues, count);
+        double medianRms = count > 0 ? new Median().evaluate(rmsValues) : 0;
         return new RmsResult(rmsValues, medianRms);
     }
 
     /**
-     * Plots EMG signal, envelope and contraction events (onsets and offsets).
-     * @param fs
-     * @param filteredSignal
-     * @param envelope
-     * @param onsets
-     * @param offsets
-     * @param subjectId Subject identifier for the chart title.
+     * Computes RMS, mean frequency and median frequency of each contraction. The spectrum of a
+     * contraction is its Welch PSD with segments of up to 256 samples; contractions are independent,
+     * so they are analysed in parallel on the common fork-join pool.
+     * @param signal Filtered EMG.
+     * @param onsets Start contractions indices.
+     * @param offsets End contractions indices.
+     * @param fs Sampling frequency.
+     * @return Features of every contraction long enough for a spectrum, in order, with a null signal ID.
      */
-    public static void plotEMGResults(double fs, double[] filteredSignal, double[] envelope, List<Integer> onsets, List<Integer> offsets, String subjectId) {
-        double[] time = IntStream.range(0, filteredSignal.length).mapToDouble(i -> i / fs).toArray();
-
-        XYChart chart = new XYChart(1200, 600);
-        chart.setTitle("sEMG with Detected Contractions - Subject " + subjectId);
-        chart.setXAxisTitle("Time (s)");
-        chart.setYAxisTitle("Amplitude (mV)");
-        chart.getStyler().setLegendPosition(Styler.LegendPosition.InsideNW);
-        chart.getStyler().setPlotGridLinesVisible(true);
-
-        chart.addSeries("Filtered sEMG", time, filteredSignal).setMarker(SeriesMarkers.NONE);
-
-        XYSeries envelopeSeries = chart.addSeries("Envelope", time, envelope);
-        envelopeSeries.setLineStyle(new java.awt.BasicStroke(1, java.awt.BasicStroke.CAP_BUTT, java.awt.BasicStroke.JOIN_MITER, 10.0f, new float[]{10.0f}, 0.0f));
-        envelopeSeries.setMarker(SeriesMarkers.NONE);
-
-        double minY = Arrays.stream(filteredSignal).min().orElse(-1);
-        double maxY = Arrays.stream(filteredSignal).max().orElse(1);
-
-        // Dibujar líneas de eventos
-        for (int i = 0; i < onsets.size(); i++) {
-            double t = onsets.get(i) / fs;
-            XYSeries s = chart.addSeries("Onset" + i, new double[]{t, t}, new double[]{minY, maxY});
-            s.setLineColor(java.awt.Color.GREEN); s.setMarker(SeriesMarkers.NONE); s.setShowInLegend(false);
+    public static List<ContractionFeatures> computeContractionFeatures(double[] signal, List<Integer> onsets,
+                                                                       List<Integer> offsets, double fs) {
+        try (WindowedStats stats = new WindowedStats(signal, signal.length, BufferArena.current())) {
+            return computeContractionFeatures(stats, onsets, offsets, fs,
+                    (start, end, segment) -> WelchPsd.estimate(signal, start, end, fs, segment));
         }
-        for (int i = 0; i < offsets.size(); i++) {
-            double t = offsets.get(i) / fs;
-            XYSeries s = chart.addSeries("Offset" + i, new double[]{t, t}, new double[]{minY, maxY});
-            s.setLineColor(java.awt.Color.RED); s.setMarker(SeriesMarkers.NONE); s.setShowInLegend(false);
+    }
+
+    /**
+     * Float variant of {@link #computeContractionFeatures(double[], List, List, double)}. Each
+     * contraction is widened into a pooled buffer before its spectrum is estimated.
+     * @param signal Filtered EMG.
+     * @param length Number of samples of the signal.
+     * @param onsets Start contractions indices.
+     * @param offsets End contractions indices.
+     * @param fs Sampling frequency.
+     * @return Features of every contraction long enough for a spectrum, in order, with a null signal ID.
+     */
+    public static List<ContractionFeatures> computeContractionFeatures(float[] signal, int length, List<Integer> onsets,
+                                                                       List<Integer> offsets, double fs) {
+        try (WindowedStats stats = new WindowedStats(signal, length, BufferArena.current())) {
+            return computeContractionFeatures(stats, onsets, offsets, fs, (start, end, segment) -> {
+                BufferArena arena = BufferArena.current();
+                double[] window = arena.borrow(end - start);
+                try {
+                    for (int k = start; k < end; k++) window[k - start] = signal[k];
+                    return WelchPsd.estimate(window, 0, end - start, fs, segment);
+                } finally {
+                    arena.release(window);
+                }
+            });
         }
+    }
+
+    private interface PsdSource {
+        double[] estimate(int start, int end, int segment);
+    }
 
-        new SwingWrapper<>(chart).displayChart();
+    private static List<ContractionFeatures> computeContractionFeatures(WindowedStats stats, List<Integer> onsets,
+                                                                        List<Integer> offsets, double fs, PsdSource spectra) {
+        return IntStream.range(0, Math.min(onsets.size(), offsets.size()))
+                .parallel()
+                .mapToObj(i -> {
+                    int start = onsets.get(i);
+                    int end = Math.min(offsets.get(i), stats.length());
+                    if (end - start < MIN_SPECTRUM_SEGMENT) return null;
+                    int segment = Math.min(MAX_SPECTRUM_SEGMENT, Integer.highestOneBit(end - start));
+                    double[] psd = spectra.estimate(start, end, segment);
+                    return new ContractionFeatures(null, i, start, end, stats.rms(start, end),
+                            WelchPsd.meanFrequency(psd, fs), WelchPsd.medianFrequency(psd, fs));
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 }
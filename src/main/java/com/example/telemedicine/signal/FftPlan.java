@@ -0,0 +1,85 @@
+package com.example.telemedicine.signal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed radix-2 FFT of one size, working in place on primitive real and imaginary arrays.
+ * The bit-reversal permutation and twiddle factors are computed once per size and shared, so
+ * transforming many segments of the same length only pays for the butterflies. Plans are
+ * immutable and safe to use from several threads at once.
+ */
+public final class FftPlan {
+    private static final Map<Integer, FftPlan> PLANS = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int[] reversed;
+    private final double[] cos;
+    private final double[] sin;
+
+    private FftPlan(int size) {
+        this.size = size;
+        int bits = Integer.numberOfTrailingZeros(size);
+        this.reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+        this.cos = new double[size / 2];
+        this.sin = new double[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            cos[i] = Math.cos(2 * Math.PI * i / size);
+            sin[i] = -Math.sin(2 * Math.PI * i / size);
+        }
+    }
+
+    /**
+     * Returns the shared plan of a size, creating it on first use.
+     * @param size Transform length, a power of two.
+     * @return The plan.
+     */
+    public static FftPlan forSize(int size) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("FFT size must be a power of two: " + size);
+        }
+        return PLANS.computeIfAbsent(size, FftPlan::new);
+    }
+
+    /**
+     * @return Transform length.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Computes the forward transform in place.
+     * @param re Real parts; the first {@link #size()} are transformed.
+     * @param im Imaginary parts; the first {@link #size()} are transformed.
+     */
+    public void forward(double[] re, double[] im) {
+        for (int i = 0; i < size; i++) {
+            int j = reversed[i];
+            if (j > i) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+        for (int half = 1; half < size; half <<= 1) {
+            int step = size / (half << 1);
+            for (int start = 0; start < size; start += half << 1) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * step];
+                    double wi = sin[k * step];
+                    int a = start + k;
+                    int b = a + half;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+}
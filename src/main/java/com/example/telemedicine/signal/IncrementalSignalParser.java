@@ -0,0 +1,129 @@
+package com.example.telemedicine.signal;
+
+import java.util.Arrays;
+
+/**
+ * Parses a signal file (line 1 = sampling rate, line 2 = comma-separated samples) as its bytes
+ * arrive, so uploads sent in chunks are already parsed when the last chunk is received.
+ * Accepts the same files as {@link SignalProcessing#parseSignalFile}; lines after the second are ignored.
+ * Samples are split on commas like {@link SignalProcessing#parseRawSamples}: empty tokens are
+ * skipped and tokens that are not numbers become NaN, so the quality gate counts them.
+ */
+public class IncrementalSignalParser {
+    private static final int MAX_HEADER_LENGTH = 32;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final StringBuilder header = new StringBuilder();
+    private final StringBuilder token = new StringBuilder();
+    private boolean tokenTooLong;
+    private boolean headerParsed;
+    private int fs;
+    private boolean dataEnded;
+    private double[] samples = new double[1024];
+    private int count;
+
+    /**
+     * Parses the next bytes of the file.
+     * @param bytes Buffer with the bytes.
+     * @param offset First byte to parse.
+     * @param length Number of bytes to parse.
+     * @throws IllegalArgumentException if the first line is not a valid sampling rate.
+     */
+    public void feed(byte[] bytes, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        while (i < end && !headerParsed) {
+            byte b = bytes[i++];
+            if (b == '\n') {
+                parseHeader();
+            } else if (header.length() < MAX_HEADER_LENGTH) {
+                header.append((char) (b & 0xFF));
+            } else {
+                throw new IllegalArgumentException("Invalid sampling frequency in line 1.");
+            }
+        }
+        if (dataEnded || i >= end) return;
+
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '\n') {
+                endToken();
+                dataEnded = true;
+                return;
+            }
+            if (b == ',') {
+                endToken();
+            } else if (token.length() < MAX_TOKEN_LENGTH) {
+                token.append((char) (b & 0xFF));
+            } else {
+                tokenTooLong = true;
+            }
+        }
+    }
+
+    /**
+     * Completes parsing once all bytes were fed.
+     * @throws IllegalArgumentException if the file has no sampling rate or no samples.
+     */
+    public void finish() {
+        if (!headerParsed) {
+            parseHeader();
+        }
+        if (!dataEnded) {
+            endToken();
+            dataEnded = true;
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("El archivo no tiene datos (Línea 2 vacía).");
+        }
+    }
+
+    public int getFs() {
+        return fs;
+    }
+
+    public int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * @return Copy of the samples parsed so far.
+     */
+    public double[] getSamples() {
+        return Arrays.copyOf(samples, count);
+    }
+
+    private void parseHeader() {
+        if (header.toString().isBlank()) {
+            throw new IllegalArgumentException("El archivo no tiene frecuencia (Línea 1 vacía).");
+        }
+        try {
+            fs = Integer.parseInt(header.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sampling frequency in line 1.");
+        }
+        headerParsed = true;
+    }
+
+    private void endToken() {
+        String text = token.toString().trim();
+        if (!text.isEmpty() || tokenTooLong) {
+            double sample;
+            try {
+                sample = tokenTooLong ? Double.NaN : Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                sample = Double.NaN;
+            }
+            add(sample);
+        }
+        token.setLength(0);
+        tokenTooLong = false;
+    }
+
+    private void add(double sample) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = sample;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.telemedicine.signal;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raw samples of a recording with one or more channels, parsed from an uploaded file.
+ * <p>
+ * Line 1 holds the sampling frequency, optionally followed by the channel count:
+ * {@code 1000} or {@code 1000,8}. The data follows in one of two layouts:
+ * <ul>
+ *   <li>interleaved: a single line of frames, {@code c0,c1,...,c7,c0,c1,...};</li>
+ *   <li>columnar: one line per channel, in channel order.</li>
+ * </ul>
+ * A file with only the sampling frequency in line 1 is the single-channel format every other
+ * upload uses. Tokens that are not numbers become NaN, as in {@link SignalProcessing#parseRawSamples}.
+ */
+public class MultiChannelFile {
+    public static final int MAX_CHANNELS = 64;
+
+    public final int fs;
+    public final double[][] channels;
+
+    /**
+     * @param fs Sampling frequency.
+     * @param channels Raw samples per channel, all of the same length.
+     */
+    public MultiChannelFile(int fs, double[][] channels) {
+        this.fs = fs;
+        this.channels = channels;
+    }
+
+    /**
+     * Parses an uploaded multi-channel file.
+     * @param fileBytes File content.
+     * @return The parsed channels.
+     * @throws IllegalArgumentException If the header is invalid, the last interleaved frame is incomplete
+     *                                  or the columnar lines differ in length.
+     */
+    public static MultiChannelFile parse(byte[] fileBytes) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(fileBytes), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || header.isBlank()) {
+                throw new IllegalArgumentException("The file has no sampling frequency (line 1 is empty).");
+            }
+            String[] fields = header.split(",");
+            int fs;
+            int count = 1;
+            try {
+                fs = Integer.parseInt(fields[0].trim());
+                if (fields.length > 1) {
+                    count = Integer.parseInt(fields[1].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sampling frequency or channel count in line 1.");
+            }
+            if (fs <= 0 || count < 1 || count > MAX_CHANNELS || fields.length > 2) {
+                throw new IllegalArgumentException("Line 1 must be the sampling frequency and at most "
+                        + MAX_CHANNELS + " channels, e.g. 1000,8.");
+            }
+
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) lines.add(line);
+            }
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException("The file has no data (line 2 is empty).");
+            }
+
+            if (lines.size() == 1) {
+                return new MultiChannelFile(fs, deinterleave(SignalProcessing.parseRawSamples(lines.get(0)), count));
+            }
+            if (lines.size() != count) {
+                throw new IllegalArgumentException("Expected one data line or " + count
+                        + " columnar lines, found " + lines.size() + ".");
+            }
+            double[][] channels = new double[count][];
+            for (int c = 0; c < count; c++) {
+                channels[c] = SignalProcessing.parseRawSamples(lines.get(c));
+                if (channels[c].length != channels[0].length) {
+                    throw new IllegalArgumentException("Channel " + c + " has " + channels[c].length
+                            + " samples, channel 0 has " + channels[0].length + ".");
+                }
+            }
+            return new MultiChannelFile(fs, channels);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading uploaded signal file.", e);
+        }
+    }
+
+    private static double[][] deinterleave(double[] frames, int count) {
+        if (frames.length % count != 0) {
+            throw new IllegalArgumentException("The data has " + frames.length
+                    + " samples, which is not a whole number of " + count + "-channel frames.");
+        }
+        int length = frames.length / count;
+        double[][] channels = new double[count][length];
+        for (int i = 0, k = 0; i < length; i++) {
+            for (int c = 0; c < count; c++) {
+                channels[c][i] = frames[k++];
+            }
+        }
+        return channels;
+    }
+
+    public int getChannelCount() {
+        return channels.length;
+    }
+
+    public int getLength() {
+        return channels.length == 0 ? 0 : channels[0].length;
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.LiveMarker;
+import com.example.telemedicine.domain.LiveMarkerType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Causal QRS detector in the style of Pan and Tompkins, fed one bandpassed ECG sample at a time.
+ * Each sample goes through a five-point derivative, squaring and a 150 ms moving-window integrator.
+ * Peaks of the integrated signal are classified as QRS or noise against adaptive signal and noise
+ * levels, with a 200 ms refractory period and a search-back at half the threshold when no beat
+ * was found for 1.66 times the mean RR interval. The R-peak is the maximum of the input inside
+ * the integration window and the Q-peak the minimum in the 50 ms before it, as in
+ * {@link ECGProcessor#detectQRSComplexes}.
+ * <p>
+ * Unlike the batch detector it never looks at the whole recording, so an artifact spike only
+ * raises the threshold for a few beats. All state is allocated up front; processing a sample
+ * allocates nothing, and memory does not grow with the length of the recording. The first two
+ * seconds train the thresholds; their strongest peaks are kept and classified once training ends,
+ * or at {@link #finish(BeatListener)} for a recording shorter than that.
+ */
+public class PanTompkinsDetector implements StreamingDetector {
+
+    /**
+     * Receives the beats found by {@link #process(double[], int, int, BeatListener)}.
+     */
+    public interface BeatListener {
+        void onBeat(long rPeak, long qPeak);
+    }
+
+    private static final int RR_HISTORY = 8;
+    private static final int LEARNING_PEAKS = 64;
+    private static final double MAX_LEVEL_STEP = 2.0;
+
+    private final double fs;
+    private final int window;
+    private final int qWindow;
+    private final int refractory;
+    private final long learningSamples;
+
+    // derivative inputs x[n-1] .. x[n-4]
+    private double x1, x2, x3, x4;
+
+    // moving-window integrator
+    private final double[] squares;
+    private int squareNext;
+    private double squareSum;
+
+    // recent input samples, to locate R and Q once the integrated peak is seen
+    private final double[] history;
+    private final int historyMask;
+
+    private long index;
+    private double mwiPrevious;
+    private double mwiBeforePrevious;
+
+    // training
+    private double learningMax;
+    private double learningSum;
+    private final long[] learningPeakR = new long[LEARNING_PEAKS];
+    private final long[] learningPeakQ = new long[LEARNING_PEAKS];
+    private final long[] learningPeakAt = new long[LEARNING_PEAKS];
+    private final double[] learningPeakValue = new double[LEARNING_PEAKS];
+    private int learningPeaks;
+
+    // adaptive levels
+    private double signalLevel;
+    private double noiseLevel;
+    private double threshold;
+
+    // last beat and the RR intervals before it
+    private long lastBeatAt = -1;
+    private long lastR = -1;
+    private final long[] rrIntervals = new long[RR_HISTORY];
+    private int rrCount;
+    private int rrNext;
+    private long rrSum;
+
+    // strongest rejected peak since the last beat, for search-back
+    private double candidateValue;
+    private long candidateAt = -1;
+    private long candidateR;
+    private long candidateQ;
+
+    // beats confirmed by the current sample; the end of training can confirm several at once
+    private final long[] beatR = new long[LEARNING_PEAKS + 1];
+    private final long[] beatQ = new long[LEARNING_PEAKS + 1];
+    private int beats;
+
+    /**
+     * @param fs Sampling frequency.
+     */
+    public PanTompkinsDetector(double fs) {
+        this.fs = fs;
+        this.window = Math.max(1, (int) Math.round(0.150 * fs));
+        this.qWindow = Math.max(1, (int) (0.05 * fs));
+        this.refractory = (int) (0.200 * fs);
+        this.learningSamples = (long) (2 * fs);
+        this.squares = new double[window];
+        int size = Integer.highestOneBit(window + qWindow + 8) << 1;
+        this.history = new double[size];
+        this.historyMask = size - 1;
+    }
+
+    /**
+     * Runs the detector over a whole filtered recording.
+     * @param filteredSignal Bandpassed ECG.
+     * @param fs Sampling frequency.
+     * @return Indices of the R-peaks and Q-peaks.
+     */
+    public static QRSResult detect(double[] filteredSignal, double fs) {
+        List<Integer> rPeaks = new ArrayList<>();
+        List<Integer> qPeaks = new ArrayList<>();
+        PanTompkinsDetector detector = new PanTompkinsDetector(fs);
+        BeatListener listener = (r, q) -> {
+            rPeaks.add((int) r);
+            qPeaks.add((int) q);
+        };
+        detector.process(filteredSignal, 0, filteredSignal.length, listener);
+        detector.finish(listener);
+        return new QRSResult(rPeaks, qPeaks);
+    }
+
+    /**
+     * Runs the detector over the first samples of a filtered recording held in floats.
+     * @param filteredSignal Bandpassed ECG.
+     * @param length Number of samples to use.
+     * @param fs Sampling frequency.
+     * @return Indices of the R-peaks and Q-peaks.
+     */
+    public static QRSResult detect(float[] filteredSignal, int length, double fs) {
+        List<Integer> rPeaks = new ArrayList<>();
+        List<Integer> qPeaks = new ArrayList<>();
+        PanTompkinsDetector detector = new PanTompkinsDetector(fs);
+        BeatListener listener = (r, q) -> {
+            rPeaks.add((int) r);
+            qPeaks.add((int) q);
+        };
+        detector.process(filteredSignal, 0, length, listener);
+        detector.finish(listener);
+        return new QRSResult(rPeaks, qPeaks);
+    }
+
+    /**
+     * Processes a block of float samples, continuing from the previous block.
+     * @param block Bandpassed ECG samples.
+     * @param offset First sample to process.
+     * @param length Number of samples to process.
+     * @param listener Receives each beat as soon as it is confirmed.
+     */
+    public void process(float[] block, int offset, int length, BeatListener listener) {
+        for (int i = offset; i < offset + length; i++) {
+            step(block[i]);
+            for (int b = 0; b < beats; b++) listener.onBeat(beatR[b], beatQ[b]);
+        }
+    }
+
+    /**
+     * Processes a block of samples, continuing from the previous block.
+     * @param block Bandpassed ECG samples.
+     * @param offset First sample to process.
+     * @param length Number of samples to process.
+     * @param listener Receives each beat as soon as it is confirmed.
+     */
+    public void process(double[] block, int offset, int length, BeatListener listener) {
+        for (int i = offset; i < offset + length; i++) {
+            step(block[i]);
+            for (int b = 0; b < beats; b++) listener.onBeat(beatR[b], beatQ[b]);
+        }
+    }
+
+    /**
+     * Ends the recording. If it was shorter than the training period, the thresholds are trained
+     * on the samples seen so far and the peaks kept during training are classified; otherwise this
+     * does nothing. No samples may be processed afterwards.
+     * @param listener Receives the beats confirmed by the end of the recording.
+     */
+    public void finish(BeatListener listener) {
+        beats = 0;
+        if (index > 0 && index <= learningSamples) {
+            endLearning(index);
+        }
+        for (int b = 0; b < beats; b++) listener.onBeat(beatR[b], beatQ[b]);
+    }
+
+    @Override
+    public void process(double sample, long sampleIndex, List<LiveMarker> markers) {
+        step(sample);
+        for (int b = 0; b < beats; b++) markers.add(new LiveMarker(LiveMarkerType.R_PEAK, beatR[b] / fs));
+    }
+
+    @Override
+    public Double getHeartRate() {
+        if (rrCount == 0) return null;
+        return 60.0 * fs * rrCount / rrSum;
+    }
+
+    private void step(double x) {
+        beats = 0;
+        history[(int) (index & historyMask)] = x;
+
+        double derivative = (2 * x + x1 - x3 - 2 * x4) * fs / 8.0;
+        x4 = x3;
+        x3 = x2;
+        x2 = x1;
+        x1 = x;
+
+        double square = derivative * derivative;
+        squareSum += square - squares[squareNext];
+        squares[squareNext] = square;
+        squareNext = (squareNext + 1) % window;
+        double mwi = squareSum / window;
+
+        if (mwiPrevious > mwiBeforePrevious && mwiPrevious >= mwi) {
+            onPeak(index - 1, mwiPrevious);
+        }
+        mwiBeforePrevious = mwiPrevious;
+        mwiPrevious = mwi;
+
+        if (index < learningSamples) {
+            learningMax = Math.max(learningMax, mwi);
+            learningSum += mwi;
+        } else if (index == learningSamples) {
+            endLearning(learningSamples);
+        } else if (beats == 0) {
+            searchBack();
+        }
+        index++;
+    }
+
+    private void onPeak(long at, double value) {
+        long r = locateR(at);
+        long q = locateQ(r);
+        if (index < learningSamples) {
+            int slot = learningPeaks;
+            if (slot == LEARNING_PEAKS) {
+                // keep the strongest peaks; the small ones are noise anyway
+                slot = 0;
+                for (int i = 1; i < LEARNING_PEAKS; i++) {
+                    if (learningPeakValue[i] < learningPeakValue[slot]) slot = i;
+                }
+                if (learningPeakValue[slot] >= value) return;
+            } else {
+                learningPeaks++;
+            }
+            learningPeakAt[slot] = at;
+            learningPeakValue[slot] = value;
+            learningPeakR[slot] = r;
+            learningPeakQ[slot] = q;
+            return;
+        }
+        classify(at, value, r, q);
+    }
+
+    private void endLearning(long samples) {
+        signalLevel = learningMax / 3.0;
+        noiseLevel = learningSum / Math.max(1, samples) / 2.0;
+        updateThreshold();
+        sortLearningPeaks();
+        for (int i = 0; i < learningPeaks; i++) {
+            classify(learningPeakAt[i], learningPeakValue[i], learningPeakR[i], learningPeakQ[i]);
+        }
+    }
+
+    private void sortLearningPeaks() {
+        for (int i = 1; i < learningPeaks; i++) {
+            long at = learningPeakAt[i], r = learningPeakR[i], q = learningPeakQ[i];
+            double value = learningPeakValue[i];
+            int j = i - 1;
+            for (; j >= 0 && learningPeakAt[j] > at; j--) {
+                learningPeakAt[j + 1] = learningPeakAt[j];
+                learningPeakValue[j + 1] = learningPeakValue[j];
+                learningPeakR[j + 1] = learningPeakR[j];
+                learningPeakQ[j + 1] = learningPeakQ[j];
+            }
+            learningPeakAt[j + 1] = at;
+            learningPeakValue[j + 1] = value;
+            learningPeakR[j + 1] = r;
+            learningPeakQ[j + 1] = q;
+        }
+    }
+
+    private void classify(long at, double value, long r, long q) {
+        // the integrator peak of a complex can trail its R wave by up to a window, so a second complex
+        // inside the refractory period may peak after it; its R wave is still too close
+        if (lastBeatAt >= 0 && (at - lastBeatAt < refractory || r - lastR < refractory)) {
+            return;
+        }
+        if (value > threshold) {
+            // an artifact may be taken for a beat, but it must not raise the level above every real beat
+            signalLevel = 0.125 * Math.min(value, MAX_LEVEL_STEP * signalLevel) + 0.875 * signalLevel;
+            acceptBeat(at, r, q);
+        } else {
+            noiseLevel = 0.125 * value + 0.875 * noiseLevel;
+            if (value > candidateValue) {
+                candidateValue = value;
+                candidateAt = at;
+                candidateR = r;
+                candidateQ = q;
+            }
+        }
+        updateThreshold();
+    }
+
+    private void searchBack() {
+        if (rrCount == 0 || candidateAt < 0) return;
+        double rrAverage = (double) rrSum / rrCount;
+        if (index - lastBeatAt > 1.66 * rrAverage && candidateValue > 0.5 * threshold) {
+            signalLevel = 0.25 * Math.min(candidateValue, MAX_LEVEL_STEP * signalLevel) + 0.75 * signalLevel;
+            acceptBeat(candidateAt, candidateR, candidateQ);
+            updateThreshold();
+        }
+    }
+
+    private void acceptBeat(long at, long r, long q) {
+        if (lastR >= 0 && r > lastR) {
+            long rr = r - lastR;
+            rrSum += rr - (rrCount == RR_HISTORY ? rrIntervals[rrNext] : 0);
+            rrIntervals[rrNext] = rr;
+            rrNext = (rrNext + 1) % RR_HISTORY;
+            rrCount = Math.min(rrCount + 1, RR_HISTORY);
+        }
+        lastBeatAt = at;
+        lastR = r;
+        candidateValue = 0;
+        candidateAt = -1;
+        beatR[beats] = r;
+        beatQ[beats] = q;
+        beats++;
+    }
+
+    private void updateThreshold() {
+        threshold = noiseLevel + 0.25 * (signalLevel - noiseLevel);
+    }
+
+    // the integrated peak lags the R-peak by up to the window plus the derivative delay
+    private long locateR(long at) {
+        long from = Math.max(0, Math.max(at - window - 2, index - historyMask + qWindow));
+        long best = at;
+        for (long i = from; i <= at; i++) {
+            if (history[(int) (i & historyMask)] > history[(int) (best & historyMask)]) best = i;
+        }
+        return best;
+    }
+
+    private long locateQ(long r) {
+        long from = Math.max(0, Math.max(r - qWindow, index - historyMask));
+        long best = r;
+        for (long i = from; i < r; i++) {
+            if (best == r || history[(int) (i & historyMask)] < history[(int) (best & historyMask)]) best = i;
+        }
+        return best;
+    }
+}
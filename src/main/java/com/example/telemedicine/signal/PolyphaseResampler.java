@@ -0,0 +1,206 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.service.LruCache;
+
+/**
+ * Rational-rate FIR resampler in polyphase form. Converting {@code fsIn} to {@code fsOut} is
+ * upsampling by {@code L} and downsampling by {@code M} (the rate ratio in lowest terms) around
+ * a Kaiser-windowed sinc low-pass at the lower of the two Nyquist frequencies. The filter is split
+ * into {@code L} phases, so each output sample costs one short dot product over input samples and
+ * no zero-stuffed or discarded samples are ever computed.
+ * <p>
+ * The filter is linear-phase and centred, so the output is not delayed. Samples beyond both ends
+ * repeat the edge value, because raw ADC data sits on a large offset that zero padding would turn
+ * into a step. Resamplers are immutable, cached per rate pair and safe to share between threads.
+ * <p>
+ * Co-prime rates make {@code L} large, and the polyphase filter holds about {@code 20·max(L, M)}
+ * coefficients. Above {@link #MAX_COEFFICIENTS} the resampler instead low-passes at the input rate
+ * with a single phase and interpolates linearly between the two filtered samples around each output
+ * instant, which keeps memory bounded for any rate pair at the cost of a small high-frequency droop.
+ */
+public final class PolyphaseResampler {
+    /** Largest polyphase filter, in coefficients, before falling back to interpolation. */
+    public static final int MAX_COEFFICIENTS = 1 << 16;
+    private static final int CACHE_SIZE = 32;
+    private static final LruCache<Long, PolyphaseResampler> CACHE = new LruCache<>(CACHE_SIZE);
+    private static final int ZERO_CROSSINGS = 10;
+    private static final double KAISER_BETA = 6.0;
+
+    private final int fsIn;
+    private final int fsOut;
+    private final int up;
+    private final int down;
+    private final boolean interpolating;
+    private final int halfTaps;
+    private final double[][] phases;
+
+    private PolyphaseResampler(int fsIn, int fsOut) {
+        this.fsIn = fsIn;
+        this.fsOut = fsOut;
+        int gcd = gcd(fsIn, fsOut);
+        this.up = fsOut / gcd;
+        this.down = fsIn / gcd;
+
+        // cutoff in cycles per sample of the upsampled stream
+        long factor = Math.max(up, down);
+        long half = ZERO_CROSSINGS * factor; // half length at the upsampled rate
+        long polyphaseTaps = (long) up * (2 * ((half + up - 1) / up) + 1);
+        this.interpolating = polyphaseTaps > MAX_COEFFICIENTS;
+        // the fallback is a single phase at the input rate, so the "upsampled" stream is the input
+        int phaseCount = interpolating ? 1 : up;
+        double cutoff = interpolating ? 0.5 * Math.min(1.0, (double) fsOut / fsIn) : 0.5 / factor;
+        if (interpolating) {
+            half = (long) Math.ceil(ZERO_CROSSINGS * 0.5 / cutoff);
+        }
+        this.halfTaps = (int) ((half + phaseCount - 1) / phaseCount); // half length at the input rate
+        this.phases = new double[phaseCount][2 * halfTaps + 1];
+        double i0Beta = besselI0(KAISER_BETA);
+        for (int phase = 0; phase < phaseCount; phase++) {
+            for (int d = -halfTaps; d <= halfTaps; d++) {
+                long u = phase + (long) d * phaseCount;
+                double coefficient = 0;
+                if (Math.abs(u) <= half) {
+                    double x = 2 * cutoff * u;
+                    double sinc = u == 0 ? 1 : Math.sin(Math.PI * x) / (Math.PI * x);
+                    double r = (double) u / half;
+                    double window = besselI0(KAISER_BETA * Math.sqrt(Math.max(0, 1 - r * r))) / i0Beta;
+                    coefficient = phaseCount * 2 * cutoff * sinc * window;
+                }
+                phases[phase][d + halfTaps] = coefficient;
+            }
+            // unit DC gain per phase, so a constant input stays constant
+            double sum = 0;
+            for (double c : phases[phase]) sum += c;
+            for (int k = 0; k < phases[phase].length; k++) phases[phase][k] /= sum;
+        }
+    }
+
+    /**
+     * Returns the shared resampler for a pair of rates.
+     * @param fsIn Input sampling frequency in Hz.
+     * @param fsOut Output sampling frequency in Hz.
+     * @return The resampler.
+     */
+    public static PolyphaseResampler of(int fsIn, int fsOut) {
+        if (fsIn <= 0 || fsOut <= 0) {
+            throw new IllegalArgumentException("Sampling frequencies must be positive: " + fsIn + " -> " + fsOut);
+        }
+        return CACHE.get(((long) fsIn << 32) | fsOut, key -> new PolyphaseResampler(fsIn, fsOut));
+    }
+
+    /**
+     * @return Input sampling frequency in Hz.
+     */
+    public int getFsIn() {
+        return fsIn;
+    }
+
+    /**
+     * @return Output sampling frequency in Hz.
+     */
+    public int getFsOut() {
+        return fsOut;
+    }
+
+    /**
+     * @return True if the rate pair needs more than {@link #MAX_COEFFICIENTS} polyphase coefficients
+     *         and the resampler interpolates between low-passed input samples instead.
+     */
+    public boolean isInterpolating() {
+        return interpolating;
+    }
+
+    /**
+     * @return Number of filter coefficients held by this resampler.
+     */
+    public int getCoefficientCount() {
+        return phases.length * phases[0].length;
+    }
+
+    /**
+     * @param inputLength Number of input samples.
+     * @return Number of output samples produced for them.
+     */
+    public int outputLength(int inputLength) {
+        return (int) (((long) inputLength * up + down - 1) / down);
+    }
+
+    /**
+     * Resamples a whole signal.
+     * @param in Samples at {@link #getFsIn()}.
+     * @return Samples at {@link #getFsOut()}.
+     */
+    public double[] resample(double[] in) {
+        double[] out = new double[outputLength(in.length)];
+        if (in.length == 0) return out;
+        if (interpolating) {
+            return interpolate(in, out);
+        }
+        int last = in.length - 1;
+        for (int m = 0; m < out.length; m++) {
+            long position = (long) m * down;
+            int base = (int) (position / up);
+            double[] taps = phases[(int) (position % up)];
+            double acc = 0;
+            if (base - halfTaps >= 0 && base + halfTaps <= last) {
+                for (int k = 0; k < taps.length; k++) {
+                    acc += taps[k] * in[base + halfTaps - k];
+                }
+            } else {
+                for (int k = 0; k < taps.length; k++) {
+                    int j = Math.min(last, Math.max(0, base + halfTaps - k));
+                    acc += taps[k] * in[j];
+                }
+            }
+            out[m] = acc;
+        }
+        return out;
+    }
+
+    private double[] interpolate(double[] in, double[] out) {
+        int last = in.length - 1;
+        double[] taps = phases[0];
+        for (int m = 0; m < out.length; m++) {
+            long position = (long) m * down;
+            int base = (int) (position / up);
+            double fraction = (double) (position % up) / up;
+            double a = filteredAt(in, taps, base, last);
+            out[m] = fraction == 0 ? a : a + fraction * (filteredAt(in, taps, Math.min(last, base + 1), last) - a);
+        }
+        return out;
+    }
+
+    private double filteredAt(double[] in, double[] taps, int base, int last) {
+        double acc = 0;
+        if (base - halfTaps >= 0 && base + halfTaps <= last) {
+            for (int k = 0; k < taps.length; k++) {
+                acc += taps[k] * in[base + halfTaps - k];
+            }
+        } else {
+            for (int k = 0; k < taps.length; k++) {
+                int j = Math.min(last, Math.max(0, base + halfTaps - k));
+                acc += taps[k] * in[j];
+            }
+        }
+        return acc;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static double besselI0(double x) {
+        double sum = 1, term = 1, half = x / 2;
+        for (int k = 1; k < 50; k++) {
+            term *= (half / k) * (half / k);
+            sum += term;
+            if (term < 1e-12 * sum) break;
+        }
+        return sum;
+    }
+}
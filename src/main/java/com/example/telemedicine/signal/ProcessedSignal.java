@@ -0,0 +1,48 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.ContractionFeatures;
+import com.example.telemedicine.domain.EcgFeatures;
+import com.example.telemedicine.domain.SignalType;
+
+import java.util.List;
+
+/**
+ * A recording after the quality gate, resampling and the pipeline of its type, with everything
+ * that is stored for it. Produced without touching the database, so recordings can be processed
+ * concurrently and written afterwards, one at a time or in bulk.
+ */
+public class ProcessedSignal {
+    public final SignalType type;
+    public final int fs;
+    public final int sourceFs;
+    public final Double qualityScore;
+    public final int length;
+    public final String data;
+    public final SignalPyramid pyramid;
+    public final EcgFeatures ecgFeatures;
+    public final List<ContractionFeatures> contractions;
+
+    /**
+     * @param type Signal type.
+     * @param fs Sampling frequency of the stored samples.
+     * @param sourceFs Sampling frequency the samples were recorded at.
+     * @param qualityScore Quality score of the raw samples, or null if not assessed.
+     * @param length Number of stored samples.
+     * @param data Comma-separated samples to store.
+     * @param pyramid Min/max pyramid of the samples.
+     * @param ecgFeatures Heart rate features, or null if the pipeline has no QRS stage.
+     * @param contractions Contraction features, or null if the pipeline has no contraction stage.
+     */
+    public ProcessedSignal(SignalType type, int fs, int sourceFs, Double qualityScore, int length, String data,
+                           SignalPyramid pyramid, EcgFeatures ecgFeatures, List<ContractionFeatures> contractions) {
+        this.type = type;
+        this.fs = fs;
+        this.sourceFs = sourceFs;
+        this.qualityScore = qualityScore;
+        this.length = length;
+        this.data = data;
+        this.pyramid = pyramid;
+        this.ecgFeatures = ecgFeatures;
+        this.contractions = contractions;
+    }
+}
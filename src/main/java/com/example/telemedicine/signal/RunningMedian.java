@@ -0,0 +1,63 @@
+package com.example.telemedicine.signal;
+
+import java.util.Arrays;
+
+/**
+ * Median of the last {@code size} values pushed, kept as a sorted copy of the window so each push
+ * costs one binary search and one array shift, and memory is fixed by the window size.
+ */
+public class RunningMedian {
+    private final double[] window;
+    private final double[] sorted;
+    private int next;
+    private int count;
+
+    /**
+     * @param size Number of values the median is taken over.
+     */
+    public RunningMedian(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Median window must hold at least one value");
+        }
+        this.window = new double[size];
+        this.sorted = new double[size];
+    }
+
+    /**
+     * Adds a value, dropping the oldest one once the window is full.
+     * @param value New value.
+     * @return Median of the window including the new value.
+     */
+    public double push(double value) {
+        if (count == window.length) {
+            int old = Arrays.binarySearch(sorted, 0, count, window[next]);
+            System.arraycopy(sorted, old + 1, sorted, old, count - old - 1);
+            count--;
+        }
+        window[next] = value;
+        next = (next + 1) % window.length;
+
+        int at = Arrays.binarySearch(sorted, 0, count, value);
+        if (at < 0) at = -at - 1;
+        System.arraycopy(sorted, at, sorted, at + 1, count - at);
+        sorted[at] = value;
+        count++;
+        return median();
+    }
+
+    /**
+     * @return Median of the values in the window, or 0 if nothing was pushed yet.
+     */
+    public double median() {
+        if (count == 0) return 0;
+        if (count % 2 == 1) return sorted[count / 2];
+        return (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+    }
+
+    /**
+     * @return True once the window holds {@code size} values.
+     */
+    public boolean isFull() {
+        return count == window.length;
+    }
+}
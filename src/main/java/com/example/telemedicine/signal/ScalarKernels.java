@@ -0,0 +1,48 @@
+package com.example.telemedicine.signal;
+
+/**
+ * Plain loops, used when the Vector API is not available.
+ */
+final class ScalarKernels extends SignalKernels {
+    static final ScalarKernels INSTANCE = new ScalarKernels();
+
+    private ScalarKernels() {
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void affine(double[] in, double scale, double offset, double[] out) {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = in[i] * scale + offset;
+        }
+    }
+
+    @Override
+    public void greaterThan(double[] in, double threshold, boolean[] out) {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = in[i] > threshold;
+        }
+    }
+
+    @Override
+    public double max(double[] in) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double x : in) {
+            if (x > max) max = x;
+        }
+        return max;
+    }
+
+    @Override
+    public double min(double[] in) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double x : in) {
+            if (x < min) min = x;
+        }
+        return min;
+    }
+}
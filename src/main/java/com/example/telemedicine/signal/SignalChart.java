@@ -0,0 +1,117 @@
+package com.example.telemedicine.signal;
+
+import org.knowm.xchart.BitmapEncoder;
+import org.knowm.xchart.VectorGraphicsEncoder;
+import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYChartBuilder;
+import org.knowm.xchart.XYSeries;
+import org.knowm.xchart.style.Styler;
+import org.knowm.xchart.style.markers.SeriesMarkers;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Headless chart of a signal window with its annotations, encoded to PNG or SVG in memory.
+ * Never opens a window, so it works on a server without a display. The signal should already
+ * be decimated to about two points per horizontal pixel; drawing more only costs time.
+ */
+public class SignalChart {
+    private final XYChart chart;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+    private int events;
+
+    /**
+     * @param title Chart title.
+     * @param width Width in pixels.
+     * @param height Height in pixels.
+     */
+    public SignalChart(String title, int width, int height) {
+        chart = new XYChartBuilder().width(width).height(height).title(title)
+                .xAxisTitle("Time (s)").yAxisTitle("Amplitude (mV)").build();
+        chart.getStyler().setLegendPosition(Styler.LegendPosition.InsideNW);
+        chart.getStyler().setPlotGridLinesVisible(true);
+        chart.getStyler().setAntiAlias(true);
+    }
+
+    /**
+     * Draws the signal as a line.
+     * @param time Time of every point in seconds.
+     * @param values Value of every point.
+     * @return This chart.
+     */
+    public SignalChart signal(double[] time, double[] values) {
+        if (time.length == 0) {
+            return this;
+        }
+        XYSeries series = chart.addSeries("Signal", time, values);
+        series.setLineColor(Color.RED);
+        series.setMarker(SeriesMarkers.NONE);
+        for (double v : values) {
+            if (v < minY) minY = v;
+            if (v > maxY) maxY = v;
+        }
+        chart.getStyler().setXAxisMin(time[0]);
+        chart.getStyler().setXAxisMax(time[time.length - 1]);
+        return this;
+    }
+
+    /**
+     * Draws point annotations, such as Q-peaks, as markers without a connecting line.
+     * @param name Legend entry.
+     * @param time Time of every marker in seconds.
+     * @param values Value of every marker.
+     * @return This chart.
+     */
+    public SignalChart markers(String name, double[] time, double[] values) {
+        if (time.length == 0) {
+            return this;
+        }
+        XYSeries series = chart.addSeries(name, time, values);
+        series.setXYSeriesRenderStyle(XYSeries.XYSeriesRenderStyle.Scatter);
+        series.setMarker(SeriesMarkers.CIRCLE);
+        series.setMarkerColor(Color.BLACK);
+        return this;
+    }
+
+    /**
+     * Draws interval annotations, such as contraction onsets and offsets, as vertical lines
+     * across the range of the signal; call after {@link #signal}.
+     * @param name Legend entry, shown once.
+     * @param times Time of every event in seconds.
+     * @param color Line colour.
+     * @return This chart.
+     */
+    public SignalChart events(String name, double[] times, Color color) {
+        double low = minY <= maxY ? minY : -1;
+        double high = minY <= maxY ? maxY : 1;
+        for (int i = 0; i < times.length; i++) {
+            XYSeries series = chart.addSeries(i == 0 ? name : name + " " + events, new double[]{times[i], times[i]},
+                    new double[]{low, high});
+            series.setLineColor(color);
+            series.setLineStyle(new BasicStroke(1));
+            series.setMarker(SeriesMarkers.NONE);
+            series.setShowInLegend(i == 0);
+            events++;
+        }
+        return this;
+    }
+
+    /**
+     * Encodes the chart.
+     * @param format PNG or SVG.
+     * @return The image bytes.
+     * @throws IOException If encoding fails.
+     */
+    public byte[] encode(ChartFormat format) throws IOException {
+        if (format == ChartFormat.SVG) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            VectorGraphicsEncoder.saveVectorGraphic(chart, out, VectorGraphicsEncoder.VectorGraphicsFormat.SVG);
+            return out.toByteArray();
+        }
+        return BitmapEncoder.getBitmapBytes(chart, BitmapEncoder.BitmapFormat.PNG);
+    }
+}
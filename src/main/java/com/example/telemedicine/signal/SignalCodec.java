@@ -0,0 +1,139 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.Signal;
+import com.example.telemedicine.domain.SignalSamples;
+import com.example.telemedicine.domain.SignalType;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary wire format for signals, served as application/octet-stream.
+ * All numbers are little-endian so browsers can wrap the samples in a Float32Array without copying.
+ * <pre>
+ * stream header: "SMAS" (4 bytes), version (int16), signal count (int32)
+ * per signal:    id (int64), session id (int64), timestamp (int64, epoch ms of the stored local time),
+ *                type length (int8) + type name (ASCII), fs (int32), sample count (int32),
+ *                samples (float32 * sample count)
+ * </pre>
+ */
+public class SignalCodec {
+    private static final byte[] MAGIC = {'S', 'M', 'A', 'S'};
+    private static final short VERSION = 1;
+
+    /**
+     * Converts samples to single precision, which is more than the resolution of the acquisition boards.
+     * @param data Samples as double.
+     * @return Samples as float.
+     */
+    public static float[] toFloats(double[] data) {
+        float[] samples = new float[data.length];
+        for (int i = 0; i < data.length; i++) {
+            samples[i] = (float) data[i];
+        }
+        return samples;
+    }
+
+    /**
+     * Converts a signal to its numeric representation.
+     * @param signal Signal whose comma separated data is parsed.
+     * @return SignalSamples with the same metadata.
+     */
+    public static SignalSamples toSamples(Signal signal) {
+        return new SignalSamples(signal.getId(), signal.getMeasurementSessionId(), signal.getTimestamp(),
+                signal.getSignalType(), signal.getFs(), toFloats(signal.getSignalDataAsDoubleArray()));
+    }
+
+    /**
+     * Writes signals one at a time, so lazily loaded signals never have to be in memory together.
+     * @param signals Signals to encode.
+     * @param out Stream to write to; it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public static void write(List<Signal> signals, OutputStream out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(10).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putShort(VERSION).putInt(signals.size());
+        out.write(header.array());
+
+        for (Signal signal : signals) {
+            double[] data = signal.getSignalDataAsDoubleArray();
+            byte[] type = signal.getSignalType().name().getBytes(StandardCharsets.US_ASCII);
+            LocalDateTime timestamp = signal.getTimestamp();
+
+            ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 8 + 1 + type.length + 4 + 4 + data.length * 4)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(signal.getId() != null ? signal.getId() : 0);
+            buffer.putLong(signal.getMeasurementSessionId() != null ? signal.getMeasurementSessionId() : 0);
+            buffer.putLong(timestamp != null ? timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() : 0);
+            buffer.put((byte) type.length).put(type);
+            buffer.putInt(signal.getFs());
+            buffer.putInt(data.length);
+            for (double value : data) {
+                buffer.putFloat((float) value);
+            }
+            out.write(buffer.array());
+        }
+        out.flush();
+    }
+
+    /**
+     * Decodes a stream written by {@link #write(List, OutputStream)}.
+     * @param in Stream to read from.
+     * @return Decoded signals.
+     * @throws IOException if the stream is truncated or is not in this format.
+     */
+    public static List<SignalSamples> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        ByteBuffer header = readBuffer(data, 10);
+        byte[] magic = new byte[4];
+        header.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || header.getShort() != VERSION) {
+            throw new IOException("Not a signal stream");
+        }
+
+        int count = header.getInt();
+        List<SignalSamples> signals = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            ByteBuffer fixed = readBuffer(data, 25);
+            long id = fixed.getLong();
+            long sessionId = fixed.getLong();
+            long millis = fixed.getLong();
+            byte[] type = new byte[fixed.get()];
+            data.readFully(type);
+
+            ByteBuffer sizes = readBuffer(data, 8);
+            int fs = sizes.getInt();
+            int n = sizes.getInt();
+            if (n < 0) throw new IOException("Invalid sample count " + n);
+            ByteBuffer body = readBuffer(data, n * 4);
+            float[] samples = new float[n];
+            body.asFloatBuffer().get(samples);
+
+            signals.add(new SignalSamples(id, sessionId,
+                    LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC),
+                    SignalType.valueOf(new String(type, StandardCharsets.US_ASCII)), fs, samples));
+        }
+        return signals;
+    }
+
+    private static ByteBuffer readBuffer(DataInputStream in, int size) throws IOException {
+        byte[] bytes = new byte[size];
+        try {
+            in.readFully(bytes);
+        } catch (EOFException e) {
+            throw new IOException("Truncated signal stream", e);
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.telemedicine.signal;
+
+/**
+ * Elementwise and reduction loops shared by the signal stages. Two implementations exist: a plain
+ * scalar one and one on the incubating Java Vector API, which uses the widest SIMD registers of
+ * the host (AVX2, AVX-512, NEON). The vector backend is only compiled by the Maven profile
+ * {@code vector} ({@code mvn -Pvector}), which also starts tests and the application with
+ * {@code --add-modules jdk.incubator.vector}; default builds are scalar and print no incubator
+ * warning. The backend is chosen once, when this class is first used: the vector one when it was
+ * compiled and the module is present, the scalar one otherwise. The system property
+ * {@code signal.kernels} set to {@code scalar} or {@code vector} forces a backend.
+ */
+public abstract class SignalKernels {
+
+    private static final class Holder {
+        private static final SignalKernels INSTANCE = select(System.getProperty("signal.kernels", "auto"));
+    }
+
+    /**
+     * @return The backend selected for this JVM.
+     */
+    public static SignalKernels get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return The scalar backend.
+     */
+    public static SignalKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    /**
+     * @return The Vector API backend.
+     * @throws IllegalStateException if the build has no vector backend or the jdk.incubator.vector
+     *                               module is not available.
+     */
+    public static SignalKernels vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            throw new IllegalStateException("Start the JVM with --add-modules jdk.incubator.vector");
+        }
+        try {
+            // loaded by name, since default builds do not compile it
+            return (SignalKernels) Class.forName(SignalKernels.class.getPackageName() + ".VectorKernels")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The vector backend was not compiled; build with mvn -Pvector", e);
+        }
+    }
+
+    static SignalKernels select(String mode) {
+        if ("scalar".equals(mode)) {
+            return scalar();
+        }
+        try {
+            return vector();
+        } catch (IllegalStateException | LinkageError e) {
+            if ("vector".equals(mode)) throw e;
+            return scalar();
+        }
+    }
+
+    /**
+     * @return Name of the backend, for diagnostics.
+     */
+    public abstract String getName();
+
+    /**
+     * Computes {@code out[i] = in[i] * scale + offset}.
+     * @param in Input samples.
+     * @param scale Factor.
+     * @param offset Added after scaling.
+     * @param out Output, at least as long as the input; may be the input itself.
+     */
+    public abstract void affine(double[] in, double scale, double offset, double[] out);
+
+    /**
+     * Computes {@code out[i] = in[i] > threshold}.
+     * @param in Input samples.
+     * @param threshold Threshold.
+     * @param out Output, at least as long as the input.
+     */
+    public abstract void greaterThan(double[] in, double threshold, boolean[] out);
+
+    /**
+     * @param in Samples.
+     * @return Largest sample, or negative infinity if there are none.
+     */
+    public abstract double max(double[] in);
+
+    /**
+     * @param in Samples.
+     * @return Smallest sample, or positive infinity if there are none.
+     */
+    public abstract double min(double[] in);
+}
@@ -0,0 +1,15 @@
+package com.example.telemedicine.signal;
+
+/**
+ * Precision of the sample arrays a signal is processed and stored with.
+ */
+public enum SignalPrecision {
+    /** double[] throughout and full double text in storage. */
+    DOUBLE,
+    /**
+     * float[] sample arrays and shortest float text in storage, halving memory and cache footprint.
+     * Filter and detector state stay in double, so only the stored samples are rounded; 24 bits of
+     * mantissa are still far more than the 10-bit ADC delivers.
+     */
+    FLOAT
+}
@@ -87,6 +87,27 @@ public class SignalProcessing {
                 .toArray();
     }
 
+    /**
+     * Parses uploaded raw samples like {@link #stringToDoubleArray(String)}, but turns tokens that
+     * are not numbers into NaN instead of failing, so the quality gate can count and report them.
+     * @param dataString Comma-separated numeric string.
+     * @return Array of doubles, NaN where a token could not be parsed.
+     */
+    public static double[] parseRawSamples(String dataString) {
+        if (dataString == null || dataString.isBlank()) return new double[0];
+        return Arrays.stream(dataString.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToDouble(s -> {
+                    try {
+                        return Double.parseDouble(s);
+                    } catch (NumberFormatException e) {
+                        return Double.NaN;
+                    }
+                })
+                .toArray();
+    }
+
     // --- 4. FILTROS MATEMÁTICOS GENÉRICOS (IIRJ) ---
 
     /**
@@ -98,11 +119,40 @@ public class SignalProcessing {
      * @return Converted signal in millivolts.
      */
     public static double[] convertToMV(double[] rawSignal, double vcc, int resolution, int gain) {
+        double[] mv = new double[rawSignal.length];
+        convertToMV(rawSignal, vcc, resolution, gain, mv);
+        return mv;
+    }
+
+    /**
+     * Converts the raw ADC signal into millivolts, writing into a caller-provided buffer.
+     * @param rawSignal
+     * @param vcc Supply voltage.
+     * @param resolution ADC resolution.
+     * @param gain Amplifier gain.
+     * @param out Output, at least as long as the input.
+     */
+    public static void convertToMV(double[] rawSignal, double vcc, int resolution, int gain, double[] out) {
         // Si tus datos ya vienen en mV o el formato es distinto, ajusta esto
-        int bits = 10;
-        return Arrays.stream(rawSignal)
-                .map(value -> ((value / Math.pow(2, bits)) - 0.5) * vcc / gain * 1000)
-                .toArray();
+        // ((value / 2^resolution) - 0.5) * vcc / gain * 1000, as one multiply-add per sample
+        double scale = vcc / gain * 1000 / (1L << resolution);
+        SignalKernels.get().affine(rawSignal, scale, -0.5 * vcc / gain * 1000, out);
+    }
+
+    /**
+     * Converts the raw ADC signal into millivolts, rounded to float.
+     * @param rawSignal
+     * @param vcc Supply voltage.
+     * @param resolution ADC resolution.
+     * @param gain Amplifier gain.
+     * @param out Output, at least as long as the input.
+     */
+    public static void convertToMV(double[] rawSignal, double vcc, int resolution, int gain, float[] out) {
+        double scale = vcc / gain * 1000 / (1L << resolution);
+        double offset = -0.5 * vcc / gain * 1000;
+        for (int i = 0; i < rawSignal.length; i++) {
+            out[i] = (float) (rawSignal[i] * scale + offset);
+        }
     }
 
     /**
@@ -115,22 +165,28 @@ public class SignalProcessing {
      * @return Filtered signal.
      */
     public static double[] bandpassFilter(double[] signal, double fs, double lowcut, double highcut, int order) {
+        double[] filtered = new double[signal.length];
+        bandpassFilter(signal, filtered, signal.length, fs, lowcut, highcut, order);
+        return filtered;
+    }
+
+    /**
+     * Applies a bandpass IIR filter forwards and backwards, writing into a caller-provided buffer.
+     * Each pass reads a sample before writing the same index, so {@code out} may be {@code signal}.
+     * @param signal Input signal.
+     * @param out Output buffer.
+     * @param length Number of samples to filter.
+     * @param fs
+     * @param lowcut Low cutoff frequency.
+     * @param highcut High cutoff frequency.
+     * @param order Filter order.
+     */
+    public static void bandpassFilter(double[] signal, double[] out, int length, double fs, double lowcut, double highcut, int order) {
         Butterworth butterworth = new Butterworth();
         double centerFrequency = (lowcut + highcut) / 2.0;
         double width = highcut - lowcut;
         butterworth.bandPass(order, fs, centerFrequency, width);
-
-        double[] forwardFiltered = new double[signal.length];
-        for (int i = 0; i < signal.length; i++) {
-            forwardFiltered[i] = butterworth.filter(signal[i]);
-        }
-
-        butterworth.reset();
-        double[] backwardFiltered = new double[signal.length];
-        for (int i = signal.length - 1; i >= 0; i--) {
-            backwardFiltered[i] = butterworth.filter(forwardFiltered[i]);
-        }
-        return backwardFiltered;
+        filtfilt(butterworth, signal, out, length);
     }
 
     /**
@@ -142,21 +198,78 @@ public class SignalProcessing {
      * @return Filtered signal.
      */
     public static double[] notchFilter(double[] signal, double fs, double notchFreq, double q) {
+        double[] filtered = new double[signal.length];
+        notchFilter(signal, filtered, signal.length, fs, notchFreq, q);
+        return filtered;
+    }
+
+    /**
+     * Applies a notch IIR filter forwards and backwards, writing into a caller-provided buffer,
+     * which may be {@code signal} itself.
+     * @param signal Input signal.
+     * @param out Output buffer.
+     * @param length Number of samples to filter.
+     * @param fs
+     * @param notchFreq
+     * @param q Quality factor.
+     */
+    public static void notchFilter(double[] signal, double[] out, int length, double fs, double notchFreq, double q) {
         Butterworth butterworth = new Butterworth();
         double width = notchFreq / q;
         butterworth.bandStop(4, fs, notchFreq, width);
+        filtfilt(butterworth, signal, out, length);
+    }
 
-        double[] forwardFiltered = new double[signal.length];
-        for (int i = 0; i < signal.length; i++) {
-            forwardFiltered[i] = butterworth.filter(signal[i]);
+    /**
+     * Float variant of {@link #bandpassFilter(double[], double[], int, double, double, double, int)};
+     * the filter runs in double and only the stored samples are rounded.
+     * @param signal Input signal.
+     * @param out Output buffer; may be {@code signal} itself.
+     * @param length Number of samples to filter.
+     * @param fs
+     * @param lowcut Low cutoff frequency.
+     * @param highcut High cutoff frequency.
+     * @param order Filter order.
+     */
+    public static void bandpassFilter(float[] signal, float[] out, int length, double fs, double lowcut, double highcut, int order) {
+        Butterworth butterworth = new Butterworth();
+        butterworth.bandPass(order, fs, (lowcut + highcut) / 2.0, highcut - lowcut);
+        filtfilt(butterworth, signal, out, length);
+    }
+
+    /**
+     * Float variant of {@link #notchFilter(double[], double[], int, double, double, double)}.
+     * @param signal Input signal.
+     * @param out Output buffer; may be {@code signal} itself.
+     * @param length Number of samples to filter.
+     * @param fs
+     * @param notchFreq
+     * @param q Quality factor.
+     */
+    public static void notchFilter(float[] signal, float[] out, int length, double fs, double notchFreq, double q) {
+        Butterworth butterworth = new Butterworth();
+        butterworth.bandStop(4, fs, notchFreq, notchFreq / q);
+        filtfilt(butterworth, signal, out, length);
+    }
+
+    private static void filtfilt(Butterworth butterworth, float[] signal, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = (float) butterworth.filter(signal[i]);
         }
+        butterworth.reset();
+        for (int i = length - 1; i >= 0; i--) {
+            out[i] = (float) butterworth.filter(out[i]);
+        }
+    }
 
+    private static void filtfilt(Butterworth butterworth, double[] signal, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = butterworth.filter(signal[i]);
+        }
         butterworth.reset();
-        double[] backwardFiltered = new double[signal.length];
-        for (int i = signal.length - 1; i >= 0; i--) {
-            backwardFiltered[i] = butterworth.filter(forwardFiltered[i]);
+        for (int i = length - 1; i >= 0; i--) {
+            out[i] = butterworth.filter(out[i]);
         }
-        return backwardFiltered;
     }
 
     /**
@@ -179,5 +292,21 @@ public class SignalProcessing {
         }
         return sb.toString();
     }
+    /**
+     * Converts the first samples of a float array into a comma-separated string, using the
+     * shortest text that reads back to the same float.
+     * @param signal Input signal.
+     * @param length Number of samples to write.
+     * @return Comma-separated string representation of the signal.
+     */
+    public static String floatArrayToString(float[] signal, int length) {
+        StringBuilder sb = new StringBuilder(length * 10);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(signal[i]);
+        }
+        return sb.toString();
+    }
+
 }
 
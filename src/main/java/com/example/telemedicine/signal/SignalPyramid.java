@@ -0,0 +1,230 @@
+package com.example.telemedicine.signal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Multi-resolution min/max summary of a signal, built once at ingest.
+ * Level 0 keeps the minimum and maximum of every block of {@value #BASE_BUCKET}
+ * samples and every following level halves the resolution, down to at most
+ * {@value #MIN_BUCKETS} buckets. Overviews of any range can then be drawn from
+ * the coarsest adequate level in time proportional to the output size, whatever
+ * the length of the recording. Values are kept as floats, which is far beyond
+ * the resolution of the 10-bit ADC.
+ */
+public class SignalPyramid {
+    public static final int BASE_BUCKET = 8;
+    public static final int MIN_BUCKETS = 256;
+
+    private static final int BASE_LOG2 = 3;
+    private static final int MAGIC = 0x53505952; // "SPYR"
+
+    private final int sampleCount;
+    private final float[][] mins;
+    private final float[][] maxs;
+
+    private SignalPyramid(int sampleCount, float[][] mins, float[][] maxs) {
+        this.sampleCount = sampleCount;
+        this.mins = mins;
+        this.maxs = maxs;
+    }
+
+    /**
+     * Builds the pyramid of a signal in a single pass over the samples.
+     * @param data Signal samples.
+     * @return SignalPyramid of the signal.
+     */
+    public static SignalPyramid build(double[] data) {
+        int length = data.length;
+        float[][] mins = new float[levels(length)][];
+        float[][] maxs = new float[mins.length][];
+        int base = (length + BASE_BUCKET - 1) >> BASE_LOG2;
+        mins[0] = new float[base];
+        maxs[0] = new float[base];
+        for (int b = 0; b < base; b++) {
+            int start = b << BASE_LOG2;
+            int end = Math.min(start + BASE_BUCKET, length);
+            double min = data[start];
+            double max = data[start];
+            for (int i = start + 1; i < end; i++) {
+                if (data[i] < min) min = data[i];
+                if (data[i] > max) max = data[i];
+            }
+            mins[0][b] = (float) min;
+            maxs[0][b] = (float) max;
+        }
+        return buildUpperLevels(length, mins, maxs);
+    }
+
+    /**
+     * Builds the pyramid of the first samples of a float signal in a single pass.
+     * @param data Signal samples.
+     * @param length Number of samples to use.
+     * @return SignalPyramid of the signal.
+     */
+    public static SignalPyramid build(float[] data, int length) {
+        float[][] mins = new float[levels(length)][];
+        float[][] maxs = new float[mins.length][];
+        int base = (length + BASE_BUCKET - 1) >> BASE_LOG2;
+        mins[0] = new float[base];
+        maxs[0] = new float[base];
+        for (int b = 0; b < base; b++) {
+            int start = b << BASE_LOG2;
+            int end = Math.min(start + BASE_BUCKET, length);
+            float min = data[start];
+            float max = data[start];
+            for (int i = start + 1; i < end; i++) {
+                if (data[i] < min) min = data[i];
+                if (data[i] > max) max = data[i];
+            }
+            mins[0][b] = min;
+            maxs[0][b] = max;
+        }
+        return buildUpperLevels(length, mins, maxs);
+    }
+
+    private static int levels(int length) {
+        int buckets = (length + BASE_BUCKET - 1) >> BASE_LOG2;
+        int levels = 1;
+        while (buckets > MIN_BUCKETS) {
+            levels++;
+            buckets = (buckets + 1) / 2;
+        }
+        return levels;
+    }
+
+    private static SignalPyramid buildUpperLevels(int length, float[][] mins, float[][] maxs) {
+        for (int l = 1; l < mins.length; l++) {
+            float[] prevMin = mins[l - 1];
+            float[] prevMax = maxs[l - 1];
+            int count = (prevMin.length + 1) / 2;
+            mins[l] = new float[count];
+            maxs[l] = new float[count];
+            for (int b = 0; b < count; b++) {
+                int a = 2 * b;
+                int c = Math.min(a + 1, prevMin.length - 1);
+                mins[l][b] = Math.min(prevMin[a], prevMin[c]);
+                maxs[l][b] = Math.max(prevMax[a], prevMax[c]);
+            }
+        }
+        return new SignalPyramid(length, mins, maxs);
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getLevelCount() {
+        return mins.length;
+    }
+
+    /**
+     * @param level Pyramid level.
+     * @return Number of samples summarised by one bucket of the level.
+     */
+    public int bucketSize(int level) {
+        return BASE_BUCKET << level;
+    }
+
+    /**
+     * Finds the coarsest level fine enough to draw a range with the given number of buckets.
+     * @param span Number of samples in the range.
+     * @param buckets Number of output buckets.
+     * @return Level index, or -1 if even level 0 is too coarse and raw samples are needed.
+     */
+    public int levelFor(int span, int buckets) {
+        long perBucket = span / Math.max(1, buckets);
+        int level = -1;
+        for (int l = 0; l < mins.length; l++) {
+            if (bucketSize(l) <= perBucket) level = l;
+        }
+        return level;
+    }
+
+    /**
+     * Computes the min/max envelope of the range [from, to) split into buckets.
+     * Each output bucket aggregates the pyramid buckets it overlaps, so the cost only
+     * depends on the number of output buckets.
+     * @param from First sample index (inclusive).
+     * @param to Last sample index (exclusive).
+     * @param buckets Number of output buckets.
+     * @return DecimatedSeries with a minimum and a maximum point at the centre of every bucket,
+     * or null if the pyramid is too coarse for the request.
+     */
+    public DecimatedSeries envelope(int from, int to, int buckets) {
+        int level = levelFor(to - from, buckets);
+        if (level < 0) return null;
+
+        int size = bucketSize(level);
+        float[] levelMin = mins[level];
+        float[] levelMax = maxs[level];
+        int[] indices = new int[buckets * 2];
+        double[] values = new double[buckets * 2];
+        int n = 0;
+
+        for (int b = 0; b < buckets; b++) {
+            int start = from + (int) ((long) b * (to - from) / buckets);
+            int end = from + (int) ((long) (b + 1) * (to - from) / buckets);
+            if (start >= end) continue;
+
+            int first = Math.min(start / size, levelMin.length - 1);
+            int last = Math.min((end - 1) / size, levelMin.length - 1);
+            float min = levelMin[first];
+            float max = levelMax[first];
+            for (int p = first + 1; p <= last; p++) {
+                if (levelMin[p] < min) min = levelMin[p];
+                if (levelMax[p] > max) max = levelMax[p];
+            }
+
+            int centre = (start + end - 1) / 2;
+            indices[n] = centre;
+            values[n++] = min;
+            indices[n] = centre;
+            values[n++] = max;
+        }
+        return new DecimatedSeries(Arrays.copyOf(indices, n), Arrays.copyOf(values, n));
+    }
+
+    /**
+     * Serialises the pyramid (little-endian) for storage next to the signal.
+     * @return Encoded pyramid.
+     */
+    public byte[] toBytes() {
+        int floats = 0;
+        for (float[] level : mins) floats += level.length * 2;
+        ByteBuffer buffer = ByteBuffer.allocate(12 + 4 * mins.length + 4 * floats).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(sampleCount).putInt(mins.length);
+        for (int l = 0; l < mins.length; l++) {
+            buffer.putInt(mins[l].length);
+            for (float v : mins[l]) buffer.putFloat(v);
+            for (float v : maxs[l]) buffer.putFloat(v);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads a pyramid encoded with {@link #toBytes()}.
+     * @param bytes Encoded pyramid.
+     * @return The decoded SignalPyramid.
+     * @throws IllegalArgumentException If the bytes are not an encoded pyramid.
+     */
+    public static SignalPyramid fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (bytes.length < 12 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded signal pyramid.");
+        }
+        int sampleCount = buffer.getInt();
+        int levels = buffer.getInt();
+        float[][] mins = new float[levels][];
+        float[][] maxs = new float[levels][];
+        for (int l = 0; l < levels; l++) {
+            int count = buffer.getInt();
+            mins[l] = new float[count];
+            maxs[l] = new float[count];
+            for (int i = 0; i < count; i++) mins[l][i] = buffer.getFloat();
+            for (int i = 0; i < count; i++) maxs[l][i] = buffer.getFloat();
+        }
+        return new SignalPyramid(sampleCount, mins, maxs);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.SignalQuality;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks raw ADC samples in one pass before any filtering, so recordings with the electrodes
+ * off, a saturated amplifier, unparseable samples or a truncated data line are rejected
+ * without spending the filter, detector and storage work on them.
+ * <p>
+ * Measured per recording:
+ * <ul>
+ *   <li>invalid samples: NaN or infinite values, which is what unparseable tokens become;</li>
+ *   <li>saturation: samples at 0 or at the ADC maximum;</li>
+ *   <li>flatline: samples in runs of identical values lasting at least {@code flatlineMinSec};</li>
+ *   <li>length: sample count against a minimum duration and, when declared, the expected duration;</li>
+ *   <li>baseline wander: range of the one-second means, relative to the peak-to-peak range.</li>
+ * </ul>
+ * Baseline wander only lowers the score, since the high-pass filters remove it.
+ */
+public class SignalQualityAnalyzer {
+    private final int adcMax;
+    private final double maxSaturationRatio;
+    private final double flatlineMinSec;
+    private final double maxFlatlineRatio;
+    private final int maxInvalidSamples;
+    private final double minDurationSec;
+    private final double durationTolerance;
+
+    public SignalQualityAnalyzer(int adcMax, double maxSaturationRatio, double flatlineMinSec,
+                                 double maxFlatlineRatio, int maxInvalidSamples, double minDurationSec,
+                                 double durationTolerance) {
+        this.adcMax = adcMax;
+        this.maxSaturationRatio = maxSaturationRatio;
+        this.flatlineMinSec = flatlineMinSec;
+        this.maxFlatlineRatio = maxFlatlineRatio;
+        this.maxInvalidSamples = maxInvalidSamples;
+        this.minDurationSec = minDurationSec;
+        this.durationTolerance = durationTolerance;
+    }
+
+    /**
+     * Analyzes a recording.
+     * @param raw Raw ADC samples; unparseable tokens as NaN.
+     * @param fs Sampling frequency.
+     * @param expectedDurationSec Duration the client declared, or null.
+     * @return The report; {@link SignalQuality#isAcceptable()} is false when a threshold is exceeded.
+     */
+    public SignalQuality analyze(double[] raw, int fs, Double expectedDurationSec) {
+        int n = raw.length;
+        int minFlatRun = Math.max(2, (int) Math.round(flatlineMinSec * fs));
+        int blockLength = Math.max(1, fs);
+
+        int invalid = 0, saturated = 0;
+        long flatSamples = 0;
+        int run = 0, longestFlatRun = 0;
+        double previous = Double.NaN;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        double blockSum = 0;
+        int blockCount = 0;
+        double minBlockMean = Double.POSITIVE_INFINITY, maxBlockMean = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < n; i++) {
+            double x = raw[i];
+            if (!Double.isFinite(x)) {
+                invalid++;
+                if (run >= minFlatRun) {
+                    flatSamples += run;
+                    longestFlatRun = Math.max(longestFlatRun, run);
+                }
+                run = 0;
+                previous = Double.NaN;
+                continue;
+            }
+            if (x <= 0 || x >= adcMax) saturated++;
+            if (x == previous) {
+                run++;
+            } else {
+                if (run >= minFlatRun) {
+                    flatSamples += run;
+                    longestFlatRun = Math.max(longestFlatRun, run);
+                }
+                run = 1;
+                previous = x;
+            }
+            if (x < min) min = x;
+            if (x > max) max = x;
+
+            blockSum += x;
+            if (++blockCount == blockLength) {
+                double mean = blockSum / blockLength;
+                if (mean < minBlockMean) minBlockMean = mean;
+                if (mean > maxBlockMean) maxBlockMean = mean;
+                blockSum = 0;
+                blockCount = 0;
+            }
+        }
+        if (run >= minFlatRun) {
+            flatSamples += run;
+            longestFlatRun = Math.max(longestFlatRun, run);
+        }
+
+        double saturationRatio = n == 0 ? 0 : (double) saturated / n;
+        double flatlineRatio = n == 0 ? 0 : (double) flatSamples / n;
+        double invalidRatio = n == 0 ? 0 : (double) invalid / n;
+        double wander = maxBlockMean > minBlockMean ? maxBlockMean - minBlockMean : 0;
+        double wanderRatio = max > min ? Math.min(1, wander / (max - min)) : 0;
+        Integer expected = expectedDurationSec != null ? (int) Math.round(expectedDurationSec * fs) : null;
+
+        List<String> problems = new ArrayList<>();
+        if (n == 0) {
+            problems.add("The recording has no samples");
+        }
+        if (invalid > maxInvalidSamples) {
+            problems.add(invalid + " samples are not valid numbers");
+        }
+        if (saturationRatio > maxSaturationRatio) {
+            problems.add(percent(saturationRatio) + " of the samples are at the ADC limits (amplifier saturated)");
+        }
+        if (flatlineRatio > maxFlatlineRatio) {
+            problems.add(percent(flatlineRatio) + " of the recording is flat (electrodes off?)");
+        }
+        if (n > 0 && n < minDurationSec * fs) {
+            problems.add("The recording lasts " + round(n / (double) fs) + " s, less than the minimum of " + minDurationSec + " s");
+        }
+        if (expected != null && n < expected * (1 - durationTolerance)) {
+            problems.add("The recording is truncated: " + n + " of " + expected + " expected samples");
+        }
+
+        double score = (1 - saturationRatio) * (1 - flatlineRatio) * (1 - invalidRatio) * (1 - 0.5 * wanderRatio);
+        return new SignalQuality(n, expected, invalid, round(saturationRatio), round(flatlineRatio),
+                round(longestFlatRun / (double) fs), round(wander), n == 0 ? 0 : round(score), problems);
+    }
+
+    private static String percent(double ratio) {
+        return Math.round(ratio * 1000) / 10.0 + "%";
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
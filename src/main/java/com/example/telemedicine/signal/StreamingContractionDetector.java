@@ -0,0 +1,211 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.LiveMarker;
+import com.example.telemedicine.domain.LiveMarkerType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental counterpart of {@link EMGProcessor#detectContractions}, fed one filtered sample at a time.
+ * The envelope is the rectified signal through a two-pole 10 Hz low-pass followed by the same
+ * 201-sample median, computed causally. A contraction starts when the envelope rises above a
+ * fraction of its recent maximum and ends when it falls below 80% of that level, so a noisy
+ * envelope near the threshold does not split one contraction into many. The threshold never drops
+ * below twice the noise floor, so a resting muscle is not reported as contracted just because
+ * nothing louder has been seen yet.
+ * <p>
+ * As in the batch detector, only contractions lasting {@code minDurationSec} are reported. The onset
+ * is therefore confirmed once that duration has passed and arrives with that delay. Reported
+ * indices are corrected for the delay of the median, and memory does not depend on the length of
+ * the recording.
+ */
+public class StreamingContractionDetector implements StreamingDetector {
+
+    /**
+     * Receives the contractions found by {@link #process(double[], int, int, ContractionListener)}.
+     */
+    public interface ContractionListener {
+        void onOnset(long index);
+
+        void onOffset(long index);
+    }
+
+    private static final class Collector implements ContractionListener {
+        private final List<Integer> onsets = new ArrayList<>();
+        private final List<Integer> offsets = new ArrayList<>();
+
+        @Override
+        public void onOnset(long index) {
+            onsets.add((int) index);
+        }
+
+        @Override
+        public void onOffset(long index) {
+            offsets.add((int) index);
+        }
+    }
+
+    private static final int MEDIAN_KERNEL = 201;
+    private static final double HYSTERESIS = 0.8;
+
+    private final double fs;
+    private final double thresholdRatio;
+    private final int minDurationSamples;
+    private final int delay;
+    private final double decay;
+    private final double rise;
+    private final double smoothing;
+    private final RunningMedian median = new RunningMedian(MEDIAN_KERNEL);
+
+    private double lowPass1;
+    private double lowPass2;
+    private long seen;
+    private double envelope;
+    private double envelopeMax;
+    private double noiseFloor = Double.NaN;
+    private long aboveSince = -1;
+    private boolean active;
+
+    // events confirmed by the current sample; index + 1 marks an onset, -(index + 1) an offset
+    private long event;
+
+    /**
+     * @param fs Sampling frequency.
+     * @param thresholdRatio Threshold relative to the recent maximum of the envelope.
+     * @param minDurationSec Minimum duration of a contraction in seconds.
+     */
+    public StreamingContractionDetector(double fs, double thresholdRatio, double minDurationSec) {
+        this.fs = fs;
+        this.thresholdRatio = thresholdRatio;
+        this.minDurationSamples = Math.max(1, (int) (minDurationSec * fs));
+        this.delay = MEDIAN_KERNEL / 2;
+        this.decay = Math.pow(0.5, 1.0 / (5.0 * fs)); // the reference maximum halves in five seconds
+        this.rise = Math.pow(2.0, 1.0 / (10.0 * fs)); // the noise floor doubles in ten seconds
+        this.smoothing = 1 - Math.exp(-2 * Math.PI * 10.0 / fs);
+    }
+
+    /**
+     * Runs the detector over a whole filtered recording.
+     * @param signal Filtered EMG.
+     * @param fs Sampling frequency.
+     * @param thresholdRatio Threshold relative to the recent maximum of the envelope.
+     * @param minDurationSec Minimum duration of a contraction in seconds.
+     * @return Onsets, offsets and the envelope used for detection.
+     */
+    public static ContractionResult detect(double[] signal, double fs, double thresholdRatio, double minDurationSec) {
+        return detect(signal, signal.length, fs, thresholdRatio, minDurationSec, new double[signal.length]);
+    }
+
+    /**
+     * Runs the detector over the first {@code length} samples of a filtered recording.
+     * @param signal Filtered EMG.
+     * @param length Number of samples to use.
+     * @param fs Sampling frequency.
+     * @param thresholdRatio Threshold relative to the recent maximum of the envelope.
+     * @param minDurationSec Minimum duration of a contraction in seconds.
+     * @param envelope Receives the envelope used for detection, or null if it is not needed.
+     * @return Onsets and offsets, with the given envelope.
+     */
+    public static ContractionResult detect(double[] signal, int length, double fs, double thresholdRatio,
+                                           double minDurationSec, double[] envelope) {
+        StreamingContractionDetector detector = new StreamingContractionDetector(fs, thresholdRatio, minDurationSec);
+        Collector listener = new Collector();
+        if (envelope == null) {
+            detector.process(signal, 0, length, listener);
+        } else {
+            for (int i = 0; i < length; i++) {
+                detector.process(signal, i, 1, listener);
+                envelope[i] = detector.envelope;
+            }
+        }
+        detector.finish(listener);
+        return new ContractionResult(listener.onsets, listener.offsets, envelope);
+    }
+
+    /**
+     * Runs the detector over the first samples of a filtered recording held in floats.
+     * @param signal Filtered EMG.
+     * @param length Number of samples to use.
+     * @param fs Sampling frequency.
+     * @param thresholdRatio Threshold relative to the recent maximum of the envelope.
+     * @param minDurationSec Minimum duration of a contraction in seconds.
+     * @return Onsets and offsets, without envelope.
+     */
+    public static ContractionResult detect(float[] signal, int length, double fs, double thresholdRatio, double minDurationSec) {
+        StreamingContractionDetector detector = new StreamingContractionDetector(fs, thresholdRatio, minDurationSec);
+        Collector listener = new Collector();
+        for (int i = 0; i < length; i++) {
+            detector.step(signal[i]);
+            detector.emit(listener);
+        }
+        detector.finish(listener);
+        return new ContractionResult(listener.onsets, listener.offsets, null);
+    }
+
+    /**
+     * Processes a block of samples, continuing from the previous block.
+     * @param block Filtered EMG samples.
+     * @param offset First sample to process.
+     * @param length Number of samples to process.
+     * @param listener Receives onsets and offsets as soon as they are confirmed.
+     */
+    public void process(double[] block, int offset, int length, ContractionListener listener) {
+        for (int i = offset; i < offset + length; i++) {
+            step(block[i]);
+            emit(listener);
+        }
+    }
+
+    private void emit(ContractionListener listener) {
+        if (event > 0) listener.onOnset(event - 1);
+        else if (event < 0) listener.onOffset(-event - 1);
+    }
+
+    @Override
+    public void process(double sample, long index, List<LiveMarker> markers) {
+        step(sample);
+        if (event > 0) markers.add(new LiveMarker(LiveMarkerType.CONTRACTION_ONSET, (event - 1) / fs));
+        else if (event < 0) markers.add(new LiveMarker(LiveMarkerType.CONTRACTION_OFFSET, (-event - 1) / fs));
+    }
+
+    /**
+     * Closes a contraction still in progress at the end of the recording, as the batch detector does.
+     * @param listener Receives the final offset, if any.
+     */
+    public void finish(ContractionListener listener) {
+        if (active) {
+            listener.onOffset(Math.max(0, seen - 1));
+            active = false;
+        }
+        aboveSince = -1;
+    }
+
+    private void step(double sample) {
+        event = 0;
+        lowPass1 += smoothing * (Math.abs(sample) - lowPass1);
+        lowPass2 += smoothing * (lowPass1 - lowPass2);
+        envelope = median.push(lowPass2);
+        long index = seen++ - delay;
+        if (!median.isFull()) return; // the median window is not full yet
+
+        envelopeMax = Math.max(envelopeMax * decay, envelope);
+        noiseFloor = Double.isNaN(noiseFloor) ? envelope : Math.min(envelope, noiseFloor * rise);
+        double threshold = Math.max(thresholdRatio * envelopeMax, 2 * noiseFloor);
+        boolean above = envelope > (active || aboveSince >= 0 ? HYSTERESIS * threshold : threshold);
+
+        if (above) {
+            if (aboveSince < 0) aboveSince = index;
+            if (!active && index - aboveSince + 1 >= minDurationSamples) {
+                active = true;
+                event = aboveSince + 1;
+            }
+        } else {
+            if (active) {
+                event = -(index + 1);
+            }
+            active = false;
+            aboveSince = -1;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.LiveMarker;
+
+import java.util.List;
+
+/**
+ * Detector fed one filtered sample at a time while a session is being recorded. Created from the
+ * analysis stages of the configured pipeline by
+ * {@link com.example.telemedicine.signal.pipeline.SignalPipeline#newStreamingDetector(double)}.
+ */
+public interface StreamingDetector {
+
+    /**
+     * Processes the next sample.
+     * @param sample Filtered sample.
+     * @param index Index of the sample from the start of the recording.
+     * @param markers Receives the events confirmed by this sample; they may lie slightly in the past.
+     */
+    void process(double sample, long index, List<LiveMarker> markers);
+
+    /**
+     * @return Current heart rate in beats per minute, or null if the detector does not measure it yet.
+     */
+    default Double getHeartRate() {
+        return null;
+    }
+}
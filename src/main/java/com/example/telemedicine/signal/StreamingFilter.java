@@ -0,0 +1,34 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.signal.pipeline.SampleOperator;
+import com.example.telemedicine.signal.pipeline.SignalPipeline;
+
+/**
+ * Causal, sample-by-sample version of the filter chain applied to uploaded files, created by
+ * {@link SignalPipeline#newStreamingFilter(double)} from the same stages.
+ * Uploaded files are filtered forwards and backwards for zero phase; live samples can only be
+ * filtered forwards, so the output carries the small group delay of the filters.
+ */
+public class StreamingFilter {
+    private final SampleOperator[] operators;
+
+    /**
+     * @param operators Operators applied in order to every sample.
+     */
+    public StreamingFilter(SampleOperator... operators) {
+        this.operators = operators;
+    }
+
+    /**
+     * Filters the next raw ADC sample.
+     * @param raw ADC value.
+     * @return Filtered sample in millivolts.
+     */
+    public double process(double raw) {
+        double x = raw;
+        for (SampleOperator operator : operators) {
+            x = operator.apply(x);
+        }
+        return x;
+    }
+}
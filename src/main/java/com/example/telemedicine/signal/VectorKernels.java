@@ -0,0 +1,95 @@
+package com.example.telemedicine.signal;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API loops over the preferred species of the host, with a scalar tail. Only compiled by
+ * the {@code vector} Maven profile and only loaded when the jdk.incubator.vector module is present,
+ * see {@link SignalKernels#get()}. Every lane rounds exactly like the scalar backend: the affine
+ * transform is a multiply then an add, not a fused multiply-add.
+ */
+final class VectorKernels extends SignalKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public void affine(double[] in, double scale, double offset, double[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(in.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, in, i).mul(scale).add(offset).intoArray(out, i);
+        }
+        for (; i < in.length; i++) {
+            out[i] = in[i] * scale + offset;
+        }
+    }
+
+    @Override
+    public void greaterThan(double[] in, double threshold, boolean[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(in.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, in, i).compare(VectorOperators.GT, threshold).intoArray(out, i);
+        }
+        for (; i < in.length; i++) {
+            out[i] = in[i] > threshold;
+        }
+    }
+
+    // four independent accumulators hide the latency of the compare and blend chain
+    @Override
+    public double max(double[] in) {
+        int lanes = SPECIES.length();
+        DoubleVector a0 = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        DoubleVector a1 = a0, a2 = a0, a3 = a0;
+        int i = 0;
+        for (int bound = in.length - 4 * lanes; i <= bound; i += 4 * lanes) {
+            DoubleVector v0 = DoubleVector.fromArray(SPECIES, in, i);
+            DoubleVector v1 = DoubleVector.fromArray(SPECIES, in, i + lanes);
+            DoubleVector v2 = DoubleVector.fromArray(SPECIES, in, i + 2 * lanes);
+            DoubleVector v3 = DoubleVector.fromArray(SPECIES, in, i + 3 * lanes);
+            a0 = a0.blend(v0, v0.compare(VectorOperators.GT, a0));
+            a1 = a1.blend(v1, v1.compare(VectorOperators.GT, a1));
+            a2 = a2.blend(v2, v2.compare(VectorOperators.GT, a2));
+            a3 = a3.blend(v3, v3.compare(VectorOperators.GT, a3));
+        }
+        a0 = a0.blend(a1, a1.compare(VectorOperators.GT, a0));
+        a2 = a2.blend(a3, a3.compare(VectorOperators.GT, a2));
+        a0 = a0.blend(a2, a2.compare(VectorOperators.GT, a0));
+        double max = a0.reduceLanes(VectorOperators.MAX);
+        for (; i < in.length; i++) {
+            if (in[i] > max) max = in[i];
+        }
+        return max;
+    }
+
+    @Override
+    public double min(double[] in) {
+        int lanes = SPECIES.length();
+        DoubleVector a0 = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        DoubleVector a1 = a0, a2 = a0, a3 = a0;
+        int i = 0;
+        for (int bound = in.length - 4 * lanes; i <= bound; i += 4 * lanes) {
+            DoubleVector v0 = DoubleVector.fromArray(SPECIES, in, i);
+            DoubleVector v1 = DoubleVector.fromArray(SPECIES, in, i + lanes);
+            DoubleVector v2 = DoubleVector.fromArray(SPECIES, in, i + 2 * lanes);
+            DoubleVector v3 = DoubleVector.fromArray(SPECIES, in, i + 3 * lanes);
+            a0 = a0.blend(v0, v0.compare(VectorOperators.LT, a0));
+            a1 = a1.blend(v1, v1.compare(VectorOperators.LT, a1));
+            a2 = a2.blend(v2, v2.compare(VectorOperators.LT, a2));
+            a3 = a3.blend(v3, v3.compare(VectorOperators.LT, a3));
+        }
+        a0 = a0.blend(a1, a1.compare(VectorOperators.LT, a0));
+        a2 = a2.blend(a3, a3.compare(VectorOperators.LT, a2));
+        a0 = a0.blend(a2, a2.compare(VectorOperators.LT, a0));
+        double min = a0.reduceLanes(VectorOperators.MIN);
+        for (; i < in.length; i++) {
+            if (in[i] < min) min = in[i];
+        }
+        return min;
+    }
+}
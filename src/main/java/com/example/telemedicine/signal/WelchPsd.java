@@ -0,0 +1,108 @@
+package com.example.telemedicine.signal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Welch power spectral density estimate: the average periodogram of Hann-windowed segments
+ * overlapping by half. Segment FFTs go through a cached {@link FftPlan} and the window table
+ * is cached per segment size as well.
+ */
+public final class WelchPsd {
+    private static final Map<Integer, double[]> WINDOWS = new ConcurrentHashMap<>();
+
+    private WelchPsd() {
+    }
+
+    /**
+     * Estimates the one-sided PSD of {@code signal[from, to)}.
+     * @param signal Samples.
+     * @param from First sample, inclusive.
+     * @param to Last sample, exclusive.
+     * @param fs Sampling frequency.
+     * @param segment Segment length, a power of two no longer than the range.
+     * @return Power at frequencies {@code k * fs / segment} for {@code k = 0 .. segment / 2}.
+     */
+    public static double[] estimate(double[] signal, int from, int to, double fs, int segment) {
+        if (segment > to - from) {
+            throw new IllegalArgumentException("Segment longer than the range: " + segment + " > " + (to - from));
+        }
+        FftPlan plan = FftPlan.forSize(segment);
+        double[] window = WINDOWS.computeIfAbsent(segment, WelchPsd::hann);
+        double windowPower = 0;
+        for (double w : window) windowPower += w * w;
+
+        BufferArena arena = BufferArena.current();
+        double[] re = arena.borrow(segment);
+        double[] im = arena.borrow(segment);
+        double[] psd = new double[segment / 2 + 1];
+        int hop = Math.max(1, segment / 2);
+        int segments = 0;
+        try {
+            for (int start = from; start + segment <= to; start += hop) {
+                double mean = 0;
+                for (int i = 0; i < segment; i++) mean += signal[start + i];
+                mean /= segment;
+                for (int i = 0; i < segment; i++) {
+                    re[i] = (signal[start + i] - mean) * window[i];
+                    im[i] = 0;
+                }
+                plan.forward(re, im);
+                for (int k = 0; k < psd.length; k++) {
+                    psd[k] += re[k] * re[k] + im[k] * im[k];
+                }
+                segments++;
+            }
+        } finally {
+            arena.release(re);
+            arena.release(im);
+        }
+
+        double scale = 1.0 / (fs * windowPower * segments);
+        for (int k = 0; k < psd.length; k++) {
+            // one-sided: fold the negative frequencies, except DC and Nyquist
+            psd[k] *= (k == 0 || 2 * k == segment) ? scale : 2 * scale;
+        }
+        return psd;
+    }
+
+    /**
+     * @param psd One-sided PSD from {@link #estimate}.
+     * @param fs Sampling frequency.
+     * @return Power-weighted mean frequency in Hz.
+     */
+    public static double meanFrequency(double[] psd, double fs) {
+        double step = fs / (2.0 * (psd.length - 1));
+        double total = 0, weighted = 0;
+        for (int k = 0; k < psd.length; k++) {
+            total += psd[k];
+            weighted += k * step * psd[k];
+        }
+        return total > 0 ? weighted / total : 0;
+    }
+
+    /**
+     * @param psd One-sided PSD from {@link #estimate}.
+     * @param fs Sampling frequency.
+     * @return Frequency in Hz splitting the power in two halves.
+     */
+    public static double medianFrequency(double[] psd, double fs) {
+        double step = fs / (2.0 * (psd.length - 1));
+        double total = 0;
+        for (double p : psd) total += p;
+        double cumulative = 0;
+        for (int k = 0; k < psd.length; k++) {
+            cumulative += psd[k];
+            if (cumulative >= total / 2) return k * step;
+        }
+        return 0;
+    }
+
+    private static double[] hann(int size) {
+        double[] window = new double[size];
+        for (int i = 0; i < size; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / size); // periodic, as used for spectra
+        }
+        return window;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.telemedicine.signal;
+
+/**
+ * Prefix sums and prefix sums of squares of a signal, built in one pass, so that the sum, mean,
+ * energy and RMS of any window {@code [from, to)} take constant time. Sums are accumulated in
+ * double precision; differences of two prefixes lose precision only relative to the sum over the
+ * whole signal, which is far below the resolution of the ADC for recording lengths used here.
+ * <p>
+ * The prefix arrays can be borrowed from a {@link BufferArena}; {@link #close()} then returns them.
+ */
+public final class WindowedStats implements AutoCloseable {
+    // floats are widened in blocks of this size, so both constructors share the double accumulation
+    private static final int WIDEN_BLOCK = 1024;
+
+    private final double[] sums;
+    private final double[] squares;
+    private final int length;
+    private final BufferArena arena;
+
+    /**
+     * @param signal Samples; the array is not kept.
+     */
+    public WindowedStats(double[] signal) {
+        this(signal, signal.length, null);
+    }
+
+    /**
+     * @param signal Samples; the array is not kept.
+     * @param length Number of samples of the signal to use.
+     * @param arena Arena lending the prefix arrays, or null to allocate them.
+     */
+    public WindowedStats(double[] signal, int length, BufferArena arena) {
+        this(length, arena);
+        accumulate(signal, 0, length);
+    }
+
+    /**
+     * @param signal Samples held in floats; the prefix sums are still accumulated in double.
+     * @param length Number of samples of the signal to use.
+     * @param arena Arena lending the prefix arrays, or null to allocate them.
+     */
+    public WindowedStats(float[] signal, int length, BufferArena arena) {
+        this(length, arena);
+        double[] block = new double[Math.min(length, WIDEN_BLOCK)];
+        for (int from = 0; from < length; from += block.length) {
+            int count = Math.min(block.length, length - from);
+            for (int i = 0; i < count; i++) block[i] = signal[from + i];
+            accumulate(block, from, count);
+        }
+    }
+
+    private WindowedStats(int length, BufferArena arena) {
+        this.length = length;
+        this.arena = arena;
+        this.sums = arena != null ? arena.borrow(length + 1) : new double[length + 1];
+        this.squares = arena != null ? arena.borrow(length + 1) : new double[length + 1];
+        sums[0] = 0;
+        squares[0] = 0;
+    }
+
+    /**
+     * Extends the prefix sums, which must be built up to sample {@code at}, by the first
+     * {@code count} values of {@code samples}.
+     */
+    private void accumulate(double[] samples, int at, int count) {
+        for (int i = 0; i < count; i++) {
+            double x = samples[i];
+            sums[at + i + 1] = sums[at + i] + x;
+            squares[at + i + 1] = squares[at + i] + x * x;
+        }
+    }
+
+    /**
+     * Returns the prefix arrays to the arena they came from. The statistics must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.release(sums);
+            arena.release(squares);
+        }
+    }
+
+    /**
+     * @return Number of samples of the signal.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param from First sample, inclusive.
+     * @param to Last sample, exclusive.
+     * @return Sum of the samples in the window.
+     */
+    public double sum(int from, int to) {
+        return sums[to] - sums[from];
+    }
+
+    /**
+     * @param from First sample, inclusive.
+     * @param to Last sample, exclusive.
+     * @return Sum of the squared samples in the window.
+     */
+    public double energy(int from, int to) {
+        return Math.max(0, squares[to] - squares[from]);
+    }
+
+    /**
+     * @param from First sample, inclusive.
+     * @param to Last sample, exclusive.
+     * @return Mean of the window, or 0 if it is empty.
+     */
+    public double mean(int from, int to) {
+        return to > from ? sum(from, to) / (to - from) : 0;
+    }
+
+    /**
+     * @param from First sample, inclusive.
+     * @param to Last sample, exclusive.
+     * @return Root mean square of the window, or 0 if it is empty.
+     */
+    public double rms(int from, int to) {
+        return to > from ? Math.sqrt(energy(from, to) / (to - from)) : 0;
+    }
+
+    /**
+     * @param from First sample, inclusive.
+     * @param to Last sample, exclusive.
+     * @return Population variance of the window, or 0 if it is empty.
+     */
+    public double variance(int from, int to) {
+        if (to <= from) return 0;
+        double mean = mean(from, to);
+        return Math.max(0, energy(from, to) / (to - from) - mean * mean);
+    }
+
+    /**
+     * Computes the RMS over a sliding window ending at each sample. The first samples use the
+     * shorter window available.
+     * @param window Window length in samples.
+     * @return Moving RMS, one value per sample.
+     */
+    public double[] movingRms(int window) {
+        double[] out = new double[length];
+        movingRms(window, out);
+        return out;
+    }
+
+    /**
+     * Writes the moving RMS of {@link #movingRms(int)} into a caller-provided buffer, e.g. one
+     * borrowed from a {@link BufferArena}.
+     * @param window Window length in samples.
+     * @param out Output, at least {@link #length()} long.
+     */
+    public void movingRms(int window, double[] out) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must hold at least one sample");
+        }
+        for (int i = 0; i < length; i++) {
+            int from = Math.max(0, i + 1 - window);
+            out[i] = Math.sqrt(Math.max(0, squares[i + 1] - squares[from]) / (i + 1 - from));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.signal.StreamingDetector;
+
+/**
+ * Stage that reads the processed samples and produces a result, such as detected beats or
+ * contractions, without changing the samples.
+ * @param <R> Result type; a pipeline holds at most one stage per result type.
+ */
+public interface AnalysisStage<R> extends PipelineStage {
+
+    /**
+     * @return Class the result is looked up by in {@link PipelineRun#getResult(Class)}.
+     */
+    Class<R> getResultType();
+
+    /**
+     * @param samples Processed samples.
+     * @param length Number of valid samples.
+     * @param fs Sampling frequency.
+     * @return Result of the analysis.
+     */
+    R analyze(double[] samples, int length, double fs);
+
+    /**
+     * Float variant of {@link #analyze(double[], int, double)}.
+     */
+    R analyze(float[] samples, int length, double fs);
+
+    /**
+     * Creates the incremental form of this analysis, for samples that arrive live.
+     * @param fs Sampling frequency.
+     * @return A new detector with empty state, or null if the stage has no live form.
+     */
+    default StreamingDetector newStreamingDetector(double fs) {
+        return null;
+    }
+}
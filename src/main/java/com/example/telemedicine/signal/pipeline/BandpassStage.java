@@ -0,0 +1,41 @@
+package com.example.telemedicine.signal.pipeline;
+
+import uk.me.berndporr.iirj.Butterworth;
+
+/**
+ * {@code bandpass(lowcut,highcut,order)}: Butterworth band-pass filter.
+ */
+public class BandpassStage implements SampleStage {
+    private final double lowcut;
+    private final double highcut;
+    private final int order;
+
+    public BandpassStage(double lowcut, double highcut, int order) {
+        if (lowcut <= 0 || highcut <= lowcut || order < 1) {
+            throw new IllegalArgumentException("bandpass needs 0 < lowcut < highcut and a positive order");
+        }
+        this.lowcut = lowcut;
+        this.highcut = highcut;
+        this.order = order;
+    }
+
+    @Override
+    public String getName() {
+        return "bandpass(" + SignalPipeline.format(lowcut) + "," + SignalPipeline.format(highcut) + "," + order + ")";
+    }
+
+    @Override
+    public boolean isFilter() {
+        return true;
+    }
+
+    @Override
+    public SampleOperator open(double fs) {
+        if (highcut >= fs / 2) {
+            throw new IllegalArgumentException(getName() + " is above the Nyquist frequency of " + fs + " Hz");
+        }
+        Butterworth butterworth = new Butterworth();
+        butterworth.bandPass(order, fs, (lowcut + highcut) / 2.0, highcut - lowcut);
+        return new ButterworthOperator(butterworth);
+    }
+}
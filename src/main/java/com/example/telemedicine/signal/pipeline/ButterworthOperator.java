@@ -0,0 +1,24 @@
+package com.example.telemedicine.signal.pipeline;
+
+import uk.me.berndporr.iirj.Butterworth;
+
+/**
+ * Adapts an iirj Butterworth filter to {@link SampleOperator}.
+ */
+class ButterworthOperator implements SampleOperator {
+    private final Butterworth butterworth;
+
+    ButterworthOperator(Butterworth butterworth) {
+        this.butterworth = butterworth;
+    }
+
+    @Override
+    public double apply(double x) {
+        return butterworth.filter(x);
+    }
+
+    @Override
+    public void reset() {
+        butterworth.reset();
+    }
+}
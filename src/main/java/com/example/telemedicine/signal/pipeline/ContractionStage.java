@@ -0,0 +1,46 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.signal.ContractionResult;
+import com.example.telemedicine.signal.StreamingContractionDetector;
+import com.example.telemedicine.signal.StreamingDetector;
+
+/**
+ * {@code contractions(thresholdRatio,minDuration)}: EMG contraction detection on the envelope.
+ */
+public class ContractionStage implements AnalysisStage<ContractionResult> {
+    private final double thresholdRatio;
+    private final double minDurationSec;
+
+    public ContractionStage(double thresholdRatio, double minDurationSec) {
+        if (thresholdRatio <= 0 || minDurationSec < 0) {
+            throw new IllegalArgumentException("contractions needs a positive threshold ratio and a minimum duration");
+        }
+        this.thresholdRatio = thresholdRatio;
+        this.minDurationSec = minDurationSec;
+    }
+
+    @Override
+    public String getName() {
+        return "contractions(" + SignalPipeline.format(thresholdRatio) + "," + SignalPipeline.format(minDurationSec) + ")";
+    }
+
+    @Override
+    public Class<ContractionResult> getResultType() {
+        return ContractionResult.class;
+    }
+
+    @Override
+    public ContractionResult analyze(double[] samples, int length, double fs) {
+        return StreamingContractionDetector.detect(samples, length, fs, thresholdRatio, minDurationSec, null);
+    }
+
+    @Override
+    public ContractionResult analyze(float[] samples, int length, double fs) {
+        return StreamingContractionDetector.detect(samples, length, fs, thresholdRatio, minDurationSec);
+    }
+
+    @Override
+    public StreamingDetector newStreamingDetector(double fs) {
+        return new StreamingContractionDetector(fs, thresholdRatio, minDurationSec);
+    }
+}
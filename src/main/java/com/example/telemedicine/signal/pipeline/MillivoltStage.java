@@ -0,0 +1,57 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.signal.SignalKernels;
+
+/**
+ * {@code mv(vcc,resolution,gain)}: converts raw ADC values into millivolts,
+ * {@code ((value / 2^resolution) - 0.5) * vcc / gain * 1000}. Over a whole buffer the conversion
+ * runs on {@link SignalKernels}.
+ */
+public class MillivoltStage implements SampleStage {
+    private final double vcc;
+    private final int resolution;
+    private final int gain;
+    private final double scale;
+    private final double offset;
+
+    public MillivoltStage(double vcc, int resolution, int gain) {
+        if (resolution < 1 || resolution > 31 || gain == 0) {
+            throw new IllegalArgumentException("mv needs a resolution of 1-31 bits and a non-zero gain");
+        }
+        this.vcc = vcc;
+        this.resolution = resolution;
+        this.gain = gain;
+        this.scale = vcc / gain * 1000 / (1L << resolution);
+        this.offset = -0.5 * vcc / gain * 1000;
+    }
+
+    @Override
+    public String getName() {
+        return "mv(" + SignalPipeline.format(vcc) + "," + resolution + "," + gain + ")";
+    }
+
+    @Override
+    public boolean isFilter() {
+        return false;
+    }
+
+    @Override
+    public SampleOperator open(double fs) {
+        return new SampleOperator() {
+            @Override
+            public double apply(double x) {
+                return x * scale + offset;
+            }
+
+            @Override
+            public void reset() {
+            }
+        };
+    }
+
+    @Override
+    public boolean applyTo(double[] in, double[] out) {
+        SignalKernels.get().affine(in, scale, offset, out);
+        return true;
+    }
+}
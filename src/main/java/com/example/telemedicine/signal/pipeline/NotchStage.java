@@ -0,0 +1,40 @@
+package com.example.telemedicine.signal.pipeline;
+
+import uk.me.berndporr.iirj.Butterworth;
+
+/**
+ * {@code notch(frequency,q)}: 4th-order Butterworth band-stop around the mains frequency,
+ * {@code frequency / q} wide. Use 60 for the Americas and 50 for Europe.
+ */
+public class NotchStage implements SampleStage {
+    private final double frequency;
+    private final double q;
+
+    public NotchStage(double frequency, double q) {
+        if (frequency <= 0 || q <= 0) {
+            throw new IllegalArgumentException("notch needs a positive frequency and quality factor");
+        }
+        this.frequency = frequency;
+        this.q = q;
+    }
+
+    @Override
+    public String getName() {
+        return "notch(" + SignalPipeline.format(frequency) + "," + SignalPipeline.format(q) + ")";
+    }
+
+    @Override
+    public boolean isFilter() {
+        return true;
+    }
+
+    @Override
+    public SampleOperator open(double fs) {
+        if (frequency >= fs / 2) {
+            throw new IllegalArgumentException(getName() + " is above the Nyquist frequency of " + fs + " Hz");
+        }
+        Butterworth butterworth = new Butterworth();
+        butterworth.bandStop(4, fs, frequency, frequency / q);
+        return new ButterworthOperator(butterworth);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.signal.SignalPrecision;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Output of one {@link SignalPipeline#run}: the processed samples in the requested precision,
+ * the results of the analysis stages and the time spent in each step.
+ */
+public class PipelineRun {
+    private final SignalPrecision precision;
+    private final double[] samples;
+    private final float[] floatSamples;
+    private final int length;
+    private final Map<Class<?>, Object> results = new HashMap<>();
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+
+    PipelineRun(double[] samples, float[] floatSamples, int length) {
+        this.precision = floatSamples != null ? SignalPrecision.FLOAT : SignalPrecision.DOUBLE;
+        this.samples = samples;
+        this.floatSamples = floatSamples;
+        this.length = length;
+    }
+
+    void putResult(Class<?> type, Object result) {
+        results.put(type, result);
+    }
+
+    void putTiming(String step, long nanos) {
+        timings.put(step, nanos);
+    }
+
+    public SignalPrecision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return Processed samples of a DOUBLE run, exactly {@link #getLength()} long; null for FLOAT runs.
+     */
+    public double[] getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return Processed samples of a FLOAT run, exactly {@link #getLength()} long; null for DOUBLE runs.
+     */
+    public float[] getFloatSamples() {
+        return floatSamples;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param type Result type of an analysis stage, e.g. {@code QRSResult.class}.
+     * @return The result, or null when the pipeline has no stage producing it.
+     */
+    public <R> R getResult(Class<R> type) {
+        return type.cast(results.get(type));
+    }
+
+    /**
+     * @return Nanoseconds spent in each step of this run, in pipeline order.
+     */
+    public Map<String, Long> getTimings() {
+        return timings;
+    }
+}
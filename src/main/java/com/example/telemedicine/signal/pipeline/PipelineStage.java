@@ -0,0 +1,13 @@
+package com.example.telemedicine.signal.pipeline;
+
+/**
+ * One step of a {@link SignalPipeline}: either a {@link SampleStage} that rewrites the samples
+ * or an {@link AnalysisStage} that reads them and produces a result.
+ */
+public interface PipelineStage {
+
+    /**
+     * @return Canonical text of the stage as written in a pipeline definition, e.g. {@code notch(50,30)}.
+     */
+    String getName();
+}
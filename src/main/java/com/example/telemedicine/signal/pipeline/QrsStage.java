@@ -0,0 +1,40 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.signal.PanTompkinsDetector;
+import com.example.telemedicine.signal.QRSResult;
+import com.example.telemedicine.signal.StreamingDetector;
+
+import java.util.Arrays;
+
+/**
+ * {@code qrs}: Pan-Tompkins QRS detection.
+ */
+public class QrsStage implements AnalysisStage<QRSResult> {
+
+    @Override
+    public String getName() {
+        return "qrs";
+    }
+
+    @Override
+    public Class<QRSResult> getResultType() {
+        return QRSResult.class;
+    }
+
+    @Override
+    public QRSResult analyze(double[] samples, int length, double fs) {
+        return length == samples.length
+                ? PanTompkinsDetector.detect(samples, fs)
+                : PanTompkinsDetector.detect(Arrays.copyOf(samples, length), fs);
+    }
+
+    @Override
+    public QRSResult analyze(float[] samples, int length, double fs) {
+        return PanTompkinsDetector.detect(samples, length, fs);
+    }
+
+    @Override
+    public StreamingDetector newStreamingDetector(double fs) {
+        return new PanTompkinsDetector(fs);
+    }
+}
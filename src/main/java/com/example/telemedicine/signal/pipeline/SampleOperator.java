@@ -0,0 +1,19 @@
+package com.example.telemedicine.signal.pipeline;
+
+/**
+ * Stateful per-sample operator opened from a {@link SampleStage} for one signal.
+ */
+public interface SampleOperator {
+
+    /**
+     * Processes the next sample.
+     * @param x Input sample.
+     * @return Output sample.
+     */
+    double apply(double x);
+
+    /**
+     * Clears the filter state before the backward pass; a no-op for elementwise operators.
+     */
+    void reset();
+}
@@ -0,0 +1,32 @@
+package com.example.telemedicine.signal.pipeline;
+
+/**
+ * Stage that maps the sample buffer onto itself one sample at a time. Consecutive sample stages
+ * are fused by the engine into a single forward and backward pass over the buffer.
+ */
+public interface SampleStage extends PipelineStage {
+
+    /**
+     * @return true for IIR filters, which uploads run forwards and backwards for zero phase;
+     * false for elementwise maps, which run once in the forward pass.
+     */
+    boolean isFilter();
+
+    /**
+     * Creates an operator with empty state for a signal.
+     * @param fs Sampling frequency.
+     * @return A new operator.
+     */
+    SampleOperator open(double fs);
+
+    /**
+     * Applies an elementwise stage to a whole buffer at once, which the engine does when the stage
+     * comes before every filter of its pass.
+     * @param in Input samples.
+     * @param out Output, as long as the input; may be the input itself.
+     * @return false if the stage only works sample by sample through {@link #open(double)}.
+     */
+    default boolean applyTo(double[] in, double[] out) {
+        return false;
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.domain.LiveMarker;
+import com.example.telemedicine.signal.SignalPrecision;
+import com.example.telemedicine.signal.StreamingDetector;
+import com.example.telemedicine.signal.StreamingFilter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Processing chain for one signal type, parsed from a definition such as
+ * <pre>
+ * mv(3.0,10,1000) | bandpass(50,300,4) | notch(60,30) | contractions(0.165,0.10)
+ * </pre>
+ * Stages run in order on one output buffer. With fusion on, every run of sample stages becomes
+ * a single step: one forward pass applies all of them per sample and one backward pass applies
+ * the filters again for zero phase, instead of a read-write sweep per stage and direction.
+ * Because the filters are linear and time-invariant this matches running them one by one except
+ * for the edge transients, which last as long as the narrowest filter rings (a few seconds
+ * for the default notch). An elementwise stage after a filter starts a new step, since moving it into
+ * the backward pass would change the result. With fusion off, every stage is its own step,
+ * which gives a per-stage profile. Elementwise stages ahead of the first filter of a pass that
+ * have a whole-buffer form, such as {@code mv}, run as one {@link com.example.telemedicine.signal.SignalKernels}
+ * sweep of DOUBLE runs before the per-sample loop.
+ * <p>
+ * Pipelines are immutable and thread-safe; the operators holding filter state are opened per run.
+ */
+public class SignalPipeline {
+
+    private final String definition;
+    private final List<PipelineStage> stages;
+    private final List<Step> steps;
+
+    private SignalPipeline(List<PipelineStage> stages, boolean fuse) {
+        this.stages = List.copyOf(stages);
+        this.definition = String.join(" | ", this.stages.stream().map(PipelineStage::getName).toList());
+        this.steps = compile(this.stages, fuse);
+    }
+
+    /**
+     * Parses a pipeline definition: stages separated by {@code |}, each a name with optional
+     * numeric arguments in parentheses.
+     * @param definition Pipeline definition.
+     * @param fuse Whether consecutive sample stages are fused into one pass.
+     * @return The compiled pipeline.
+     * @throws IllegalArgumentException If a stage is unknown, has the wrong arguments or a result type repeats.
+     */
+    public static SignalPipeline parse(String definition, boolean fuse) {
+        if (definition == null || definition.isBlank()) {
+            throw new IllegalArgumentException("Empty pipeline definition");
+        }
+        List<PipelineStage> stages = new ArrayList<>();
+        for (String token : definition.split("\\|")) {
+            stages.add(parseStage(token.trim()));
+        }
+        return new SignalPipeline(stages, fuse);
+    }
+
+    private static PipelineStage parseStage(String token) {
+        String name = token;
+        double[] args = new double[0];
+        int open = token.indexOf('(');
+        if (open >= 0) {
+            if (!token.endsWith(")")) {
+                throw new IllegalArgumentException("Unbalanced parentheses in pipeline stage: " + token);
+            }
+            name = token.substring(0, open).trim();
+            String inner = token.substring(open + 1, token.length() - 1).trim();
+            if (!inner.isEmpty()) {
+                String[] parts = inner.split(",");
+                args = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    try {
+                        args[i] = Double.parseDouble(parts[i].trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid number in pipeline stage: " + token);
+                    }
+                }
+            }
+        }
+
+        if (name.equals("mv")) {
+            expectArgs(token, args, 3);
+            return new MillivoltStage(args[0], (int) args[1], (int) args[2]);
+        }
+        if (name.equals("bandpass")) {
+            expectArgs(token, args, 3);
+            return new BandpassStage(args[0], args[1], (int) args[2]);
+        }
+        if (name.equals("notch")) {
+            expectArgs(token, args, 2);
+            return new NotchStage(args[0], args[1]);
+        }
+        if (name.equals("qrs")) {
+            expectArgs(token, args, 0);
+            return new QrsStage();
+        }
+        if (name.equals("contractions")) {
+            expectArgs(token, args, 2);
+            return new ContractionStage(args[0], args[1]);
+        }
+        throw new IllegalArgumentException("Unknown pipeline stage: " + token);
+    }
+
+    private static void expectArgs(String token, double[] args, int count) {
+        if (args.length != count) {
+            throw new IllegalArgumentException("Pipeline stage " + token + " expects " + count + " arguments");
+        }
+    }
+
+    private static List<Step> compile(List<PipelineStage> stages, boolean fuse) {
+        List<Step> steps = new ArrayList<>();
+        Set<Class<?>> resultTypes = new HashSet<>();
+        List<SampleStage> pass = new ArrayList<>();
+        boolean passHasFilter = false;
+        for (PipelineStage stage : stages) {
+            if (stage instanceof SampleStage sample) {
+                boolean startNew = !fuse || (passHasFilter && !sample.isFilter());
+                if (startNew && !pass.isEmpty()) {
+                    steps.add(new PassStep(pass));
+                    pass = new ArrayList<>();
+                    passHasFilter = false;
+                }
+                pass.add(sample);
+                passHasFilter |= sample.isFilter();
+            } else {
+                AnalysisStage<?> analysis = (AnalysisStage<?>) stage;
+                if (!resultTypes.add(analysis.getResultType())) {
+                    throw new IllegalArgumentException("Pipeline has more than one " + stage.getName() + " stage");
+                }
+                if (!pass.isEmpty()) {
+                    steps.add(new PassStep(pass));
+                    pass = new ArrayList<>();
+                    passHasFilter = false;
+                }
+                steps.add(new AnalysisStep(analysis));
+            }
+        }
+        if (!pass.isEmpty()) {
+            steps.add(new PassStep(pass));
+        }
+        return List.copyOf(steps);
+    }
+
+    /**
+     * Runs the pipeline over a recording.
+     * @param raw Raw samples; not modified.
+     * @param fs Sampling frequency.
+     * @param precision Precision of the output buffer. FLOAT keeps the filter state in double and
+     *                  rounds each sample as it is written.
+     * @return Processed samples, analysis results and step timings.
+     */
+    public PipelineRun run(double[] raw, double fs, SignalPrecision precision) {
+        int length = raw.length;
+        PipelineRun run = precision == SignalPrecision.FLOAT
+                ? new PipelineRun(null, new float[length], length)
+                : new PipelineRun(new double[length], null, length);
+        boolean filled = false;
+        for (Step step : steps) {
+            long start = System.nanoTime();
+            if (step instanceof PassStep pass) {
+                pass.run(raw, filled, run, fs);
+                filled = true;
+            } else {
+                if (!filled) {
+                    copy(raw, run);
+                    filled = true;
+                }
+                ((AnalysisStep) step).run(run, fs);
+            }
+            long nanos = System.nanoTime() - start;
+            step.nanos.add(nanos);
+            step.runs.increment();
+            run.putTiming(step.name, nanos);
+        }
+        if (!filled) {
+            copy(raw, run);
+        }
+        return run;
+    }
+
+    /**
+     * Runs only the analysis stages over samples that have already been through the sample
+     * stages, such as a live recording that was filtered as it arrived.
+     * @param samples Processed samples; not modified.
+     * @param fs Sampling frequency.
+     * @return A run holding the samples and the analysis results.
+     */
+    public PipelineRun analyze(double[] samples, double fs) {
+        PipelineRun run = new PipelineRun(samples, null, samples.length);
+        for (Step step : steps) {
+            if (step instanceof AnalysisStep analysis) {
+                analysis.run(run, fs);
+            }
+        }
+        return run;
+    }
+
+    private static void copy(double[] raw, PipelineRun run) {
+        if (run.getFloatSamples() != null) {
+            float[] out = run.getFloatSamples();
+            for (int i = 0; i < raw.length; i++) out[i] = (float) raw[i];
+        } else {
+            System.arraycopy(raw, 0, run.getSamples(), 0, raw.length);
+        }
+    }
+
+    /**
+     * Creates a causal filter applying the sample stages forwards only, for samples that arrive
+     * live and cannot be filtered backwards.
+     * @param fs Sampling frequency.
+     * @return A new filter with empty state.
+     */
+    public StreamingFilter newStreamingFilter(double fs) {
+        List<SampleOperator> operators = new ArrayList<>();
+        for (PipelineStage stage : stages) {
+            if (stage instanceof SampleStage sample) {
+                operators.add(sample.open(fs));
+            }
+        }
+        return new StreamingFilter(operators.toArray(new SampleOperator[0]));
+    }
+
+    /**
+     * Creates the live counterpart of the analysis stages, fed the output of
+     * {@link #newStreamingFilter(double)} one sample at a time.
+     * @param fs Sampling frequency.
+     * @return A new detector with empty state; it finds nothing if no stage has a live form.
+     */
+    public StreamingDetector newStreamingDetector(double fs) {
+        List<StreamingDetector> detectors = new ArrayList<>();
+        for (PipelineStage stage : stages) {
+            if (stage instanceof AnalysisStage<?> analysis) {
+                StreamingDetector detector = analysis.newStreamingDetector(fs);
+                if (detector != null) detectors.add(detector);
+            }
+        }
+        if (detectors.size() == 1) {
+            return detectors.get(0);
+        }
+        return new StreamingDetector() {
+            @Override
+            public void process(double sample, long index, List<LiveMarker> markers) {
+                for (StreamingDetector detector : detectors) detector.process(sample, index, markers);
+            }
+
+            @Override
+            public Double getHeartRate() {
+                for (StreamingDetector detector : detectors) {
+                    if (detector.getHeartRate() != null) return detector.getHeartRate();
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return The definition in canonical form.
+     */
+    public String getDefinition() {
+        return definition;
+    }
+
+    public List<PipelineStage> getStages() {
+        return stages;
+    }
+
+    /**
+     * @return Cumulative time per step since startup, in pipeline order.
+     */
+    public List<StageTiming> getTimings() {
+        List<StageTiming> timings = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            timings.add(new StageTiming(step.name, step.runs.sum(), step.nanos.sum()));
+        }
+        return timings;
+    }
+
+    static String format(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private abstract static class Step {
+        final String name;
+        final LongAdder nanos = new LongAdder();
+        final LongAdder runs = new LongAdder();
+
+        Step(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class AnalysisStep extends Step {
+        private final AnalysisStage<?> stage;
+
+        AnalysisStep(AnalysisStage<?> stage) {
+            super(stage.getName());
+            this.stage = stage;
+        }
+
+        void run(PipelineRun run, double fs) {
+            Object result = run.getFloatSamples() != null
+                    ? stage.analyze(run.getFloatSamples(), run.getLength(), fs)
+                    : stage.analyze(run.getSamples(), run.getLength(), fs);
+            run.putResult(stage.getResultType(), result);
+        }
+    }
+
+    private static final class PassStep extends Step {
+        private final List<SampleStage> stages;
+        private final boolean hasFilter;
+
+        PassStep(List<SampleStage> stages) {
+            super(String.join("+", stages.stream().map(PipelineStage::getName).toList()));
+            this.stages = List.copyOf(stages);
+            this.hasFilter = stages.stream().anyMatch(SampleStage::isFilter);
+        }
+
+        void run(double[] raw, boolean inPlace, PipelineRun run, double fs) {
+            SampleOperator[] all = new SampleOperator[stages.size()];
+            List<SampleOperator> filters = new ArrayList<>();
+            for (int s = 0; s < all.length; s++) {
+                all[s] = stages.get(s).open(fs);
+                if (stages.get(s).isFilter()) filters.add(all[s]);
+            }
+            SampleOperator[] backward = filters.toArray(new SampleOperator[0]);
+
+            int length = run.getLength();
+            if (run.getFloatSamples() != null) {
+                float[] out = run.getFloatSamples();
+                for (int i = 0; i < length; i++) {
+                    double x = inPlace ? out[i] : raw[i];
+                    for (SampleOperator op : all) x = op.apply(x);
+                    out[i] = (float) x;
+                }
+                if (hasFilter) {
+                    for (SampleOperator filter : backward) filter.reset();
+                    for (int i = length - 1; i >= 0; i--) {
+                        double x = out[i];
+                        for (SampleOperator op : backward) x = op.apply(x);
+                        out[i] = (float) x;
+                    }
+                }
+            } else {
+                double[] out = run.getSamples();
+                double[] in = inPlace ? out : raw;
+                int first = 0;
+                while (first < all.length && !stages.get(first).isFilter() && stages.get(first).applyTo(in, out)) {
+                    in = out;
+                    first++;
+                }
+                SampleOperator[] forward = first == 0 ? all : Arrays.copyOfRange(all, first, all.length);
+                if (forward.length > 0) {
+                    for (int i = 0; i < length; i++) {
+                        double x = in[i];
+                        for (SampleOperator op : forward) x = op.apply(x);
+                        out[i] = x;
+                    }
+                }
+                if (hasFilter) {
+                    for (SampleOperator filter : backward) filter.reset();
+                    for (int i = length - 1; i >= 0; i--) {
+                        double x = out[i];
+                        for (SampleOperator op : backward) x = op.apply(x);
+                        out[i] = x;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.telemedicine.signal.pipeline;
+
+import lombok.Getter;
+
+/**
+ * Cumulative time spent in one step of a pipeline. Fused sample stages share a step and are
+ * reported under their names joined with {@code +}.
+ */
+@Getter
+public class StageTiming {
+    private final String stage;
+    private final long runs;
+    private final double totalMs;
+    private final double meanMs;
+
+    public StageTiming(String stage, long runs, long totalNanos) {
+        this.stage = stage;
+        this.runs = runs;
+        this.totalMs = totalNanos / 1e6;
+        this.meanMs = runs == 0 ? 0 : totalNanos / 1e6 / runs;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.telemedicine.storage;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Storage for large immutable binaries (report PDFs, session CSV files) kept
+ * outside the database. Blobs are addressed by their content, so the database
+ * only stores the returned key and identical files are stored once.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores a blob, or does nothing if the same content is already stored.
+     *
+     * @param data content to store
+     * @return key of the blob
+     * @throws IOException if the blob cannot be written
+     */
+    String put(byte[] data) throws IOException;
+
+    /**
+     * @param key key returned by {@link #put(byte[])}
+     * @return whether a blob exists for the key
+     */
+    boolean exists(String key);
+
+    /**
+     * @param key key returned by {@link #put(byte[])}
+     * @return size of the blob in bytes
+     * @throws IOException if the blob does not exist or cannot be read
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * Reads a whole blob into memory.
+     *
+     * @param key key returned by {@link #put(byte[])}
+     * @return the blob content
+     * @throws IOException if the blob does not exist or cannot be read
+     */
+    byte[] read(String key) throws IOException;
+
+    /**
+     * Copies a byte range of a blob to a channel without staging it in the heap.
+     *
+     * @param key    key returned by {@link #put(byte[])}
+     * @param offset first byte to copy
+     * @param length number of bytes to copy
+     * @param target destination channel
+     * @throws IOException if the blob cannot be read or the target cannot be written
+     */
+    void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,118 @@
+package com.example.telemedicine.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} backed by the local file system.
+ * Blobs are named by the SHA-256 of their content and sharded into two levels of
+ * directories (ab/cd/abcd...) to keep directories small. New blobs are written to
+ * a temporary file, flushed to disk and atomically renamed into place, so readers
+ * never observe a partially written blob.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public FileSystemBlobStore(@Value("${storage.blobs.root:data/blobs}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+    }
+
+    @Override
+    public String put(byte[] data) throws IOException {
+        String key = sha256(data);
+        Path target = pathOf(key);
+        if (Files.exists(target)) {
+            return key;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(tmpDir, key, ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // another writer stored the same content first
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return key;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return KEY_PATTERN.matcher(key).matches() && Files.exists(pathOf(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(pathOf(key));
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return Files.readAllBytes(pathOf(key));
+    }
+
+    @Override
+    public void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathOf(key), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = Math.min(length, channel.size() - offset);
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private Path pathOf(String key) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+-- Incremental, idempotent upgrades on top of the base schema, which must exist first. Not run on startup unless
+-- spring.sql.init.mode is set to always (see application-local.yml.template); otherwise apply with psql -f.
+
+-- Report PDFs and session CSV files live in the blob store; rows keep the SHA-256 key.
+-- Rows created before this change keep their inline bytes until first read.
+ALTER TABLE report ADD COLUMN IF NOT EXISTS file_ref VARCHAR(64);
+ALTER TABLE measurement_sessions ADD COLUMN IF NOT EXISTS session_file_ref VARCHAR(64);
+
+-- Min/max overview pyramid built at ingest (see SignalPyramid) and the number of stored samples.
+ALTER TABLE signals ADD COLUMN IF NOT EXISTS pyramid BYTEA;
+ALTER TABLE signals ADD COLUMN IF NOT EXISTS sample_count INTEGER;
+
+-- Heart rate and HRV features of each ECG signal, computed at ingest (see ECGProcessor.computeFeatures).
+-- RR intervals are stored in ms, comma separated like the samples.
+CREATE TABLE IF NOT EXISTS ecg_features (
+    signal_id BIGINT PRIMARY KEY REFERENCES signals(signal_id) ON DELETE CASCADE,
+    beat_count INTEGER NOT NULL,
+    mean_hr DOUBLE PRECISION,
+    min_hr DOUBLE PRECISION,
+    max_hr DOUBLE PRECISION,
+    sdnn DOUBLE PRECISION,
+    rmssd DOUBLE PRECISION,
+    pnn50 DOUBLE PRECISION,
+    rr_intervals TEXT
+);
+
+-- RMS and spectral (Welch PSD) features of each EMG contraction, computed at ingest.
+CREATE TABLE IF NOT EXISTS emg_features (
+    signal_id BIGINT NOT NULL REFERENCES signals(signal_id) ON DELETE CASCADE,
+    contraction_index INTEGER NOT NULL,
+    onset_sample INTEGER NOT NULL,
+    offset_sample INTEGER NOT NULL,
+    rms DOUBLE PRECISION NOT NULL,
+    mean_frequency DOUBLE PRECISION NOT NULL,
+    median_frequency DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (signal_id, contraction_index)
+);
+
+-- Rate the device recorded at; fs is the analysis rate the stored samples were resampled to.
+ALTER TABLE signals ADD COLUMN IF NOT EXISTS source_fs INTEGER;
+
+-- Score of the upload quality gate, 0-1; null for live recordings and older signals.
+ALTER TABLE signals ADD COLUMN IF NOT EXISTS quality_score DOUBLE PRECISION;
+
+-- Channel index within a multi-channel recording; the channels share session and time_stamp. Null for single-channel signals.
+ALTER TABLE signals ADD COLUMN IF NOT EXISTS channel INTEGER;
+
+-- Checkpoint of the historical signal import (see SignalImportService): files already copied, written in the
+-- same transaction as their signals so an interrupted import resumes where it stopped.
+CREATE TABLE IF NOT EXISTS signal_imports (
+    path TEXT PRIMARY KEY,
+    signal_count INTEGER NOT NULL,
+    imported_at TIMESTAMP NOT NULL
+);
+
+-- Chunks of a live recording in arrival order (see DeviceIngestService). Appending to patient_data would
+-- rewrite the whole value on every chunk; finishLiveSignal joins the chunks into patient_data and deletes them.
+CREATE TABLE IF NOT EXISTS signal_chunks (
+    signal_id BIGINT NOT NULL REFERENCES signals(signal_id) ON DELETE CASCADE,
+    seq INTEGER NOT NULL,
+    data TEXT NOT NULL,
+    PRIMARY KEY (signal_id, seq)
+);
+
+-- Sessions stored by a batch upload sent with an Idempotency-Key header, in the same transaction as the session,
+-- so a retried batch returns them instead of storing them twice.
+CREATE TABLE IF NOT EXISTS batch_upload_sessions (
+    patient_id BIGINT NOT NULL REFERENCES patients(patient_id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(255) NOT NULL,
+    session_index INTEGER NOT NULL,
+    session_id BIGINT NOT NULL REFERENCES measurement_sessions(session_id) ON DELETE CASCADE,
+    PRIMARY KEY (patient_id, idempotency_key, session_index)
+);
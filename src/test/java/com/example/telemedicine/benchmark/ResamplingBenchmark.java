@@ -0,0 +1,67 @@
+package com.example.telemedicine.benchmark;
+
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.signal.ContractionResult;
+import com.example.telemedicine.signal.PolyphaseResampler;
+import com.example.telemedicine.signal.SignalPrecision;
+import com.example.telemedicine.signal.pipeline.SignalPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the EMG upload pipeline (conversion, band-pass, notch, contraction detection) on one minute
+ * of signal recorded at 2 kHz and 4 kHz, once at the device rate and once after resampling to the
+ * 1 kHz analysis rate. Started the same way as {@link SignalKernelsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResamplingBenchmark {
+
+    private static final int ANALYSIS_RATE = 1000;
+    private static final SignalPipeline EMG = SignalPipeline.parse(SignalPipelines.DEFAULT_EMG, false);
+
+    @Param({"2000", "4000"})
+    private int fs;
+
+    private double[] raw;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        raw = new double[fs * 60];
+        for (int i = 0; i < raw.length; i++) {
+            boolean contraction = (i / fs) % 4 == 1;
+            raw[i] = 512 + random.nextGaussian() * (contraction ? 120 : 10);
+        }
+    }
+
+    @Benchmark
+    public ContractionResult deviceRate() {
+        return pipeline(raw, fs);
+    }
+
+    @Benchmark
+    public ContractionResult analysisRate() {
+        return pipeline(PolyphaseResampler.of(fs, ANALYSIS_RATE).resample(raw), ANALYSIS_RATE);
+    }
+
+    private static ContractionResult pipeline(double[] samples, int rate) {
+        return EMG.run(samples, rate, SignalPrecision.DOUBLE).getResult(ContractionResult.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.telemedicine.benchmark;
+
+import com.example.telemedicine.signal.SignalKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API backends of {@link SignalKernels} on one minute of signal
+ * at 1 kHz and at 10 kHz. Not run by the test suite; after {@code mvn -Pvector test-compile}, which
+ * compiles the vector backend, start it with
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     org.openjdk.jmh.Main SignalKernelsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SignalKernelsBenchmark {
+
+    @Param({"60000", "600000"})
+    private int samples;
+
+    @Param({"scalar", "vector"})
+    private String backend;
+
+    private SignalKernels kernels;
+    private double[] signal;
+    private double[] out;
+    private boolean[] mask;
+
+    @Setup
+    public void setUp() {
+        kernels = "vector".equals(backend) ? SignalKernels.vector() : SignalKernels.scalar();
+        Random random = new Random(42);
+        signal = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            signal[i] = random.nextInt(1024);
+        }
+        out = new double[samples];
+        mask = new boolean[samples];
+    }
+
+    @Benchmark
+    public double[] convertToMV() {
+        kernels.affine(signal, 3.3 / 1100 * 1000 / 1024, -0.5 * 3.3 / 1100 * 1000, out);
+        return out;
+    }
+
+    @Benchmark
+    public boolean[] aboveThreshold() {
+        kernels.greaterThan(signal, 512, mask);
+        return mask;
+    }
+
+    @Benchmark
+    public double max() {
+        return kernels.max(signal);
+    }
+
+    @Benchmark
+    public double min() {
+        return kernels.min(signal);
+    }
+}
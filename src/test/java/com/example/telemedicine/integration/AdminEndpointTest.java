@@ -122,4 +122,14 @@ public class AdminEndpointTest {
                 .andExpect(jsonPath("$.error").value("Unable to retrieve status: Error fetching status"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void pipelines_Success() throws Exception {
+        mockMvc.perform(get("/api/admin/pipelines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ECG.definition").value("mv(3.3,10,1100) | bandpass(5,15,4) | notch(60,30) | qrs"))
+                .andExpect(jsonPath("$.EMG.timings[0].stage").value("mv(3,10,1000)+bandpass(50,300,4)+notch(60,30)"))
+                .andExpect(jsonPath("$.EMG.timings[1].stage").value("contractions(0.165,0.1)"));
+    }
+
 }
@@ -4,6 +4,8 @@ import com.example.telemedicine.domain.*;
 import com.example.telemedicine.security.JwtService;
 import com.example.telemedicine.service.AuthService;
 import com.example.telemedicine.service.DoctorService;
+import com.example.telemedicine.service.LiveSessionBroadcaster;
+import com.example.telemedicine.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -38,6 +41,12 @@ public class DoctorEndpointsTest {
     @Autowired
     private DoctorService doctorService;
 
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private LiveSessionBroadcaster liveSessionBroadcaster;
+
     @MockBean
     private JwtService jwtService;
 
@@ -171,6 +180,72 @@ public class DoctorEndpointsTest {
                 .andExpect(jsonPath("$.doctorId").value(doctorId));
     }
 
+    @Test
+    void downloadReportConditionalAndRangeTest() throws Exception {
+        String body = mockMvc.perform(post("/api/doctors/" + doctorId + "/report/1/generate")
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long reportId = objectMapper.readTree(body).get("reportId").asLong();
+
+        MvcResult full = mockMvc.perform(get("/api/doctors/reports/" + reportId)
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String eTag = full.getResponse().getHeader("ETag");
+
+        mockMvc.perform(asyncDispatch(full))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF));
+
+        mockMvc.perform(get("/api/doctors/reports/" + reportId)
+                        .header("Authorization", "Bearer dummy")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        MvcResult partial = mockMvc.perform(get("/api/doctors/reports/" + reportId)
+                        .header("Authorization", "Bearer dummy")
+                        .header("Range", "bytes=0-3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(partial))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("%PDF"));
+    }
+
+    @Test
+    void submitAndPollReportJobTest() throws Exception {
+        ReportJobRequest request = new ReportJobRequest(List.of(1L, 2L), "Bulk comment");
+
+        String body = mockMvc.perform(post("/api/doctors/" + doctorId + "/reports/jobs")
+                        .header("Authorization", "Bearer dummy")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").isString())
+                .andExpect(jsonPath("$.totalSessions").value(2))
+                .andReturn().getResponse().getContentAsString();
+
+        String jobId = objectMapper.readTree(body).get("jobId").asText();
+
+        mockMvc.perform(get("/api/doctors/" + doctorId + "/reports/jobs/" + jobId)
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId").value(jobId))
+                .andExpect(jsonPath("$.progress").isNumber());
+    }
+
+    @Test
+    void submitEmptyReportJobTest() throws Exception {
+        mockMvc.perform(post("/api/doctors/" + doctorId + "/reports/jobs")
+                        .header("Authorization", "Bearer dummy")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReportJobRequest(List.of(), null))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getMyReportsTest() throws Exception {
         mockMvc.perform(get("/api/doctors/me/reports")
@@ -186,4 +261,37 @@ public class DoctorEndpointsTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void monitorSessionNotRecordingTest() throws Exception {
+        mockMvc.perform(get("/api/doctors/" + doctorId + "/sessions/999999999/live")
+                        .header("Authorization", "Bearer dummy")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/doctors/" + (doctorId + 1) + "/sessions/999999999/live")
+                        .header("Authorization", "Bearer dummy")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void monitorSessionOfOtherPatientTest() throws Exception {
+        User user = new User();
+        user.setEmail("patient_" + System.currentTimeMillis() + "@example.com");
+        user.setPassword(password);
+        user.setRole(Role.PATIENT);
+        authService.register(user);
+        Long patientId = authService.login(user.getEmail(), password).getPatientId();
+        Long sessionId = patientService.startNewSession(patientId).getSessionId();
+
+        liveSessionBroadcaster.open(sessionId);
+        try {
+            mockMvc.perform(get("/api/doctors/" + doctorId + "/sessions/" + sessionId + "/live")
+                            .header("Authorization", "Bearer dummy")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isNotFound());
+        } finally {
+            liveSessionBroadcaster.close(sessionId);
+        }
+    }
 }
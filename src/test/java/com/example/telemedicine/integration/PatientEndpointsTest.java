@@ -3,30 +3,45 @@ package com.example.telemedicine.integration;
 import com.example.telemedicine.domain.*;
 import com.example.telemedicine.repository.PatientRepository;
 import com.example.telemedicine.service.AuthService;
+import com.example.telemedicine.service.SignalImportService;
 import com.example.telemedicine.security.JwtService;
+import com.example.telemedicine.signal.BufferArena;
+import com.example.telemedicine.signal.SignalCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "device.port=file:target/device-test.txt")
 @AutoConfigureMockMvc
 public class PatientEndpointsTest {
 
@@ -42,6 +57,9 @@ public class PatientEndpointsTest {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private SignalImportService signalImportService;
+
     @MockBean
     private JwtService jwtService;
 
@@ -162,6 +180,357 @@ public class PatientEndpointsTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void getSessionSignalHeadersTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+        uploadSignalJson(sessionId, SignalType.ECG, "1,2,3", 100);
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].signalType").value("ECG"))
+                .andExpect(jsonPath("$[0].fs").value(100))
+                .andExpect(jsonPath("$[0].patientSignalData").doesNotExist());
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "samples"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void uploadResampledToAnalysisRateTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+        StringBuilder file = new StringBuilder("4000\n");
+        for (int i = 0; i < 4000; i++) {
+            if (i > 0) file.append(',');
+            file.append(512 + Math.round(100 * Math.sin(2 * Math.PI * 80 * i / 4000.0)));
+        }
+        mockMvc.perform(multipart("/api/patients/sessions/" + sessionId + "/emg")
+                        .file("file", file.toString().getBytes())
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fs").value(1000));
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fs").value(1000))
+                .andExpect(jsonPath("$[0].sourceFs").value(4000))
+                .andExpect(jsonPath("$[0].sampleCount").value(1000));
+    }
+
+    @Test
+    void getSessionSignalsBinaryTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+        uploadSignalJson(sessionId, SignalType.ECG, "1.5,2,3", 100);
+
+        MvcResult result = mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals")
+                        .accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<SignalSamples> signals = SignalCodec.read(new ByteArrayInputStream(body));
+        assertEquals(1, signals.size());
+        assertEquals(SignalType.ECG, signals.get(0).getSignalType());
+        assertArrayEquals(new float[]{1.5f, 2f, 3f}, signals.get(0).getSamples());
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    void getSignalViewTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        byte[] bytes = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50)).getBytes();
+        String body = mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/ecg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long signalId = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/view")
+                        .param("start", "1")
+                        .param("end", "4")
+                        .param("points", "50")
+                        .param("mode", "LTTB"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSamples").value(500))
+                .andExpect(jsonPath("$.values.length()").value(50))
+                .andExpect(jsonPath("$.time[0]").value(1.0));
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/view").param("points", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSignalChartTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        byte[] bytes = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(100)).getBytes();
+        String body = mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/emg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long signalId = objectMapper.readTree(body).get("id").asLong();
+
+        byte[] png = mockMvc.perform(get("/api/patients/signals/" + signalId + "/chart")
+                        .param("width", "400")
+                        .param("height", "200"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals((byte) 0x89, png[0]);
+        assertEquals('P', png[1]);
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/chart")
+                        .param("start", "2")
+                        .param("end", "5")
+                        .param("format", "SVG"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"));
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/chart").param("width", "10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/patients/signals/999999999/chart"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getSignalOverviewTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        byte[] bytes = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(500)).getBytes();
+        String body = mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/emg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long signalId = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/overview").param("points", "300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSamples").value(5000))
+                .andExpect(jsonPath("$.mode").value("MINMAX"))
+                .andExpect(jsonPath("$.values.length()").value(300))
+                .andExpect(jsonPath("$.values[0]").value(1.0))
+                .andExpect(jsonPath("$.values[1]").value(9.0));
+
+        mockMvc.perform(get("/api/patients/signals/999999999/overview"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getEcgFeaturesTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        // one 40 ms pulse every 400 samples at 500 Hz: 75 bpm
+        StringBuilder file = new StringBuilder("500\n");
+        for (int i = 0; i < 5000; i++) {
+            int k = i % 400;
+            file.append(512 + (k < 20 ? 40 * Math.min(k, 20 - k) : 0)).append(',');
+        }
+        String body = mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/ecg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(file.toString().getBytes()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long signalId = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/features"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.signalId").value(signalId))
+                .andExpect(jsonPath("$.beatCount").value(13))
+                .andExpect(jsonPath("$.meanHr").value(75.0))
+                .andExpect(jsonPath("$.rmssd").value(0.0))
+                .andExpect(jsonPath("$.rrIntervals.length()").value(12));
+
+        mockMvc.perform(get("/api/patients/signals/999999999/features"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getEmgContractionsTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        // one second of broadband activity between two quiet stretches at 1000 Hz
+        Random random = new Random(7);
+        StringBuilder file = new StringBuilder("1000\n");
+        for (int i = 0; i < 4000; i++) {
+            boolean active = i >= 1500 && i < 2500;
+            file.append(512 + (active ? random.nextInt(401) - 200 : random.nextInt(5) - 2)).append(',');
+        }
+        String body = mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/emg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(file.toString().getBytes()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long signalId = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/patients/signals/" + signalId + "/contractions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].signalId").value(signalId))
+                .andExpect(jsonPath("$[0].medianFrequency").value(greaterThan(50.0)))
+                .andExpect(jsonPath("$[0].medianFrequency").value(lessThan(300.0)));
+    }
+
+    @Test
+    void uploadFlatlineRejectedTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        // electrodes off: three seconds of a constant value, plus one corrupted token
+        byte[] bytes = ("1000\n" + "512,".repeat(1500) + "5x2," + "512,".repeat(1500)).getBytes();
+        mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/emg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.sampleCount").value(3001))
+                .andExpect(jsonPath("$.invalidSamples").value(1))
+                .andExpect(jsonPath("$.flatlineRatio").value(greaterThan(0.99)))
+                .andExpect(jsonPath("$.problems.length()").value(2));
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void uploadTruncatedRejectedTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        byte[] bytes = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50)).getBytes();
+        mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/ecg")
+                        .param("duration", "10")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.expectedSamples").value(1000))
+                .andExpect(jsonPath("$.problems[0]").value("The recording is truncated: 500 of 1000 expected samples"));
+
+        mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/ecg")
+                        .param("duration", "5")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].qualityScore").value(greaterThan(0.9)));
+    }
+
+    @Test
+    void signalBuffersReturnedAfterUploadTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        Random random = new Random(3);
+        StringBuilder file = new StringBuilder("1000\n");
+        for (int i = 0; i < 4000; i++) {
+            boolean active = i >= 1000 && i < 3000;
+            file.append(512 + (active ? random.nextInt(401) - 200 : random.nextInt(5) - 2)).append(',');
+        }
+        byte[] bytes = file.toString().getBytes();
+
+        BufferArena arena = BufferArena.current();
+        mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/emg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isOk());
+        assertEquals(0, arena.getOutstanding());
+
+        long allocations = arena.getAllocations();
+        mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/emg")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(bytes))
+                .andExpect(status().isOk());
+        assertEquals(0, arena.getOutstanding());
+        assertEquals(allocations, arena.getAllocations());
+    }
+
+    @Test
+    void resumableUploadTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+        byte[] file = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50)).getBytes();
+
+        String body = mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/uploads").param("type", "ECG"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.committedOffset").value(0))
+                .andReturn().getResponse().getContentAsString();
+        String uploadId = objectMapper.readTree(body).get("uploadId").asText();
+
+        mockMvc.perform(put("/api/patients/uploads/" + uploadId).param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(file, 0, 300)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committedOffset").value(300));
+
+        mockMvc.perform(put("/api/patients/uploads/" + uploadId).param("offset", "400")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(file, 400, file.length)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.committedOffset").value(300));
+
+        mockMvc.perform(put("/api/patients/uploads/" + uploadId).param("offset", "250")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(file, 250, file.length)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committedOffset").value(file.length));
+
+        mockMvc.perform(post("/api/patients/uploads/" + uploadId + "/finalize"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.signalType").value("ECG"))
+                .andExpect(jsonPath("$.fs").value(100));
+
+        mockMvc.perform(get("/api/patients/uploads/" + uploadId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void recordFromDeviceTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+        Files.writeString(Path.of("target/device-test.txt"), "512,600,700\n".repeat(1000));
+
+        mockMvc.perform(post("/api/patients/sessions/" + sessionId + "/device/start")
+                        .param("type", "ECG")
+                        .param("fs", "1000"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("RECORDING"));
+
+        String status = "RECORDING";
+        for (int i = 0; i < 100 && status.equals("RECORDING"); i++) {
+            Thread.sleep(100);
+            String body = mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/device"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(body).get("status").asText();
+        }
+        assertEquals("COMPLETED", status);
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].signalType").value("ECG"))
+                .andExpect(jsonPath("$[0].sampleCount").value(3000));
+    }
+
     @Test
     void getSessionSymptomsTest() throws Exception {
         long sessionId = startSessionAndReturnId();
@@ -220,6 +589,157 @@ public class PatientEndpointsTest {
                 .andExpect(jsonPath("$.signalType").value("EMG"));
     }
 
+    @Test
+    void uploadMultiChannelFileTest() throws Exception {
+        long sessionId = startSessionAndReturnId();
+        postSymptoms(sessionId, SymptomType.FEVER);
+
+        StringBuilder frames = new StringBuilder("1000,3\n");
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            for (int c = 0; c < 3; c++) {
+                frames.append(512 + random.nextInt(101) - 50 + c * 10).append(',');
+            }
+        }
+        mockMvc.perform(multipart("/api/patients/sessions/" + sessionId + "/channels")
+                        .file("file", frames.toString().getBytes())
+                        .param("type", "EMG")
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.channels.length()").value(3))
+                .andExpect(jsonPath("$.channels[2].channel").value(2))
+                .andExpect(jsonPath("$.channels[0].signalType").value("EMG"));
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[1].channel").value(1));
+
+        mockMvc.perform(multipart("/api/patients/sessions/" + sessionId + "/channels")
+                        .file("file", "1000,3\n1,2,3,4".getBytes())
+                        .param("type", "EMG")
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void uploadBatchTest() throws Exception {
+        byte[] ecg = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50)).getBytes();
+        byte[] emg = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50)).getBytes();
+        byte[] flat = ("1000\n" + "512,".repeat(3000)).getBytes();
+        List<BatchSessionRequest> manifest = List.of(
+                new BatchSessionRequest(LocalDateTime.of(2025, 3, 1, 9, 30), Set.of(SymptomType.FEVER), List.of(
+                        new BatchSignalRequest("ecg1", SignalType.ECG, null),
+                        new BatchSignalRequest("emg1", SignalType.EMG, 5.0))),
+                new BatchSessionRequest(null, Set.of(SymptomType.FATIGUE), List.of(
+                        new BatchSignalRequest("flat", SignalType.EMG, null))));
+
+        String body = mockMvc.perform(multipart("/api/patients/sessions/batch/me")
+                        .file(new MockMultipartFile("manifest", "", MediaType.APPLICATION_JSON_VALUE,
+                                objectMapper.writeValueAsBytes(manifest)))
+                        .file("ecg1", ecg)
+                        .file("emg1", emg)
+                        .file("flat", flat)
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[0].signals.length()").value(2))
+                .andExpect(jsonPath("$[1].session").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value(containsString("flat")))
+                .andReturn().getResponse().getContentAsString();
+        long sessionId = objectMapper.readTree(body).get(0).get("session").get("sessionId").asLong();
+
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/symptoms"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("FEVER"));
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/signals").param("fields", "header"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/patients/sessions/" + sessionId + "/session-file"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(multipart("/api/patients/sessions/batch/me")
+                        .file(new MockMultipartFile("manifest", "", MediaType.APPLICATION_JSON_VALUE,
+                                objectMapper.writeValueAsBytes(manifest)))
+                        .file("ecg1", ecg)
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void uploadBatchRetryWithIdempotencyKeyTest() throws Exception {
+        byte[] ecg = ("100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50)).getBytes();
+        byte[] flat = ("1000\n" + "512,".repeat(3000)).getBytes();
+        List<BatchSessionRequest> manifest = List.of(
+                new BatchSessionRequest(null, Set.of(SymptomType.FEVER), List.of(
+                        new BatchSignalRequest("ecg1", SignalType.ECG, null))),
+                new BatchSessionRequest(null, Set.of(SymptomType.FATIGUE), List.of(
+                        new BatchSignalRequest("flat", SignalType.EMG, null))));
+        String key = "retry-" + System.nanoTime();
+
+        String first = mockMvc.perform(multipart("/api/patients/sessions/batch/me")
+                        .file(new MockMultipartFile("manifest", "", MediaType.APPLICATION_JSON_VALUE,
+                                objectMapper.writeValueAsBytes(manifest)))
+                        .file("ecg1", ecg)
+                        .file("flat", flat)
+                        .header("Idempotency-Key", key)
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].replayed").value(false))
+                .andExpect(jsonPath("$[0].files[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].files[0].file").value("flat"))
+                .andExpect(jsonPath("$[1].files[0].error").exists())
+                .andReturn().getResponse().getContentAsString();
+        long sessionId = objectMapper.readTree(first).get(0).get("session").get("sessionId").asLong();
+
+        mockMvc.perform(multipart("/api/patients/sessions/batch/me")
+                        .file(new MockMultipartFile("manifest", "", MediaType.APPLICATION_JSON_VALUE,
+                                objectMapper.writeValueAsBytes(manifest)))
+                        .file("ecg1", ecg)
+                        .file("flat", flat)
+                        .header("Idempotency-Key", key)
+                        .header("Authorization", "Bearer dummy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].replayed").value(true))
+                .andExpect(jsonPath("$[0].session.sessionId").value(sessionId))
+                .andExpect(jsonPath("$[0].signals.length()").value(1))
+                .andExpect(jsonPath("$[1].replayed").value(false))
+                .andExpect(jsonPath("$[1].session").doesNotExist());
+
+        // the first session was stored once, the rejected one never
+        assertEquals(1, patientRepository.findSessionsByPatientId(patientId).size());
+    }
+
+    @Test
+    void importHistoricalSignalsTest(@TempDir Path dir) throws Exception {
+        long sessionId = patientRepository.startNewSession(patientId).getSessionId();
+        patientRepository.saveSymptoms(sessionId, Set.of(SymptomType.FEVER));
+
+        Files.writeString(dir.resolve(sessionId + "_ECG.txt"), "100\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(50));
+        Files.createDirectories(dir.resolve("emg"));
+        Files.writeString(dir.resolve("emg/" + sessionId + "_EMG_legs.txt"), "100,2\n" + "1,5,2,8,3,9,1,4,2,7,".repeat(100));
+        Files.writeString(dir.resolve(sessionId + "_EMG_flat.txt"), "1000\n" + "512,".repeat(3000));
+        Files.writeString(dir.resolve("999999999_ECG.txt"), "100\n1,2,3,4");
+        Files.writeString(dir.resolve("notes.txt"), "not a recording");
+
+        SignalImportSummary first = signalImportService.importDirectory(dir);
+        assertEquals(4, first.getFiles());
+        assertEquals(2, first.getImported());
+        assertEquals(2, first.getFailed());
+        assertEquals(3, first.getSignals());
+
+        List<SignalHeader> headers = patientRepository.findSignalHeadersBySessionId(sessionId);
+        assertEquals(3, headers.size());
+        assertNotNull(patientRepository.findEcgFeaturesBySignalId(
+                headers.stream().filter(h -> h.getSignalType() == SignalType.ECG).findFirst().orElseThrow().getId()));
+
+        SignalImportSummary second = signalImportService.importDirectory(dir);
+        assertEquals(2, second.getAlreadyImported());
+        assertEquals(0, second.getImported());
+        assertEquals(3, patientRepository.findSignalHeadersBySessionId(sessionId).size());
+    }
+
     @Test
     void uploadEcgFileTest() throws Exception {
         long sessionId = startSessionAndReturnId();
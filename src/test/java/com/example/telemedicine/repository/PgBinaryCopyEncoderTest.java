@@ -0,0 +1,67 @@
+package com.example.telemedicine.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the binary COPY framing byte by byte against the PostgreSQL format.
+ */
+class PgBinaryCopyEncoderTest {
+
+    @Test
+    void rowLayoutTest() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PgBinaryCopyEncoder copy = new PgBinaryCopyEncoder(bytes)) {
+            copy.row(6);
+            copy.integer(7, "int4");
+            copy.integer(8L, "int8");
+            copy.integer(null, "int4");
+            copy.floating(1.5, "float8");
+            copy.text("ab");
+            copy.timestamp(LocalDateTime.of(2000, 1, 1, 0, 0, 1), "timestamp");
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+        byte[] signature = new byte[11];
+        in.get(signature);
+        assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        assertEquals(0, in.getInt());
+        assertEquals(0, in.getInt());
+
+        assertEquals(6, in.getShort());
+        assertEquals(4, in.getInt());
+        assertEquals(7, in.getInt());
+        assertEquals(8, in.getInt());
+        assertEquals(8L, in.getLong());
+        assertEquals(-1, in.getInt());
+        assertEquals(8, in.getInt());
+        assertEquals(1.5, in.getDouble());
+        assertEquals(2, in.getInt());
+        byte[] text = new byte[2];
+        in.get(text);
+        assertEquals("ab", new String(text, StandardCharsets.UTF_8));
+        assertEquals(8, in.getInt());
+        assertEquals(1_000_000L, in.getLong());
+
+        assertEquals(-1, in.getShort());
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void columnWidthFollowsTypeTest() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgBinaryCopyEncoder copy = new PgBinaryCopyEncoder(bytes);
+        int header = bytes.size();
+        copy.integer(3, "int2");
+        assertEquals(header + 4 + 2, bytes.size());
+
+        assertThrows(IllegalArgumentException.class, () -> copy.integer(3, "numeric"));
+        assertThrows(IllegalArgumentException.class, () -> copy.floating(3.0, "int4"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.telemedicine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks eviction of the least recently used entry and that a value computed while entries are
+ * removed is not cached.
+ */
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedTest() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        AtomicInteger computed = new AtomicInteger();
+        cache.get(1, k -> "a" + computed.incrementAndGet());
+        cache.get(2, k -> "b" + computed.incrementAndGet());
+        cache.get(1, k -> "a" + computed.incrementAndGet());
+        cache.get(3, k -> "c" + computed.incrementAndGet());
+
+        assertEquals("a1", cache.get(1, k -> "new"));
+        assertEquals("new", cache.get(2, k -> "new"));
+        assertEquals(3, computed.get());
+    }
+
+    @Test
+    void valueComputedDuringRemovalIsNotCachedTest() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+        assertEquals("stale", cache.get(1, k -> {
+            cache.removeIf(key -> key == 1); // e.g. a live recording appended samples meanwhile
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get(1, k -> "fresh"));
+        assertEquals("fresh", cache.get(1, k -> "other"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.telemedicine.service;
+
+import com.example.telemedicine.domain.SignalType;
+import com.example.telemedicine.domain.SignalUpload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that staged uploads survive a restart of the service; finalizing needs the database
+ * and is covered by the endpoint tests.
+ */
+class SignalUploadServiceTest {
+
+    @TempDir
+    Path staging;
+
+    @Test
+    void stagedUploadsAreRestoredAfterRestartTest() throws Exception {
+        SignalUploadService before = new SignalUploadService(null, staging.toString(), 1 << 20, 60);
+        SignalUpload upload = before.initiate(7L, SignalType.EMG);
+        byte[] chunk = "1000\n1,2,3,4,".getBytes();
+        before.appendChunk(upload.getUploadId(), 0, chunk);
+
+        SignalUploadService after = new SignalUploadService(null, staging.toString(), 1 << 20, 60);
+        SignalUpload restored = after.getUpload(upload.getUploadId());
+        assertNotNull(restored);
+        assertEquals(7L, restored.getSessionId());
+        assertEquals(SignalType.EMG, restored.getSignalType());
+        assertEquals(chunk.length, restored.getCommittedOffset());
+        assertEquals(4, restored.getSamplesParsed());
+
+        byte[] rest = "5,6\n".getBytes();
+        assertEquals(chunk.length + rest.length,
+                after.appendChunk(upload.getUploadId(), chunk.length, rest).getCommittedOffset());
+        assertTrue(after.cancel(upload.getUploadId()));
+        try (var files = Files.list(staging)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void unreadableStagingFilesAreDroppedTest() throws Exception {
+        Files.writeString(staging.resolve("broken.properties"), "sessionId=x\n");
+        Files.writeString(staging.resolve("broken.part"), "1000\n1,2");
+
+        SignalUploadService service = new SignalUploadService(null, staging.toString(), 1 << 20, 60);
+
+        assertNull(service.getUpload("broken"));
+        try (var files = Files.list(staging)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks buffer reuse and bookkeeping of the arena, the per-class and global retention limits,
+ * and that arenas of worker threads give their share of the budget back when the threads die.
+ */
+class BufferArenaTest {
+
+    @Test
+    void releasedBufferIsReusedTest() {
+        BufferArena arena = new BufferArena(new BufferArena.Budget(1 << 20));
+        double[] first = arena.borrow(1000);
+        assertEquals(1024, first.length);
+        assertEquals(1, arena.getOutstanding());
+
+        arena.release(first);
+        assertEquals(0, arena.getOutstanding());
+        assertEquals(1024, arena.getRetained());
+        assertSame(first, arena.borrow(700));
+        assertEquals(1, arena.getAllocations());
+        assertEquals(0, arena.getRetained());
+    }
+
+    @Test
+    void foreignAndDoubleReleasesAreRejectedTest() {
+        BufferArena arena = new BufferArena(new BufferArena.Budget(1 << 20));
+        double[] buffer = arena.borrow(256);
+        arena.release(buffer);
+
+        assertThrows(IllegalStateException.class, () -> arena.release(buffer));
+        assertThrows(IllegalStateException.class, () -> arena.release(new double[256]));
+    }
+
+    @Test
+    void retentionIsLimitedPerClassAndByBudgetTest() {
+        BufferArena.Budget budget = new BufferArena.Budget(3 * 1024);
+        BufferArena arena = new BufferArena(budget);
+        List<double[]> buffers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) buffers.add(arena.borrow(1024));
+        buffers.forEach(arena::release);
+        assertEquals(BufferArena.MAX_FREE_PER_CLASS * 1024, arena.getRetained());
+
+        // a second arena sharing the budget can only keep what is left of it
+        BufferArena other = new BufferArena(budget);
+        double[] a = other.borrow(1024);
+        double[] b = other.borrow(1024);
+        other.release(a);
+        other.release(b);
+        assertEquals(1024, other.getRetained());
+        assertEquals(3 * 1024, budget.getUsed());
+
+        arena.borrow(1024);
+        assertEquals(2 * 1024, budget.getUsed());
+    }
+
+    @Test
+    void workerThreadsShareBudgetAndReturnItWhenTheyDieTest() throws Exception {
+        BufferArena.Budget budget = new BufferArena.Budget(6 * 4096);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> outstanding = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            outstanding.add(workers.submit(() -> {
+                BufferArena arena = new BufferArena(budget);
+                double[] a = arena.borrow(4096);
+                double[] b = arena.borrow(4096);
+                arena.release(a);
+                arena.release(b);
+                return arena.getOutstanding();
+            }));
+        }
+        for (Future<Integer> result : outstanding) {
+            assertEquals(0, result.get());
+        }
+        assertEquals(6 * 4096, budget.getUsed());
+
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+        workers = null;
+        outstanding = null;
+        for (int i = 0; i < 100 && budget.getUsed() > 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertEquals(0, budget.getUsed());
+    }
+
+    @Test
+    void threadArenaIsWithinGlobalBudgetTest() throws Exception {
+        Thread worker = new Thread(() -> {
+            BufferArena arena = BufferArena.current();
+            arena.release(arena.borrow(1 << 16));
+            assertSame(arena, BufferArena.current());
+        });
+        worker.start();
+        worker.join();
+        assertTrue(BufferArena.getGlobalRetained() <= BufferArena.MAX_GLOBAL_RETAINED_DOUBLES);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.domain.ContractionFeatures;
+import com.example.telemedicine.signal.pipeline.PipelineRun;
+import com.example.telemedicine.signal.pipeline.SignalPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the float pipeline finds the same events as the double one on synthetic recordings,
+ * so {@link SignalPrecision#FLOAT} can be enabled without changing stored features.
+ */
+class FloatPipelineAccuracyTest {
+
+    @Test
+    void floatEcgPipelineFindsSameBeatsTest() {
+        double fs = 500;
+        Random random = new Random(11);
+        double[] raw = new double[60 * 500];
+        int beat = 0;
+        for (int next = 200; next < raw.length - 20; beat++) {
+            next += 330 + random.nextInt(120); // 67-94 bpm with beat-to-beat variability
+            for (int k = 0; k < 20 && next + k < raw.length; k++) {
+                raw[next + k] += 40 * Math.min(k, 20 - k);
+            }
+        }
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] += 512 + random.nextInt(7) - 3 + 30 * Math.sin(2 * Math.PI * 0.3 * i / fs);
+        }
+
+        SignalPipeline pipeline = SignalPipeline.parse(SignalPipelines.DEFAULT_ECG, false);
+        QRSResult expected = pipeline.run(raw, fs, SignalPrecision.DOUBLE).getResult(QRSResult.class);
+        QRSResult actual = pipeline.run(raw, fs, SignalPrecision.FLOAT).getResult(QRSResult.class);
+
+        assertTrue(expected.rPeaks.size() >= beat - 2);
+        assertEquals(expected.rPeaks, actual.rPeaks);
+        assertEquals(expected.qPeaks, actual.qPeaks);
+    }
+
+    @Test
+    void floatEmgPipelineFindsSameContractionsTest() {
+        double fs = 1000;
+        Random random = new Random(5);
+        double[] raw = new double[30 * 1000];
+        for (int i = 0; i < raw.length; i++) {
+            boolean active = (i / 3000) % 2 == 1;
+            raw[i] = 512 + (active ? random.nextInt(301) - 150 : random.nextInt(5) - 2);
+        }
+
+        SignalPipeline pipeline = SignalPipeline.parse(SignalPipelines.DEFAULT_EMG, false);
+        PipelineRun doubles = pipeline.run(raw, fs, SignalPrecision.DOUBLE);
+        PipelineRun floats = pipeline.run(raw, fs, SignalPrecision.FLOAT);
+        double[] filtered = doubles.getSamples();
+        float[] filteredFloat = floats.getFloatSamples();
+        ContractionResult expected = doubles.getResult(ContractionResult.class);
+        ContractionResult actual = floats.getResult(ContractionResult.class);
+
+        assertEquals(5, expected.onsets.size());
+        assertEquals(expected.onsets, actual.onsets);
+        assertEquals(expected.offsets, actual.offsets);
+
+        List<ContractionFeatures> expectedFeatures =
+                EMGProcessor.computeContractionFeatures(filtered, expected.onsets, expected.offsets, fs);
+        List<ContractionFeatures> actualFeatures =
+                EMGProcessor.computeContractionFeatures(filteredFloat, filteredFloat.length, actual.onsets, actual.offsets, fs);
+        assertEquals(expectedFeatures.size(), actualFeatures.size());
+        for (int i = 0; i < expectedFeatures.size(); i++) {
+            assertEquals(expectedFeatures.get(i).getRms(), actualFeatures.get(i).getRms(), 1e-4);
+            assertEquals(expectedFeatures.get(i).getMedianFrequency(), actualFeatures.get(i).getMedianFrequency(), 1e-9);
+        }
+    }
+}
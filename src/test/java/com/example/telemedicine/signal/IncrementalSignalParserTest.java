@@ -0,0 +1,52 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that chunked parsing gives the samples of {@link SignalProcessing#parseRawSamples}
+ * wherever the chunks are split.
+ */
+class IncrementalSignalParserTest {
+
+    @Test
+    void matchesWholeFileParsingForEverySplitTest() {
+        String data = "512, 513,abc,,1e2 , 4 5,-3.5\r";
+        byte[] file = ("250\n" + data + "\nignored,line").getBytes();
+        double[] expected = SignalProcessing.parseRawSamples(data);
+        assertEquals(6, expected.length);
+        assertTrue(Double.isNaN(expected[2]));
+
+        for (int split = 0; split <= file.length; split++) {
+            IncrementalSignalParser parser = new IncrementalSignalParser();
+            parser.feed(file, 0, split);
+            parser.feed(file, split, file.length - split);
+            parser.finish();
+
+            assertEquals(250, parser.getFs());
+            assertArrayEquals(expected, parser.getSamples(), "split at " + split);
+        }
+    }
+
+    @Test
+    void lastSampleWithoutNewlineIsKeptTest() {
+        byte[] file = "100\n1,2,x".getBytes();
+        IncrementalSignalParser parser = new IncrementalSignalParser();
+        parser.feed(file, 0, file.length);
+        parser.finish();
+
+        assertEquals(3, parser.getSampleCount());
+        assertTrue(Double.isNaN(parser.getSamples()[2]));
+    }
+
+    @Test
+    void invalidFilesAreRejectedTest() {
+        IncrementalSignalParser noRate = new IncrementalSignalParser();
+        assertThrows(IllegalArgumentException.class, () -> noRate.feed("abc\n1,2".getBytes(), 0, 7));
+
+        IncrementalSignalParser noData = new IncrementalSignalParser();
+        noData.feed("100\n".getBytes(), 0, 4);
+        assertThrows(IllegalArgumentException.class, noData::finish);
+    }
+}
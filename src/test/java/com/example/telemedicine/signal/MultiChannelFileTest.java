@@ -0,0 +1,51 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parses both multi-channel layouts and the single-channel format.
+ */
+class MultiChannelFileTest {
+
+    @Test
+    void interleavedTest() {
+        MultiChannelFile file = MultiChannelFile.parse("1000,3\n1,10,100,2,20,200,3,30,300,4,40,400".getBytes());
+
+        assertEquals(1000, file.fs);
+        assertEquals(3, file.getChannelCount());
+        assertEquals(4, file.getLength());
+        assertArrayEquals(new double[]{1, 2, 3, 4}, file.channels[0]);
+        assertArrayEquals(new double[]{10, 20, 30, 40}, file.channels[1]);
+        assertArrayEquals(new double[]{100, 200, 300, 400}, file.channels[2]);
+    }
+
+    @Test
+    void columnarTest() {
+        MultiChannelFile file = MultiChannelFile.parse("500,2\n1,2,3\n4,5,x\n".getBytes());
+
+        assertEquals(500, file.fs);
+        assertArrayEquals(new double[]{1, 2, 3}, file.channels[0]);
+        assertEquals(4, file.channels[1][0]);
+        assertTrue(Double.isNaN(file.channels[1][2]));
+    }
+
+    @Test
+    void singleChannelTest() {
+        MultiChannelFile file = MultiChannelFile.parse("100\n1,2,3,4".getBytes());
+
+        assertEquals(1, file.getChannelCount());
+        assertArrayEquals(new double[]{1, 2, 3, 4}, file.channels[0]);
+    }
+
+    @Test
+    void malformedFilesAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> MultiChannelFile.parse("1000,3\n1,2,3,4".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> MultiChannelFile.parse("1000,2\n1,2,3\n4,5".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> MultiChannelFile.parse("1000,3\n1,2\n3,4".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> MultiChannelFile.parse("1000,0\n1,2".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> MultiChannelFile.parse("abc\n1,2".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> MultiChannelFile.parse("1000,2\n".getBytes()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the detector on synthetic ECG with QRS complexes at known positions: a regular rhythm,
+ * recordings shorter than the training period, and a second complex inside the refractory period.
+ */
+class PanTompkinsDetectorTest {
+    private static final double FS = 500;
+    private static final int QRS_HALF_WIDTH = 10;
+
+    /**
+     * @return Baseline noise with a triangular QRS of the given height peaking at every position.
+     */
+    private static double[] ecg(int length, int[] peaks, double[] heights) {
+        Random random = new Random(7);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = 0.01 * random.nextGaussian();
+        }
+        for (int p = 0; p < peaks.length; p++) {
+            for (int k = -QRS_HALF_WIDTH; k <= QRS_HALF_WIDTH; k++) {
+                int i = peaks[p] + k;
+                if (i >= 0 && i < length) {
+                    signal[i] += heights[p] * (1 - Math.abs(k) / (double) QRS_HALF_WIDTH);
+                }
+            }
+        }
+        return signal;
+    }
+
+    private static double[] ones(int count) {
+        double[] heights = new double[count];
+        Arrays.fill(heights, 1);
+        return heights;
+    }
+
+    private static void assertPeaksAt(int[] expected, List<Integer> actual) {
+        assertEquals(expected.length, actual.size(), "beats " + actual);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual.get(i), 1, "beat " + i);
+        }
+    }
+
+    @Test
+    void findsKnownRPeaksTest() {
+        int[] peaks = new int[24];
+        for (int i = 0; i < peaks.length; i++) {
+            peaks[i] = 300 + i * 400 + (i % 3) * 20; // 71-79 bpm
+        }
+        double[] signal = ecg(10_000, peaks, ones(peaks.length));
+
+        QRSResult result = PanTompkinsDetector.detect(signal, FS);
+
+        assertPeaksAt(peaks, result.rPeaks);
+        for (int i = 0; i < peaks.length; i++) {
+            int q = result.qPeaks.get(i);
+            assertTrue(q < result.rPeaks.get(i) && q >= result.rPeaks.get(i) - 0.05 * FS, "Q-peak " + q);
+        }
+    }
+
+    @Test
+    void recordingShorterThanTrainingPeriodTest() {
+        int[] peaks = {150, 550};
+        double[] signal = ecg(750, peaks, ones(peaks.length)); // 1.5 s
+
+        assertPeaksAt(peaks, PanTompkinsDetector.detect(signal, FS).rPeaks);
+
+        float[] floats = new float[signal.length];
+        for (int i = 0; i < signal.length; i++) floats[i] = (float) signal[i];
+        assertPeaksAt(peaks, PanTompkinsDetector.detect(floats, floats.length, FS).rPeaks);
+    }
+
+    @Test
+    void finishAfterTrainingAddsNoBeatsTest() {
+        int[] peaks = {300, 700, 1100, 1500};
+        double[] signal = ecg(1600, peaks, ones(peaks.length));
+        List<Long> beats = new ArrayList<>();
+        PanTompkinsDetector detector = new PanTompkinsDetector(FS);
+        detector.process(signal, 0, signal.length, (r, q) -> beats.add(r));
+        int streamed = beats.size();
+        detector.finish((r, q) -> beats.add(r));
+
+        assertEquals(peaks.length, streamed);
+        assertEquals(peaks.length, beats.size());
+
+        assertTrue(PanTompkinsDetector.detect(new double[0], FS).rPeaks.isEmpty());
+    }
+
+    @Test
+    void complexInsideRefractoryPeriodIsIgnoredTest() {
+        for (int delayMs : new int[]{60, 120, 180}) {
+            assertSecondComplexIgnored(delayMs);
+        }
+    }
+
+    /**
+     * Every beat is followed by a smaller complex, e.g. a tall T wave, the given time later.
+     */
+    private static void assertSecondComplexIgnored(int delayMs) {
+        int beats = 20;
+        int[] peaks = new int[2 * beats];
+        double[] heights = new double[2 * beats];
+        int[] expected = new int[beats];
+        for (int i = 0; i < beats; i++) {
+            expected[i] = 300 + i * 400;
+            peaks[2 * i] = expected[i];
+            heights[2 * i] = 1;
+            peaks[2 * i + 1] = expected[i] + (int) (delayMs * FS / 1000);
+            heights[2 * i + 1] = 0.8;
+        }
+        double[] signal = ecg(8_400, peaks, heights);
+
+        assertPeaksAt(expected, PanTompkinsDetector.detect(signal, FS).rPeaks);
+    }
+}
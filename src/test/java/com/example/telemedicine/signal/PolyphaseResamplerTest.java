@@ -0,0 +1,51 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the filter size bound of the resampler and that both the polyphase and the
+ * interpolating form pass a low-frequency sine through unchanged.
+ */
+class PolyphaseResamplerTest {
+
+    @Test
+    void coPrimeRatesStayWithinCoefficientBudgetTest() {
+        PolyphaseResampler small = PolyphaseResampler.of(2000, 500);
+        PolyphaseResampler prime = PolyphaseResampler.of(99991, 1000);
+
+        assertFalse(small.isInterpolating());
+        assertTrue(prime.isInterpolating());
+        assertTrue(prime.getCoefficientCount() <= PolyphaseResampler.MAX_COEFFICIENTS);
+        assertSame(prime, PolyphaseResampler.of(99991, 1000));
+    }
+
+    @Test
+    void polyphaseKeepsLowFrequencySineTest() {
+        assertSinePreserved(PolyphaseResampler.of(2000, 500), 2000, 500);
+    }
+
+    @Test
+    void interpolatingKeepsLowFrequencySineTest() {
+        PolyphaseResampler resampler = PolyphaseResampler.of(19997, 1000);
+        assertTrue(resampler.isInterpolating());
+        assertSinePreserved(resampler, 19997, 1000);
+    }
+
+    private static void assertSinePreserved(PolyphaseResampler resampler, int fsIn, int fsOut) {
+        double f = 5;
+        double[] in = new double[fsIn * 2];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = 100 + Math.sin(2 * Math.PI * f * i / fsIn);
+        }
+        double[] out = resampler.resample(in);
+
+        assertEquals(resampler.outputLength(in.length), out.length);
+        // skip the edges, where the repeated end values bend the sine
+        for (int m = fsOut / 10; m < out.length - fsOut / 10; m++) {
+            double expected = 100 + Math.sin(2 * Math.PI * f * m / fsOut);
+            assertEquals(expected, out[m], 1e-2, "sample " + m);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the running median with the median of a sorted copy of the same window.
+ */
+class RunningMedianTest {
+
+    private static double reference(double[] values, int end, int size) {
+        double[] window = Arrays.copyOfRange(values, Math.max(0, end - size + 1), end + 1);
+        Arrays.sort(window);
+        int n = window.length;
+        return n % 2 == 1 ? window[n / 2] : (window[n / 2 - 1] + window[n / 2]) / 2.0;
+    }
+
+    @Test
+    void matchesSortedWindowTest() {
+        Random random = new Random(3);
+        double[] values = new double[2000];
+        for (int i = 0; i < values.length; i++) {
+            // few distinct values, so the window holds many duplicates
+            values[i] = random.nextInt(20) - 10;
+        }
+        for (int size : new int[]{1, 2, 7, 64, 201}) {
+            RunningMedian median = new RunningMedian(size);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(reference(values, i, size), median.push(values[i]), "size " + size + ", value " + i);
+                assertEquals(i + 1 >= size, median.isFull());
+            }
+        }
+    }
+
+    @Test
+    void emptyAndInvalidWindowTest() {
+        assertEquals(0, new RunningMedian(5).median());
+        assertThrows(IllegalArgumentException.class, () -> new RunningMedian(0));
+    }
+}
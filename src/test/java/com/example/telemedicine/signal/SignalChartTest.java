@@ -0,0 +1,54 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renders a small annotated chart headlessly in both formats.
+ */
+class SignalChartTest {
+
+    private static SignalChart chart() {
+        double[] time = new double[200];
+        double[] values = new double[200];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = i / 100.0;
+            values[i] = Math.sin(2 * Math.PI * time[i]);
+        }
+        return new SignalChart("Test", 400, 200)
+                .signal(time, values)
+                .markers("Q peaks", new double[]{0.25, 1.25}, new double[]{1, 1})
+                .events("Onset", new double[]{0.5, 1.5}, Color.GREEN)
+                .events("Offset", new double[]{0.8, 1.8}, Color.BLUE);
+    }
+
+    @Test
+    void pngTest() throws Exception {
+        byte[] png = chart().encode(ChartFormat.PNG);
+
+        assertTrue(png.length > 8);
+        assertEquals((byte) 0x89, png[0]);
+        assertEquals("PNG", new String(png, 1, 3, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void svgTest() throws Exception {
+        String svg = new String(chart().encode(ChartFormat.SVG), StandardCharsets.UTF_8);
+
+        assertTrue(svg.contains("<svg"));
+    }
+
+    @Test
+    void emptySignalTest() throws Exception {
+        byte[] png = new SignalChart("Empty", 200, 100)
+                .signal(new double[0], new double[0])
+                .events("Onset", new double[0], Color.GREEN)
+                .encode(ChartFormat.PNG);
+
+        assertEquals((byte) 0x89, png[0]);
+    }
+}
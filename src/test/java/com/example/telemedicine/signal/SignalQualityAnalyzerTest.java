@@ -0,0 +1,87 @@
+package com.example.telemedicine.signal;
+
+import com.example.telemedicine.domain.SignalQuality;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the quality gate on synthetic recordings with each kind of defect.
+ */
+class SignalQualityAnalyzerTest {
+    private final SignalQualityAnalyzer analyzer = new SignalQualityAnalyzer(1023, 0.05, 1.0, 0.5, 0, 0, 0.02);
+
+    private static double[] noise(int n, int seed) {
+        Random random = new Random(seed);
+        double[] raw = new double[n];
+        for (int i = 0; i < n; i++) {
+            raw[i] = 512 + random.nextInt(201) - 100;
+        }
+        return raw;
+    }
+
+    @Test
+    void cleanRecordingIsAcceptedTest() {
+        SignalQuality quality = analyzer.analyze(noise(10_000, 1), 1000, 10.0);
+
+        assertTrue(quality.isAcceptable());
+        assertEquals(0, quality.getInvalidSamples());
+        assertEquals(0.0, quality.getSaturationRatio());
+        assertEquals(0.0, quality.getFlatlineRatio());
+        assertEquals(10_000, quality.getExpectedSamples());
+        assertTrue(quality.getScore() > 0.9);
+    }
+
+    @Test
+    void saturatedRecordingIsRejectedTest() {
+        double[] raw = noise(10_000, 2);
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = Math.max(0, Math.min(1023, (raw[i] - 512) * 8 + 512));
+        }
+        SignalQuality quality = analyzer.analyze(raw, 1000, null);
+
+        assertFalse(quality.isAcceptable());
+        assertTrue(quality.getSaturationRatio() > 0.3);
+        assertTrue(quality.getProblems().get(0).contains("ADC limits"));
+    }
+
+    @Test
+    void shortFlatRunsOnlyLowerTheScoreTest() {
+        double[] raw = noise(10_000, 3);
+        for (int i = 2000; i < 4000; i++) {
+            raw[i] = 512;
+        }
+        SignalQuality quality = analyzer.analyze(raw, 1000, null);
+
+        assertTrue(quality.isAcceptable());
+        assertEquals(0.2, quality.getFlatlineRatio(), 1e-9);
+        assertEquals(2.0, quality.getLongestFlatlineSec(), 1e-9);
+        assertTrue(quality.getScore() < 0.85);
+    }
+
+    @Test
+    void baselineWanderIsMeasuredTest() {
+        double[] raw = noise(10_000, 4);
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = 412 + (raw[i] - 512) * 0.2 + 200.0 * i / raw.length;
+        }
+        SignalQuality quality = analyzer.analyze(raw, 1000, null);
+
+        assertTrue(quality.isAcceptable());
+        assertEquals(180, quality.getBaselineWander(), 5);
+        assertTrue(quality.getScore() < 0.7);
+    }
+
+    @Test
+    void invalidAndMissingSamplesAreRejectedTest() {
+        double[] raw = noise(4_000, 5);
+        raw[100] = Double.NaN;
+        SignalQuality quality = analyzer.analyze(raw, 1000, 5.0);
+
+        assertEquals(1, quality.getInvalidSamples());
+        assertEquals(2, quality.getProblems().size());
+        assertFalse(analyzer.analyze(new double[0], 1000, null).isAcceptable());
+    }
+}
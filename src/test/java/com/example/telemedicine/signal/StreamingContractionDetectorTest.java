@@ -0,0 +1,94 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the contraction detector on synthetic EMG: noise whose amplitude steps up during a
+ * contraction, checking where contractions start and end, the hysteresis and the minimum duration.
+ */
+class StreamingContractionDetectorTest {
+    private static final double FS = 1000;
+    private static final double REST = 0.02;
+    private static final double THRESHOLD_RATIO = 0.3;
+
+    /**
+     * @param segments Pairs of duration in seconds and noise amplitude.
+     */
+    private static double[] emg(double... segments) {
+        int length = 0;
+        for (int s = 0; s < segments.length; s += 2) length += (int) (segments[s] * FS);
+        Random random = new Random(11);
+        double[] signal = new double[length];
+        int i = 0;
+        for (int s = 0; s < segments.length; s += 2) {
+            for (int end = i + (int) (segments[s] * FS); i < end; i++) {
+                signal[i] = segments[s + 1] * random.nextGaussian();
+            }
+        }
+        return signal;
+    }
+
+    private static ContractionResult detect(double[] signal, double minDurationSec) {
+        return StreamingContractionDetector.detect(signal, FS, THRESHOLD_RATIO, minDurationSec);
+    }
+
+    @Test
+    void contractionStartsAndEndsWithBurstTest() {
+        double[] signal = emg(2, REST, 1, 1, 2, REST, 1.5, 1, 2, REST);
+
+        ContractionResult result = detect(signal, 0.25);
+
+        assertEquals(2, result.onsets.size(), "onsets " + result.onsets);
+        assertEquals(2, result.offsets.size(), "offsets " + result.offsets);
+        int tolerance = (int) (0.1 * FS);
+        assertEquals(2000, result.onsets.get(0), tolerance);
+        assertEquals(3000, result.offsets.get(0), tolerance);
+        assertEquals(5000, result.onsets.get(1), tolerance);
+        assertEquals(6500, result.offsets.get(1), tolerance);
+    }
+
+    @Test
+    void hysteresisKeepsDipAboveOffLevelTest() {
+        // the dip stays between the off level (80% of the threshold) and the threshold
+        double[] shallow = emg(2, REST, 1, 1, 0.5, 0.27, 1, 1, 2, REST);
+        ContractionResult one = detect(shallow, 0.25);
+        assertEquals(1, one.onsets.size(), "onsets " + one.onsets);
+        assertEquals(1, one.offsets.size(), "offsets " + one.offsets);
+
+        // a dip below the off level ends the contraction
+        double[] deep = emg(2, REST, 1, 1, 0.5, 0.05, 1, 1, 2, REST);
+        ContractionResult two = detect(deep, 0.25);
+        assertEquals(2, two.onsets.size(), "onsets " + two.onsets);
+        assertEquals(2, two.offsets.size(), "offsets " + two.offsets);
+        assertTrue(two.offsets.get(0) < two.onsets.get(1));
+    }
+
+    @Test
+    void burstShorterThanMinimumDurationIsIgnoredTest() {
+        double[] signal = emg(2, REST, 0.4, 1, 2, REST);
+
+        assertTrue(detect(signal, 0.5).onsets.isEmpty());
+        ContractionResult shortAllowed = detect(signal, 0.1);
+        assertEquals(1, shortAllowed.onsets.size(), "onsets " + shortAllowed.onsets);
+        assertEquals(2000, shortAllowed.onsets.get(0), 0.1 * FS);
+    }
+
+    @Test
+    void contractionAtEndIsClosedTest() {
+        double[] signal = emg(2, REST, 1, 1);
+
+        ContractionResult result = detect(signal, 0.25);
+
+        assertEquals(1, result.onsets.size());
+        assertEquals(signal.length - 1, (int) result.offsets.get(0));
+    }
+
+    @Test
+    void restingMuscleHasNoContractionTest() {
+        assertTrue(detect(emg(5, REST), 0.25).onsets.isEmpty());
+    }
+}
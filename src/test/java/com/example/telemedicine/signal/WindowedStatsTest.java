@@ -0,0 +1,104 @@
+package com.example.telemedicine.signal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the prefix-sum window statistics and the moving RMS with a naive loop over the same
+ * window, for samples held in doubles and in floats.
+ */
+class WindowedStatsTest {
+
+    private static double naiveMean(double[] x, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += x[i];
+        return sum / (to - from);
+    }
+
+    private static double naiveVariance(double[] x, int from, int to) {
+        double mean = naiveMean(x, from, to);
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += (x[i] - mean) * (x[i] - mean);
+        return sum / (to - from);
+    }
+
+    /**
+     * @return 12-bit ADC-like samples around an offset, in millivolts.
+     */
+    private static double[] signal(int length) {
+        Random random = new Random(5);
+        double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = 1.5 + Math.sin(i / 40.0) + 0.1 * random.nextGaussian();
+        }
+        return x;
+    }
+
+    private static void assertMatchesNaive(WindowedStats stats, double[] x) {
+        Random random = new Random(9);
+        for (int k = 0; k < 500; k++) {
+            int from = random.nextInt(x.length - 1);
+            int to = from + 1 + random.nextInt(Math.min(x.length - from, 2000));
+            assertEquals(naiveMean(x, from, to), stats.mean(from, to), 1e-9, "mean " + from + ".." + to);
+            assertEquals(naiveVariance(x, from, to), stats.variance(from, to), 1e-8, "variance " + from + ".." + to);
+            double rms = Math.sqrt(naiveVariance(x, from, to) + naiveMean(x, from, to) * naiveMean(x, from, to));
+            assertEquals(rms, stats.rms(from, to), 1e-9, "rms " + from + ".." + to);
+        }
+    }
+
+    @Test
+    void matchesNaiveWindowStatisticsTest() {
+        double[] x = signal(100_000);
+        try (WindowedStats stats = new WindowedStats(x)) {
+            assertEquals(x.length, stats.length());
+            assertMatchesNaive(stats, x);
+        }
+    }
+
+    @Test
+    void floatSamplesMatchNaiveWindowStatisticsTest() {
+        double[] x = signal(5_000);
+        float[] floats = new float[x.length + 7];
+        double[] widened = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            floats[i] = (float) x[i];
+            widened[i] = floats[i];
+        }
+        try (WindowedStats stats = new WindowedStats(floats, x.length, BufferArena.current())) {
+            assertEquals(x.length, stats.length());
+            assertMatchesNaive(stats, widened);
+        }
+    }
+
+    @Test
+    void movingRmsMatchesNaiveTest() {
+        double[] x = signal(20_000);
+        try (WindowedStats stats = new WindowedStats(x, x.length, BufferArena.current())) {
+            for (int window : new int[]{1, 50, 1000}) {
+                double[] out = new double[x.length + 3];
+                stats.movingRms(window, out);
+                assertArrayEquals(Arrays.copyOf(out, x.length), stats.movingRms(window));
+                for (int i = 0; i < x.length; i++) {
+                    int from = Math.max(0, i + 1 - window);
+                    double energy = 0;
+                    for (int j = from; j <= i; j++) energy += x[j] * x[j];
+                    assertEquals(Math.sqrt(energy / (i + 1 - from)), out[i], 1e-9, "window " + window + " at " + i);
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> stats.movingRms(0));
+        }
+    }
+
+    @Test
+    void emptyWindowTest() {
+        WindowedStats stats = new WindowedStats(new double[]{1, 2, 3});
+        assertEquals(0, stats.mean(2, 2));
+        assertEquals(0, stats.variance(2, 2));
+        assertEquals(0, stats.rms(2, 2));
+        assertEquals(0, new WindowedStats(new float[0], 0, null).length());
+    }
+}
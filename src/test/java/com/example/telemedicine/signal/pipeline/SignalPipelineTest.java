@@ -0,0 +1,178 @@
+package com.example.telemedicine.signal.pipeline;
+
+import com.example.telemedicine.config.SignalPipelines;
+import com.example.telemedicine.domain.LiveMarker;
+import com.example.telemedicine.signal.ContractionResult;
+import com.example.telemedicine.signal.PanTompkinsDetector;
+import com.example.telemedicine.signal.SignalPrecision;
+import com.example.telemedicine.signal.SignalProcessing;
+import com.example.telemedicine.signal.StreamingContractionDetector;
+import com.example.telemedicine.signal.StreamingDetector;
+import com.example.telemedicine.signal.StreamingFilter;
+import org.junit.jupiter.api.Test;
+import uk.me.berndporr.iirj.Butterworth;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that configured pipelines reproduce the hard-coded chains they replace, with and
+ * without stage fusion, that live recordings get the same analysis, and that definitions are
+ * validated when they are parsed.
+ */
+class SignalPipelineTest {
+
+    private static double[] syntheticEmg(double fs, int seconds) {
+        Random random = new Random(5);
+        double[] raw = new double[(int) (seconds * fs)];
+        for (int i = 0; i < raw.length; i++) {
+            boolean active = (i / (int) (3 * fs)) % 2 == 1;
+            raw[i] = 512 + (active ? random.nextInt(301) - 150 : random.nextInt(5) - 2)
+                    + 20 * Math.sin(2 * Math.PI * 60 * i / fs);
+        }
+        return raw;
+    }
+
+    private static void filtfilt(Butterworth filter, double[] samples) {
+        for (int i = 0; i < samples.length; i++) samples[i] = filter.filter(samples[i]);
+        filter.reset();
+        for (int i = samples.length - 1; i >= 0; i--) samples[i] = filter.filter(samples[i]);
+    }
+
+    @Test
+    void fusedPipelineMatchesSeparatePassesTest() {
+        double fs = 1000;
+        double[] raw = syntheticEmg(fs, 30);
+
+        double[] expected = SignalProcessing.convertToMV(raw, 3.0, 10, 1000);
+        Butterworth bandpass = new Butterworth();
+        bandpass.bandPass(4, fs, 175, 250);
+        filtfilt(bandpass, expected);
+        Butterworth notch = new Butterworth();
+        notch.bandStop(4, fs, 60, 2);
+        filtfilt(notch, expected);
+        ContractionResult expectedContractions =
+                StreamingContractionDetector.detect(expected, expected.length, fs, 0.165, 0.10, null);
+
+        SignalPipeline unfused = SignalPipeline.parse(SignalPipelines.DEFAULT_EMG, false);
+        SignalPipeline fused = SignalPipeline.parse(SignalPipelines.DEFAULT_EMG, true);
+        assertEquals(4, unfused.getTimings().size());
+        assertEquals(2, fused.getTimings().size());
+        assertEquals("mv(3,10,1000)+bandpass(50,300,4)+notch(60,30)", fused.getTimings().get(0).getStage());
+
+        PipelineRun separate = unfused.run(raw, fs, SignalPrecision.DOUBLE);
+        assertArrayEquals(expected, separate.getSamples(), 1e-12);
+
+        PipelineRun run = fused.run(raw, fs, SignalPrecision.DOUBLE);
+        double peak = 0, maxError = 0;
+        // edge transients differ when the filters are reordered and the 2 Hz wide notch rings for
+        // a few seconds, so compare away from the ends
+        for (int i = 5000; i < raw.length - 5000; i++) {
+            peak = Math.max(peak, Math.abs(expected[i]));
+            maxError = Math.max(maxError, Math.abs(expected[i] - run.getSamples()[i]));
+        }
+        assertTrue(maxError < 1e-6 * peak, "fused output differs by " + maxError);
+
+        ContractionResult contractions = run.getResult(ContractionResult.class);
+        assertEquals(expectedContractions.onsets, contractions.onsets);
+        assertEquals(expectedContractions.offsets, contractions.offsets);
+        assertEquals(1, fused.getTimings().get(1).getRuns());
+    }
+
+    @Test
+    void millivoltStageMatchesConvertToMvTest() {
+        double[] raw = new double[1000];
+        Random random = new Random(3);
+        for (int i = 0; i < raw.length; i++) raw[i] = random.nextInt(4096);
+
+        for (String definition : List.of("mv(3.3,12,1100)", "mv(3.3,12,1100) | notch(50,30)")) {
+            SignalPipeline pipeline = SignalPipeline.parse(definition, true);
+            double[] run = pipeline.run(raw, 1000, SignalPrecision.DOUBLE).getSamples();
+            double[] expected = SignalProcessing.convertToMV(raw, 3.3, 12, 1100);
+            if (definition.contains("notch")) {
+                Butterworth notch = new Butterworth();
+                notch.bandStop(4, 1000, 50, 50.0 / 30);
+                filtfilt(notch, expected);
+                for (int i = 0; i < raw.length; i++) assertEquals(expected[i], run[i], 1e-9, definition);
+            } else {
+                assertArrayEquals(expected, run, definition);
+            }
+        }
+        double[] sample = {2048};
+        assertEquals(0, SignalProcessing.convertToMV(sample, 3.3, 12, 1100)[0], 1e-12);
+    }
+
+    @Test
+    void floatRunMatchesDoubleRunTest() {
+        double fs = 1000;
+        double[] raw = syntheticEmg(fs, 30);
+        SignalPipeline pipeline = SignalPipeline.parse(SignalPipelines.DEFAULT_EMG, true);
+
+        PipelineRun doubles = pipeline.run(raw, fs, SignalPrecision.DOUBLE);
+        PipelineRun floats = pipeline.run(raw, fs, SignalPrecision.FLOAT);
+
+        assertNull(floats.getSamples());
+        assertEquals(raw.length, floats.getFloatSamples().length);
+        assertEquals(doubles.getResult(ContractionResult.class).onsets, floats.getResult(ContractionResult.class).onsets);
+    }
+
+    @Test
+    void europeanNotchRemovesFiftyHertzTest() {
+        double fs = 500;
+        double[] raw = new double[10 * 500];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = 512 + 100 * Math.sin(2 * Math.PI * 50 * i / fs);
+        }
+        PipelineRun american = SignalPipeline.parse("mv(3.3,10,1100) | notch(60,30)", true).run(raw, fs, SignalPrecision.DOUBLE);
+        PipelineRun european = SignalPipeline.parse("mv(3.3,10,1100) | notch(50,30)", true).run(raw, fs, SignalPrecision.DOUBLE);
+
+        double americanPeak = 0, europeanPeak = 0;
+        for (int i = 1000; i < raw.length - 1000; i++) {
+            americanPeak = Math.max(americanPeak, Math.abs(american.getSamples()[i] - american.getSamples()[i - 1]));
+            europeanPeak = Math.max(europeanPeak, Math.abs(european.getSamples()[i] - european.getSamples()[i - 1]));
+        }
+        assertTrue(europeanPeak < 0.01 * americanPeak);
+    }
+
+    @Test
+    void streamingFilterUsesPipelineStagesTest() {
+        SignalPipeline pipeline = SignalPipeline.parse("mv(3.0,10,1000)", true);
+        StreamingFilter filter = pipeline.newStreamingFilter(1000);
+
+        assertEquals(0.0, filter.process(512), 1e-12);
+        assertEquals(1.5, filter.process(1024), 1e-12);
+    }
+
+    @Test
+    void liveAnalysisUsesPipelineStagesTest() {
+        double fs = 1000;
+        double[] raw = syntheticEmg(fs, 30);
+        SignalPipeline pipeline = SignalPipeline.parse("mv(3.0,10,1000) | bandpass(50,300,4) | contractions(0.2,0.5)", false);
+        PipelineRun run = pipeline.run(raw, fs, SignalPrecision.DOUBLE);
+
+        ContractionResult finished = pipeline.analyze(run.getSamples(), fs).getResult(ContractionResult.class);
+        assertEquals(run.getResult(ContractionResult.class).onsets, finished.onsets);
+
+        StreamingDetector live = pipeline.newStreamingDetector(fs);
+        assertInstanceOf(StreamingContractionDetector.class, live);
+        assertInstanceOf(PanTompkinsDetector.class, SignalPipeline.parse(SignalPipelines.DEFAULT_ECG, false).newStreamingDetector(500));
+
+        List<LiveMarker> markers = new ArrayList<>();
+        SignalPipeline.parse("mv(3.0,10,1000)", false).newStreamingDetector(fs).process(1.0, 0, markers);
+        assertTrue(markers.isEmpty());
+    }
+
+    @Test
+    void invalidDefinitionsAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> SignalPipeline.parse("mv(3.0,10,1000) | lowpass(40)", true));
+        assertThrows(IllegalArgumentException.class, () -> SignalPipeline.parse("notch(60)", true));
+        assertThrows(IllegalArgumentException.class, () -> SignalPipeline.parse("qrs | qrs", true));
+        assertThrows(IllegalArgumentException.class, () -> SignalPipeline.parse("bandpass(300,50,4)", true));
+        assertThrows(IllegalArgumentException.class, () -> SignalPipeline.parse(" ", true));
+        assertEquals("mv(3,10,1000) | notch(50,30) | qrs",
+                SignalPipeline.parse("mv(3.0, 10, 1000)|notch(50.0,30)| qrs", true).getDefinition());
+    }
+}